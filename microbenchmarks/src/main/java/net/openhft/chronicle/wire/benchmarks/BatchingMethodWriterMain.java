@@ -0,0 +1,93 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BatchingMarshallableOut;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a method writer writing through a BatchingMarshallableOut,
+ * where a batch size of 1 is a document per call as a plain method writer does.
+ */
+@State(Scope.Thread)
+public class BatchingMethodWriterMain {
+    @Param({"1", "8", "64", "512"})
+    int batchSize;
+
+    @Param({"BINARY", "TEXT"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(1 << 20);
+    BatchingMarshallableOut batch;
+    Events events;
+    long count;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(BatchingMethodWriterMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.Throughput)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        Wire wire = WireType.valueOf(wireType).apply(bytes);
+        batch = new BatchingMarshallableOut(wire)
+                .maxMessages(batchSize)
+                .maxBytes(Long.MAX_VALUE)
+                .maxBatchAge(1, TimeUnit.DAYS);
+        events = batch.methodWriter(Events.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.releaseLast();
+    }
+
+    @Benchmark
+    public void write() {
+        events.onPrice("EURUSD", 1.1234 + (count & 15) * 1e-4, count++);
+        // only discard what has been written between batches.
+        if (batch.pendingMessages() == 0 && bytes.writePosition() > 512 << 10)
+            bytes.clear();
+    }
+
+    public interface Events {
+        void onPrice(String symbol, double price, long sequence);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.wire.ContiguousLongValueBitSet;
+import net.openhft.chronicle.wire.LongValueBitSet;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares LongValueBitSet, with a LongValue per word, and ContiguousLongValueBitSet on the same wire format,
+ * used as a slot allocator with a million bits.
+ */
+@State(Scope.Thread)
+public class BitSetMain {
+    static final int BITS = 1 << 20;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect();
+    final Bytes<?> bytes2 = Bytes.allocateElasticDirect();
+    LongValueBitSet longValueBitSet;
+    ContiguousLongValueBitSet contiguous;
+    int next;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(BitSetMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        Wire wire = WireType.BINARY.apply(bytes);
+        wire.usePadding(true);
+        longValueBitSet = new LongValueBitSet(BITS, wire);
+        Wire wire2 = WireType.BINARY.apply(bytes2);
+        wire2.usePadding(true);
+        contiguous = new ContiguousLongValueBitSet(BITS, wire2);
+        // one in 64 slots in use
+        for (int i = 0; i < BITS; i += 64) {
+            longValueBitSet.set(i);
+            contiguous.set(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Closeable.closeQuietly(longValueBitSet, contiguous);
+        bytes.releaseLast();
+        bytes2.releaseLast();
+    }
+
+    @Benchmark
+    public int longValueCardinality() {
+        return longValueBitSet.cardinality();
+    }
+
+    @Benchmark
+    public int contiguousCardinality() {
+        return contiguous.cardinality();
+    }
+
+    @Benchmark
+    public int longValueScan() {
+        int count = 0;
+        for (int i = longValueBitSet.nextSetBit(0); i >= 0; i = longValueBitSet.nextSetBit(i + 1))
+            count++;
+        return count;
+    }
+
+    @Benchmark
+    public int contiguousScan() {
+        int count = 0;
+        for (int i = contiguous.nextSetBit(0); i >= 0; i = contiguous.nextSetBit(i + 1))
+            count++;
+        return count;
+    }
+
+    @Benchmark
+    public int longValueSetClearRange() {
+        int from = next = (next + 4099) % (BITS - 4096);
+        longValueBitSet.set(from + 1, from + 4096);
+        longValueBitSet.clear(from + 1, from + 4096);
+        return from;
+    }
+
+    @Benchmark
+    public int contiguousSetClearRange() {
+        int from = next = (next + 4099) % (BITS - 4096);
+        contiguous.set(from + 1, from + 4096);
+        contiguous.clear(from + 1, from + 4096);
+        return from;
+    }
+}
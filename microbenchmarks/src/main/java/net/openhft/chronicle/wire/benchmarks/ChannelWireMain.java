@@ -0,0 +1,165 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of small messages sent over a loopback socket or a pipe
+ * <ul>
+ *     <li>STREAM: WireToOutputStream and InputStreamToWire, two writes per message</li>
+ *     <li>CHANNEL: WireToChannel and ChannelToWire, which batch many messages per write and read</li>
+ * </ul>
+ * Each operation is one message, written by the benchmark thread and read by a background thread.
+ */
+@State(Scope.Thread)
+public class ChannelWireMain {
+    static final int BATCH = 1000;
+
+    @Param({"SOCKET", "PIPE"})
+    String transport;
+
+    @Param({"STREAM", "CHANNEL"})
+    String impl;
+
+    @Param({"BINARY", "TEXT"})
+    String wireType;
+
+    WritableByteChannel out;
+    ReadableByteChannel in;
+    Closeable[] closeables;
+    WireToOutputStream wtos;
+    WireToChannel wtc;
+    Thread reader;
+    volatile long read;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(ChannelWireMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        if (transport.equals("SOCKET")) {
+            ServerSocketChannel ssc = ServerSocketChannel.open();
+            ssc.bind(new InetSocketAddress("localhost", 0));
+            SocketChannel client = SocketChannel.open(ssc.getLocalAddress());
+            SocketChannel server = ssc.accept();
+            client.socket().setTcpNoDelay(true);
+            out = client;
+            in = server;
+            closeables = new Closeable[]{client, server, ssc};
+        } else {
+            Pipe pipe = Pipe.open();
+            out = pipe.sink();
+            in = pipe.source();
+            closeables = new Closeable[]{pipe.sink(), pipe.source()};
+        }
+        WireType wt = WireType.valueOf(wireType);
+        Runnable reading;
+        if (impl.equals("STREAM")) {
+            OutputStream os = Channels.newOutputStream(out);
+            InputStream is = Channels.newInputStream(in);
+            wtos = new WireToOutputStream(wt, os);
+            InputStreamToWire istw = new InputStreamToWire(wt, is);
+            reading = () -> {
+                try {
+                    for (; ; )
+                        read(istw.readOne());
+                } catch (IOException expected) {
+                    // closed
+                }
+            };
+        } else {
+            wtc = new WireToChannel(wt, out);
+            ChannelToWire ctw = new ChannelToWire(wt, in);
+            reading = () -> {
+                try {
+                    for (; ; )
+                        read(ctw.readOne());
+                } catch (IOException expected) {
+                    // closed
+                }
+            };
+        }
+        reader = new Thread(reading, "reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    void read(Wire wire) {
+        wire.read("price").float64();
+        read = wire.read("quantity").int64();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        for (Closeable closeable : closeables)
+            closeable.close();
+        reader.join(1000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void send() throws IOException {
+        if (wtos != null) {
+            for (int i = 0; i < BATCH; i++) {
+                write(wtos.getWire(), i);
+                wtos.flush();
+            }
+        } else {
+            for (int i = 0; i < BATCH; i++) {
+                write(wtc.startMessage(), i);
+                wtc.endMessage();
+            }
+            wtc.flush();
+        }
+    }
+
+    static void write(Wire wire, long quantity) {
+        wire.write("price").float64(100.25)
+                .write("quantity").int64(quantity);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.CompressionCodecs;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compression codecs on a batch of market data updates, written as YAML and as binary.
+ * The compression ratio of each is printed on setup.
+ */
+@State(Scope.Thread)
+public class CompressionMain {
+    @Param({"lzw", "gzip", "lz4"})
+    String compression;
+
+    @Param({"YAML", "BINARY"})
+    String format;
+
+    final Bytes<?> payload = Bytes.allocateElasticDirect();
+    final Bytes<?> compressed = Bytes.allocateElasticDirect();
+    final Bytes<?> uncompressed = Bytes.allocateElasticDirect();
+    final Bytes<?> wireBytes = Bytes.allocateElasticDirect();
+    BinaryWire wire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(CompressionMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        String[] symbols = {"EURUSD", "GBPUSD", "USDJPY", "AUDUSD", "USDCHF"};
+        double[] mids = {1.1234, 1.2712, 109.45, 0.7321, 0.9187};
+        // a batch of 100 top of book updates
+        WireType wireType = WireType.valueOf(format);
+        for (int i = 0; i < 100; i++) {
+            int s = random.nextInt(symbols.length);
+            double mid = mids[s] += (random.nextInt(11) - 5) * 1e-5;
+            long time = 1_600_000_000_000_000_000L + i * 12_345L;
+            wireType.apply(payload).write("md").marshallable(m -> m
+                    .write("symbol").text(symbols[s])
+                    .write("transactTime").int64(time)
+                    .write("bid").float64(Math.round((mid - 5e-5) * 1e5) / 1e5)
+                    .write("bidQty").float64(1e6 * (1 + random.nextInt(10)))
+                    .write("ask").float64(Math.round((mid + 5e-5) * 1e5) / 1e5)
+                    .write("askQty").float64(1e6 * (1 + random.nextInt(10))));
+        }
+        wire = ((BinaryWire) WireType.COMPRESSED_BINARY.apply(wireBytes)).setCompression(compression);
+        CompressionCodecs.compress(compression, payload, compressed);
+        payload.readPosition(0);
+        System.out.printf("%n%s %s: %,d bytes compressed to %,d bytes, ratio %.2f%n",
+                compression, format, payload.readRemaining(), compressed.readRemaining(),
+                (double) payload.readRemaining() / compressed.readRemaining());
+    }
+
+    @TearDown
+    public void tearDown() {
+        payload.releaseLast();
+        compressed.releaseLast();
+        uncompressed.releaseLast();
+        wireBytes.releaseLast();
+    }
+
+    @Benchmark
+    public long compress() {
+        compressed.clear();
+        CompressionCodecs.compress(compression, payload, compressed);
+        payload.readPosition(0);
+        return compressed.readRemaining();
+    }
+
+    @Benchmark
+    public long writeAndReadWire() {
+        wireBytes.clear();
+        wire.write("batch").bytes(payload);
+        uncompressed.clear();
+        wire.read("batch").bytes(uncompressed);
+        return uncompressed.readRemaining();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing then reading order book snapshots, of which only a few fields change each time,
+ * with BINARY and DELTA_BINARY. The size of each message is printed in the setup.
+ */
+@State(Scope.Thread)
+public class DeltaWireMain {
+    @Param({"BINARY", "DELTA_BINARY"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(64 << 10);
+    final BookSnapshot snapshot = new BookSnapshot();
+    final BookSnapshot using = new BookSnapshot();
+    Wire writer;
+    Wire reader;
+    int count;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(DeltaWireMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        WireType type = WireType.valueOf(wireType);
+        writer = type.apply(bytes);
+        reader = type.apply(bytes);
+        for (int i = 0; i < 1000; i++)
+            writeAndRead();
+        long start = bytes.writePosition();
+        writeAndRead();
+        System.out.println(wireType + " message size: " + (bytes.writePosition() - start) + " bytes");
+    }
+
+    @Benchmark
+    public BookSnapshot writeAndRead() {
+        // the writer and reader keep their state as the bytes are reused.
+        if (bytes.writePosition() > 32 << 10)
+            bytes.clear();
+        snapshot.next(count++);
+        try (DocumentContext dc = writer.writingDocument()) {
+            dc.wire().write("book").marshallable(snapshot);
+        }
+        try (DocumentContext dc = reader.readingDocument()) {
+            dc.wire().read("book").marshallable(using);
+        }
+        return using;
+    }
+
+    static class BookSnapshot extends SelfDescribingMarshallable {
+        String symbol = "EURUSD";
+        long eventTime;
+        double bid0, bid1, bid2;
+        double ask0, ask1, ask2;
+        long bidQty0, bidQty1, bidQty2;
+        long askQty0, askQty1, askQty2;
+
+        void next(int i) {
+            eventTime = 1_600_000_000_000_000L + i * 250L;
+            // typically only the top of the book moves.
+            bid0 = (11234 + (i & 3)) / 1e4;
+            bid1 = 1.1233;
+            bid2 = 1.1232;
+            ask0 = (11236 + (i & 3)) / 1e4;
+            ask1 = 1.1237;
+            ask2 = 1.1238;
+            bidQty0 = 1_000_000 + (i & 7) * 10_000;
+            bidQty1 = 2_000_000;
+            bidQty2 = 5_000_000;
+            askQty0 = 1_000_000 + (i & 15) * 10_000;
+            askQty1 = 2_000_000;
+            askQty2 = 5_000_000;
+        }
+    }
+}
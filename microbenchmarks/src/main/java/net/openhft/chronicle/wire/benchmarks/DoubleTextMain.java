@@ -0,0 +1,151 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.DoubleFormatter;
+import net.openhft.chronicle.wire.DoubleParser;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads a cycle of doubles as text.
+ * <ul>
+ *     <li>format/parse: <code>bytes.append(double)</code> and <code>bytes.parseDouble()</code> (BYTES) compared
+ *     with DoubleFormatter and DoubleParser (SHORTEST)</li>
+ *     <li>writeWire/readWire: a field per double through each text wire type</li>
+ * </ul>
+ * The doubles are prices with a few decimal places, as are common in messages, unless <code>-Drandom=true</code>
+ * when they are random bit patterns.
+ */
+@State(Scope.Benchmark)
+public class DoubleTextMain {
+    static final int VALUES = 1 << 10;
+
+    @Param({"BYTES", "SHORTEST"})
+    String impl;
+
+    @Param({"TEXT", "YAML", "JSON"})
+    String wireType;
+
+    double[] values;
+    Bytes<?> bytes;
+    Bytes<?> text;
+    Bytes<?> wireBytes;
+    Wire wire;
+    long wireEnd;
+    int next;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(DoubleTextMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        boolean randomBits = Jvm.getBoolean("random");
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            double d;
+            do {
+                d = randomBits
+                        ? Double.longBitsToDouble(random.nextLong())
+                        : random.nextInt(10_000_000) / 1e4;
+            } while (!Double.isFinite(d));
+            values[i] = d;
+        }
+        bytes = Bytes.allocateElasticDirect(64);
+
+        text = Bytes.allocateElasticDirect(VALUES * 32L);
+        for (double d : values)
+            text.append(Double.toString(d)).append(' ');
+
+        wireBytes = Bytes.allocateElasticDirect(VALUES * 32L);
+        wire = WireType.valueOf(wireType).apply(wireBytes);
+        for (double d : values)
+            wire.write("price").float64(d);
+        wireEnd = wireBytes.writePosition();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.releaseLast();
+        text.releaseLast();
+        wireBytes.releaseLast();
+    }
+
+    @Benchmark
+    public long format() {
+        double d = values[next++ & (VALUES - 1)];
+        bytes.clear();
+        if (impl.equals("BYTES"))
+            bytes.append(d);
+        else
+            DoubleFormatter.appendDouble(bytes, d);
+        return bytes.writePosition();
+    }
+
+    @Benchmark
+    public double parse() {
+        if (text.readRemaining() <= 0)
+            text.readPosition(0);
+        return impl.equals("BYTES")
+                ? text.parseDouble()
+                : DoubleParser.parseDouble(text);
+    }
+
+    @Benchmark
+    public long writeWire() {
+        if (wireBytes.writePosition() > wireEnd)
+            wire.clear();
+        wire.write("price").float64(values[next++ & (VALUES - 1)]);
+        return wireBytes.writePosition();
+    }
+
+    @Benchmark
+    public double readWire() {
+        if (wireBytes.readPosition() >= wireEnd) {
+            wireBytes.readPosition(0);
+            wire.clear();
+            wireBytes.writePosition(wireEnd);
+        }
+        return wire.read("price").float64();
+    }
+}
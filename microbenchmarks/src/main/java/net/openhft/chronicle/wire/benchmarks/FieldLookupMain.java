@@ -0,0 +1,112 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.FieldNameIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving out of order field names with the TreeMap previously used by WireMarshaller
+ * and the FieldNameIndex which reads the name directly from the wire.
+ */
+@State(Scope.Thread)
+public class FieldLookupMain {
+    @Param({"5", "20", "80"})
+    int fields;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(4096);
+    final BinaryWire wire = new BinaryWire(bytes);
+    final StringBuilder sb = new StringBuilder();
+    TreeMap<CharSequence, Integer> treeMap;
+    FieldNameIndex<Integer> index;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(FieldLookupMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    private static int compare(CharSequence cs0, CharSequence cs1) {
+        for (int i = 0, len = Math.min(cs0.length(), cs1.length()); i < len; i++) {
+            int cmp = Character.compare(cs0.charAt(i), cs1.charAt(i));
+            if (cmp != 0)
+                return cmp;
+        }
+        return Integer.compare(cs0.length(), cs1.length());
+    }
+
+    @Setup
+    public void setup() {
+        String[] names = new String[fields];
+        Integer[] values = new Integer[fields];
+        treeMap = new TreeMap<>(FieldLookupMain::compare);
+        for (int i = 0; i < fields; i++) {
+            names[i] = "field" + i + (i % 3 == 0 ? "Price" : i % 3 == 1 ? "Quantity" : "Id");
+            values[i] = i;
+            treeMap.put(names[i], i);
+        }
+        index = new FieldNameIndex<>(names, values);
+        // written in reverse order so every field is out of order.
+        for (int i = fields - 1; i >= 0; i--)
+            wire.write(names[i]).int32(i);
+    }
+
+    @Benchmark
+    public int treeMap() {
+        bytes.readPosition(0);
+        int sum = 0;
+        while (wire.hasMore()) {
+            wire.read(sb);
+            Integer i = treeMap.get(sb);
+            sum += i + wire.getValueIn().int32();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int fieldNameIndex() {
+        bytes.readPosition(0);
+        int sum = 0;
+        while (wire.hasMore()) {
+            Integer i = wire.readField(index, sb);
+            sum += i + wire.getValueIn().int32();
+        }
+        return sum;
+    }
+}
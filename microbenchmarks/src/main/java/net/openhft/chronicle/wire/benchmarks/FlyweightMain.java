@@ -0,0 +1,103 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads 2 of the 30 fields of a document
+ * <ul>
+ *     <li>readMarshallable: into a reused DTO, decoding every field</li>
+ *     <li>flyweight: through a Flyweight view, which finds each field and decodes only the two read</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+public class FlyweightMain {
+    @Param({"BINARY_LIGHT", "TEXT"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(4096);
+    final Wide wide = new Wide();
+    final WideView view = Flyweight.of(WideView.class);
+    Wire wire;
+    long end;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(FlyweightMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = WireType.valueOf(wireType).apply(bytes);
+        Wide written = new Wide();
+        written.l0 = written.l3 = written.l7 = 1_600_000_000_000_000_000L;
+        written.d0 = written.d5 = written.d9 = 1.1234;
+        written.s0 = written.s4 = written.s9 = "EURUSD";
+        written.writeMarshallable(wire);
+        end = bytes.writePosition();
+    }
+
+    @Benchmark
+    public double readMarshallable() {
+        bytes.readPositionRemaining(0, end);
+        wide.readMarshallable(wire);
+        return wide.d5 + wide.l7;
+    }
+
+    @Benchmark
+    public double flyweight() {
+        bytes.readPositionRemaining(0, end);
+        view.bind(wire);
+        return view.d5() + view.l7();
+    }
+
+    public interface WideView extends Flyweight {
+        double d5();
+
+        long l7();
+    }
+
+    public static class Wide extends SelfDescribingMarshallable {
+        long l0, l1, l2, l3, l4, l5, l6, l7, l8, l9;
+        double d0, d1, d2, d3, d4, d5, d6, d7, d8, d9;
+        String s0, s1, s2, s3, s4, s5, s6, s7, s8, s9;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing and reading DTOs of 10 and 40 fields with the reflective WireMarshaller,
+ * and with the generated marshallers enabled with -Dwire.generateMarshallers=true
+ */
+@State(Scope.Thread)
+public class GeneratedMarshallerMain {
+    @Param({"BINARY", "TEXT"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(4096);
+    final Dto10 dto10 = new Dto10();
+    final Dto40 dto40 = new Dto40();
+    Wire wire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(GeneratedMarshallerMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = WireType.valueOf(wireType).apply(bytes);
+        dto10.symbol = "EURUSD";
+        dto10.account = "ACC-12345";
+        dto10.id = 1234567890123L;
+        dto10.price = 1.1234;
+        dto10.qty = 1e6;
+        dto10.side = 1;
+        dto10.active = true;
+        dto10.rate = 0.25f;
+        dto10.count = 12;
+        dto10.time = 1600000000000000000L;
+
+        dto40.s0 = "alpha";
+        dto40.s5 = "beta";
+        dto40.i3 = 333;
+        dto40.l7 = 777777777L;
+        dto40.d1 = 1.5;
+        dto40.d9 = 9.25;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dwire.generateMarshallers=false")
+    public Object reflective10() {
+        return roundTrip(dto10);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dwire.generateMarshallers=true")
+    public Object generated10() {
+        return roundTrip(dto10);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dwire.generateMarshallers=false")
+    public Object reflective40() {
+        return roundTrip(dto40);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dwire.generateMarshallers=true")
+    public Object generated40() {
+        return roundTrip(dto40);
+    }
+
+    private Object roundTrip(SelfDescribingMarshallable dto) {
+        bytes.clear();
+        dto.writeMarshallable(wire);
+        dto.readMarshallable(wire);
+        return dto;
+    }
+
+    public static class Dto10 extends SelfDescribingMarshallable {
+        String symbol;
+        String account;
+        long id;
+        double price;
+        double qty;
+        int side;
+        boolean active;
+        float rate;
+        short count;
+        long time;
+    }
+
+    public static class Dto40 extends SelfDescribingMarshallable {
+        String s0, s1, s2, s3, s4, s5, s6, s7, s8, s9;
+        int i0, i1, i2, i3, i4, i5, i6, i7, i8, i9;
+        long l0, l1, l2, l3, l4, l5, l6, l7, l8, l9;
+        double d0, d1, d2, d3, d4, d5, d6, d7, d8, d9;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.pool.StringInterner;
+import net.openhft.chronicle.wire.AdaptiveStringInterner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the shared StringInterner with an AdaptiveStringInterner of the same size, interning a stream of
+ * symbols from a StringBuilder, as a wire does when reading text.
+ * <ul>
+ *     <li>LOW: 500 symbols, which fit in either interner</li>
+ *     <li>HIGH: 90% of lookups are for 2,000 symbols and 10% are for ids which are only seen once</li>
+ * </ul>
+ * Use <code>-Dthreads=4</code> to intern from four threads at once.
+ */
+@State(Scope.Benchmark)
+public class InternerMain {
+    static final int STREAM = 1 << 16;
+
+    @Param({"LOW", "HIGH"})
+    String cardinality;
+
+    @Param({"STRING_INTERNER", "ADAPTIVE"})
+    String impl;
+
+    String[] stream;
+    StringInterner stringInterner;
+    AdaptiveStringInterner adaptive;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(InternerMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .threads(Integer.getInteger("threads", 1))
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        stream = new String[STREAM];
+        for (int i = 0; i < STREAM; i++) {
+            if (cardinality.equals("LOW"))
+                stream[i] = "SYM" + random.nextInt(500);
+            else if (random.nextInt(10) > 0)
+                stream[i] = "SYM" + random.nextInt(2_000);
+            else
+                stream[i] = "ID" + random.nextLong();
+        }
+        stringInterner = new StringInterner(4096);
+        adaptive = new AdaptiveStringInterner(4096, Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (impl.equals("ADAPTIVE"))
+            System.out.println(adaptive);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final StringBuilder sb = new StringBuilder();
+        int next;
+    }
+
+    @Benchmark
+    public String intern(Cursor cursor) {
+        StringBuilder sb = cursor.sb;
+        sb.setLength(0);
+        sb.append(stream[cursor.next++ & (STREAM - 1)]);
+        return impl.equals("ADAPTIVE")
+                ? adaptive.intern(sb)
+                : stringInterner.intern(sb);
+    }
+}
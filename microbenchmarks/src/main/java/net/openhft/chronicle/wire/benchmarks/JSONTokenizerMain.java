@@ -0,0 +1,136 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.wire.JSONWire;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads JSON with and without the structural index of JSONWire
+ * <ul>
+ *     <li>corpus: each of the valid documents JSON222Test reads, as objects</li>
+ *     <li>orders: a document of 1000 nested orders, as DTOs</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+public class JSONTokenizerMain {
+    @Param({"false", "true"})
+    boolean useStructuralIndex;
+
+    final List<JSONWire> corpus = new ArrayList<>();
+    final Orders orders = new Orders();
+    JSONWire ordersWire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(JSONTokenizerMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        for (File file : OS.findFile("OpenHFT", "Chronicle-Wire", "src/test/resources/nst_files").listFiles()) {
+            if (file.getName().startsWith("y_"))
+                corpus.add(new JSONWire(Bytes.wrapForRead(Files.readAllBytes(file.toPath())))
+                        .useStructuralIndex(useStructuralIndex));
+        }
+
+        Orders written = new Orders();
+        for (int i = 0; i < 1000; i++) {
+            Order order = new Order();
+            order.id = 1_000_000 + i;
+            order.symbol = i % 2 == 0 ? "EURUSD" : "GBPUSD";
+            order.side = i % 3 == 0 ? "Buy" : "Sell";
+            order.price = 1.1234 + i * 1e-4;
+            order.quantity = 1e6;
+            order.account.name = "account-" + i % 10;
+            order.account.desk = "FX Spot";
+            order.tags.add("algo");
+            order.tags.add("client \"" + i % 7 + "\"");
+            written.orders.add(order);
+        }
+        ordersWire = new JSONWire(Bytes.allocateElasticOnHeap());
+        ordersWire.getValueOut().object(written);
+        ordersWire.useStructuralIndex(useStructuralIndex);
+    }
+
+    @Benchmark
+    public int corpus() {
+        int count = 0;
+        for (JSONWire wire : corpus) {
+            wire.bytes().readPosition(0);
+            do {
+                if (wire.getValueIn().object() != null)
+                    count++;
+            } while (wire.isNotEmptyAfterPadding());
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Orders orders() {
+        ordersWire.bytes().readPosition(0);
+        return ordersWire.getValueIn().object(orders, Orders.class);
+    }
+
+    public static class Orders extends SelfDescribingMarshallable {
+        List<Order> orders = new ArrayList<>();
+    }
+
+    public static class Order extends SelfDescribingMarshallable {
+        long id;
+        String symbol;
+        String side;
+        double price;
+        double quantity;
+        Account account = new Account();
+        List<String> tags = new ArrayList<>();
+    }
+
+    public static class Account extends SelfDescribingMarshallable {
+        String name;
+        String desk;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.MessageHistoryLatencies;
+import net.openhft.chronicle.wire.VanillaMessageHistory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latencies of a five hop MessageHistory among many paths with the GC profiler,
+ * which should report <code>gc.alloc.rate.norm</code> of about zero bytes per operation.
+ */
+@State(Scope.Thread)
+public class MessageHistoryLatenciesMain {
+    @Param({"4", "64"})
+    int paths;
+
+    final VanillaMessageHistory history = new VanillaMessageHistory();
+    MessageHistoryLatencies latencies;
+    long time = 1_000_000;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(MessageHistoryLatenciesMain.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        latencies = new MessageHistoryLatencies();
+        for (int i = 0; i < paths; i++)
+            latencies.addPathForSourcesEnding(i, i, 1000, 1001);
+        for (int i = 0; i < 5; i++) {
+            history.addSource(i == 2 ? paths / 2 : 1000 + i - 3, i);
+            history.addTiming(i * 10_000L);
+        }
+    }
+
+    @Benchmark
+    public boolean record() {
+        return latencies.record(history, time += 1000);
+    }
+}
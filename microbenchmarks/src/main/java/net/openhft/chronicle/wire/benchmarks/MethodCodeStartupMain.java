@@ -0,0 +1,120 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.GenerateMethodReader;
+import net.openhft.chronicle.wire.VanillaMethodWriterBuilder;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the time to the first message for a method writer and reader generated at runtime
+ * with classes compiled ahead of time, as the MethodCodeProcessor does. Each run is a new JVM.
+ */
+public class MethodCodeStartupMain {
+    static final int RUNS = Integer.getInteger("runs", 5);
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            runChild();
+            return;
+        }
+        Path dir = Files.createTempDirectory("pregenerated");
+        compile(dir);
+        String classpath = System.getProperty("java.class.path");
+        for (int i = 0; i < RUNS; i++) {
+            System.out.print("runtime generated ");
+            runJvm(classpath);
+            System.out.print("pregenerated      ");
+            runJvm(dir + File.pathSeparator + classpath);
+        }
+    }
+
+    static void compile(Path dir) throws IOException {
+        List<String> files = new ArrayList<>();
+        VanillaMethodWriterBuilder<Startup> writer = new VanillaMethodWriterBuilder<>(Startup.class, WireType.BINARY_LIGHT, () -> {
+            throw new UnsupportedOperationException();
+        });
+        files.add(write(dir, writer.fullClassName(), writer.sourceCode()));
+        GenerateMethodReader reader = GenerateMethodReader.forClasses(null, StartupImpl.class);
+        files.add(write(dir, reader.packageName() + "." + reader.generatedClassName(), reader.sourceCode()));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> compilerArgs = new ArrayList<>();
+        compilerArgs.add("-cp");
+        compilerArgs.add(System.getProperty("java.class.path"));
+        compilerArgs.add("-d");
+        compilerArgs.add(dir.toString());
+        compilerArgs.addAll(files);
+        if (compiler.run(null, null, null, compilerArgs.toArray(new String[0])) != 0)
+            throw new IllegalStateException("Failed to compile " + files);
+    }
+
+    static String write(Path dir, String fullClassName, String sourceCode) throws IOException {
+        Path path = dir.resolve(fullClassName.replace('.', '/') + ".java");
+        Files.createDirectories(path.getParent());
+        Files.write(path, sourceCode.getBytes());
+        return path.toString();
+    }
+
+    static void runJvm(String classpath) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + "/bin/java";
+        Process process = new ProcessBuilder(java, "-cp", classpath, MethodCodeStartupMain.class.getName(), "child")
+                .inheritIO()
+                .start();
+        process.waitFor();
+    }
+
+    static void runChild() {
+        long start = System.nanoTime();
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(128));
+        Startup startup = wire.methodWriter(Startup.class);
+        startup.hello("world");
+        long written = System.nanoTime();
+
+        StartupImpl impl = new StartupImpl();
+        MethodReader reader = wire.methodReader(impl);
+        if (!reader.readOne() || !"world".equals(impl.text))
+            throw new AssertionError();
+        long read = System.nanoTime();
+        System.out.printf("first write: %,d us, first read: %,d us%n", (written - start) / 1000, (read - written) / 1000);
+    }
+
+    public interface Startup {
+        void hello(String text);
+    }
+
+    public static class StartupImpl implements Startup {
+        String text;
+
+        @Override
+        public void hello(String text) {
+            this.text = text;
+        }
+    }
+}
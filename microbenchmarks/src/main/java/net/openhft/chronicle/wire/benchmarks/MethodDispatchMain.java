@@ -0,0 +1,207 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.VanillaMethodReaderBuilder;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times <code>readOne()</code> of method readers built by {@link VanillaMethodReaderBuilder}, reading one message
+ * for each method of {@link Orders} so every event name is resolved.
+ * <ul>
+ *     <li>generated: the generated reader, which resolves event names with a FieldNameIndex</li>
+ *     <li>vanilla: the reflective reader, with <code>disableReaderProxyCodegen</code> set</li>
+ * </ul>
+ * To compare with the String switch generated readers used before, run this against the previous version of the library.
+ */
+@State(Scope.Thread)
+public class MethodDispatchMain {
+    @Param({"BINARY", "TEXT"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(64 << 10);
+    final Counter counter = new Counter();
+    Wire wire;
+    MethodReader generated;
+    MethodReader vanilla;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(MethodDispatchMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = WireType.valueOf(wireType).apply(bytes);
+        Orders orders = wire.methodWriter(Orders.class);
+        orders.newOrderSingle(1);
+        orders.orderCancelRequest(2);
+        orders.orderCancelReplaceRequest(3);
+        orders.orderStatusRequest(4);
+        orders.executionReport(5);
+        orders.orderCancelReject(6);
+        orders.marketDataRequest(7);
+        orders.marketDataSnapshot(8);
+        orders.marketDataIncrementalRefresh(9);
+        orders.securityDefinitionRequest(10);
+        orders.securityStatus(11);
+        orders.heartbeat(12);
+
+        generated = new VanillaMethodReaderBuilder(wire).wireType(WireType.valueOf(wireType)).build(counter);
+        System.setProperty(VanillaMethodReaderBuilder.DISABLE_READER_PROXY_CODEGEN, "true");
+        try {
+            vanilla = new VanillaMethodReaderBuilder(wire).wireType(WireType.valueOf(wireType)).build(counter);
+        } finally {
+            System.clearProperty(VanillaMethodReaderBuilder.DISABLE_READER_PROXY_CODEGEN);
+        }
+        if (generated.getClass() == vanilla.getClass())
+            throw new AssertionError("The reader wasn't generated");
+    }
+
+    private long readAll(MethodReader reader) {
+        bytes.readPosition(0);
+        counter.sum = 0;
+        while (reader.readOne()) {
+            // dispatched to the counter
+        }
+        return counter.sum;
+    }
+
+    @Benchmark
+    public long generated() {
+        return readAll(generated);
+    }
+
+    @Benchmark
+    public long vanilla() {
+        return readAll(vanilla);
+    }
+
+    public interface Orders {
+        void newOrderSingle(long id);
+
+        void orderCancelRequest(long id);
+
+        void orderCancelReplaceRequest(long id);
+
+        void orderStatusRequest(long id);
+
+        void executionReport(long id);
+
+        void orderCancelReject(long id);
+
+        void marketDataRequest(long id);
+
+        void marketDataSnapshot(long id);
+
+        void marketDataIncrementalRefresh(long id);
+
+        void securityDefinitionRequest(long id);
+
+        void securityStatus(long id);
+
+        void heartbeat(long id);
+    }
+
+    public static class Counter implements Orders {
+        long sum;
+
+        @Override
+        public void newOrderSingle(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void orderCancelRequest(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void orderCancelReplaceRequest(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void orderStatusRequest(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void executionReport(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void orderCancelReject(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void marketDataRequest(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void marketDataSnapshot(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void marketDataIncrementalRefresh(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void securityDefinitionRequest(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void securityStatus(long id) {
+            sum += id;
+        }
+
+        @Override
+        public void heartbeat(long id) {
+            sum += id;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.ValueIn;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing and reading a double[] as a packed F64_ARRAY with the sequence of a code per element
+ * used by <code>ValueOut.array(double[], int)</code> unless packed arrays are enabled.
+ */
+@State(Scope.Thread)
+public class PackedArrayMain {
+    @Param({"8", "64", "1024"})
+    int length;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(64 << 10);
+    final BinaryWire wire = new BinaryWire(bytes).setUsePackedArrays(true);
+    double[] values;
+    double[] read;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(PackedArrayMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        values = new double[length];
+        read = new double[length];
+        // tick prices which don't compress to a shorter form
+        for (int i = 0; i < length; i++)
+            values[i] = 1.1234 + i * 1.37e-7;
+        packed();
+        System.out.println("packed: " + bytes.writePosition() + " bytes");
+        sequence();
+        System.out.println("sequence: " + bytes.writePosition() + " bytes");
+    }
+
+    @Benchmark
+    public double[] packed() {
+        bytes.clear();
+        wire.getValueOut().array(values, length);
+        wire.getValueIn().array(read);
+        return read;
+    }
+
+    @Benchmark
+    public double[] sequence() {
+        bytes.clear();
+        wire.getValueOut().sequenceWithLength(values, length, (a, len, out) -> {
+            for (int i = 0; i < len; i++)
+                out.float64(a[i]);
+        });
+        wire.getValueIn().sequenceWithLength(read, (ValueIn in, double[] a) -> {
+            int i = 0;
+            while (in.hasNextSequenceItem() && i < a.length)
+                a[i++] = in.float64();
+            return i;
+        });
+        return read;
+    }
+}
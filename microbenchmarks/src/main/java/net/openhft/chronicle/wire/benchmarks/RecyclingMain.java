@@ -0,0 +1,107 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-reads an order book with List and Map fields of Marshallable levels into the same instance,
+ * with the GC profiler, which should report <code>gc.alloc.rate.norm</code> of about zero bytes per operation
+ * as the levels are read in place.
+ */
+@State(Scope.Thread)
+public class RecyclingMain {
+    @Param({"10", "100", "500"})
+    int levels;
+
+    @Param({"BINARY", "TEXT"})
+    String wireType;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(64 << 10);
+    final OrderBook book = new OrderBook();
+    Wire wire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(RecyclingMain.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = WireType.valueOf(wireType).apply(bytes);
+        OrderBook written = new OrderBook();
+        for (int i = 0; i < levels; i++) {
+            written.bids.add(new Level(100 - i * 0.01, 1000 + i));
+            written.asks.put("L" + i, new Level(100 + i * 0.01, 1000 + i));
+        }
+        wire.getValueOut().object(written);
+        // the first read allocates the levels.
+        readBook();
+    }
+
+    @Benchmark
+    public OrderBook readBook() {
+        bytes.readPosition(0);
+        return wire.getValueIn().object(book, OrderBook.class);
+    }
+
+    public static class OrderBook extends SelfDescribingMarshallable {
+        List<Level> bids = new ArrayList<>();
+        Map<String, Level> asks = new LinkedHashMap<>();
+    }
+
+    public static class Level extends SelfDescribingMarshallable {
+        double price;
+        long qty;
+
+        public Level(double price, long qty) {
+            this.price = price;
+            this.qty = qty;
+        }
+    }
+}
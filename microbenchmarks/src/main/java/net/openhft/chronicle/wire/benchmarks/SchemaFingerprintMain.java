@@ -0,0 +1,99 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a DTO from a BinaryWire
+ * <ul>
+ *     <li>NONE: written without a schema fingerprint, the fields are matched by name</li>
+ *     <li>MATCH: written with the fingerprint of the same fields, which are read by position</li>
+ *     <li>MISMATCH: written with the fingerprint of a DTO with one more field, which falls back to matching by name</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+public class SchemaFingerprintMain {
+    @Param({"NONE", "MATCH", "MISMATCH"})
+    String fingerprint;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(1024);
+    final Quote quote = new Quote();
+    BinaryWire wire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(SchemaFingerprintMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = new BinaryWire(bytes);
+        wire.setUseSchemaFingerprints(!fingerprint.equals("NONE"));
+        Quote written = fingerprint.equals("MISMATCH") ? new QuoteV2() : new Quote();
+        written.symbol = "EURUSD";
+        written.bidPrice = 1.1233;
+        written.bidQuantity = 1_000_000;
+        written.askPrice = 1.1234;
+        written.askQuantity = 2_000_000;
+        written.timestamp = 1_600_000_000_000_000_000L;
+        wire.getValueOut().marshallable(written);
+    }
+
+    @Benchmark
+    public Quote read() {
+        bytes.readPosition(0);
+        return wire.getValueIn().object(quote, Quote.class);
+    }
+
+    public static class Quote extends SelfDescribingMarshallable {
+        String symbol;
+        double bidPrice;
+        long bidQuantity;
+        double askPrice;
+        long askQuantity;
+        long timestamp;
+    }
+
+    public static class QuoteV2 extends Quote {
+        String venue = "LMAX";
+    }
+}
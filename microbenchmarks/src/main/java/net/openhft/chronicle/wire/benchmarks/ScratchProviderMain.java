@@ -0,0 +1,136 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.wire.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the <code>wire.scratch</code> providers with many threads serializing through
+ * Wires.deepCopy, WireType.asString and a method writer. Every thread serializes, waits until all
+ * threads have, then serializes again, so the heap retained by live threads is measured at that point.
+ * <p>
+ * Runs 100,000 virtual threads on Java 21+, otherwise 2,000 platform threads. Each provider runs in a new JVM.
+ */
+public class ScratchProviderMain {
+    static final String[] PROVIDERS = {"threadLocal", "pooled"};
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            runChild();
+            return;
+        }
+        String classpath = System.getProperty("java.class.path");
+        String java = System.getProperty("java.home") + "/bin/java";
+        for (int i = 0; i < 3; i++) {
+            for (String provider : PROVIDERS) {
+                System.out.printf("%-12s ", provider);
+                Process process = new ProcessBuilder(java, "-Xmx4g", "-Dwire.scratch=" + provider, "-cp", classpath,
+                        ScratchProviderMain.class.getName(), "child")
+                        .inheritIO()
+                        .start();
+                process.waitFor();
+            }
+        }
+    }
+
+    static ExecutorService newExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static void runChild() throws InterruptedException {
+        ExecutorService virtual = newExecutor();
+        int threads = Integer.getInteger("threads", virtual == null ? 2_000 : 100_000);
+        ExecutorService es = virtual == null ? Executors.newFixedThreadPool(threads) : virtual;
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            es.execute(() -> {
+                try {
+                    serialize(id);
+                    ready.countDown();
+                    go.await();
+                    serialize(id);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        ready.await();
+        long first = System.nanoTime();
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        long used = rt.totalMemory() - rt.freeMemory();
+        long second = System.nanoTime();
+        go.countDown();
+        done.await();
+        long end = System.nanoTime();
+        es.shutdown();
+        es.awaitTermination(1, TimeUnit.MINUTES);
+
+        System.out.printf("%,d %s threads, first pass: %,d ms, second pass: %,d ms, heap retained: %,d MB%n",
+                threads, virtual == null ? "platform" : "virtual",
+                (first - start) / 1_000_000, (end - second) / 1_000_000, used >> 20);
+    }
+
+    static void serialize(int id) {
+        Order order = new Order();
+        order.id = id;
+        order.symbol = "EURUSD";
+        order.price = 1.1234;
+        order.quantity = 1e6;
+        Order copy = Wires.deepCopy(order);
+        String text = WireType.TEXT.asString(copy);
+        if (text.isEmpty())
+            throw new AssertionError();
+
+        Wire wire = Wires.acquireBinaryWire();
+        try {
+            wire.methodWriter(Orders.class).order(copy);
+        } finally {
+            Wires.releaseBinaryWire(wire);
+        }
+    }
+
+    public interface Orders {
+        void order(Order order);
+    }
+
+    public static class Order extends SelfDescribingMarshallable {
+        long id;
+        String symbol;
+        double price;
+        double quantity;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.NanoTimestampLongConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats and parses nanosecond timestamps with the GC profiler, which should report
+ * <code>gc.alloc.rate.norm</code> of about zero bytes per operation.
+ */
+@State(Scope.Thread)
+public class TimestampConverterMain {
+    @Param({"UTC", "America/New_York"})
+    String zoneId;
+
+    final StringBuilder sb = new StringBuilder();
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(64);
+    NanoTimestampLongConverter converter;
+    long time = 1_600_000_000_123_456_789L;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(TimestampConverterMain.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        converter = new NanoTimestampLongConverter(zoneId);
+        converter.append(bytes, time);
+    }
+
+    @Benchmark
+    public StringBuilder appendStringBuilder() {
+        sb.setLength(0);
+        // a new time each call, a microsecond apart
+        converter.append(sb, time += 1000);
+        return sb;
+    }
+
+    @Benchmark
+    public Bytes<?> appendBytes() {
+        bytes.clear();
+        converter.append(bytes, time += 1000);
+        return bytes;
+    }
+
+    @Benchmark
+    public long parseBytes() {
+        return converter.parse(bytes);
+    }
+}
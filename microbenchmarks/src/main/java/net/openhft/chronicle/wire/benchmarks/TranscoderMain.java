@@ -0,0 +1,140 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireTranscoder;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transcodes 64 MB of binary order documents to each text wire type, and the JSON back to binary, writing to a
+ * channel which discards the output. The rate of input is printed after each iteration in GB/s per core.
+ * Use <code>-Dthreads=4</code> to transcode on four threads.
+ */
+@State(Scope.Benchmark)
+public class TranscoderMain {
+    static final int INPUT_SIZE = 64 << 20;
+    static final int THREADS = Integer.getInteger("threads", 1);
+
+    @Param({"BINARY_TO_JSON", "BINARY_TO_YAML", "BINARY_TO_TEXT", "JSON_TO_BINARY"})
+    String direction;
+
+    Bytes<?> input;
+    WireTranscoder transcoder;
+    final WritableByteChannel discard = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    long bytesIn;
+    long startNS;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 5;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(TranscoderMain.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        String[] types = direction.split("_TO_");
+        WireType from = WireType.valueOf(types[0]);
+        WireType to = WireType.valueOf(types[1]);
+
+        input = Bytes.allocateElasticDirect(INPUT_SIZE + (1 << 20));
+        Wire wire = from.apply(input);
+        for (int i = 0; input.writePosition() < INPUT_SIZE; i++) {
+            int id = i;
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().write("order").marshallable(m -> m.write("id").int64(1_000_000L + id)
+                        .write("symbol").text(id % 2 == 0 ? "EURUSD" : "USDJPY")
+                        .write("side").text(id % 3 == 0 ? "Buy" : "Sell")
+                        .write("price").float64(1.1234 + id % 1000 / 1e4)
+                        .write("quantity").float64(1e6)
+                        .write("active").bool(id % 5 != 0)
+                        .write("legs").sequence(v -> {
+                            v.int32(id % 7);
+                            v.int32(id % 11);
+                        }));
+            }
+        }
+        transcoder = new WireTranscoder(from, to, THREADS, 1 << 20);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        bytesIn = 0;
+        startNS = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        double secs = (System.nanoTime() - startNS) / 1e9;
+        System.out.printf("%n%s %.2f GB/s per core%n", direction, bytesIn / secs / THREADS / 1e9);
+    }
+
+    @TearDown
+    public void tearDown() {
+        transcoder.close();
+        input.releaseLast();
+    }
+
+    @Benchmark
+    public long transcode() throws IOException {
+        input.readPosition(0);
+        long written = transcoder.transcode(input, discard);
+        bytesIn += input.readPosition();
+        return written;
+    }
+}
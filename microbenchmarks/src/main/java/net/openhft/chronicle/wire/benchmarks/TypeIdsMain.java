@@ -0,0 +1,121 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.SelfDescribingMarshallable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the size and decode time of a stream of typed events written with the full type name each time,
+ * and with BinaryWire.setUseTypeIds(true). Type ids are defined per document, so the events are written in batches
+ * of PER_DOCUMENT, as a BatchingMarshallableOut would.
+ */
+@State(Scope.Thread)
+public class TypeIdsMain {
+    static final int EVENTS = 1000;
+    static final int PER_DOCUMENT = 10;
+
+    @Param({"false", "true"})
+    boolean useTypeIds;
+
+    final Bytes<?> bytes = Bytes.allocateElasticDirect(256 << 10);
+    final Quote quote = new Quote();
+    final Fill fill = new Fill();
+    BinaryWire wire;
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(TypeIdsMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        wire = new BinaryWire(bytes);
+        wire.setUseTypeIds(useTypeIds);
+        for (int i = 0; i < EVENTS; i += PER_DOCUMENT) {
+            try (DocumentContext dc = wire.writingDocument()) {
+                for (int j = i; j < i + PER_DOCUMENT; j++) {
+                    if (j % 4 == 0) {
+                        fill.orderId = j;
+                        fill.qty = 100;
+                        dc.wire().write("event").object(fill);
+                    } else {
+                        quote.symbol = "EURUSD";
+                        quote.bid = 1.1234;
+                        quote.ask = 1.1236;
+                        dc.wire().write("event").object(quote);
+                    }
+                }
+            }
+        }
+        System.out.println("\nuseTypeIds: " + useTypeIds + ", bytes per event: " + bytes.writePosition() / EVENTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.releaseLast();
+    }
+
+    @Benchmark
+    public long decode() {
+        bytes.readPosition(0);
+        long sum = 0;
+        for (int i = 0; i < EVENTS; i += PER_DOCUMENT) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                for (int j = i; j < i + PER_DOCUMENT; j++) {
+                    Object o = dc.wire().read("event").object(j % 4 == 0 ? fill : quote, Object.class);
+                    sum += o == fill ? fill.qty : 1;
+                }
+            }
+        }
+        return sum;
+    }
+
+    public static class Quote extends SelfDescribingMarshallable {
+        String symbol;
+        double bid;
+        double ask;
+    }
+
+    public static class Fill extends SelfDescribingMarshallable {
+        long orderId;
+        int qty;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.wire.benchmarks;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import net.openhft.chronicle.wire.WireVisitor;
+import net.openhft.chronicle.wire.WireWalker;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks a document of 1,000 orders with a WireWalker, for each wire type.
+ * The size of each document is printed, to turn the time for a walk into a throughput.
+ */
+@State(Scope.Benchmark)
+public class WireWalkerMain {
+    static final int ORDERS = 1_000;
+
+    @Param({"BINARY", "TEXT", "YAML", "JSON", "RAW"})
+    String wireType;
+
+    Bytes<?> bytes;
+    Wire wire;
+    final WireWalker walker = new WireWalker();
+    final Counter counter = new Counter();
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 30 : 3;
+        System.out.println("measurementTime: " + time + " secs");
+        Options opt = new OptionsBuilder()
+                .include(WireWalkerMain.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .mode(Mode.AverageTime)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        bytes = Bytes.allocateElasticDirect(1 << 20);
+        wire = WireType.valueOf(wireType).apply(bytes);
+        wire.write("orders").sequence(v -> {
+            for (int i = 0; i < ORDERS; i++) {
+                int id = i;
+                v.marshallable(m -> m.write("id").int64(1_000_000L + id)
+                        .write("symbol").text(id % 2 == 0 ? "EURUSD" : "USDJPY")
+                        .write("side").text(id % 3 == 0 ? "Buy" : "Sell")
+                        .write("price").float64(1.1234 + id / 1e4)
+                        .write("quantity").float64(1e6)
+                        .write("active").bool(id % 5 != 0)
+                        .write("tags").sequence(t -> {
+                            t.text("algo");
+                            t.int32(id % 7);
+                        }));
+            }
+        });
+        System.out.println(wireType + " document size: " + bytes.readRemaining() + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.releaseLast();
+    }
+
+    @Benchmark
+    public long walk() {
+        bytes.readPosition(0);
+        counter.count = 0;
+        walker.walk(wire, counter);
+        return counter.count;
+    }
+
+    static final class Counter implements WireVisitor {
+        long count;
+
+        @Override
+        public void field(@NotNull CharSequence name) {
+            count += name.length();
+        }
+
+        @Override
+        public void int64(long value) {
+            count += value;
+        }
+
+        @Override
+        public void float64(double value) {
+            count += (long) value;
+        }
+
+        @Override
+        public void bool(boolean flag) {
+            count++;
+        }
+
+        @Override
+        public void text(@NotNull CharSequence text) {
+            count += text.charAt(0);
+        }
+    }
+}
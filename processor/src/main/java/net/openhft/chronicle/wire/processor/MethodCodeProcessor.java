@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import net.openhft.chronicle.wire.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates the source of the method writers and readers listed in {@link PregenerateMethodCode} so they are compiled
+ * with the rest of the module. {@link VanillaMethodWriterBuilder} and {@link VanillaMethodReaderBuilder} load these
+ * classes by name in preference to compiling them at runtime.
+ * <p>
+ * This processor is shipped separately from chronicle-wire so it is only on the path of builds which ask for it,
+ * add chronicle-wire-processor to the <code>annotationProcessorPaths</code> of the maven-compiler-plugin.
+ * <p>
+ * The code is generated by reflection, so the classes named must be loadable by the processor,
+ * i.e. compiled in an upstream module or jar on the annotation processor path. Interfaces and implementations
+ * in the same compilation as the annotation can't be loaded, a warning is given and their code is generated
+ * at runtime as before.
+ */
+@SupportedAnnotationTypes("net.openhft.chronicle.wire.PregenerateMethodCode")
+public class MethodCodeProcessor extends AbstractProcessor {
+    private final Set<String> generated = new HashSet<>();
+
+    @Nullable
+    static WireType readerWireType(WireType wireType) {
+        if (wireType == WireType.YAML)
+            return WireType.YAML;
+        // TextWire and JSONWire build readers with TEXT, binary wires don't set one.
+        return wireType.isText() ? WireType.TEXT : null;
+    }
+
+    @NotNull
+    static WireType writerWireType(WireType wireType) {
+        if (wireType == WireType.YAML)
+            return WireType.YAML;
+        return wireType.isText() ? WireType.TEXT : WireType.BINARY_LIGHT;
+    }
+
+    @NotNull
+    static String writerFullClassName(Class<?> tClass, WireType wireType) {
+        return writerBuilder(tClass, wireType).fullClassName();
+    }
+
+    @NotNull
+    static String writerSourceCode(Class<?> tClass, WireType wireType) {
+        return writerBuilder(tClass, wireType).sourceCode();
+    }
+
+    @NotNull
+    private static VanillaMethodWriterBuilder<?> writerBuilder(Class<?> tClass, WireType wireType) {
+        return new VanillaMethodWriterBuilder<>(tClass, writerWireType(wireType), () -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                    if (mirror.getAnnotationType().asElement().equals(annotation))
+                        process(element, mirror);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void process(Element element, AnnotationMirror mirror) {
+        List<Class<?>> writers = new ArrayList<>();
+        List<Class<?>> readers = new ArrayList<>();
+        List<WireType> wireTypes = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            String name = entry.getKey().getSimpleName().toString();
+            for (AnnotationValue value : values(entry.getValue())) {
+                switch (name) {
+                    case "writers":
+                        addClass(element, writers, (TypeMirror) value.getValue());
+                        break;
+                    case "readers":
+                        addClass(element, readers, (TypeMirror) value.getValue());
+                        break;
+                    case "wireTypes":
+                        wireTypes.add(WireType.valueOf(((VariableElement) value.getValue()).getSimpleName().toString()));
+                        break;
+                }
+            }
+        }
+
+        for (WireType wireType : wireTypes) {
+            for (Class<?> writer : writers) {
+                try {
+                    write(element, writerFullClassName(writer, wireType), writerSourceCode(writer, wireType));
+                } catch (Exception e) {
+                    error(element, "Unable to generate a method writer for " + writer.getName() + " " + wireType, e);
+                }
+            }
+            for (Class<?> reader : readers) {
+                try {
+                    GenerateMethodReader gmr = GenerateMethodReader.forClasses(readerWireType(wireType), reader);
+                    write(element, gmr.packageName() + "." + gmr.generatedClassName(), gmr.sourceCode());
+                } catch (Exception e) {
+                    error(element, "Unable to generate a method reader for " + reader.getName() + " " + wireType, e);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> values(AnnotationValue value) {
+        Object o = value.getValue();
+        return o instanceof List ? (List<? extends AnnotationValue>) o : Collections.singletonList(value);
+    }
+
+    private void addClass(Element element, List<Class<?>> classes, TypeMirror typeMirror) {
+        TypeElement typeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        try {
+            classes.add(Class.forName(binaryName, false, getClass().getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    binaryName + " is not on the annotation processor path, or is in the same compilation, " +
+                            "its code will be generated at runtime", element);
+        }
+    }
+
+    private void write(Element element, String fullClassName, String sourceCode) throws IOException {
+        // the same class can be requested more than once e.g. for TEXT and JSON
+        if (!generated.add(fullClassName))
+            return;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(fullClassName, element);
+        try (Writer writer = file.openWriter()) {
+            writer.write(sourceCode);
+        }
+    }
+
+    private void error(Element element, String message, Exception e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message + ": " + e, element);
+    }
+}
@@ -0,0 +1,112 @@
+package net.openhft.chronicle.wire.processor;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.GenerateMethodReader;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MethodCodeProcessorTest {
+    @Test
+    public void writerMatchesGeneratedAtRuntime() {
+        for (WireType wireType : new WireType[]{WireType.BINARY, WireType.TEXT, WireType.YAML}) {
+            Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(64));
+            Pregenerated writer = wire.methodWriter(Pregenerated.class);
+            assertEquals(writer.getClass().getName(), MethodCodeProcessor.writerFullClassName(Pregenerated.class, wireType));
+
+            String sourceCode = MethodCodeProcessor.writerSourceCode(Pregenerated.class, wireType);
+            assertTrue(sourceCode, sourceCode.contains("public final class " + writer.getClass().getSimpleName() + " "));
+            wire.bytes().releaseLast();
+        }
+    }
+
+    @Test
+    public void readerMatchesGeneratedAtRuntime() {
+        for (WireType wireType : new WireType[]{WireType.BINARY, WireType.TEXT, WireType.YAML}) {
+            Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(64));
+            MethodReader reader = wire.methodReader(new PregeneratedImpl());
+            GenerateMethodReader gmr = GenerateMethodReader.forClasses(MethodCodeProcessor.readerWireType(wireType), PregeneratedImpl.class);
+            assertEquals(reader.getClass().getName(), gmr.packageName() + "." + gmr.generatedClassName());
+            assertTrue(gmr.sourceCode().contains("class " + gmr.generatedClassName() + " "));
+            wire.bytes().releaseLast();
+        }
+    }
+
+    @Test
+    public void processorGeneratesSourceWhichCompiles() throws IOException {
+        String source = "package net.openhft.chronicle.wire.processor;\n" +
+                "import net.openhft.chronicle.wire.*;\n" +
+                "@PregenerateMethodCode(writers = {MethodCodeProcessorTest.Pregenerated.class, Local.class},\n" +
+                "        readers = MethodCodeProcessorTest.PregeneratedImpl.class,\n" +
+                "        wireTypes = {WireType.BINARY_LIGHT, WireType.TEXT})\n" +
+                "class Holder {\n" +
+                "}\n" +
+                "interface Local {\n" +
+                "    void local(String text);\n" +
+                "}\n";
+        JavaFileObject holder = new SimpleJavaFileObject(URI.create("string:///net/openhft/chronicle/wire/processor/Holder.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        Path dir = Files.createTempDirectory("processor");
+        try {
+            Path sources = Files.createDirectory(dir.resolve("sources"));
+            Path classes = Files.createDirectory(dir.resolve("classes"));
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                    Arrays.asList("-cp", System.getProperty("java.class.path"), "-d", classes.toString(), "-s", sources.toString()),
+                    null, Collections.singletonList(holder));
+            task.setProcessors(Collections.singletonList(new MethodCodeProcessor()));
+            assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+
+            // Local is in the same compilation so it can't be loaded, and is left to runtime.
+            assertTrue(diagnostics.getDiagnostics().stream()
+                    .anyMatch(d -> d.getKind() == Diagnostic.Kind.WARNING
+                            && d.getMessage(null).contains("net.openhft.chronicle.wire.processor.Local")));
+
+            for (WireType wireType : new WireType[]{WireType.BINARY_LIGHT, WireType.TEXT}) {
+                assertGenerated(sources, classes, MethodCodeProcessor.writerFullClassName(Pregenerated.class, wireType));
+                GenerateMethodReader gmr = GenerateMethodReader.forClasses(MethodCodeProcessor.readerWireType(wireType), PregeneratedImpl.class);
+                assertGenerated(sources, classes, gmr.packageName() + "." + gmr.generatedClassName());
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static void assertGenerated(Path sources, Path classes, String fullClassName) {
+        String path = fullClassName.replace('.', '/');
+        assertTrue(path + ".java", Files.isRegularFile(sources.resolve(path + ".java")));
+        assertTrue(path + ".class", Files.isRegularFile(classes.resolve(path + ".class")));
+    }
+
+    public interface Pregenerated {
+        void say(String text);
+    }
+
+    public static class PregeneratedImpl implements Pregenerated {
+        @Override
+        public void say(String text) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The base class of generated {@link Flyweight} implementations, which records the position of each field when bound
+ * and positions the wire at a field when it is accessed.
+ */
+public abstract class AbstractFlyweight implements Flyweight {
+    private final FieldNameIndex<Integer> fieldIndex;
+    private final long[] positions;
+    private final StringBuilder name = new StringBuilder();
+    private WireIn wire;
+    private long end;
+
+    protected AbstractFlyweight(@NotNull String... fieldNames) {
+        Integer[] indexes = new Integer[fieldNames.length];
+        Arrays.setAll(indexes, i -> i);
+        fieldIndex = new FieldNameIndex<>(fieldNames, indexes);
+        positions = new long[fieldNames.length];
+    }
+
+    @NotNull
+    @Override
+    public Flyweight bind(@NotNull WireIn wire) {
+        this.wire = wire;
+        Arrays.fill(positions, -1);
+        Bytes<?> bytes = wire.bytes();
+        while (wire.hasMore()) {
+            long pos = bytes.readPosition();
+            Integer index = wire.readField(fieldIndex, name);
+            ValueIn valueIn = wire.getValueIn();
+            if (index != null)
+                positions[index] = bytes.readPosition();
+            valueIn.skipValue();
+            if (bytes.readPosition() <= pos)
+                break;
+        }
+        end = bytes.readPosition();
+        return this;
+    }
+
+    /**
+     * @return the wire positioned at the value of this field, or null if it wasn't present.
+     */
+    @Nullable
+    protected ValueIn valueIn(int index) {
+        long position = positions[index];
+        if (position < 0)
+            return null;
+        wire.bytes().readPosition(position);
+        return wire.getValueIn();
+    }
+
+    /**
+     * Restore the read position after a field has been read.
+     */
+    protected void endAccess() {
+        if (wire != null)
+            wire.bytes().readPosition(end);
+    }
+}
@@ -250,6 +250,16 @@ public abstract class AbstractGeneratedMethodReader implements MethodReader {
         return delegate;
     }
 
+    /**
+     * Helper method used by implementations to map each method name to its index in <code>names</code>
+     */
+    protected static FieldNameIndex<Integer> methodNameIndex(String... names) {
+        Integer[] indexes = new Integer[names.length];
+        for (int i = 0; i < names.length; i++)
+            indexes[i] = i;
+        return new FieldNameIndex<>(names, indexes);
+    }
+
     /**
      * Helper method used by implementations to get a Method
      */
@@ -1,5 +1,9 @@
 package net.openhft.chronicle.wire;
 
+import net.openhft.chronicle.bytes.Bytes;
+
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -9,6 +13,8 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -20,14 +26,27 @@ import java.util.concurrent.TimeUnit;
  * <p>
  * Parsing of ISO dates with or without timestamps is supported. When an ISO date
  * is read with no timezone, it is assumed to be in the converter's zone.
+ * <p>
+ * The common ISO-8601 forms are parsed and formatted without creating any objects, using the zone offset
+ * which applies between the last and next transition of the zone. Anything else falls back to a DateTimeFormatter.
+ * The ISO forms only take this path when neither {@link #parseFormattedDate(ZonedDateTime)} nor
+ * {@link #appendFraction(DateTimeFormatterBuilder)} is overridden beyond the milli, micro and nano converters,
+ * as it doesn't call them.
  */
 public abstract class AbstractTimestampLongConverter implements LongConverter {
     public static final ZoneId UTC = ZoneId.of("UTC");
     public static final String TIMESTAMP_LONG_CONVERTERS_ZONE_ID_SYSTEM_PROPERTY = "timestampLongConverters.zoneId";
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+    private static final int SECONDS_PER_DAY = 86400;
     private final ZoneId zoneId;
+    private final boolean utc;
     private final DateTimeFormatter dtf;
     private final long amountPerSecond;
     private final long nanosPerAmount;
+    private final int fractionDigits;
+    private final boolean isoFastPath;
+    // replaced only when a time outside it is seen
+    private volatile OffsetWindow offsetWindow;
 
     protected AbstractTimestampLongConverter(TimeUnit timeUnit) {
         this(System.getProperty(TIMESTAMP_LONG_CONVERTERS_ZONE_ID_SYSTEM_PROPERTY, UTC.toString()), timeUnit);
@@ -35,15 +54,92 @@ public abstract class AbstractTimestampLongConverter implements LongConverter {
 
     protected AbstractTimestampLongConverter(String zoneId, TimeUnit timeUnit) {
         this.zoneId = ZoneId.of(zoneId);
+        this.utc = this.zoneId.equals(UTC);
         this.amountPerSecond = timeUnit.convert(1, TimeUnit.SECONDS);
         this.nanosPerAmount = TimeUnit.NANOSECONDS.convert(1, timeUnit);
+        this.fractionDigits = Long.toString(amountPerSecond).length() - 1;
         this.dtf = createFormatter();
+        this.isoFastPath = builtIn(getClass(), "parseFormattedDate", ZonedDateTime.class)
+                && builtIn(getClass(), "appendFraction", DateTimeFormatterBuilder.class);
+    }
+
+    /**
+     * @return true if the implementation of the method <code>tClass</code> uses is that of the milli, micro or nano
+     * converter, whose results the ISO fast path reproduces.
+     */
+    private static boolean builtIn(Class<?> tClass, String name, Class<?> parameterType) {
+        for (Class<?> c = tClass; c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterType);
+                return c == MilliTimestampLongConverter.class
+                        || c == MicroTimestampLongConverter.class
+                        || c == NanoTimestampLongConverter.class;
+            } catch (NoSuchMethodException e) {
+                // look in the super class
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the days since 1970-01-01 of the date in the proleptic Gregorian calendar
+     */
+    static long epochDay(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return the digits parsed or -1 if any character is not a digit
+     */
+    private static int digits(CharSequence text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9)
+                return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static void appendDigits(Appendable text, long value, int width) throws IOException {
+        long div = 1;
+        for (int i = 1; i < width; i++)
+            div *= 10;
+        for (; div > 0; div /= 10)
+            text.append((char) ('0' + value / div % 10));
     }
 
     @Override
     public long parse(CharSequence text) {
         if (text == null || text.length() == 0)
             return 0;
+        long value = isoFastPath ? parseISO(text) : NOT_PARSED;
+        if (value != NOT_PARSED)
+            return value;
         try {
             if (text.length() > 4 && text.charAt(4) == '/')
                 text = text.toString().replace('/', '-');
@@ -62,6 +158,117 @@ public abstract class AbstractTimestampLongConverter implements LongConverter {
         }
     }
 
+    /**
+     * Parses <code>yyyy-MM-ddTHH:mm:ss</code> with an optional fraction of up to the precision of the units and
+     * an optional <code>Z</code> or <code>+HH:MM[:SS]</code> offset, or a plain number.
+     *
+     * @return the timestamp or NOT_PARSED if the text should be parsed with the DateTimeFormatter.
+     */
+    private long parseISO(CharSequence text) {
+        int length = text.length();
+        if (length >= 19)
+            return parseDateTime(text, length);
+
+        // a plain number short enough not to overflow
+        boolean negative = text.charAt(0) == '-';
+        if (negative && length == 1)
+            return NOT_PARSED;
+        long number = 0;
+        for (int i = negative ? 1 : 0; i < length; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9)
+                return NOT_PARSED;
+            number = number * 10 + d;
+        }
+        return parseTimestamp(negative ? -number : number, text);
+    }
+
+    private long parseDateTime(CharSequence text, int length) {
+        char sep = text.charAt(4), sep2 = text.charAt(7);
+        if ((sep != '-' && sep != '/')
+                || (sep2 != '-' && (sep != '/' || sep2 != '/'))
+                || text.charAt(10) != 'T'
+                || text.charAt(13) != ':'
+                || text.charAt(16) != ':')
+            return NOT_PARSED;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+            return NOT_PARSED;
+
+        int pos = 19;
+        long fraction = 0;
+        if (pos < length && text.charAt(pos) == '.') {
+            pos++;
+            int digits = 0;
+            for (; pos < length; pos++) {
+                int d = text.charAt(pos) - '0';
+                if (d < 0 || d > 9)
+                    break;
+                if (++digits > fractionDigits)
+                    return NOT_PARSED;
+                fraction = fraction * 10 + d;
+            }
+            if (digits == 0)
+                return NOT_PARSED;
+            for (; digits < fractionDigits; digits++)
+                fraction *= 10;
+        }
+
+        long localSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        long epochSecond;
+        if (pos == length) {
+            epochSecond = utc ? localSecond : localToEpochSecond(localSecond);
+
+        } else {
+            char ch = text.charAt(pos);
+            if (ch == 'Z' && pos + 1 == length) {
+                epochSecond = localSecond;
+
+            } else if ((ch == '+' || ch == '-') && (pos + 6 == length || pos + 9 == length)) {
+                int offsetHours = digits(text, pos + 1, 2);
+                int offsetMinutes = digits(text, pos + 4, 2);
+                int offsetSeconds = pos + 9 == length ? digits(text, pos + 7, 2) : 0;
+                if (text.charAt(pos + 3) != ':'
+                        || (pos + 9 == length && text.charAt(pos + 6) != ':')
+                        || offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59
+                        || offsetSeconds < 0 || offsetSeconds > 59)
+                    return NOT_PARSED;
+                int offset = offsetHours * 3600 + offsetMinutes * 60 + offsetSeconds;
+                epochSecond = localSecond - (ch == '-' ? -offset : offset);
+
+            } else {
+                return NOT_PARSED;
+            }
+        }
+        return epochSecond * amountPerSecond + fraction;
+    }
+
+    private long localToEpochSecond(long localSecond) {
+        OffsetWindow window = offsetWindow;
+        if (window != null) {
+            long epochSecond = localSecond - window.offsetSeconds;
+            // away from a transition each local time has only one offset
+            if (window.safeFromSecond <= epochSecond && epochSecond < window.safeToSecond)
+                return epochSecond;
+        }
+        long epochSecond = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC).atZone(zoneId).toEpochSecond();
+        offsetWindow = new OffsetWindow(zoneId.getRules(), epochSecond);
+        return epochSecond;
+    }
+
+    private int offsetSecondsAt(long epochSecond) {
+        OffsetWindow window = offsetWindow;
+        if (window == null || epochSecond < window.fromSecond || epochSecond >= window.toSecond)
+            offsetWindow = window = new OffsetWindow(zoneId.getRules(), epochSecond);
+        return window.offsetSeconds;
+    }
+
     /**
      * Interpret formatted date
      *
@@ -99,15 +306,133 @@ public abstract class AbstractTimestampLongConverter implements LongConverter {
             text.append(value);
             return;
         }
+        try {
+            if (isoFastPath && appendISO(text, value))
+                return;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        appendFormatted(text, value);
+    }
+
+    /**
+     * Appends the <code>value</code> to the <code>bytes</code> as {@link #append(StringBuilder, long)} does.
+     */
+    public void append(Bytes<?> bytes, long value) {
+        if (value <= 0) {
+            bytes.append(value);
+            return;
+        }
+        try {
+            if (isoFastPath && appendISO(bytes, value))
+                return;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        StringBuilder sb = new StringBuilder();
+        appendFormatted(sb, value);
+        bytes.append(sb);
+    }
+
+    /**
+     * @return false if the year has more than four digits.
+     */
+    private boolean appendISO(Appendable text, long value) throws IOException {
+        long epochSecond = value / amountPerSecond;
+        long fraction = value % amountPerSecond;
+        int offset = utc ? 0 : offsetSecondsAt(epochSecond);
+        long localSecond = epochSecond + offset;
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+
+        // the civil date of the epoch day
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year > 9999)
+            return false;
+
+        appendDigits(text, year, 4);
+        text.append('-');
+        appendDigits(text, month, 2);
+        text.append('-');
+        appendDigits(text, day, 2);
+        text.append('T');
+        appendDigits(text, secondOfDay / 3600, 2);
+        text.append(':');
+        appendDigits(text, secondOfDay / 60 % 60, 2);
+        text.append(':');
+        appendDigits(text, secondOfDay % 60, 2);
+        if (fraction != 0) {
+            // as few digits as possible, as DateTimeFormatterBuilder.appendFraction does
+            int digits = fractionDigits;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            text.append('.');
+            appendDigits(text, fraction, digits);
+        }
+        if (!utc)
+            appendOffset(text, offset);
+        return true;
+    }
+
+    private static void appendOffset(Appendable text, int offset) throws IOException {
+        if (offset == 0) {
+            text.append('Z');
+            return;
+        }
+        text.append(offset < 0 ? '-' : '+');
+        int abs = Math.abs(offset);
+        appendDigits(text, abs / 3600, 2);
+        text.append(':');
+        appendDigits(text, abs / 60 % 60, 2);
+        if (abs % 60 != 0) {
+            text.append(':');
+            appendDigits(text, abs % 60, 2);
+        }
+    }
+
+    private void appendFormatted(StringBuilder text, long value) {
         LocalDateTime ldt = LocalDateTime.ofEpochSecond(
                 value / amountPerSecond,
                 (int) (value % amountPerSecond * nanosPerAmount),
                 ZoneOffset.UTC);
-        if (zoneId.equals(UTC)) {
+        if (utc) {
             dtf.formatTo(ldt, text);
         } else {
             dtf.formatTo(ZonedDateTime.of(ldt, UTC)
                     .withZoneSameInstant(zoneId), text);
         }
     }
+
+    /**
+     * The offset of a zone between two transitions.
+     */
+    static final class OffsetWindow {
+        final long fromSecond;
+        final long toSecond;
+        final long safeFromSecond;
+        final long safeToSecond;
+        final int offsetSeconds;
+
+        OffsetWindow(ZoneRules rules, long epochSecond) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            fromSecond = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            toSecond = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            // a local time within a day of a transition could map to either offset
+            safeFromSecond = previous == null ? Long.MIN_VALUE : fromSecond + SECONDS_PER_DAY;
+            safeToSecond = next == null ? Long.MAX_VALUE : toSecond - SECONDS_PER_DAY;
+            offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+        }
+    }
 }
@@ -29,6 +29,7 @@ import net.openhft.chronicle.core.pool.ClassLookup;
 import net.openhft.chronicle.threads.Pauser;
 import net.openhft.chronicle.threads.TimingPauser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
@@ -66,6 +67,8 @@ public abstract class AbstractWire implements Wire {
     private boolean insideHeader;
     private HeadNumberChecker headNumberChecker;
     private boolean usePadding = false;
+    @Nullable
+    private AdaptiveStringInterner interner = WireInternal.ADAPTIVE_INTERNER;
 
     @SuppressWarnings("rawtypes")
     protected AbstractWire(@NotNull Bytes bytes, boolean use8bit) {
@@ -540,6 +543,24 @@ public abstract class AbstractWire implements Wire {
         insideHeader = false;
     }
 
+    @Nullable
+    public AdaptiveStringInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * @param interner to intern the field names and text read by this wire, or null to use the shared interners.
+     */
+    public AbstractWire setInterner(@Nullable AdaptiveStringInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    @Nullable
+    String intern(@Nullable CharSequence cs) {
+        return interner == null ? WireInternal.INTERNER.intern(cs) : interner.intern(cs);
+    }
+
     // @Deprecated(/* to be removed in x.24 */)
     public void usePadding(boolean usePadding) {
         this.usePadding = usePadding;
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Maths;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A String interner for the field names and text values a wire reads, set with
+ * {@link AbstractWire#setInterner(AdaptiveStringInterner)}, or for all wires with
+ * <code>-Dwire.interner.adaptive=true</code>.
+ * <p>
+ * Each string has two candidate slots, and a slot which has been hit since it was last considered is kept in
+ * preference to one which hasn't. Each thread uses one of a number of shards, so threads decoding concurrently
+ * don't write to the same tables and counters. When fewer than {@link #minHitRate(double)} of the recent
+ * lookups in a shard hit, e.g. for ids which are only seen once, only one miss in {@value #SAMPLE} is added, so
+ * the strings which do repeat are not evicted. Interning resumes when the hit rate recovers.
+ * <p>
+ * Like the other interners, it only guarantees the String returned has the contents asked for. It is not
+ * synchronized, so two threads sharing a shard may add the same string twice, and the counters are approximate.
+ */
+public class AdaptiveStringInterner {
+    static final int WINDOW = 1024;
+    static final int SAMPLE = 16;
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int capacity;
+    private volatile int minHits = WINDOW / 32;
+
+    /**
+     * @param capacity of each shard, rounded up to a power of two
+     */
+    public AdaptiveStringInterner(int capacity) {
+        this(capacity, 1);
+    }
+
+    /**
+     * @param capacity of each shard, rounded up to a power of two
+     * @param shards   the number of shards threads are spread over, rounded up to a power of two
+     */
+    public AdaptiveStringInterner(int capacity, int shards) {
+        this.capacity = Maths.nextPower2(capacity, 16);
+        int n = Maths.nextPower2(shards, 1);
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++)
+            this.shards[i] = new Shard(this.capacity);
+        this.shardMask = n - 1;
+    }
+
+    static int hash(int h) {
+        h *= 0x9E3779B1;
+        return h ^ (h >>> 15);
+    }
+
+    static boolean contentEquals(@Nullable String key, CharSequence cs, int length) {
+        if (key == null || key.length() != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (key.charAt(i) != cs.charAt(i))
+                return false;
+        return true;
+    }
+
+    static boolean contentEquals(@Nullable String key, Bytes<?> bytes, long offset, int length) {
+        if (key == null || key.length() != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (key.charAt(i) != bytes.readUnsignedByte(offset + i))
+                return false;
+        return true;
+    }
+
+    /**
+     * @param minHitRate the fraction of lookups which must hit for misses to be added, 0 to always add them
+     * @return this
+     */
+    public AdaptiveStringInterner minHitRate(double minHitRate) {
+        if (!(minHitRate >= 0 && minHitRate <= 1))
+            throw new IllegalArgumentException("minHitRate: " + minHitRate);
+        this.minHits = (int) Math.ceil(WINDOW * minHitRate);
+        return this;
+    }
+
+    public double minHitRate() {
+        return (double) minHits / WINDOW;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int shards() {
+        return shards.length;
+    }
+
+    private Shard shard() {
+        return shards[(int) Thread.currentThread().getId() & shardMask];
+    }
+
+    @Nullable
+    public String intern(@Nullable CharSequence cs) {
+        if (cs == null)
+            return null;
+        int length = cs.length();
+        int h = 0;
+        for (int i = 0; i < length; i++)
+            h = 31 * h + cs.charAt(i);
+        h = hash(h);
+
+        Shard shard = shard();
+        int index = shard.find(h, length);
+        while (index >= 0) {
+            // read once, as another thread sharing the shard can replace it on a miss.
+            String key = shard.keys[index];
+            if (contentEquals(key, cs, length))
+                return shard.hit(index, key, minHits);
+            index = shard.findNext(index, h, length);
+        }
+        return shard.miss(h, cs.toString(), minHits);
+    }
+
+    /**
+     * Interns <code>length</code> bytes from the readPosition as 8-bit characters, without consuming them.
+     */
+    @NotNull
+    public String intern8bit(@NotNull Bytes<?> bytes, int length) {
+        long offset = bytes.readPosition();
+        int h = 0;
+        for (int i = 0; i < length; i++)
+            h = 31 * h + bytes.readUnsignedByte(offset + i);
+        h = hash(h);
+
+        Shard shard = shard();
+        int index = shard.find(h, length);
+        while (index >= 0) {
+            String key = shard.keys[index];
+            if (contentEquals(key, bytes, offset, length))
+                return shard.hit(index, key, minHits);
+            index = shard.findNext(index, h, length);
+        }
+        StringBuilder sb = Wires.acquireStringBuilder();
+        for (int i = 0; i < length; i++)
+            sb.append((char) bytes.readUnsignedByte(offset + i));
+        return shard.miss(h, sb.toString(), minHits);
+    }
+
+    /**
+     * Interns <code>length</code> bytes from the readPosition decoded as UTF-8, without consuming them.
+     */
+    @NotNull
+    public String internUtf8(@NotNull Bytes<?> bytes, int length) {
+        long offset = bytes.readPosition();
+        for (int i = 0; i < length; i++) {
+            if (bytes.readByte(offset + i) < 0) {
+                StringBuilder sb = Wires.acquireStringBuilder();
+                bytes.parseUtf8(sb, length);
+                bytes.readPosition(offset);
+                return intern(sb);
+            }
+        }
+        // ASCII is the same in 8-bit.
+        return intern8bit(bytes, length);
+    }
+
+    public long hits() {
+        long sum = 0;
+        for (Shard shard : shards)
+            sum += shard.hits;
+        return sum;
+    }
+
+    public long misses() {
+        long sum = 0;
+        for (Shard shard : shards)
+            sum += shard.misses;
+        return sum;
+    }
+
+    /**
+     * @return the number of strings replaced by another.
+     */
+    public long evictions() {
+        long sum = 0;
+        for (Shard shard : shards)
+            sum += shard.evictions;
+        return sum;
+    }
+
+    /**
+     * @return the number of misses not added as too few lookups were hitting.
+     */
+    public long bypasses() {
+        long sum = 0;
+        for (Shard shard : shards)
+            sum += shard.bypasses;
+        return sum;
+    }
+
+    public void resetCounters() {
+        for (Shard shard : shards)
+            shard.hits = shard.misses = shard.evictions = shard.bypasses = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveStringInterner{" +
+                "capacity=" + capacity +
+                ", shards=" + shards.length +
+                ", hits=" + hits() +
+                ", misses=" + misses() +
+                ", evictions=" + evictions() +
+                ", bypasses=" + bypasses() +
+                '}';
+    }
+
+    static final class Shard {
+        // keep the counters of neighbouring shards off the same cache line.
+        long p0, p1, p2, p3, p4, p5, p6, p7;
+        final String[] keys;
+        final int[] hashes;
+        final boolean[] used;
+        final int mask;
+        final int shift;
+        long hits, misses, evictions, bypasses;
+        int windowLookups, windowHits, skipped;
+        boolean bypassing;
+        long q0, q1, q2, q3, q4, q5, q6, q7;
+
+        Shard(int capacity) {
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            shift = Maths.intLog2(capacity);
+        }
+
+        int slot2(int h) {
+            // never the same as the first slot.
+            return (h ^ ((h >>> shift) | 1)) & mask;
+        }
+
+        int find(int h, int length) {
+            int h1 = h & mask;
+            if (matches(h1, h, length))
+                return h1;
+            return findNext(h1, h, length);
+        }
+
+        int findNext(int index, int h, int length) {
+            int h2 = slot2(h);
+            if (index == (h & mask) && matches(h2, h, length))
+                return h2;
+            return -1;
+        }
+
+        private boolean matches(int index, int h, int length) {
+            String key = keys[index];
+            return key != null && hashes[index] == h && key.length() == length;
+        }
+
+        String hit(int index, String key, int minHits) {
+            hits++;
+            used[index] = true;
+            windowHits++;
+            if (++windowLookups >= WINDOW)
+                endWindow(minHits);
+            return key;
+        }
+
+        void endWindow(int minHits) {
+            bypassing = windowHits < minHits;
+            windowHits = windowLookups = 0;
+        }
+
+        String miss(int h, String s, int minHits) {
+            misses++;
+            if (++windowLookups >= WINDOW)
+                endWindow(minHits);
+            if (bypassing && (++skipped & (SAMPLE - 1)) != 0) {
+                bypasses++;
+                return s;
+            }
+            int h1 = h & mask;
+            int h2 = slot2(h);
+            int index;
+            if (keys[h1] == null) {
+                index = h1;
+            } else if (keys[h2] == null) {
+                index = h2;
+            } else if (!used[h1]) {
+                index = h1;
+                // h2 was spared, so it has to be hit again to be spared next time.
+                used[h2] = false;
+            } else {
+                index = h2;
+                used[h1] = false;
+            }
+            if (keys[index] != null)
+                evictions++;
+            keys[index] = s;
+            used[index] = false;
+            hashes[index] = h;
+            return s;
+        }
+    }
+}
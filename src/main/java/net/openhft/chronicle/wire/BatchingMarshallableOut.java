@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A MarshallableOut which coalesces the calls made through a method writer into one document on the underlying
+ * MarshallableOut, amortising the document header, and for a queue the write lock, across many messages.
+ * <pre>
+ * BatchingMarshallableOut batch = new BatchingMarshallableOut(wire).maxMessages(64);
+ * MyEvents events = batch.methodWriter(MyEvents.class);
+ * events.onEvent(a);
+ * events.onEvent(b);
+ * batch.flush();
+ * </pre>
+ * Each call is written to a buffer held by this writer, and a batch is written as one document when flush() is
+ * called, or when a call takes it to maxMessages or maxBytes, or finds it older than maxBatchAge. No document is open
+ * on the underlying MarshallableOut between calls, so an idle writer doesn't hold its lock or leave readers waiting on
+ * an incomplete document.
+ * <p>
+ * Nothing is written without a call, so the age of a batch is only checked by the next call. To bound the latency of
+ * a batch followed by silence, call {@link #flushIfDue()} from the writer's event loop, or flush() when idle.
+ * <p>
+ * Readers see a batch as one document containing many events, which the method readers dispatch in order.
+ * <p>
+ * This class is not thread safe.
+ */
+public class BatchingMarshallableOut implements MarshallableOut, Closeable {
+    private final MarshallableOut out;
+    private final Wire buffer;
+    private final BatchElement element = new BatchElement();
+    private int maxMessages = 64;
+    private long maxBytes = 16 << 10;
+    private long maxBatchAgeNS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private boolean batchMetaData;
+    private long batchStartNS;
+    private int messages;
+    private boolean closed;
+
+    /**
+     * Batches the messages for a Wire in its own format, or for any other MarshallableOut, such as a queue, as binary.
+     */
+    public BatchingMarshallableOut(@NotNull MarshallableOut out) {
+        this(out, out instanceof Wire ? WireType.valueOf((Wire) out) : WireType.BINARY_LIGHT);
+    }
+
+    /**
+     * @param wireType the format of the documents of <code>out</code>, which the messages are written in.
+     */
+    public BatchingMarshallableOut(@NotNull MarshallableOut out, @NotNull WireType wireType) {
+        this.out = out;
+        this.buffer = wireType.apply(Bytes.allocateElasticOnHeap(256));
+    }
+
+    public int maxMessages() {
+        return maxMessages;
+    }
+
+    /**
+     * @param maxMessages the number of calls after which a batch is completed, 1 disables batching.
+     */
+    public BatchingMarshallableOut maxMessages(int maxMessages) {
+        if (maxMessages < 1)
+            throw new IllegalArgumentException("maxMessages must be at least 1");
+        this.maxMessages = maxMessages;
+        return this;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @param maxBytes the size of a batch after which it is completed.
+     */
+    public BatchingMarshallableOut maxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    public long maxBatchAge(TimeUnit timeUnit) {
+        return timeUnit.convert(maxBatchAgeNS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param maxBatchAge the age of a batch after which the next call, or {@link #flushIfDue()}, completes it. It is
+     *                    not a bound on latency by itself, as nothing checks it between calls.
+     */
+    public BatchingMarshallableOut maxBatchAge(long maxBatchAge, TimeUnit timeUnit) {
+        this.maxBatchAgeNS = timeUnit.toNanos(maxBatchAge);
+        return this;
+    }
+
+    /**
+     * @return the number of messages in the open batch.
+     */
+    public int pendingMessages() {
+        return messages;
+    }
+
+    /**
+     * Write the open batch if it is older than maxBatchAge, for the writer's thread to call while it is otherwise idle.
+     *
+     * @return whether a batch was written.
+     */
+    public boolean flushIfDue() {
+        if (messages == 0 || element.open || System.nanoTime() - batchStartNS < maxBatchAgeNS)
+            return false;
+        flush();
+        return true;
+    }
+
+    /**
+     * Write the open batch, if any, as one document.
+     */
+    public void flush() {
+        if (element.open)
+            throw new IllegalStateException("Cannot flush while a message is being written");
+        if (messages == 0) {
+            // every message was rolled back, so don't write an empty document.
+            buffer.clear();
+            return;
+        }
+        try (DocumentContext dc = out.writingDocument(batchMetaData)) {
+            dc.wire().bytes().write(buffer.bytes());
+        } finally {
+            buffer.clear();
+            messages = 0;
+        }
+    }
+
+    /**
+     * Explicit documents are not batched, any open batch is completed first.
+     */
+    @Override
+    public DocumentContext writingDocument(boolean metaData) throws UnrecoverableTimeoutException {
+        flush();
+        return out.writingDocument(metaData);
+    }
+
+    @Override
+    public DocumentContext acquireWritingDocument(boolean metaData) throws UnrecoverableTimeoutException {
+        if (closed)
+            throw new IllegalStateException("Closed");
+        if (element.open && element.chainedElement)
+            return element;
+        if (messages > 0 && batchMetaData != metaData)
+            flush();
+        if (messages == 0) {
+            batchMetaData = metaData;
+            batchStartNS = System.nanoTime();
+        }
+        element.start(metaData);
+        return element;
+    }
+
+    @Override
+    public boolean recordHistory() {
+        return out.recordHistory();
+    }
+
+    private void completed() {
+        messages++;
+        if (messages >= maxMessages
+                || buffer.bytes().writePosition() >= maxBytes
+                || System.nanoTime() - batchStartNS >= maxBatchAgeNS)
+            flush();
+    }
+
+    /**
+     * Write the open batch and release the buffer. The underlying MarshallableOut is not closed.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        try {
+            flush();
+        } finally {
+            closed = true;
+            buffer.bytes().releaseLast();
+        }
+    }
+
+    /**
+     * The context each call writes its message in, closing it adds the message to the batch.
+     */
+    final class BatchElement implements WriteDocumentContext {
+        boolean open;
+        boolean chainedElement;
+        long position;
+        private boolean rollback;
+
+        @Override
+        public void start(boolean metaData) {
+            open = true;
+            chainedElement = false;
+            rollback = false;
+            position = buffer.bytes().writePosition();
+        }
+
+        @Override
+        public boolean chainedElement() {
+            return chainedElement;
+        }
+
+        @Override
+        public void chainedElement(boolean chainedElement) {
+            this.chainedElement = chainedElement;
+        }
+
+        @Override
+        public boolean isMetaData() {
+            return batchMetaData;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public Wire wire() {
+            return buffer;
+        }
+
+        @Override
+        public boolean isNotComplete() {
+            return open;
+        }
+
+        @Override
+        public void rollbackOnClose() {
+            rollback = true;
+        }
+
+        @Override
+        public int sourceId() {
+            return -1;
+        }
+
+        @Override
+        public long index() throws IORuntimeException {
+            // the message isn't in a document yet.
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            if (chainedElement && !rollback)
+                return;
+            open = false;
+            chainedElement = false;
+            if (rollback) {
+                buffer.bytes().writePosition(position);
+                return;
+            }
+            completed();
+        }
+    }
+}
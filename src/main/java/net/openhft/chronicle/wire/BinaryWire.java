@@ -21,11 +21,11 @@ import net.openhft.chronicle.bytes.*;
 import net.openhft.chronicle.bytes.internal.NativeBytesStore;
 import net.openhft.chronicle.bytes.ref.*;
 import net.openhft.chronicle.bytes.util.Bit8StringInterner;
-import net.openhft.chronicle.bytes.util.Compression;
 import net.openhft.chronicle.bytes.util.UTF8StringInterner;
 import net.openhft.chronicle.core.ClassLocal;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.UnsafeMemory;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.core.pool.ClassAliasPool;
 import net.openhft.chronicle.core.util.*;
@@ -46,6 +46,7 @@ import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.*;
 
@@ -70,6 +71,11 @@ public class BinaryWire extends AbstractWire implements Wire {
         return true;
     });
     private static int SPEC = Integer.getInteger("BinaryWire.SPEC", 18);
+    private static final int SHORT_ARRAY_OFFSET = UnsafeMemory.UNSAFE.arrayBaseOffset(short[].class);
+    private static final int INT_ARRAY_OFFSET = UnsafeMemory.UNSAFE.arrayBaseOffset(int[].class);
+    private static final int LONG_ARRAY_OFFSET = UnsafeMemory.UNSAFE.arrayBaseOffset(long[].class);
+    private static final int FLOAT_ARRAY_OFFSET = UnsafeMemory.UNSAFE.arrayBaseOffset(float[].class);
+    private static final int DOUBLE_ARRAY_OFFSET = UnsafeMemory.UNSAFE.arrayBaseOffset(double[].class);
     private final FixedBinaryValueOut fixedValueOut = new FixedBinaryValueOut();
     @NotNull
     private final FixedBinaryValueOut valueOut;
@@ -85,6 +91,21 @@ public class BinaryWire extends AbstractWire implements Wire {
     private DefaultValueIn defaultValueIn;
     private String compression;
     private Boolean overrideSelfDescribing = null;
+    private boolean hintReadInputOrder = false;
+    private boolean usePackedArrays = false;
+    private boolean useTypeIds = false;
+    private String[] typeIdsOutNames = {};
+    private long[] typeIdsOutPositions = {};
+    private int typeIdsOutCount = 0;
+    private String[] typeIdNames = {};
+    private Class[] typeIdClasses = {};
+    private boolean useSchemaFingerprints = false;
+    // how deep the marshallables being written and read are, as only the outermost has a fingerprint.
+    int schemaDepthOut = 0;
+    int schemaDepthIn = 0;
+    // the classes read by position as the fingerprint of the outermost marshallable being read matched.
+    @Nullable
+    Set<Class<?>> schemaClassesIn = null;
 
     public BinaryWire(@NotNull Bytes bytes) {
         this(bytes, false, false, false, Integer.MAX_VALUE, "binary", SUPPORT_DELTA);
@@ -133,6 +154,120 @@ public class BinaryWire extends AbstractWire implements Wire {
         return this;
     }
 
+    /**
+     * @param hintReadInputOrder true if DTOs should be read in the order the fields appear rather than the order
+     *                           of the DTO, looking up fields by name when they are out of order.
+     */
+    public BinaryWire setHintReadInputOrder(boolean hintReadInputOrder) {
+        this.hintReadInputOrder = hintReadInputOrder;
+        return this;
+    }
+
+    @Override
+    public boolean hintReadInputOrder() {
+        return hintReadInputOrder;
+    }
+
+    public boolean usePackedArrays() {
+        return usePackedArrays;
+    }
+
+    /**
+     * @param usePackedArrays true to write arrays of short, int, long, float and double as a count and the values
+     *                        copied as one block. Readers of versions without packed arrays can't read these,
+     *                        otherwise they are written as a sequence of values as before.
+     */
+    public BinaryWire setUsePackedArrays(boolean usePackedArrays) {
+        this.usePackedArrays = usePackedArrays;
+        return this;
+    }
+
+    public boolean useTypeIds() {
+        return useTypeIds;
+    }
+
+    /**
+     * @param useTypeIds true to write each type prefix as its name the first time it is used in a document,
+     *                   defining an id which is written instead for the rest of that document. Each document defines
+     *                   its own ids, so readers need no configuration and can start at any document.
+     */
+    public BinaryWire setUseTypeIds(boolean useTypeIds) {
+        this.useTypeIds = useTypeIds;
+        typeIdsOutCount = 0;
+        return this;
+    }
+
+    public boolean useSchemaFingerprints() {
+        return useSchemaFingerprints;
+    }
+
+    /**
+     * @param useSchemaFingerprints true to write a fingerprint of the fields before the outermost marshallable written
+     *                              by a WireMarshaller, which covers the marshallables nested in it. A reader with the
+     *                              same fields reads them in order without comparing their names, otherwise it reads
+     *                              them by name as usual.
+     */
+    public BinaryWire setUseSchemaFingerprints(boolean useSchemaFingerprints) {
+        this.useSchemaFingerprints = useSchemaFingerprints;
+        return this;
+    }
+
+    void writeSchemaFingerprint(long fingerprint) {
+        bytes.writeUnsignedByte(SCHEMA_FINGERPRINT)
+                .writeLong(fingerprint);
+    }
+
+    /**
+     * Read the fingerprint at the start of the outermost marshallable, if there is one.
+     *
+     * @return true if there was a fingerprint and it was the one expected.
+     */
+    boolean readSchemaFingerprint(long expected) {
+        if (peekCode() != SCHEMA_FINGERPRINT)
+            return false;
+        bytes.uncheckedReadSkipOne();
+        return bytes.readLong() == expected;
+    }
+
+    /**
+     * Skip the next field name without reading it, as its position is known.
+     */
+    void skipFieldName() {
+        int peekCode = peekCodeAfterPadding();
+        if (peekCode >= FIELD_NAME0 && peekCode <= FIELD_NAME31) {
+            bytes.readSkip(1 + (peekCode & 0x1f));
+            return;
+        }
+        switch (peekCode) {
+            case FIELD_NAME_ANY:
+                bytes.uncheckedReadSkipOne();
+                bytes.readSkip(bytes.readStopBit());
+                break;
+            case FIELD_NUMBER:
+                bytes.uncheckedReadSkipOne();
+                bytes.readStopBit();
+                break;
+            case FIELD_ANCHOR:
+                bytes.uncheckedReadSkipOne();
+                readFieldAnchor(acquireStringBuilder());
+                break;
+        }
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression the name of the {@link CompressionCodec} or {@link net.openhft.chronicle.bytes.util.Compression}
+     *                    for <code>bytes(..)</code> of at least the compressedSize. This is written in the stream
+     *                    so readers don't need to be configured.
+     */
+    public BinaryWire setCompression(String compression) {
+        this.compression = compression;
+        return this;
+    }
+
     @NotNull
     public static BinaryWire binaryOnly(@NotNull Bytes bytes) {
         return new BinaryWire(bytes, false, false, false, Integer.MAX_VALUE, "binary", false);
@@ -173,6 +308,49 @@ public class BinaryWire extends AbstractWire implements Wire {
         bytes.clear();
         valueIn.resetState();
         valueOut.resetState();
+        Arrays.fill(typeIdNames, null);
+        Arrays.fill(typeIdClasses, null);
+    }
+
+    static boolean isTypePrefix(int code) {
+        return code == TYPE_PREFIX || code == TYPE_ID || code == TYPE_DEFINITION;
+    }
+
+    /**
+     * Read the id after a TYPE_ID or TYPE_DEFINITION code, recording the name of a definition.
+     *
+     * @return the id of the type
+     */
+    int readTypeId(int code) {
+        int id = Maths.toUInt31(bytes.readStopBit());
+        if (code == TYPE_DEFINITION) {
+            @Nullable StringBuilder sb = readUtf8();
+            if (id >= typeIdNames.length) {
+                int length = Math.max(16, Integer.highestOneBit(id) << 1);
+                typeIdNames = Arrays.copyOf(typeIdNames, length);
+                typeIdClasses = Arrays.copyOf(typeIdClasses, length);
+            }
+            if (typeIdNames[id] == null || !StringUtils.isEqual(typeIdNames[id], sb)) {
+                typeIdNames[id] = intern(sb);
+                typeIdClasses[id] = null;
+            }
+        } else if (id >= typeIdNames.length || typeIdNames[id] == null) {
+            throw new IORuntimeException("Unknown type id " + id + ", it should be defined earlier in the document");
+        }
+        return id;
+    }
+
+    @NotNull
+    String typeIdName(int id) {
+        return typeIdNames[id];
+    }
+
+    @NotNull
+    Class typeIdClass(int id) throws ClassNotFoundException {
+        Class aClass = typeIdClasses[id];
+        if (aClass == null)
+            typeIdClasses[id] = aClass = classLookup().forName(typeIdNames[id]);
+        return aClass;
     }
 
     public boolean fieldLess() {
@@ -318,6 +496,14 @@ public class BinaryWire extends AbstractWire implements Wire {
                             });
 
                         break outerSwitch;
+                    case I16_ARRAY:
+                    case I32_ARRAY:
+                    case I64_PACKED_ARRAY:
+                    case F32_ARRAY:
+                    case F64_ARRAY:
+                        bytes.uncheckedReadSkipOne();
+                        copyPackedArray(peekCode, wire);
+                        break outerSwitch;
                     case FIELD_ANCHOR: {
                         bytes.uncheckedReadSkipOne();
                         @NotNull StringBuilder sb = acquireStringBuilder();
@@ -337,6 +523,14 @@ public class BinaryWire extends AbstractWire implements Wire {
 
             case BinaryWireHighCode.FLOAT:
                 bytes.uncheckedReadSkipOne();
+                if (peekCode == TYPE_ID || peekCode == TYPE_DEFINITION) {
+                    copyTyped(wire, typeIdName(readTypeId(peekCode)));
+                    break;
+                }
+                if (peekCode == SCHEMA_FINGERPRINT) {
+                    bytes.readSkip(8);
+                    break;
+                }
                 try {
                     Number d = readFloat0(peekCode);
                     wire.getValueOut().object(d);
@@ -378,6 +572,57 @@ public class BinaryWire extends AbstractWire implements Wire {
         }
     }
 
+    private void copyTyped(@NotNull WireOut wire, CharSequence typeName) {
+        wire.getValueOut().typePrefix(typeName);
+        try {
+            Class aClass = ClassAliasPool.CLASS_ALIASES.forName(typeName);
+            if (aClass == byte[].class) {
+                wire.getValueOut().text(BytesStore.wrap(valueIn.bytes()));
+                return;
+            }
+
+            if (aClass.isEnum()) {
+                wire.getValueOut().object(aClass, valueIn.object(aClass));
+                return;
+            }
+            if (usesSelfDescribing(aClass) || aClass.isInterface())
+                return;
+            Marshallable m = (Marshallable) ObjectUtils.newInstance(aClass);
+            valueIn.marshallable(m);
+            wire.getValueOut().marshallable(m);
+        } catch (Exception e) {
+            Jvm.warn().on(getClass(), "Unable to copy " + typeName + " safely will try anyway " + e);
+        }
+    }
+
+    private void copyPackedArray(int code, @NotNull WireOut wire) {
+        long length = bytes.readStopBit();
+        ValueOut valueOut = wire.getValueOut();
+        boolean leaf = valueOut.swapLeaf(true);
+        valueOut.sequence(o -> {
+            for (long i = 0; i < length; i++) {
+                switch (code) {
+                    case I16_ARRAY:
+                        o.int16(bytes.readShort());
+                        break;
+                    case I32_ARRAY:
+                        o.int32(bytes.readInt());
+                        break;
+                    case I64_PACKED_ARRAY:
+                        o.int64(bytes.readLong());
+                        break;
+                    case F32_ARRAY:
+                        o.float32(bytes.readFloat());
+                        break;
+                    default:
+                        o.float64(bytes.readDouble());
+                        break;
+                }
+            }
+        });
+        valueOut.swapLeaf(leaf);
+    }
+
     @SuppressWarnings("incomplete-switch")
     public void readWithLength(@NotNull WireOut wire, int len) {
         long lim = bytes.readLimit();
@@ -539,6 +784,53 @@ public class BinaryWire extends AbstractWire implements Wire {
         return readField(name, null, ANY_CODE_MATCH.code()) == null ? acquireDefaultValueIn() : valueIn;
     }
 
+    @Nullable
+    @Override
+    public <T> T readEventName(@NotNull FieldNameIndex<T> index, @NotNull StringBuilder name) {
+        return readField(index, name);
+    }
+
+    @Nullable
+    @Override
+    public <T> T readField(@NotNull FieldNameIndex<T> index, @NotNull StringBuilder name) {
+        int peekCode = peekCodeAfterPadding();
+        switch (peekCode >> 4) {
+            case BinaryWireHighCode.FIELD0:
+            case BinaryWireHighCode.FIELD1: {
+                final int length = peekCode & 0x1F;
+                final long start = bytes.readPosition() + 1;
+                T t = index.get(bytes, start, length);
+                if (t == null) {
+                    // not known, so the caller needs the name
+                    readSmallField(peekCode, name);
+                    return null;
+                }
+                bytes.readSkip(length + 1L);
+                return t;
+            }
+            default:
+                if (peekCode == FIELD_NAME_ANY) {
+                    final long start = bytes.readPosition();
+                    bytes.uncheckedReadSkipOne();
+                    final long length = bytes.readStopBit();
+                    if (length >= 0) {
+                        T t = index.get(bytes, bytes.readPosition(), Maths.toUInt31(length));
+                        if (t != null) {
+                            bytes.readSkip(length);
+                            return t;
+                        }
+                        bytes.readPosition(start);
+                        read(name);
+                        return null;
+                    }
+                    name.setLength(0);
+                    return null;
+                }
+                read(name);
+                return index.get(name);
+        }
+    }
+
     @NotNull
     @Override
     public ValueIn getValueIn() {
@@ -565,7 +857,7 @@ public class BinaryWire extends AbstractWire implements Wire {
 
     private int peekCodeAfterPadding() {
         int peekCode = peekCode();
-        if (peekCode == PADDING || peekCode == PADDING32 || peekCode == COMMENT) {
+        if (peekCode == PADDING || peekCode == PADDING32 || peekCode == COMMENT || peekCode == SCHEMA_FINGERPRINT) {
             consumePadding();
             peekCode = peekCode();
         }
@@ -597,10 +889,11 @@ public class BinaryWire extends AbstractWire implements Wire {
     private <K> K readSmallField(int peekCode, Class<K> expectedClass) {
         bytes.uncheckedReadSkipOne();
         final int length = peekCode & 0x1F;
-        final String s = BIT8.intern(bytes, length);
+        AdaptiveStringInterner interner = getInterner();
+        final String s = interner == null ? BIT8.intern(bytes, length) : interner.intern8bit(bytes, length);
         bytes.readSkip(length);
         if (expectedClass == String.class)
-            return (K) WireInternal.INTERNER.intern(s);
+            return (K) (interner == null ? WireInternal.INTERNER.intern(s) : s);
         return ObjectUtils.convertTo(expectedClass, s);
     }
 
@@ -616,7 +909,7 @@ public class BinaryWire extends AbstractWire implements Wire {
             case EVENT_NAME:
                 bytes.uncheckedReadSkipOne();
                 @Nullable StringBuilder sb = read8bit();
-                return ObjectUtils.convertTo(expectedClass, WireInternal.INTERNER.intern(sb));
+                return ObjectUtils.convertTo(expectedClass, intern(sb));
 
             case FIELD_ANCHOR:
                 bytes.uncheckedReadSkipOne();
@@ -656,6 +949,11 @@ public class BinaryWire extends AbstractWire implements Wire {
                     break;
                 }
 
+                case SCHEMA_FINGERPRINT:
+                    bytes.uncheckedReadSkipOne();
+                    bytes.readSkip(8);
+                    break;
+
                 default:
                     return;
             }
@@ -807,26 +1105,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                     wire.writeComment(sb);
                     wire.getValueOut().text(valueIn.text());
                 } else {
-                    wire.getValueOut().typePrefix(sb);
-                    try {
-                        Class aClass = ClassAliasPool.CLASS_ALIASES.forName(sb);
-                        if (aClass == byte[].class) {
-                            wire.getValueOut().text(BytesStore.wrap(valueIn.bytes()));
-                            break;
-                        }
-
-                        if (aClass.isEnum()) {
-                            wire.getValueOut().object(aClass, valueIn.object(aClass));
-                            break;
-                        }
-                        if (usesSelfDescribing(aClass) || aClass.isInterface())
-                            break;
-                        Marshallable m = (Marshallable) ObjectUtils.newInstance(aClass);
-                        valueIn.marshallable(m);
-                        wire.getValueOut().marshallable(m);
-                    } catch (Exception e) {
-                        Jvm.warn().on(getClass(), "Unable to copy " + sb + " safely will try anyway " + e);
-                    }
+                    copyTyped(wire, sb);
                 }
                 break;
             }
@@ -848,7 +1127,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                 bytes.uncheckedReadSkipOne();
                 wire.writeStartEvent();
                 boolean wasLeaf = wire.getValueOut().swapLeaf(true);
-                if (peekCode() == TYPE_PREFIX)
+                if (isTypePrefix(peekCode()))
                     copyOne(wire);
                 copyOne(wire);
                 wire.getValueOut().swapLeaf(wasLeaf);
@@ -1500,7 +1779,7 @@ public class BinaryWire extends AbstractWire implements Wire {
         @NotNull
         @Override
         public WireOut bytes(String type, @Nullable BytesStore fromBytes) {
-            typePrefix(type);
+            writeTypePrefix(type);
             if (fromBytes != null)
                 bytes0(fromBytes, fromBytes.readRemaining());
             return BinaryWire.this;
@@ -1509,7 +1788,7 @@ public class BinaryWire extends AbstractWire implements Wire {
         @NotNull
         @Override
         public WireOut bytes(String type, @NotNull byte[] fromBytes) {
-            typePrefix(type);
+            writeTypePrefix(type);
             return bytes(fromBytes);
         }
 
@@ -1658,6 +1937,58 @@ public class BinaryWire extends AbstractWire implements Wire {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireOut array(short[] array, int length) {
+            return usePackedArrays
+                    ? packedArray(I16_ARRAY, array, SHORT_ARRAY_OFFSET, array.length, length, 2)
+                    : ValueOut.super.array(array, length);
+        }
+
+        @NotNull
+        @Override
+        public WireOut array(int[] array, int length) {
+            return usePackedArrays
+                    ? packedArray(I32_ARRAY, array, INT_ARRAY_OFFSET, array.length, length, 4)
+                    : ValueOut.super.array(array, length);
+        }
+
+        @NotNull
+        @Override
+        public WireOut array(long[] array, int length) {
+            return usePackedArrays
+                    ? packedArray(I64_PACKED_ARRAY, array, LONG_ARRAY_OFFSET, array.length, length, 8)
+                    : ValueOut.super.array(array, length);
+        }
+
+        @NotNull
+        @Override
+        public WireOut array(float[] array, int length) {
+            return usePackedArrays
+                    ? packedArray(F32_ARRAY, array, FLOAT_ARRAY_OFFSET, array.length, length, 4)
+                    : ValueOut.super.array(array, length);
+        }
+
+        @NotNull
+        @Override
+        public WireOut array(double[] array, int length) {
+            return usePackedArrays
+                    ? packedArray(F64_ARRAY, array, DOUBLE_ARRAY_OFFSET, array.length, length, 8)
+                    : ValueOut.super.array(array, length);
+        }
+
+        /**
+         * Writes the code, the length and then copies the values as one block.
+         */
+        @NotNull
+        private WireOut packedArray(int code, Object array, int offset, int capacity, int length, int size) {
+            if (length < 0 || length > capacity)
+                throw new ArrayIndexOutOfBoundsException(length);
+            writeCode(code).writeStopBit(length);
+            bytes.unsafeWriteObject(array, offset, length * size);
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireOut float32(float f) {
@@ -1715,6 +2046,30 @@ public class BinaryWire extends AbstractWire implements Wire {
         @NotNull
         @Override
         public ValueOut typePrefix(CharSequence typeName) {
+            if (useTypeIds && typeName != null && !isArrayName(typeName))
+                return typeId(typeName);
+            return writeTypePrefix(typeName);
+        }
+
+        // array() writes the name of the array type e.g. "String[] ", which is read back by name.
+        private boolean isArrayName(@NotNull CharSequence typeName) {
+            int i = typeName.length() - 1;
+            while (i >= 0 && typeName.charAt(i) == ' ')
+                i--;
+            return i >= 0 && typeName.charAt(i) == ']';
+        }
+
+        @NotNull
+        @Override
+        public ValueOut typePrefix(Class type) {
+            // arrays and primitives are read back by name in places, so never use an id.
+            if (useTypeIds && type != null && (type.isArray() || type.isPrimitive()))
+                return writeTypePrefix(ClassAliasPool.CLASS_ALIASES.nameFor(type));
+            return ValueOut.super.typePrefix(type);
+        }
+
+        @NotNull
+        ValueOut writeTypePrefix(CharSequence typeName) {
             if (bytes.retainsComments())
                 bytes.comment(typeName);
             if (typeName != null)
@@ -1722,6 +2077,60 @@ public class BinaryWire extends AbstractWire implements Wire {
             return this;
         }
 
+        @NotNull
+        ValueOut typeId(@NotNull CharSequence typeName) {
+            if (bytes.retainsComments())
+                bytes.comment(typeName);
+            int id = 0;
+            for (; id < typeIdsOutCount; id++) {
+                if (StringUtils.isEqual(typeIdsOutNames[id], typeName)) {
+                    if (isDefinedAt(typeIdsOutPositions[id], id)) {
+                        writeCode(TYPE_ID).writeStopBit(id);
+                        return this;
+                    }
+                    // the definition was truncated by a rollback, so define it again.
+                    break;
+                }
+            }
+            if (id == typeIdsOutCount) {
+                if (id == typeIdsOutNames.length) {
+                    int length = Math.max(8, id * 2);
+                    typeIdsOutNames = Arrays.copyOf(typeIdsOutNames, length);
+                    typeIdsOutPositions = Arrays.copyOf(typeIdsOutPositions, length);
+                }
+                typeIdsOutNames[id] = intern(typeName);
+                typeIdsOutCount++;
+            }
+            typeIdsOutPositions[id] = bytes.writePosition();
+            writeCode(TYPE_DEFINITION).writeStopBit(id).writeUtf8(typeIdsOutNames[id]);
+            return this;
+        }
+
+        /**
+         * @return true if the definition of this id is still at this position, i.e. it hasn't been rolled back.
+         */
+        private boolean isDefinedAt(long position, int id) {
+            if (position >= bytes.writePosition() || bytes.readUnsignedByte(position) != TYPE_DEFINITION)
+                return false;
+            // ids are never reused in a document, so a different definition here has a different id.
+            long pos = position + 1;
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = bytes.readUnsignedByte(pos++);
+                value |= (b & 0x7F) << shift;
+                if (b < 0x80)
+                    break;
+            }
+            return value == id;
+        }
+
+        /**
+         * Forget the type ids defined, so the next document defines its own.
+         */
+        void resetTypeIds() {
+            typeIdsOutCount = 0;
+        }
+
         @NotNull
         @Override
         public WireOut typeLiteral(CharSequence typeName) {
@@ -1755,7 +2164,13 @@ public class BinaryWire extends AbstractWire implements Wire {
         @NotNull
         @Override
         public WireOut uuid(@NotNull UUID uuid) {
-            writeCode(UUID).writeLong(uuid.getMostSignificantBits()).writeLong(uuid.getLeastSignificantBits());
+            return uuid(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+
+        @NotNull
+        @Override
+        public WireOut uuid(long mostSignificantBits, long leastSignificantBits) {
+            writeCode(UUID).writeLong(mostSignificantBits).writeLong(leastSignificantBits);
             return BinaryWire.this;
         }
 
@@ -1915,7 +2330,7 @@ public class BinaryWire extends AbstractWire implements Wire {
 
         @Override
         public void resetState() {
-            // Do nothing
+            resetTypeIds();
         }
     }
 
@@ -2294,7 +2709,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                     if (code >= STRING_0 && code <= STRING_31) {
                         @NotNull StringBuilder sb = acquireStringBuilder();
                         bytes.parseUtf8(sb, code & 0b11111);
-                        s.accept(WireInternal.INTERNER.intern(sb));
+                        s.accept(intern(sb));
 
                     } else {
                         cantRead(code);
@@ -2361,7 +2776,8 @@ public class BinaryWire extends AbstractWire implements Wire {
                     long end = bytes.readPosition() + len;
                     try {
                         bytes.readLimit(end);
-                        return UTF8.intern(bytes);
+                        AdaptiveStringInterner interner = getInterner();
+                        return interner == null ? UTF8.intern(bytes) : interner.internUtf8(bytes, len);
                     } finally {
                         bytes.readLimit(limit);
                         bytes.readPosition(end);
@@ -2371,12 +2787,12 @@ public class BinaryWire extends AbstractWire implements Wire {
                 case TYPE_PREFIX: {
                     @Nullable StringBuilder sb = readUtf8();
                     if (sb != null) {
-                        @Nullable byte[] bytes = Compression.uncompress(sb, this, ValueIn::bytes);
+                        @Nullable byte[] bytes = CompressionCodecs.uncompress(sb, this, ValueIn::bytes);
                         if (bytes != null)
                             return new String(bytes, StandardCharsets.UTF_8);
                     }
                     @Nullable StringBuilder text = readText(code, acquireStringBuilder());
-                    return WireInternal.INTERNER.intern(text);
+                    return intern(text);
                 }
 
                 default: {
@@ -2384,7 +2800,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                     @Nullable StringBuilder text = ((code & 0xE0) == 0xE0)
                             ? getStringBuilder(code, sb)
                             : readText(code, sb);
-                    return text == null ? null : WireInternal.INTERNER.intern(text);
+                    return text == null ? null : intern(text);
                 }
             }
         }
@@ -2414,7 +2830,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                 if (clearBytes)
                     toBytes.clear();
 
-                bytes.readWithLength0(length2 - 1, (b, sb1, toBytes1) -> Compression.uncompress(sb1, b, toBytes1), sb, toBytes);
+                bytes.readWithLength0(length2 - 1, (b, sb1, toBytes1) -> CompressionCodecs.uncompress(sb1, b, toBytes1), sb, toBytes);
                 return wireIn();
 
             }
@@ -2498,7 +2914,7 @@ public class BinaryWire extends AbstractWire implements Wire {
 
                 case TYPE_PREFIX: {
                     @Nullable StringBuilder sb = readUtf8();
-                    @Nullable byte[] bytes = Compression.uncompress(sb, this, ValueIn::bytes);
+                    @Nullable byte[] bytes = CompressionCodecs.uncompress(sb, this, ValueIn::bytes);
                     if (bytes != null)
                         return BytesStore.wrap(bytes);
                     throw new UnsupportedOperationException("Unsupported type " + sb);
@@ -2634,6 +3050,11 @@ public class BinaryWire extends AbstractWire implements Wire {
                     long len = bytes.readStopBit();
                     bytes.readSkip(len);
                     return readLength();
+                case TYPE_ID:
+                case TYPE_DEFINITION:
+                    bytes.uncheckedReadSkipOne();
+                    readTypeId(code);
+                    return readLength();
                 case FALSE:
                 case TRUE:
                 case NULL:
@@ -2658,6 +3079,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                 case PADDING:
                 case PADDING32:
                 case COMMENT:
+                case SCHEMA_FINGERPRINT:
                     consumePadding();
                     return readLength();
 
@@ -2675,6 +3097,15 @@ public class BinaryWire extends AbstractWire implements Wire {
                 case UUID:
                     return 1 + 8 + 8;
 
+                case I16_ARRAY:
+                    return packedArrayLength(2);
+                case I32_ARRAY:
+                case F32_ARRAY:
+                    return packedArrayLength(4);
+                case I64_PACKED_ARRAY:
+                case F64_ARRAY:
+                    return packedArrayLength(8);
+
                 case INT64_0x:
                     return 1 + 8;
 
@@ -2705,6 +3136,79 @@ public class BinaryWire extends AbstractWire implements Wire {
             }
         }
 
+        private long packedArrayLength(int size) {
+            long pos0 = bytes.readPosition();
+            try {
+                bytes.uncheckedReadSkipOne();
+                long count = bytes.readStopBit();
+                return bytes.readPosition() - pos0 + count * size;
+            } finally {
+                bytes.readPosition(pos0);
+            }
+        }
+
+        private int packedArrayCount() {
+            long pos0 = bytes.readPosition();
+            try {
+                bytes.uncheckedReadSkipOne();
+                return Maths.toUInt31(bytes.readStopBit());
+            } finally {
+                bytes.readPosition(pos0);
+            }
+        }
+
+        /**
+         * Copies up to <code>capacity</code> values as one block, skipping any more.
+         */
+        private int readPackedArray(Object array, int offset, int capacity, int size) {
+            bytes.uncheckedReadSkipOne();
+            long count = bytes.readStopBit();
+            int length = (int) Math.min(count, capacity);
+            bytes.unsafeReadObject(array, offset, length * size);
+            bytes.readSkip((count - length) * size);
+            return length;
+        }
+
+        @Override
+        public int array(short[] array) {
+            consumePadding();
+            return peekCode() == I16_ARRAY
+                    ? readPackedArray(array, SHORT_ARRAY_OFFSET, array.length, 2)
+                    : ValueIn.super.array(array);
+        }
+
+        @Override
+        public int array(int[] array) {
+            consumePadding();
+            return peekCode() == I32_ARRAY
+                    ? readPackedArray(array, INT_ARRAY_OFFSET, array.length, 4)
+                    : ValueIn.super.array(array);
+        }
+
+        @Override
+        public int array(long[] array) {
+            consumePadding();
+            return peekCode() == I64_PACKED_ARRAY
+                    ? readPackedArray(array, LONG_ARRAY_OFFSET, array.length, 8)
+                    : ValueIn.super.array(array);
+        }
+
+        @Override
+        public int array(float[] array) {
+            consumePadding();
+            return peekCode() == F32_ARRAY
+                    ? readPackedArray(array, FLOAT_ARRAY_OFFSET, array.length, 4)
+                    : ValueIn.super.array(array);
+        }
+
+        @Override
+        public int array(double[] array) {
+            consumePadding();
+            return peekCode() == F64_ARRAY
+                    ? readPackedArray(array, DOUBLE_ARRAY_OFFSET, array.length, 8)
+                    : ValueIn.super.array(array);
+        }
+
         @NotNull
         @Override
         public WireIn skipValue() {
@@ -3182,7 +3686,7 @@ public class BinaryWire extends AbstractWire implements Wire {
         @Override
         public boolean isTyped() {
             int code = peekCode();
-            return code == TYPE_PREFIX;
+            return isTypePrefix(code);
         }
 
         @Override
@@ -3195,6 +3699,12 @@ public class BinaryWire extends AbstractWire implements Wire {
                     case TYPE_PREFIX:
                         return typedMarshallable0();
 
+                    case TYPE_ID:
+                    case TYPE_DEFINITION: {
+                        int id = readTypeId(code);
+                        return typedMarshallable(typeIdClass0(id), typeIdName(id));
+                    }
+
                     case NULL:
                         return null;
 
@@ -3226,7 +3736,11 @@ public class BinaryWire extends AbstractWire implements Wire {
             } catch (ClassNotFoundException e) {
                 throw new IORuntimeException(e);
             }
+            return typedMarshallable(clazz, sb);
+        }
 
+        @Nullable
+        private <T> T typedMarshallable(Class clazz, CharSequence sb) {
             if (Demarshallable.class.isAssignableFrom(clazz)) {
                 return (T) demarshallable(clazz);
             }
@@ -3245,6 +3759,15 @@ public class BinaryWire extends AbstractWire implements Wire {
             throw new UnsupportedOperationException("Used by DeltaWire");
         }
 
+        @NotNull
+        private Class typeIdClass0(int id) {
+            try {
+                return typeIdClass(id);
+            } catch (ClassNotFoundException e) {
+                throw new IORuntimeException(e);
+            }
+        }
+
         @NotNull
         protected <T> T anchor() {
             throw new UnsupportedOperationException("Used by DeltaWire");
@@ -3256,7 +3779,7 @@ public class BinaryWire extends AbstractWire implements Wire {
                 throws IORuntimeException {
 
             int code = peekCode();
-            if (code != TYPE_PREFIX)
+            if (!isTypePrefix(code))
                 // todo get delta wire to support Function<Class, ReadMarshallable> correctly
                 return typedMarshallable();
 
@@ -3273,6 +3796,16 @@ public class BinaryWire extends AbstractWire implements Wire {
         @Override
         public Class typePrefix() {
             int code = peekCode();
+            if (code == TYPE_ID || code == TYPE_DEFINITION) {
+                bytes.uncheckedReadSkipOne();
+                int id = readTypeId(code);
+                try {
+                    return typeIdClass(id);
+                } catch (ClassNotFoundException e) {
+                    Jvm.warn().on(BinaryWire.this.getClass(), "Unable to find class " + typeIdName(id));
+                    return null;
+                }
+            }
             if (code != TYPE_PREFIX) {
                 return null;
             }
@@ -3290,11 +3823,22 @@ public class BinaryWire extends AbstractWire implements Wire {
         @Override
         public Object typePrefixOrObject(Class tClass) {
             int code = peekCode();
-            if (code != TYPE_PREFIX) {
+            if (!isTypePrefix(code)) {
                 return null;
             }
             bytes.uncheckedReadSkipOne();
-            @Nullable StringBuilder sb = readUtf8();
+            @Nullable CharSequence sb;
+            if (code == TYPE_PREFIX) {
+                sb = readUtf8();
+            } else {
+                int id = readTypeId(code);
+                sb = typeIdName(id);
+                try {
+                    return typeIdClass(id);
+                } catch (ClassNotFoundException ignored) {
+                    // handled as for a type prefix below.
+                }
+            }
 
             try {
                 return sb == null ? null : classLookup().forName(sb);
@@ -3318,6 +3862,14 @@ public class BinaryWire extends AbstractWire implements Wire {
                     bytes.readUtf8(sb);
 
                     break;
+                case TYPE_ID:
+                case TYPE_DEFINITION: {
+                    // a definition reads its name into the same StringBuilder
+                    String name = typeIdName(readTypeId(code));
+                    sb.setLength(0);
+                    sb.append(name);
+                    break;
+                }
                 case NULL:
                     sb.setLength(0);
                     sb.append("!null");
@@ -3379,6 +3931,14 @@ public class BinaryWire extends AbstractWire implements Wire {
             consumePadding();
             if (this.isNull())
                 return false;
+            int code = peekCode();
+            if (code == ANCHOR || code == UPDATED_ALIAS) {
+                bytes.uncheckedReadSkipOne();
+                @NotNull Object o = code == ANCHOR ? anchor() : updateAlias();
+                if (o != object)
+                    Wires.copyTo(o, object);
+                return true;
+            }
             pushState();
             long length = readLength();
             if (length >= 0) {
@@ -3701,6 +4261,32 @@ public class BinaryWire extends AbstractWire implements Wire {
                             return toBytes;
                         }
 
+                        case I16_ARRAY: {
+                            short[] array = new short[packedArrayCount()];
+                            array(array);
+                            return array;
+                        }
+                        case I32_ARRAY: {
+                            int[] array = new int[packedArrayCount()];
+                            array(array);
+                            return array;
+                        }
+                        case I64_PACKED_ARRAY: {
+                            long[] array = new long[packedArrayCount()];
+                            array(array);
+                            return array;
+                        }
+                        case F32_ARRAY: {
+                            float[] array = new float[packedArrayCount()];
+                            array(array);
+                            return array;
+                        }
+                        case F64_ARRAY: {
+                            double[] array = new double[packedArrayCount()];
+                            array(array);
+                            return array;
+                        }
+
                         case ANCHOR:
                         case UPDATED_ALIAS:
                             return typedMarshallable();
@@ -3760,6 +4346,8 @@ public class BinaryWire extends AbstractWire implements Wire {
 
                 case BinaryWireHighCode.FLOAT:
                     bytes.uncheckedReadSkipOne();
+                    if (code == TYPE_ID || code == TYPE_DEFINITION)
+                        return object(null, typeIdClass0(readTypeId(code)));
                     return readFloat0bject(code);
 
                 case BinaryWireHighCode.INT:
@@ -3791,6 +4379,13 @@ public class BinaryWire extends AbstractWire implements Wire {
                             long length = readLength();
                             bytes.readSkip(length);
                             return;
+                        case I16_ARRAY:
+                        case I32_ARRAY:
+                        case I64_PACKED_ARRAY:
+                        case F32_ARRAY:
+                        case F64_ARRAY:
+                            bytes.readSkip(readLength());
+                            return;
                         case ANCHOR:
                         case UPDATED_ALIAS:
                             valueIn.object();
@@ -3827,6 +4422,11 @@ public class BinaryWire extends AbstractWire implements Wire {
                     if (code < 128 && code >= 0) {
                         return;
                     }
+                    if (code == TYPE_ID || code == TYPE_DEFINITION) {
+                        readTypeId(code);
+                        consumeNext();
+                        return;
+                    }
 
                     // copy/pasted from readFloat0bject so as to avoid auto-boxing
                     switch (code) {
@@ -3902,6 +4502,11 @@ public class BinaryWire extends AbstractWire implements Wire {
         @NotNull
         String[] inField = new String[128];
 
+        void resetAnchors() {
+            Arrays.fill(inObjects, null);
+            Arrays.fill(inField, null);
+        }
+
         @NotNull
         @Override
         protected <T> T anchor() {
@@ -34,6 +34,10 @@ public enum BinaryWireCode {
     public static final int BYTES_LENGTH32 = 0x82;
     // sequence of length 0 - 255
 //        public static final int BYTES_LENGTH64 = 0x83;
+    // packed arrays of primitives, a stop bit count followed by the values in native byte order
+    public static final int I64_PACKED_ARRAY = 0x83;
+    public static final int F32_ARRAY = 0x84;
+    public static final int F64_ARRAY = 0x85;
 
     public static final int BYTES_MARSHALLABLE = 0x86; // explicitly BytesMarshallable.
     public static final int FIELD_ANCHOR = 0x87;
@@ -42,8 +46,9 @@ public enum BinaryWireCode {
 
     // an array of unsigned bytes
     public static final int U8_ARRAY = 0x8A;
-    //        public static final int U16_ARRAY = 0x8B;
-//        public static final int I32_ARRAY = 0x8C;
+    // an array of signed 16-bit values
+    public static final int I16_ARRAY = 0x8B;
+    public static final int I32_ARRAY = 0x8C;
     public static final int I64_ARRAY = 0x8D;
     public static final int PADDING32 = 0x8E;
     public static final int PADDING = 0x8F;
@@ -56,7 +61,14 @@ public enum BinaryWireCode {
     public static final int FLOAT_SET_LOW_0 = 0x9A;
     public static final int FLOAT_SET_LOW_2 = 0x9B;
     public static final int FLOAT_SET_LOW_4 = 0x9C;
-    // 0x98 - 0x9F
+    // 0x98 - 0x9C
+    // an 8 byte fingerprint of the fields of the outermost marshallable which follows and those nested in it,
+    // which can be skipped like padding.
+    public static final int SCHEMA_FINGERPRINT = 0x9D;
+    // a type prefix which defines a stop bit id for its type name for the rest of the document.
+    public static final int TYPE_DEFINITION = 0x9E;
+    // a type prefix of a stop bit id defined earlier in the document.
+    public static final int TYPE_ID = 0x9F;
 
     public static final int UUID = 0xA0;
     public static final int UINT8 = 0xA1;
@@ -43,6 +43,7 @@ public class BinaryWriteDocumentContext implements WriteDocumentContext {
             assert metaData == isMetaData();
             return;
         }
+        wire.getValueOut().resetBetweenDocuments();
         @NotNull Bytes<?> bytes = wire().bytes();
         bytes.writePositionForHeader(wire.usePadding());
         bytes.comment("msg-length");
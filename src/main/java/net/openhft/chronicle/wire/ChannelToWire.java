@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static net.openhft.chronicle.wire.WireToChannel.bigEndian;
+
+/**
+ * Reads length prefixed messages from a blocking channel, as written by {@link WireToChannel} or {@link WireToOutputStream}.
+ * <p>
+ * Each read from the channel fills a direct buffer, so many messages can be read per syscall.
+ */
+public class ChannelToWire {
+    private final Bytes<ByteBuffer> bytes = Bytes.elasticByteBuffer(64 << 10);
+    private final Wire wire;
+    private final ReadableByteChannel channel;
+    // the end of the data read from the channel, as the readLimit is set to the end of each message.
+    private long end = 0;
+    private long nextMessage = 0;
+
+    public ChannelToWire(WireType wireType, ReadableByteChannel channel) {
+        wire = wireType.apply(bytes);
+        this.channel = channel;
+    }
+
+    /**
+     * @return the wire limited to the next message, only valid until the next call.
+     * @throws EOFException if the channel is closed before a whole message is read.
+     */
+    @NotNull
+    public Wire readOne() throws IOException {
+        bytes.readPositionRemaining(nextMessage, end - nextMessage);
+        ensureRemaining(4);
+        int length = bigEndian(bytes.readInt(nextMessage));
+        if (length < 0) throw new StreamCorruptedException();
+        ensureRemaining(4 + length);
+        long start = nextMessage + 4;
+        nextMessage = start + length;
+        bytes.readPositionRemaining(start, length);
+        return wire;
+    }
+
+    private void ensureRemaining(int needed) throws IOException {
+        if (end - nextMessage >= needed)
+            return;
+        // move the partial message to the start of the buffer
+        ByteBuffer bb = bytes.underlyingObject();
+        bb.clear();
+        bb.position(Math.toIntExact(nextMessage));
+        bb.limit(Math.toIntExact(end));
+        bb.compact();
+        end -= nextMessage;
+        nextMessage = 0;
+        bytes.readPositionRemaining(0, end);
+
+        if (bb.capacity() < needed) {
+            bytes.ensureCapacity(needed);
+            bb = bytes.underlyingObject();
+        }
+        bb.clear();
+        while (end < needed) {
+            bb.position(Math.toIntExact(end));
+            int read = channel.read(bb);
+            if (read < 0)
+                throw new EOFException();
+            end += read;
+        }
+        bytes.readPositionRemaining(0, end);
+    }
+}
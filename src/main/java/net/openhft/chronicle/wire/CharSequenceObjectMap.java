@@ -40,9 +40,9 @@ public class CharSequenceObjectMap<T> {
     public void put(CharSequence name, T t) {
         int h = hashFor(name);
         for (int i = 0; i < mask; i++) {
-            if (keys[i] == null || StringUtils.isEqual(keys[i], name)) {
-                keys[i] = name.toString();
-                values[i] = t;
+            if (keys[h] == null || StringUtils.isEqual(keys[h], name)) {
+                keys[h] = name.toString();
+                values[h] = t;
                 return;
             }
             h = (h + 1) & mask;
@@ -53,10 +53,10 @@ public class CharSequenceObjectMap<T> {
     public T get(CharSequence cs) {
         int h = hashFor(cs);
         for (int i = 0; i < mask; i++) {
-            if (keys[i] == null)
+            if (keys[h] == null)
                 return null;
-            if (StringUtils.isEqual(keys[i], cs))
-                return values[i];
+            if (StringUtils.isEqual(keys[h], cs))
+                return values[h];
             h = (h + 1) & mask;
         }
         throw new IllegalStateException("Map is full");
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A block compression codec for <code>bytes(..)</code> payloads, selected by name e.g. with
+ * {@link BinaryWire#setCompression(String)}. The name is written as the type prefix of the payload, so a reader
+ * picks the same codec from the {@link CompressionCodecs} registry.
+ * <p>
+ * Implementations are registered with {@link CompressionCodecs#register(CompressionCodec)} or as a
+ * {@link java.util.ServiceLoader} service and must be thread safe.
+ */
+public interface CompressionCodec {
+    /**
+     * @return the name written as the type prefix.
+     */
+    @NotNull
+    String name();
+
+    /**
+     * Compresses from the readPosition to the readLimit of <code>from</code>, appending to <code>to</code>.
+     * <code>from</code> is consumed.
+     */
+    void compress(@NotNull Bytes<?> from, @NotNull Bytes<?> to);
+
+    /**
+     * Uncompresses from the readPosition to the readLimit of <code>from</code>, appending to <code>to</code>.
+     * <code>from</code> is consumed.
+     */
+    void uncompress(@NotNull Bytes<?> from, @NotNull Bytes<?> to);
+}
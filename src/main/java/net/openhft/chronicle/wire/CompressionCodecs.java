@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesIn;
+import net.openhft.chronicle.bytes.BytesOut;
+import net.openhft.chronicle.bytes.util.Compression;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.util.ThrowingFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of {@link CompressionCodec}s by name. Names not registered here, such as <code>lzw</code> and
+ * <code>gzip</code>, are handled by {@link Compression}.
+ */
+public enum CompressionCodecs {
+    ; // none
+
+    // copied on write, so a lookup can scan the names without allocating.
+    private static volatile CompressionCodec[] codecs = {};
+
+    static {
+        register(Lz4Codec.INSTANCE);
+        for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class))
+            register(codec);
+    }
+
+    public static synchronized void register(@NotNull CompressionCodec codec) {
+        CompressionCodec[] codecs = CompressionCodecs.codecs;
+        for (int i = 0; i < codecs.length; i++) {
+            if (codecs[i].name().equals(codec.name())) {
+                CompressionCodec[] copy = codecs.clone();
+                copy[i] = codec;
+                CompressionCodecs.codecs = copy;
+                return;
+            }
+        }
+        CompressionCodec[] copy = Arrays.copyOf(codecs, codecs.length + 1);
+        copy[codecs.length] = codec;
+        CompressionCodecs.codecs = copy;
+    }
+
+    /**
+     * @param name of the codec, with or without a leading <code>!</code>
+     * @return the codec or null if this name is not registered
+     */
+    @Nullable
+    public static CompressionCodec codec(@NotNull CharSequence name) {
+        if (name.length() == 0)
+            return null;
+        int start = name.charAt(0) == '!' ? 1 : 0;
+        for (CompressionCodec codec : codecs) {
+            if (nameEquals(codec.name(), name, start))
+                return codec;
+        }
+        return null;
+    }
+
+    private static boolean nameEquals(String codecName, CharSequence name, int start) {
+        int length = codecName.length();
+        if (name.length() - start != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (codecName.charAt(i) != name.charAt(start + i))
+                return false;
+        return true;
+    }
+
+    public static void compress(@NotNull CharSequence name, @NotNull Bytes<?> uncompressed, @NotNull Bytes<?> compressed) {
+        CompressionCodec codec = codec(name);
+        if (codec == null)
+            Compression.compress(name, uncompressed, compressed);
+        else
+            codec.compress(uncompressed, compressed);
+    }
+
+    public static void uncompress(@NotNull CharSequence name, @NotNull BytesIn from, @NotNull BytesOut to) {
+        CompressionCodec codec = codec(name);
+        if (codec != null && from instanceof Bytes && to instanceof Bytes)
+            codec.uncompress((Bytes<?>) from, (Bytes<?>) to);
+        else
+            Compression.uncompress(name, from, to);
+    }
+
+    @Nullable
+    public static <T> byte[] uncompress(@NotNull CharSequence name, T t, @NotNull ThrowingFunction<T, byte[], IORuntimeException> bytes) throws IORuntimeException {
+        CompressionCodec codec = codec(name);
+        if (codec == null)
+            return Compression.uncompress(name, t, bytes);
+        byte[] compressed = bytes.apply(t);
+        if (compressed == null)
+            return null;
+        Bytes<byte[]> from = Bytes.wrapForRead(compressed);
+        Bytes<?> to = Bytes.allocateElasticOnHeap(compressed.length * 2);
+        try {
+            codec.uncompress(from, to);
+            return to.toByteArray();
+        } finally {
+            from.releaseLast();
+            to.releaseLast();
+        }
+    }
+}
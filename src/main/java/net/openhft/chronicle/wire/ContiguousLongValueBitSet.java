@@ -0,0 +1,539 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.values.LongValue;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * A {@link LongValueBitSet} which addresses its words directly in the <code>BytesStore</code> they are bound to,
+ * rather than through a <code>LongValue</code> per word. It has the same wire format, so either can be used on the
+ * same shared memory.
+ * <p>
+ * Words are updated with a compare and swap, and range operations scan a word at a time.
+ * This requires a binary wire, as the words are at a fixed stride from the first one.
+ */
+public class ContiguousLongValueBitSet extends AbstractCloseable implements Marshallable, ChronicleBitSet {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+    private static final long WORD_MASK = 0xffffffffffffffffL;
+
+    private int numberOfWords;
+    // holds the store for as long as the words are bound.
+    private transient LongValue firstWord;
+    private transient BytesStore store;
+    private transient long base;
+    private transient long stride;
+
+    public ContiguousLongValueBitSet(final int maxNumberOfBits) {
+        numberOfWords = (maxNumberOfBits / 64) + 1;
+        disableThreadSafetyCheck(true);
+    }
+
+    public ContiguousLongValueBitSet(final int maxNumberOfBits, Wire w) {
+        this(maxNumberOfBits);
+        writeMarshallable(w);
+        readMarshallable(w);
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex +
+                    " > toIndex: " + toIndex);
+    }
+
+    @Override
+    protected void performClose() {
+        closeQuietly(firstWord);
+        firstWord = null;
+        store = null;
+    }
+
+    private long offset(int wordIndex) {
+        return base + wordIndex * stride;
+    }
+
+    private long word(int wordIndex) {
+        return store.readVolatileLong(offset(wordIndex));
+    }
+
+    private void word(int wordIndex, long value) {
+        store.writeOrderedLong(offset(wordIndex), value);
+    }
+
+    /**
+     * Atomically sets a word to <code>(word &amp; andMask) ^ xorMask</code>
+     */
+    private void update(int wordIndex, long andMask, long xorMask) {
+        long offset = offset(wordIndex);
+        for (; ; ) {
+            long oldValue = store.readVolatileLong(offset);
+            long newValue = (oldValue & andMask) ^ xorMask;
+            if (newValue == oldValue || store.compareAndSwapLong(offset, oldValue, newValue))
+                return;
+        }
+    }
+
+    private void setBits(int wordIndex, long mask) {
+        update(wordIndex, ~mask, mask);
+    }
+
+    private void clearBits(int wordIndex, long mask) {
+        update(wordIndex, ~mask, 0);
+    }
+
+    private void flipBits(int wordIndex, long mask) {
+        update(wordIndex, WORD_MASK, mask);
+    }
+
+    private int checkWordIndex(int wordIndex) {
+        if (wordIndex >= numberOfWords)
+            throw new UnsupportedOperationException("todo: it is not possible currently to expand " +
+                    "this structure, because of its concurrent nature and have to implement cross " +
+                    "process locking");
+        return wordIndex;
+    }
+
+    @Override
+    public int size() {
+        return numberOfWords * BITS_PER_WORD;
+    }
+
+    @Override
+    public void set(int bitIndex) {
+        throwExceptionIfClosed();
+        checkIndex(bitIndex);
+
+        setBits(checkWordIndex(wordIndex(bitIndex)), 1L << bitIndex);
+    }
+
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    /**
+     * Sets the bits from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive). The first and last words
+     * are updated with a compare and swap, the words between are written.
+     */
+    public void set(int fromIndex, int toIndex) {
+        throwExceptionIfClosed();
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = checkWordIndex(wordIndex(toIndex - 1));
+
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            setBits(startWordIndex, firstWordMask & lastWordMask);
+        } else {
+            setBits(startWordIndex, firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++)
+                word(i, WORD_MASK);
+            setBits(endWordIndex, lastWordMask);
+        }
+    }
+
+    public void set(int fromIndex, int toIndex, boolean value) {
+        if (value)
+            set(fromIndex, toIndex);
+        else
+            clear(fromIndex, toIndex);
+    }
+
+    @Override
+    public void clear(int bitIndex) {
+        throwExceptionIfClosed();
+        checkIndex(bitIndex);
+
+        int wordIndex = wordIndex(bitIndex);
+        if (wordIndex >= numberOfWords)
+            return;
+        clearBits(wordIndex, 1L << bitIndex);
+    }
+
+    /**
+     * Clears the bits from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive). The first and last words
+     * are updated with a compare and swap, the words between are written.
+     */
+    public void clear(int fromIndex, int toIndex) {
+        throwExceptionIfClosed();
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+
+        int startWordIndex = wordIndex(fromIndex);
+        if (startWordIndex >= numberOfWords)
+            return;
+        int endWordIndex = wordIndex(toIndex - 1);
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (endWordIndex >= numberOfWords) {
+            endWordIndex = numberOfWords - 1;
+            lastWordMask = WORD_MASK;
+        }
+
+        long firstWordMask = WORD_MASK << fromIndex;
+        if (startWordIndex == endWordIndex) {
+            clearBits(startWordIndex, firstWordMask & lastWordMask);
+        } else {
+            clearBits(startWordIndex, firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++)
+                word(i, 0L);
+            clearBits(endWordIndex, lastWordMask);
+        }
+    }
+
+    @Override
+    public void clear() {
+        throwExceptionIfClosed();
+
+        for (int i = 0; i < numberOfWords; i++)
+            word(i, 0L);
+    }
+
+    public void flip(int bitIndex) {
+        throwExceptionIfClosed();
+        checkIndex(bitIndex);
+
+        flipBits(checkWordIndex(wordIndex(bitIndex)), 1L << bitIndex);
+    }
+
+    public void flip(int fromIndex, int toIndex) {
+        throwExceptionIfClosed();
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = checkWordIndex(wordIndex(toIndex - 1));
+
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            flipBits(startWordIndex, firstWordMask & lastWordMask);
+        } else {
+            flipBits(startWordIndex, firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++)
+                flipBits(i, WORD_MASK);
+            flipBits(endWordIndex, lastWordMask);
+        }
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        throwExceptionIfClosed();
+        checkIndex(bitIndex);
+
+        int wordIndex = wordIndex(bitIndex);
+        return wordIndex < numberOfWords
+                && (word(wordIndex) & (1L << bitIndex)) != 0;
+    }
+
+    public int nextSetBit(int fromIndex) {
+        return nextSetBit(fromIndex, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex, int toIndex) {
+        throwExceptionIfClosed();
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+
+        int u = wordIndex(fromIndex);
+        if (u >= numberOfWords)
+            return -1;
+
+        long word = word(u) & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == numberOfWords || (long) u * BITS_PER_WORD > toIndex)
+                return -1;
+            word = word(u);
+        }
+    }
+
+    public int nextClearBit(int fromIndex) {
+        throwExceptionIfClosed();
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+
+        int u = wordIndex(fromIndex);
+        if (u >= numberOfWords)
+            return fromIndex;
+
+        long word = ~word(u) & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == numberOfWords)
+                return numberOfWords * BITS_PER_WORD;
+            word = ~word(u);
+        }
+    }
+
+    public int previousSetBit(int fromIndex) {
+        throwExceptionIfClosed();
+        if (fromIndex < 0) {
+            if (fromIndex == -1)
+                return -1;
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+
+        int u = wordIndex(fromIndex);
+        if (u >= numberOfWords)
+            return length() - 1;
+
+        long word = word(u) & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = word(u);
+        }
+    }
+
+    public int previousClearBit(int fromIndex) {
+        throwExceptionIfClosed();
+        if (fromIndex < 0) {
+            if (fromIndex == -1)
+                return -1;
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+
+        int u = wordIndex(fromIndex);
+        if (u >= numberOfWords)
+            return fromIndex;
+
+        long word = ~word(u) & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = ~word(u);
+        }
+    }
+
+    /**
+     * @return the index of the highest set bit plus one
+     */
+    public int length() {
+        throwExceptionIfClosed();
+
+        for (int u = numberOfWords - 1; u >= 0; u--) {
+            long word = word(u);
+            if (word != 0)
+                return BITS_PER_WORD * u + (BITS_PER_WORD - Long.numberOfLeadingZeros(word));
+        }
+        return 0;
+    }
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    public int cardinality() {
+        throwExceptionIfClosed();
+
+        int sum = 0;
+        for (int i = 0; i < numberOfWords; i++)
+            sum += Long.bitCount(word(i));
+        return sum;
+    }
+
+    public boolean intersects(ContiguousLongValueBitSet set) {
+        throwExceptionIfClosed();
+
+        for (int i = Math.min(numberOfWords, set.numberOfWords) - 1; i >= 0; i--)
+            if ((word(i) & set.word(i)) != 0)
+                return true;
+        return false;
+    }
+
+    public void and(ContiguousLongValueBitSet set) {
+        throwExceptionIfClosed();
+        if (this == set)
+            return;
+
+        int wordsInCommon = Math.min(numberOfWords, set.numberOfWords);
+        for (int i = 0; i < wordsInCommon; i++)
+            update(i, set.word(i), 0);
+        for (int i = wordsInCommon; i < numberOfWords; i++)
+            word(i, 0L);
+    }
+
+    public void or(ContiguousLongValueBitSet set) {
+        throwExceptionIfClosed();
+        if (this == set)
+            return;
+
+        for (int i = Math.min(numberOfWords, set.numberOfWords) - 1; i >= 0; i--)
+            setBits(i, set.word(i));
+    }
+
+    public void xor(ContiguousLongValueBitSet set) {
+        throwExceptionIfClosed();
+
+        for (int i = Math.min(numberOfWords, set.numberOfWords) - 1; i >= 0; i--)
+            flipBits(i, set.word(i));
+    }
+
+    public void andNot(ContiguousLongValueBitSet set) {
+        throwExceptionIfClosed();
+
+        for (int i = Math.min(numberOfWords, set.numberOfWords) - 1; i >= 0; i--)
+            clearBits(i, set.word(i));
+    }
+
+    /**
+     * @return a little-endian representation of all the bits in this bit set, as {@link java.util.BitSet#toByteArray()}
+     */
+    public byte[] toByteArray() {
+        throwExceptionIfClosed();
+
+        int n = numberOfWords;
+        while (n > 0 && word(n - 1) == 0)
+            n--;
+        if (n == 0)
+            return new byte[0];
+        int len = 8 * (n - 1);
+        for (long x = word(n - 1); x != 0; x >>>= 8)
+            len++;
+        byte[] bytes = new byte[len];
+        ByteBuffer bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n - 1; i++)
+            bb.putLong(word(i));
+        for (long x = word(n - 1); x != 0; x >>>= 8)
+            bb.put((byte) (x & 0xff));
+        return bytes;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        for (int i = numberOfWords; --i >= 0; )
+            h ^= word(i) * (i + 1);
+
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ContiguousLongValueBitSet))
+            return false;
+        throwExceptionIfClosed();
+
+        ContiguousLongValueBitSet set = (ContiguousLongValueBitSet) obj;
+        if (numberOfWords != set.numberOfWords)
+            return false;
+        for (int i = 0; i < numberOfWords; i++)
+            if (word(i) != set.word(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('{');
+        String sep = "";
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            b.append(sep).append(i);
+            sep = ", ";
+            if (i == Integer.MAX_VALUE)
+                break;
+        }
+        b.append('}');
+        return b.toString();
+    }
+
+    @Override
+    public void writeMarshallable(@NotNull final WireOut wire) {
+        try (DocumentContext dc = wire.writingDocument()) {
+
+            wire.write("numberOfLongValues").int32(numberOfWords);
+            dc.wire().consumePadding();
+
+            for (int i = 0; i < numberOfWords; i++)
+                wire.getValueOut().int64forBinding(store == null ? 0L : word(i));
+        }
+    }
+
+    @Override
+    public void readMarshallable(@NotNull final WireIn wire) throws IORuntimeException {
+        throwExceptionIfClosed();
+
+        closeQuietly(firstWord);
+
+        try (DocumentContext dc = wire.readingDocument()) {
+
+            int numberOfLongValues = wire.read("numberOfLongValues").int32();
+            dc.wire().padToCacheAlign();
+
+            // bind the first two words to find where they are, then skip the rest.
+            LongValue first = wire.getValueIn().int64ForBinding(null);
+            if (!(first instanceof Byteable))
+                throw new IllegalArgumentException("Requires a binary wire, was " + wire.getClass().getSimpleName());
+            Byteable firstByteable = (Byteable) first;
+            long stride = Long.BYTES;
+            if (numberOfLongValues > 1) {
+                LongValue second = wire.getValueIn().int64ForBinding(null);
+                stride = ((Byteable) second).offset() - firstByteable.offset();
+                closeQuietly(second);
+                wire.bytes().readSkip(stride * (numberOfLongValues - 2));
+            }
+            this.numberOfWords = numberOfLongValues;
+            this.firstWord = first;
+            this.store = firstByteable.bytesStore();
+            this.base = firstByteable.offset();
+            this.stride = stride;
+        }
+        disableThreadSafetyCheck(true);
+    }
+}
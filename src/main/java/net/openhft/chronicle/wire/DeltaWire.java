@@ -0,0 +1,220 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.*;
+
+/**
+ * A {@link BinaryWire} which writes only the fields of a {@link Marshallable} which differ from the previous one of
+ * the same class written to this wire.
+ * <p>
+ * The first of each class is written as an <code>ANCHOR</code> with a reference number, later ones as an
+ * <code>UPDATED_ALIAS</code> to that reference, containing only the fields which changed. Numbers which differ
+ * only in their lowest byte or two are written as just those bytes. Any BinaryWire with delta support can read it,
+ * provided it reads every message written, in order.
+ * <p>
+ * The state on both sides is kept across documents and dropped by {@link #clear()}.
+ */
+public class DeltaWire extends BinaryWire {
+    public DeltaWire(@NotNull Bytes bytes) {
+        super(bytes, false, false, false, Integer.MAX_VALUE, "binary", true);
+    }
+
+    @NotNull
+    @Override
+    protected FixedBinaryValueOut getFixedBinaryValueOut(boolean fixed) {
+        return new DeltaValueOut();
+    }
+
+    /**
+     * Clears the bytes and the state of the previous messages written and read.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        ValueIn valueIn = getValueIn();
+        if (valueIn instanceof DeltaValueIn)
+            ((DeltaValueIn) valueIn).resetAnchors();
+    }
+
+    static final class Anchor {
+        final int ref;
+        final Object previous;
+
+        Anchor(int ref, Object previous) {
+            this.ref = ref;
+            this.previous = previous;
+        }
+    }
+
+    static final class DeltaMarshallable implements WriteMarshallable {
+        Object marshallable;
+        Object previous;
+
+        @Override
+        public void writeMarshallable(@NotNull WireOut wire) {
+            // writes only the changed fields and copies them to previous.
+            Wires.writeMarshallable(marshallable, wire, previous, true);
+        }
+    }
+
+    protected class DeltaValueOut extends BinaryValueOut {
+        private final Map<Class<?>, Anchor> anchors = new IdentityHashMap<>();
+        private final DeltaMarshallable deltaMarshallable = new DeltaMarshallable();
+        private boolean inDelta = false;
+
+        @NotNull
+        @Override
+        public WireOut typedMarshallable(@Nullable WriteMarshallable marshallable) {
+            return isDeltaCandidate(marshallable)
+                    ? deltaMarshallable((Marshallable) marshallable)
+                    : super.typedMarshallable(marshallable);
+        }
+
+        @NotNull
+        @Override
+        public WireOut marshallable(@NotNull WriteMarshallable object) {
+            return isDeltaCandidate(object)
+                    ? deltaMarshallable((Marshallable) object)
+                    : super.marshallable(object);
+        }
+
+        private boolean isDeltaCandidate(@Nullable WriteMarshallable marshallable) {
+            // only the outermost object is compared, nested ones are fields of it.
+            return !inDelta
+                    && marshallable instanceof Marshallable
+                    && useSelfDescribingMessage(marshallable)
+                    && !marshallable.getClass().getName().contains("$$Lambda");
+        }
+
+        @NotNull
+        private WireOut deltaMarshallable(@NotNull Marshallable marshallable) {
+            Class<?> aClass = marshallable.getClass();
+            inDelta = true;
+            try {
+                Anchor anchor = anchors.get(aClass);
+                if (anchor == null) {
+                    anchor = new Anchor(anchors.size(), ObjectUtils.newInstance(aClass));
+                    writeCode(ANCHOR).writeStopBit(anchor.ref).writeUtf8(Wires.typeNameFor(marshallable));
+                    super.marshallable(marshallable);
+                    Wires.copyTo(marshallable, anchor.previous);
+                    anchors.put(aClass, anchor);
+
+                } else {
+                    writeCode(UPDATED_ALIAS).writeStopBit(anchor.ref);
+                    deltaMarshallable.marshallable = marshallable;
+                    deltaMarshallable.previous = anchor.previous;
+                    try {
+                        super.marshallable(deltaMarshallable);
+                    } finally {
+                        deltaMarshallable.marshallable = deltaMarshallable.previous = null;
+                    }
+                }
+            } finally {
+                inDelta = false;
+            }
+            return DeltaWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int32(int i32, int previous) {
+            int diff = i32 ^ previous;
+            // only worth it if the value doesn't fit in as many bytes on its own
+            if ((diff & ~0xFF) == 0 && (i32 < Byte.MIN_VALUE || i32 > 0xFF)) {
+                writeCode(SET_LOW_INT8).writeUnsignedByte(i32 & 0xFF);
+                return DeltaWire.this;
+            }
+            if ((diff & ~0xFFFF) == 0 && (i32 < Short.MIN_VALUE || i32 > 0xFFFF)) {
+                writeCode(SET_LOW_INT16).writeUnsignedShort(i32 & 0xFFFF);
+                return DeltaWire.this;
+            }
+            return int32(i32);
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64(long i64, long previous) {
+            long diff = i64 ^ previous;
+            if ((diff & ~0xFFL) == 0 && (i64 < Byte.MIN_VALUE || i64 > 0xFF)) {
+                writeCode(SET_LOW_INT8).writeUnsignedByte((int) (i64 & 0xFF));
+                return DeltaWire.this;
+            }
+            if ((diff & ~0xFFFFL) == 0 && (i64 < Short.MIN_VALUE || i64 > 0xFFFF)) {
+                writeCode(SET_LOW_INT16).writeUnsignedShort((int) (i64 & 0xFFFF));
+                return DeltaWire.this;
+            }
+            return int64(i64);
+        }
+
+        @NotNull
+        @Override
+        public WireOut float32(float f, float previous) {
+            int fi = Math.round(f * 100);
+            if (fi / 100.0f == f && ((fi ^ Math.round(previous * 100)) & ~0xFF) == 0) {
+                writeCode(FLOAT_SET_LOW_2).writeUnsignedByte(fi & 0xFF);
+                return DeltaWire.this;
+            }
+            return float32(f);
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64(double d, double previous) {
+            if (d >= 0 && d < 128 && d == (long) d)
+                return float64(d);
+            long fi = Math.round(d);
+            if (fi == d && ((fi ^ Math.round(previous)) & ~0xFFL) == 0) {
+                writeCode(FLOAT_SET_LOW_0).writeUnsignedByte((int) (fi & 0xFF));
+                return DeltaWire.this;
+            }
+            fi = Math.round(d * 100);
+            if (fi / 100.0 == d && ((fi ^ Math.round(previous * 100)) & ~0xFFL) == 0) {
+                writeCode(FLOAT_SET_LOW_2).writeUnsignedByte((int) (fi & 0xFF));
+                return DeltaWire.this;
+            }
+            fi = Math.round(d * 1e4);
+            if (fi / 1e4 == d && ((fi ^ Math.round(previous * 1e4)) & ~0xFFL) == 0) {
+                writeCode(FLOAT_SET_LOW_4).writeUnsignedByte((int) (fi & 0xFF));
+                return DeltaWire.this;
+            }
+            return float64(d);
+        }
+
+        @Override
+        public void resetBetweenDocuments() {
+            // the previous messages are kept between documents, type ids are not.
+            resetTypeIds();
+        }
+
+        @Override
+        public void resetState() {
+            super.resetState();
+            anchors.clear();
+            inDelta = false;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+
+/**
+ * Writes the shortest decimal which reads back as the same double or float, directly to Bytes without allocating.
+ * <p>
+ * The digits are found with Giulietti's Schubfach algorithm. Of the decimals with the fewest digits which round to
+ * the value, the closest is chosen, and the even one of two equally close decimals. This is the same choice made by
+ * <code>Double.toString</code> from Java 19. Earlier versions sometimes write more digits than needed.
+ */
+public enum DoubleFormatter {
+    ; // none
+
+    static final long[] POW10 = new long[19];
+
+    // binary64
+    private static final int D_P = 53;
+    private static final int D_Q_MIN = -1074;
+    private static final long D_C_MIN = 1L << D_P - 1;
+    private static final long D_C_TINY = 3;
+    // binary32
+    private static final int F_P = 24;
+    private static final int F_Q_MIN = -149;
+    private static final long F_C_MIN = 1L << F_P - 1;
+    private static final long F_C_TINY = 8;
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+    // g1(k) and g0(k) are the high and low 63 bits of g, where 10^-k = beta 2^r with 2^125 <= beta < 2^126
+    // and g = floor(beta) + 1
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10;
+        BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger n = BigInteger.TEN.pow(-k);
+                int r = n.bitLength() - 126;
+                g = (r >= 0 ? n.shiftRight(r) : n.shiftLeft(-r)).add(BigInteger.ONE);
+            } else {
+                BigInteger d = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + d.bitLength()).divide(d).add(BigInteger.ONE);
+            }
+            G[(k - K_MIN) * 2] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) * 2 + 1] = g.and(mask63).longValue();
+        }
+    }
+
+    /**
+     * Writes a double as <code>Double.toString</code> lays it out, e.g. <code>0.001</code>, <code>1.0E7</code>.
+     */
+    public static void appendDouble(@NotNull Bytes<?> bytes, double d) {
+        appendDouble(bytes, d, false);
+    }
+
+    /**
+     * Writes a double without an exponent, e.g. <code>10000000.0</code>, <code>0.00001</code>.
+     */
+    public static void appendDoublePlain(@NotNull Bytes<?> bytes, double d) {
+        appendDouble(bytes, d, true);
+    }
+
+    /**
+     * Writes a float as <code>Float.toString</code> lays it out.
+     */
+    public static void appendFloat(@NotNull Bytes<?> bytes, float f) {
+        appendFloat(bytes, f, false);
+    }
+
+    /**
+     * Writes a float without an exponent.
+     */
+    public static void appendFloatPlain(@NotNull Bytes<?> bytes, float f) {
+        appendFloat(bytes, f, true);
+    }
+
+    static void appendDouble(@NotNull Bytes<?> bytes, double v, boolean plain) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & D_C_MIN - 1;
+        int bq = (int) (bits >>> D_P - 1) & 0x7FF;
+        if (bq == 0x7FF) {
+            appendNonFinite(bytes, t != 0, bits < 0);
+            return;
+        }
+        if (bits < 0)
+            bytes.writeUnsignedByte('-');
+        if (bq != 0) {
+            // normal value
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+            // an integer
+            if (0 < mq & mq < D_P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    appendDecimal(bytes, f, 0, plain);
+                    return;
+                }
+            }
+            toDecimal(bytes, -mq, c, 0, plain);
+        } else if (t != 0) {
+            // subnormal value
+            if (t < D_C_TINY)
+                toDecimal(bytes, D_Q_MIN, 10 * t, -1, plain);
+            else
+                toDecimal(bytes, D_Q_MIN, t, 0, plain);
+        } else {
+            appendZero(bytes);
+        }
+    }
+
+    static void appendFloat(@NotNull Bytes<?> bytes, float v, boolean plain) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & (int) F_C_MIN - 1;
+        int bq = (bits >>> F_P - 1) & 0xFF;
+        if (bq == 0xFF) {
+            appendNonFinite(bytes, t != 0, bits < 0);
+            return;
+        }
+        if (bits < 0)
+            bytes.writeUnsignedByte('-');
+        if (bq != 0) {
+            int mq = -F_Q_MIN + 1 - bq;
+            int c = (int) F_C_MIN | t;
+            if (0 < mq & mq < F_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    appendDecimal(bytes, f, 0, plain);
+                    return;
+                }
+            }
+            toDecimalFloat(bytes, -mq, c, 0, plain);
+        } else if (t != 0) {
+            if (t < F_C_TINY)
+                toDecimalFloat(bytes, F_Q_MIN, 10 * t, -1, plain);
+            else
+                toDecimalFloat(bytes, F_Q_MIN, t, 0, plain);
+        } else {
+            appendZero(bytes);
+        }
+    }
+
+    private static void appendNonFinite(Bytes<?> bytes, boolean nan, boolean negative) {
+        if (nan) {
+            bytes.append("NaN");
+        } else {
+            if (negative)
+                bytes.writeUnsignedByte('-');
+            bytes.append("Infinity");
+        }
+    }
+
+    private static void appendZero(Bytes<?> bytes) {
+        bytes.writeUnsignedByte('0');
+        bytes.writeUnsignedByte('.');
+        bytes.writeUnsignedByte('0');
+    }
+
+    private static void toDecimal(Bytes<?> bytes, int q, long c, int dk, boolean plain) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != D_C_MIN | q == D_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the gap below is half the gap above
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[(k - K_MIN) * 2];
+        long g0 = G[(k - K_MIN) * 2 + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit less first, s / 10 * 10
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(bytes, upin ? sp10 : tp10, k, plain);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(bytes, uin ? s : t, k + dk, plain);
+            return;
+        }
+        long cmp = vb - (s + t << 1);
+        appendDecimal(bytes, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, plain);
+    }
+
+    private static void toDecimalFloat(Bytes<?> bytes, int q, int c, int dk, boolean plain) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != F_C_MIN | q == F_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+        long g = G[(k - K_MIN) * 2] + 1;
+
+        int vb = ropFloat(g, cb << h);
+        int vbl = ropFloat(g, cbl << h);
+        int vbr = ropFloat(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(bytes, upin ? sp10 : tp10, k, plain);
+                return;
+            }
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(bytes, uin ? s : t, k + dk, plain);
+            return;
+        }
+        int cmp = vb - (s + t << 1);
+        appendDecimal(bytes, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, plain);
+    }
+
+    // the rounded odd product of g and cp, see the paper
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int ropFloat(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * @return the high 64 bits of the unsigned 128-bit product.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x0 = x & MASK_32;
+        long x1 = x >>> 32;
+        long y0 = y & MASK_32;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & MASK_32) + (p10 & MASK_32);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32) + (p10 >>> 32);
+    }
+
+    // floor(log10(2^e))
+    static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 2^e))
+    static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(log2(10^e))
+    static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Writes f 10^e.
+     */
+    private static void appendDecimal(Bytes<?> bytes, long f, int e, boolean plain) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = 1;
+        while (len < POW10.length && f >= POW10[len])
+            len++;
+        int exp10 = e + len - 1;
+        if (plain || (exp10 >= -3 && exp10 < 7)) {
+            if (e >= 0) {
+                appendDigits(bytes, f, len, -1);
+                for (int i = 0; i < e; i++)
+                    bytes.writeUnsignedByte('0');
+                bytes.writeUnsignedByte('.');
+                bytes.writeUnsignedByte('0');
+            } else if (exp10 >= 0) {
+                appendDigits(bytes, f, len, exp10 + 1);
+            } else {
+                bytes.writeUnsignedByte('0');
+                bytes.writeUnsignedByte('.');
+                for (int i = -1; i > exp10; i--)
+                    bytes.writeUnsignedByte('0');
+                appendDigits(bytes, f, len, -1);
+            }
+        } else {
+            appendDigits(bytes, f, len, 1);
+            bytes.writeUnsignedByte('E');
+            bytes.append(exp10);
+        }
+    }
+
+    // writes the len digits of f, with a decimal point after the first point digits if point > 0
+    private static void appendDigits(Bytes<?> bytes, long f, int len, int point) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (len - 1 - i == point)
+                bytes.writeUnsignedByte('.');
+            bytes.writeUnsignedByte('0' + (int) (f / POW10[i] % 10));
+        }
+        if (point == len) {
+            bytes.writeUnsignedByte('.');
+            bytes.writeUnsignedByte('0');
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+
+import static net.openhft.chronicle.wire.DoubleFormatter.multiplyHigh;
+
+/**
+ * Reads a decimal as the nearest double or float directly from Bytes without allocating.
+ * <p>
+ * Up to 19 significant digits are read into a long. When that and the power of ten are exact doubles, the value is
+ * their product or quotient. Otherwise the Eisel-Lemire algorithm multiplies by a 128-bit power of five. The rare
+ * decimals with more digits, or which it can't round with certainty, are passed to <code>Double.parseDouble</code>.
+ */
+public enum DoubleParser {
+    ; // none
+
+    private static final int Q_MIN = -342;
+    private static final int Q_MAX = 308;
+    // 5^q as the top 128 bits, high then low, truncated for q >= 0 and rounded up for q < 0
+    private static final long[] POW5 = new long[(Q_MAX - Q_MIN + 1) * 2];
+    private static final double[] DOUBLE_POW10 = new double[23];
+    private static final float[] FLOAT_POW10 = new float[11];
+
+    static {
+        for (int i = 0; i < DOUBLE_POW10.length; i++)
+            DOUBLE_POW10[i] = Double.parseDouble("1e" + i);
+        for (int i = 0; i < FLOAT_POW10.length; i++)
+            FLOAT_POW10[i] = Float.parseFloat("1e" + i);
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = Q_MIN; q <= Q_MAX; q++) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0)
+                    c = c.shiftRight(1);
+            } else {
+                c = BigInteger.valueOf(5).pow(q);
+                int shift = 128 - c.bitLength();
+                c = shift >= 0 ? c.shiftLeft(shift) : c.shiftRight(-shift);
+            }
+            POW5[(q - Q_MIN) * 2] = c.shiftRight(64).longValue();
+            POW5[(q - Q_MIN) * 2 + 1] = c.and(mask64).longValue();
+        }
+    }
+
+    /**
+     * Reads a double from the readPosition as <code>bytes.parseDouble()</code> does, consuming the character after
+     * it unless it ends at the readLimit. Anything other than a plain decimal, e.g. <code>NaN</code>, is read by
+     * <code>bytes.parseDouble()</code>.
+     */
+    public static double parseDouble(@NotNull Bytes<?> bytes) {
+        long start = bytes.readPosition();
+        long end = numberEnd(bytes, start);
+        double d = end < 0 ? Double.NaN : parseDouble(bytes, start, end);
+        if (d != d)
+            return bytes.parseDouble();
+        bytes.readPosition(end < bytes.readLimit() ? end + 1 : end);
+        return d;
+    }
+
+    /**
+     * Reads a float as {@link #parseDouble(Bytes)} does, rounding the decimal once to the nearest float.
+     */
+    public static float parseFloat(@NotNull Bytes<?> bytes) {
+        long start = bytes.readPosition();
+        long end = numberEnd(bytes, start);
+        float f = end < 0 ? Float.NaN : parseFloat(bytes, start, end);
+        if (f != f)
+            return (float) bytes.parseDouble();
+        bytes.readPosition(end < bytes.readLimit() ? end + 1 : end);
+        return f;
+    }
+
+    /**
+     * @return the double for the decimal from <code>start</code> to <code>end</code>, or NaN if it isn't only a plain
+     * decimal.
+     */
+    public static double parseDouble(@NotNull Bytes<?> bytes, long start, long end) {
+        return parse(bytes, start, end, false);
+    }
+
+    /**
+     * @return the float for the decimal from <code>start</code> to <code>end</code>, or NaN if it isn't only a plain
+     * decimal.
+     */
+    public static float parseFloat(@NotNull Bytes<?> bytes, long start, long end) {
+        return (float) parse(bytes, start, end, true);
+    }
+
+    // the end of the characters of a number, or -1 if the number is followed by something other than a separator.
+    private static long numberEnd(Bytes<?> bytes, long start) {
+        long limit = bytes.readLimit();
+        long end = start;
+        while (end < limit) {
+            int ch = bytes.readUnsignedByte(end);
+            if ((ch >= '0' && ch <= '9') || ch == '.' || ch == '-' || ch == '+' || ch == 'e' || ch == 'E') {
+                end++;
+                continue;
+            }
+            switch (ch) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case ',':
+                case ':':
+                case '}':
+                case ']':
+                case '#':
+                    return end;
+                default:
+                    return -1;
+            }
+        }
+        return end;
+    }
+
+    private static double parse(Bytes<?> bytes, long start, long end, boolean isFloat) {
+        long pos = start;
+        boolean negative = false;
+        if (pos < end && bytes.readUnsignedByte(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long w = 0;
+        int digits = 0;
+        int q = 0;
+        boolean anyDigit = false;
+        boolean point = false;
+        for (; pos < end; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch >= '0' && ch <= '9') {
+                anyDigit = true;
+                if (point)
+                    q--;
+                if (w == 0 && ch == '0')
+                    continue;
+                if (++digits > 19)
+                    return slowParse(bytes, start, end, isFloat);
+                w = w * 10 + ch - '0';
+            } else if (ch == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit)
+            return Double.NaN;
+        if (pos < end) {
+            int ch = bytes.readUnsignedByte(pos++);
+            if (ch != 'e' && ch != 'E' || pos == end)
+                return Double.NaN;
+            boolean negativeExponent = false;
+            ch = bytes.readUnsignedByte(pos);
+            if (ch == '-' || ch == '+') {
+                negativeExponent = ch == '-';
+                if (++pos == end)
+                    return Double.NaN;
+            }
+            int exponent = 0;
+            for (; pos < end; pos++) {
+                ch = bytes.readUnsignedByte(pos);
+                if (ch < '0' || ch > '9')
+                    return Double.NaN;
+                if (exponent < 100_000)
+                    exponent = exponent * 10 + ch - '0';
+            }
+            q += negativeExponent ? -exponent : exponent;
+        }
+        return isFloat
+                ? toFloat(bytes, start, end, negative, w, q)
+                : toDouble(bytes, start, end, negative, w, q);
+    }
+
+    // w is unsigned, as 19 digits may not fit in a long.
+    private static double toDouble(Bytes<?> bytes, long start, long end, boolean negative, long w, int q) {
+        double d;
+        if (w == 0 || q < Q_MIN) {
+            d = 0.0;
+        } else if (q > Q_MAX) {
+            d = Double.POSITIVE_INFINITY;
+        } else if (-22 <= q && q <= 22 && 0 <= w && w <= 1L << 53) {
+            // both are exact so the result is correctly rounded.
+            d = q < 0 ? w / DOUBLE_POW10[-q] : w * DOUBLE_POW10[q];
+        } else {
+            long bits = eiselLemire(w, q, 52, -1023, 0x7FF, -4, 23);
+            if (bits < 0)
+                return slowParse(bytes, start, end, false);
+            d = Double.longBitsToDouble(bits);
+        }
+        return negative ? -d : d;
+    }
+
+    private static float toFloat(Bytes<?> bytes, long start, long end, boolean negative, long w, int q) {
+        float f;
+        if (w == 0 || q < -65) {
+            f = 0.0f;
+        } else if (q > 38) {
+            f = Float.POSITIVE_INFINITY;
+        } else if (-10 <= q && q <= 10 && 0 <= w && w <= 1L << 24) {
+            f = q < 0 ? w / FLOAT_POW10[-q] : w * FLOAT_POW10[q];
+        } else {
+            long bits = eiselLemire(w, q, 23, -127, 0xFF, -17, 10);
+            if (bits < 0)
+                return (float) slowParse(bytes, start, end, true);
+            f = Float.intBitsToFloat((int) bits);
+        }
+        return negative ? -f : f;
+    }
+
+    /**
+     * @return the bits of w 10^q rounded to nearest even, or -1 if a more precise calculation is needed.
+     */
+    static long eiselLemire(long w, int q, int mantissaBits, int minExponent, int infinitePower, int minRoundToEven, int maxRoundToEven) {
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = (q - Q_MIN) * 2;
+        long hi = multiplyHigh(w, POW5[index]);
+        long lo = w * POW5[index];
+        long precisionMask = -1L >>> mantissaBits + 3;
+        if ((hi & precisionMask) == precisionMask) {
+            // the low bits may carry into the bits kept
+            long hi2 = multiplyHigh(w, POW5[index + 1]);
+            long lo2 = lo + hi2;
+            if (Long.compareUnsigned(hi2, lo2) > 0)
+                hi++;
+            lo = lo2;
+        }
+        if (lo == -1L && (q < -27 || q > 55))
+            return -1;
+
+        int upperBit = (int) (hi >>> 63);
+        int shift = upperBit + 64 - mantissaBits - 3;
+        long mantissa = hi >>> shift;
+        int power2 = (int) ((217706L * q >> 16) + 63) + upperBit - lz - minExponent;
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64)
+                return 0;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < 1L << mantissaBits ? 0 : 1;
+            return (long) power2 << mantissaBits | mantissa;
+        }
+        // exactly half way between two values, round to even.
+        if ((lo == 0 || lo == 1) && q >= minRoundToEven && q <= maxRoundToEven && (mantissa & 3) == 1
+                && mantissa << shift == hi)
+            mantissa &= ~1L;
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= 2L << mantissaBits) {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << mantissaBits);
+        if (power2 >= infinitePower)
+            return (long) infinitePower << mantissaBits;
+        return (long) power2 << mantissaBits | mantissa;
+    }
+
+    private static double slowParse(Bytes<?> bytes, long start, long end, boolean isFloat) {
+        StringBuilder sb = Wires.acquireStringBuilder();
+        for (long i = start; i < end; i++)
+            sb.append((char) bytes.readUnsignedByte(i));
+        try {
+            return isFloat ? Float.parseFloat(sb.toString()) : Double.parseDouble(sb.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.Maths;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An immutable index of field names built once per class.
+ * <p>
+ * On construction a hash seed is searched for so that every name lands in its own slot, i.e. a perfect hash,
+ * so most lookups are one hash and one compare. If no such seed is found the table falls back to linear probing.
+ * <p>
+ * Names are hashed a character at a time, so a name of 8-bit characters can be looked up directly from the bytes of a wire
+ * without first copying it into a StringBuilder. Characters above 0xFF are hashed whole so names which only differ
+ * in their high bits don't collide; such names can only be found by {@link #get(CharSequence)}.
+ */
+public class FieldNameIndex<T> {
+    private static final long K0 = 0x6d0f27bdL;
+    private static final int MAX_SEEDS = 64;
+
+    private final String[] keys;
+    private final T[] values;
+    private final int mask;
+    private final long seed;
+    private final boolean perfect;
+
+    @SuppressWarnings("unchecked")
+    public FieldNameIndex(@NotNull String[] names, @NotNull T[] values) {
+        if (names.length != values.length)
+            throw new IllegalArgumentException("names.length: " + names.length + " != values.length: " + values.length);
+        int capacity = Maths.nextPower2(names.length * 2, 8);
+        long seed0 = findPerfectSeed(names, capacity);
+        this.perfect = seed0 >= 0;
+        this.seed = perfect ? seed0 : 0;
+        this.mask = capacity - 1;
+        this.keys = new String[capacity];
+        this.values = (T[]) new Object[capacity];
+        for (int i = 0; i < names.length; i++)
+            put(names[i], values[i]);
+    }
+
+    private static long findPerfectSeed(String[] names, int capacity) {
+        boolean[] used = new boolean[capacity];
+        outer:
+        for (long seed = 0; seed < MAX_SEEDS; seed++) {
+            Arrays.fill(used, false);
+            for (String name : names) {
+                int h = hash(name, seed) & (capacity - 1);
+                if (used[h])
+                    continue outer;
+                used[h] = true;
+            }
+            return seed;
+        }
+        return -1;
+    }
+
+    static int hash(@NotNull CharSequence cs, long seed) {
+        long h = cs.length() + seed * K0;
+        for (int i = 0; i < cs.length(); i++)
+            h = h * K0 + cs.charAt(i);
+        return (int) Maths.agitate(h);
+    }
+
+    static int hash(@NotNull BytesStore bs, long offset, int length, long seed) {
+        long h = length + seed * K0;
+        for (int i = 0; i < length; i++)
+            h = h * K0 + bs.readUnsignedByte(offset + i);
+        return (int) Maths.agitate(h);
+    }
+
+    private void put(String name, T value) {
+        int h = hash(name, seed) & mask;
+        for (int i = 0; i <= mask; i++) {
+            if (keys[h] == null || keys[h].equals(name)) {
+                keys[h] = name;
+                values[h] = value;
+                return;
+            }
+            h = (h + 1) & mask;
+        }
+        throw new IllegalStateException("Index is full");
+    }
+
+    /**
+     * @return true if every name was given its own slot.
+     */
+    public boolean isPerfect() {
+        return perfect;
+    }
+
+    @Nullable
+    public T get(@NotNull CharSequence name) {
+        int h = hash(name, seed) & mask;
+        for (int i = 0; i <= mask; i++) {
+            String key = keys[h];
+            if (key == null)
+                return null;
+            if (matches(key, name))
+                return values[h];
+            if (perfect)
+                return null;
+            h = (h + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Look up a name held as 8-bit characters in a BytesStore, e.g. the field name of a BinaryWire.
+     *
+     * @param bs     holding the name
+     * @param offset of the first character
+     * @param length of the name
+     * @return the value for this name or null if not known.
+     */
+    @Nullable
+    public T get(@NotNull BytesStore bs, long offset, int length) {
+        int h = hash(bs, offset, length, seed) & mask;
+        for (int i = 0; i <= mask; i++) {
+            String key = keys[h];
+            if (key == null)
+                return null;
+            if (matches(key, bs, offset, length))
+                return values[h];
+            if (perfect)
+                return null;
+            h = (h + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean matches(String key, CharSequence name) {
+        if (key.length() != name.length())
+            return false;
+        for (int i = 0; i < key.length(); i++)
+            if (key.charAt(i) != name.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static boolean matches(String key, BytesStore bs, long offset, int length) {
+        if (key.length() != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (key.charAt(i) != bs.readUnsignedByte(offset + i))
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of the fields of a document, bound to the bytes of the wire, which decodes each field only when it is
+ * accessed rather than reading the whole document into a DTO.
+ * <p>
+ * Extend this interface with a getter named after each field of interest, and create an implementation with
+ * {@link #of(Class)}
+ * <pre>
+ * interface QuoteView extends Flyweight {
+ *     double bidPrice();
+ *     long timestamp();
+ * }
+ *
+ * QuoteView view = Flyweight.of(QuoteView.class);
+ * try (DocumentContext dc = wire.readingDocument()) {
+ *     view.bind(dc.wire());
+ *     double bidPrice = view.bidPrice();
+ * }
+ * </pre>
+ * Fields not present return zero, false or null. A view is only valid until the document is closed.
+ */
+public interface Flyweight {
+    /**
+     * @return a new, unbound view of this interface.
+     */
+    @NotNull
+    static <V extends Flyweight> V of(@NotNull Class<V> viewClass) {
+        return (V) ObjectUtils.newInstance(GenerateFlyweight.CLASSES.get(viewClass));
+    }
+
+    /**
+     * Find the position of each field from the read position to the read limit of this wire, without decoding them.
+     *
+     * @return this
+     */
+    @NotNull
+    Flyweight bind(@NotNull WireIn wire);
+}
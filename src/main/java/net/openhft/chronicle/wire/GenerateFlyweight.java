@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.ClassLocal;
+import net.openhft.chronicle.wire.utils.SourceCodeFormatter;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates an implementation of a {@link Flyweight} interface, with each getter decoding its field from the position
+ * found when the view was bound.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class GenerateFlyweight extends AbstractClassGenerator<GenerateFlyweight.GFMetaData> {
+    static final ClassLocal<Class> CLASSES = ClassLocal.withInitial(GenerateFlyweight::acquireClass);
+
+    private final Class<?> viewClass;
+    private final List<String> fieldNames = new ArrayList<>();
+
+    GenerateFlyweight(@NotNull Class<?> viewClass) {
+        super(new GFMetaData());
+        this.viewClass = viewClass;
+        String name = viewClass.getName();
+        String packageName = name.substring(0, name.lastIndexOf('.'));
+        metaData().packageName(packageName)
+                .baseClassName(name.substring(packageName.length() + 1).replace('$', '_') + "$$Flyweight");
+        metaData().interfaces().add(viewClass);
+        maxCode(0);
+    }
+
+    static Class acquireClass(@NotNull Class<?> viewClass) {
+        if (!viewClass.isInterface() || !Flyweight.class.isAssignableFrom(viewClass))
+            throw new IllegalArgumentException(viewClass.getName() + " must be an interface which extends Flyweight");
+        for (Class<?> c = viewClass; c != null; c = c.getEnclosingClass()) {
+            if (Modifier.isPrivate(c.getModifiers()))
+                throw new IllegalArgumentException(viewClass.getName() + " must not be private");
+        }
+        for (Method method : viewClass.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers()) && !method.getName().equals("bind")
+                    && (method.getParameterCount() > 0 || method.getReturnType() == void.class))
+                throw new IllegalArgumentException("Only getters are supported, not " + method);
+        }
+        return new GenerateFlyweight(viewClass).acquireClass(viewClass.getClassLoader());
+    }
+
+    @Override
+    protected Class extendsClass() {
+        return AbstractFlyweight.class;
+    }
+
+    @Override
+    protected void generateConstructors(SourceCodeFormatter mainCode) {
+        // the getters are generated after the constructor, so collect the field names first.
+        for (Method method : methodsToOverride())
+            fieldNames.add(method.getName());
+        mainCode.append("public ").append(className()).append("() {\n" +
+                "super(");
+        String sep = "";
+        for (String fieldName : fieldNames) {
+            mainCode.append(sep).append('"').append(fieldName).append('"');
+            sep = ", ";
+        }
+        mainCode.append(");\n" +
+                "}\n\n");
+    }
+
+    @Override
+    protected void generateMethod(Method method, StringBuilder params, List<String> paramList, SourceCodeFormatter mainCode) {
+        Class<?> type = method.getReturnType();
+        String typeName = nameForClass(type);
+        String valueIn = nameForClass(ValueIn.class);
+        mainCode.append(valueIn).append(" in = valueIn(").append(fieldNames.indexOf(method.getName())).append(");\n")
+                .append(typeName).append(" value = in == null ? ").append(defaultFor(type)).append(" : ").append(read(type, typeName)).append(";\n" +
+                        "endAccess();\n" +
+                        "return value;\n");
+    }
+
+    private String read(Class<?> type, String typeName) {
+        if (type == boolean.class)
+            return "in.bool()";
+        if (type == byte.class)
+            return "in.int8()";
+        if (type == short.class)
+            return "in.int16()";
+        if (type == int.class)
+            return "in.int32()";
+        if (type == long.class)
+            return "in.int64()";
+        if (type == float.class)
+            return "in.float32()";
+        if (type == double.class)
+            return "in.float64()";
+        if (type == String.class)
+            return "in.text()";
+        if (type.isPrimitive())
+            throw new IllegalArgumentException("Unsupported type " + type);
+        return "in.object(" + typeName + ".class)";
+    }
+
+    private static String defaultFor(Class<?> type) {
+        if (type == boolean.class)
+            return "false";
+        if (type.isPrimitive())
+            return "0";
+        return "null";
+    }
+
+    public static class GFMetaData extends AbstractClassGenerator.MetaData<GFMetaData> {
+    }
+}
@@ -30,11 +30,10 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static net.openhft.compiler.CompilerUtils.CACHED_COMPILER;
@@ -46,12 +45,14 @@ public class GenerateMethodReader {
     private static final boolean DUMP_CODE = Jvm.getBoolean("dumpCode");
 
     private final WireType wireType;
-    private final Object[] instances;
+    private final Class<?>[] instanceClasses;
     private final MethodReaderInterceptorReturns interceptor;
 
     private final Set<String> handledMethodNames = new HashSet<>();
     private final Set<String> handledMethodSignatures = new HashSet<>();
     private final Set<Class<?>> handledInterfaces = new HashSet<>();
+    // index of each method name in the generated dispatch switch, history is always 0.
+    private final List<String> methodNames = new ArrayList<>(Collections.singletonList(MethodReader.HISTORY));
 
     private final SourceCodeFormatter sourceCode = new JavaSourceCodeFormatter();
     private final SourceCodeFormatter fields = new JavaSourceCodeFormatter();
@@ -70,26 +71,38 @@ public class GenerateMethodReader {
     }
 
     public GenerateMethodReader(WireType wireType, MethodReaderInterceptorReturns interceptor, Object... instances) {
+        this(wireType, interceptor, Stream.of(instances).map(Object::getClass).toArray(Class[]::new));
+    }
+
+    private GenerateMethodReader(WireType wireType, MethodReaderInterceptorReturns interceptor, Class<?>[] instanceClasses) {
         this.wireType = wireType;
         this.interceptor = interceptor;
-        this.instances = instances;
+        this.instanceClasses = instanceClasses;
         this.generatedClassName = generatedClassName0();
     }
 
+    /**
+     * Generates code for instances of these classes without needing the instances themselves,
+     * e.g. to generate the code at build time.
+     *
+     * @param wireType        as passed to the {@link VanillaMethodReaderBuilder}, null for binary wires.
+     * @param instanceClasses classes of the instances the reader will be built for.
+     */
+    public static GenerateMethodReader forClasses(WireType wireType, Class<?>... instanceClasses) {
+        return new GenerateMethodReader(wireType, null, instanceClasses);
+    }
+
     /**
      * Generates and compiles in runtime code of a custom {@link MethodReader}.
      *
-     * @return {@link MethodReader} implementation for specified {@link #instances}.
+     * @return {@link MethodReader} implementation for specified {@link #instanceClasses}.
      */
     public Class<?> createClass() {
-        if (!isSourceCodeGenerated)
-            generateSourceCode();
-
-        final ClassLoader classLoader = instances[0].getClass().getClassLoader();
+        final ClassLoader classLoader = instanceClasses[0].getClassLoader();
         final String fullClassName = packageName() + "." + generatedClassName();
 
         try {
-            return CACHED_COMPILER.loadFromJava(classLoader, fullClassName, sourceCode.toString());
+            return CACHED_COMPILER.loadFromJava(classLoader, fullClassName, sourceCode());
         } catch (AssertionError e) {
             if (e.getCause() instanceof LinkageError) {
                 try {
@@ -105,13 +118,23 @@ public class GenerateMethodReader {
     }
 
     /**
-     * Generates source code of {@link MethodReader} for specified {@link #instances}.
+     * @return the source code of the {@link MethodReader}, this can be compiled ahead of time so it doesn't need
+     * to be compiled at runtime.
+     */
+    public String sourceCode() {
+        if (!isSourceCodeGenerated)
+            generateSourceCode();
+        return sourceCode.toString();
+    }
+
+    /**
+     * Generates source code of {@link MethodReader} for specified {@link #instanceClasses}.
      */
     private void generateSourceCode() {
-        for (int i = 0; i < instances.length; i++) {
-            final Class<?> aClass = instances[i].getClass();
+        for (int i = 0; i < instanceClasses.length; i++) {
+            final Class<?> aClass = instanceClasses[i];
 
-            boolean methodFilter = instances[i] instanceof MethodFilterOnFirstArg;
+            boolean methodFilter = MethodFilterOnFirstArg.class.isAssignableFrom(aClass);
             methodFilterPresent |= methodFilter;
 
             for (Class<?> anInterface : ReflectionUtil.interfaces(aClass)) {
@@ -138,7 +161,7 @@ public class GenerateMethodReader {
 
         sourceCode.append("// instances on which parsed calls are invoked\n");
 
-        for (int i = 0; i < instances.length; i++) {
+        for (int i = 0; i < instanceClasses.length; i++) {
             sourceCode.append(format("private final Object instance%d;\n", i));
         }
         sourceCode.append("\n");
@@ -149,6 +172,13 @@ public class GenerateMethodReader {
             sourceCode.append("\n");
         }
 
+        sourceCode.append("// event names are resolved to an index from the wire without creating a String\n");
+        sourceCode.append("private static final String[] METHOD_NAMES = {");
+        sourceCode.append(methodNames.stream().map(n -> '"' + n + '"').collect(Collectors.joining(", ")));
+        sourceCode.append("};\n");
+        sourceCode.append("private static final FieldNameIndex<Integer> METHOD_NAME_INDEX = methodNameIndex(METHOD_NAMES);\n");
+        sourceCode.append("private final StringBuilder eventName = new StringBuilder();\n\n");
+
         sourceCode.append(fields);
 
         if (methodFilterPresent) {
@@ -176,14 +206,15 @@ public class GenerateMethodReader {
         if (hasRealInterceptorReturns())
             sourceCode.append("this.interceptor = interceptor;\n");
 
-        for (int i = 0; i < instances.length - 1; i++)
+        for (int i = 0; i < instanceClasses.length - 1; i++)
             sourceCode.append(format("instance%d = instances[%d];\n", i, i));
 
-        sourceCode.append(format("instance%d = instances[%d];\n}\n\n", instances.length - 1, instances.length - 1));
+        sourceCode.append(format("instance%d = instances[%d];\n}\n\n", instanceClasses.length - 1, instanceClasses.length - 1));
 
         sourceCode.append("@Override\n" +
                 "protected boolean readOneCall(WireIn wireIn) {\n" +
-                "String lastEventName = \"\";\n" +
+                "CharSequence lastEventName = \"\";\n" +
+                "int methodIndex;\n" +
                 "if (wireIn.bytes().peekUnsignedByte() == BinaryWireCode.FIELD_NUMBER) {\n" +
                 "int methodId = (int) wireIn.readEventNumber();\n" +
                 "switch (methodId) {\n");
@@ -194,18 +225,21 @@ public class GenerateMethodReader {
         sourceCode.append("default:\n" +
                 "return false;\n" +
                 "}\n" +
+                "lastEventName = METHOD_NAMES[methodIndex];\n" +
                 "}\n" +
                 "else {\n" +
-                "lastEventName = wireIn.readEvent(String.class);\n" +
+                "Integer index = wireIn.readEventName(METHOD_NAME_INDEX, eventName);\n" +
+                "lastEventName = index == null ? eventName : METHOD_NAMES[index];\n" +
+                "methodIndex = index == null ? -1 : index;\n" +
                 "}\n" +
                 "ValueIn valueIn = wireIn.getValueIn();\n" +
                 "try {\n" +
                 "if (Jvm.isDebug())\n" +
                 "debugLoggingParselet.accept(lastEventName, valueIn);\n" +
-                "if (lastEventName == null)\n" +
+                "if (lastEventName.length() == 0)\n" +
                 "throw new IllegalStateException(\"Failed to read method name or ID\");\n" +
-                "switch (lastEventName) {\n" +
-                "case MethodReader.HISTORY:\n" +
+                "switch (methodIndex) {\n" +
+                "case 0: // " + MethodReader.HISTORY + "\n" +
                 "valueIn.marshallable(messageHistory);\n" +
                 "break;\n\n");
 
@@ -319,6 +353,7 @@ public class GenerateMethodReader {
         if (parameterTypes.length > 0 || hasRealInterceptorReturns())
             fields.append("\n");
 
+        methodNames.add(m.getName());
         final MethodId methodIdAnnotation = Annotations.getAnnotation(m, MethodId.class);
 
         if (methodIdAnnotation != null) {
@@ -328,7 +363,7 @@ public class GenerateMethodReader {
 
         String chainedCallPrefix = chainReturnType != null ? "chainedCallReturnResult = " : "";
 
-        eventNameSwitchBlock.append(format("case \"%s\":\n", m.getName()));
+        eventNameSwitchBlock.append(format("case %d: // %s\n", methodNames.size() - 1, m.getName()));
         if (parameterTypes.length == 0) {
             eventNameSwitchBlock.append("valueIn.skipValue();\n");
             eventNameSwitchBlock.append(methodCall(m, instanceFieldName, chainedCallPrefix));
@@ -381,7 +416,7 @@ public class GenerateMethodReader {
 
     private void addMethodIdSwitch(String methodName, int methodId) {
         eventIdSwitchBlock.append(format("case %d:\n", methodId));
-        eventIdSwitchBlock.append(format("lastEventName = \"%s\";\n", methodName));
+        eventIdSwitchBlock.append(format("methodIndex = %d;\n", methodNames.indexOf(methodName)));
         eventIdSwitchBlock.append("break;\n\n");
     }
 
@@ -527,7 +562,7 @@ public class GenerateMethodReader {
      * @return Package name of a generated class.
      */
     public String packageName() {
-        Class<?> firstClass = instances[0].getClass();
+        Class<?> firstClass = instanceClasses[0];
         String firstClassFullName = firstClass.getName();
 
         int lastDot = firstClassFullName.lastIndexOf('.');
@@ -549,8 +584,7 @@ public class GenerateMethodReader {
     private String generatedClassName0() {
         final StringBuilder sb = new StringBuilder();
 
-        for (Object i : instances) {
-            final Class<?> aClass = i.getClass();
+        for (Class<?> aClass : instanceClasses) {
 
             if (aClass.getEnclosingClass() != null)
                 sb.append(aClass.getEnclosingClass().getSimpleName());
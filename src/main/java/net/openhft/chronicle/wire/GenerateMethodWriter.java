@@ -142,6 +142,43 @@ public class GenerateMethodWriter {
                 .createClass();
     }
 
+    /**
+     * Generates the source code {@link #newClass} would compile, so it can be compiled ahead of time.
+     *
+     * @return the source code of the method writer class
+     */
+    @NotNull
+    public static String sourceCode(String fullClassName,
+                                    Set<Class> interfaces,
+                                    final WireType wireType,
+                                    final String genericEvent,
+                                    boolean metaData,
+                                    boolean useMethodId,
+                                    final boolean useUpdateInterceptor) {
+        int lastDot = fullClassName.lastIndexOf('.');
+        String packageName = "";
+        String className = fullClassName;
+
+        if (lastDot != -1) {
+            packageName = fullClassName.substring(0, lastDot);
+            className = fullClassName.substring(lastDot + 1);
+        }
+
+        try {
+            return new GenerateMethodWriter(packageName,
+                    interfaces,
+                    className,
+                    null,
+                    wireType,
+                    genericEvent,
+                    metaData, useMethodId, useUpdateInterceptor)
+                    .generateSourceCode()
+                    .toString();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @SuppressWarnings("unused")
     public static DocumentContext acquireDocumentContext(boolean metaData,
                                                          ThreadLocal<DocumentContextHolder> documentContextTL,
@@ -230,126 +267,132 @@ public class GenerateMethodWriter {
         return result;
     }
 
-    @SuppressWarnings("StringConcatenationInsideStringBufferAppend")
     private Class<?> createClass() {
+        SourceCodeFormatter imports = null;
+        try {
+            imports = generateSourceCode();
 
-        SourceCodeFormatter interfaceMethods = new SourceCodeFormatter(1);
-        SourceCodeFormatter imports = new JavaSourceCodeFormatter();
+            return CACHED_COMPILER.loadFromJava(classLoader, packageName + '.' + className, imports.toString());
 
-        try {
-            imports.append("package " + packageName + ";\n\n");
-            SortedSet<String> importSet = new TreeSet<>();
-            importSet.add(IntConversion.class.getName());
-            importSet.add(LongConversion.class.getName());
-            importSet.add(GenerateMethodWriter.class.getName());
-            importSet.add(MessageHistory.class.getName());
-            importSet.add(MethodReader.class.getName());
-            importSet.add(UpdateInterceptor.class.getName());
-            importSet.add(MethodId.class.getName());
-            importSet.add(GenerateMethodWriter.class.getName());
-            importSet.add(DocumentContext.class.getName());
-            importSet.add(WriteDocumentContext.class.getName());
-            importSet.add(MethodWriterInvocationHandlerSupplier.class.getName());
-            importSet.add(Jvm.class.getName());
-            importSet.add(Closeable.class.getName());
-            importSet.add(DocumentContextHolder.class.getName());
-            importSet.add(java.lang.reflect.InvocationHandler.class.getName());
-            importSet.add(java.lang.reflect.Method.class.getName());
-            importSet.add(java.util.stream.IntStream.class.getName());
-            importSet.add(java.util.ArrayList.class.getName());
-            importSet.add(java.util.List.class.getName());
-            importSet.add(Supplier.class.getName());
-            for (Class interfaceClazz : interfaces) {
-                importSet.add(nameForClass(interfaceClazz));
-
-                if (!interfaceClazz.isInterface())
-                    throw new MethodWriterValidationException("expecting an interface instead of class=" + interfaceClazz.getName());
-
-                // TODO: everything in this loop can be commented out and all tests pass
-                for (Method dm : interfaceClazz.getMethods()) {
-                    if (dm.isDefault() || Modifier.isStatic(dm.getModifiers()))
-                        continue;
-                    String template = templateFor(dm);
-                    if (template != null)
-                        continue;
-                    for (Class pType : dm.getParameterTypes()) {
-                        if (pType.isPrimitive() || pType.isArray() || pType.getPackage().getName().equals("java.lang"))
-                            continue;
-                        importSet.add(nameForClass(pType));
-                    }
+        } catch (AssertionError e) {
+            if (e.getCause() instanceof LinkageError) {
+                try {
+                    return Class.forName(packageName + '.' + className, true, classLoader);
+                } catch (ClassNotFoundException x) {
+                    throw Jvm.rethrow(x);
                 }
             }
-            importSet.removeIf(s -> s.startsWith("net.openhft.chronicle.bytes"));
-            importSet.add("net.openhft.chronicle.bytes.*");
-            importSet.removeIf(s -> s.startsWith("net.openhft.chronicle.wire"));
-            importSet.add("net.openhft.chronicle.wire.*");
-
-            for (String s : importSet) {
-                imports.append("import ").append(s).append(";\n");
-            }
+            throw Jvm.rethrow(e);
+        } catch (MethodWriterValidationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw Jvm.rethrow(new ClassNotFoundException(e.getMessage() + '\n' + imports, e));
+        }
+    }
 
-            imports.append("\npublic final class ")
-                    .append(className)
-                    .append(" implements ");
+    @SuppressWarnings("StringConcatenationInsideStringBufferAppend")
+    @NotNull
+    private SourceCodeFormatter generateSourceCode() throws IOException {
 
-            Set<String> handledMethodSignatures = new HashSet<>();
-            Set<String> methodIds = new HashSet<>();
+        SourceCodeFormatter interfaceMethods = new SourceCodeFormatter(1);
+        SourceCodeFormatter imports = new JavaSourceCodeFormatter();
 
-            for (Class interfaceClazz : interfaces) {
+        imports.append("package " + packageName + ";\n\n");
+        SortedSet<String> importSet = new TreeSet<>();
+        importSet.add(IntConversion.class.getName());
+        importSet.add(LongConversion.class.getName());
+        importSet.add(GenerateMethodWriter.class.getName());
+        importSet.add(MessageHistory.class.getName());
+        importSet.add(MethodReader.class.getName());
+        importSet.add(UpdateInterceptor.class.getName());
+        importSet.add(MethodId.class.getName());
+        importSet.add(GenerateMethodWriter.class.getName());
+        importSet.add(DocumentContext.class.getName());
+        importSet.add(WriteDocumentContext.class.getName());
+        importSet.add(MethodWriterInvocationHandlerSupplier.class.getName());
+        importSet.add(Jvm.class.getName());
+        importSet.add(Closeable.class.getName());
+        importSet.add(DocumentContextHolder.class.getName());
+        importSet.add(java.lang.reflect.InvocationHandler.class.getName());
+        importSet.add(java.lang.reflect.Method.class.getName());
+        importSet.add(java.util.stream.IntStream.class.getName());
+        importSet.add(java.util.ArrayList.class.getName());
+        importSet.add(java.util.List.class.getName());
+        importSet.add(Supplier.class.getName());
+        for (Class interfaceClazz : interfaces) {
+            importSet.add(nameForClass(interfaceClazz));
+
+            if (!interfaceClazz.isInterface())
+                throw new MethodWriterValidationException("expecting an interface instead of class=" + interfaceClazz.getName());
+
+            // TODO: everything in this loop can be commented out and all tests pass
+            for (Method dm : interfaceClazz.getMethods()) {
+                if (dm.isDefault() || Modifier.isStatic(dm.getModifiers()))
+                    continue;
+                String template = templateFor(dm);
+                if (template != null)
+                    continue;
+                for (Class pType : dm.getParameterTypes()) {
+                    if (pType.isPrimitive() || pType.isArray() || pType.getPackage().getName().equals("java.lang"))
+                        continue;
+                    importSet.add(nameForClass(pType));
+                }
+            }
+        }
+        importSet.removeIf(s -> s.startsWith("net.openhft.chronicle.bytes"));
+        importSet.add("net.openhft.chronicle.bytes.*");
+        importSet.removeIf(s -> s.startsWith("net.openhft.chronicle.wire"));
+        importSet.add("net.openhft.chronicle.wire.*");
 
-                String interfaceName = nameForClass(importSet, interfaceClazz);
-                imports.append(interfaceName);
-                imports.append(", ");
+        for (String s : importSet) {
+            imports.append("import ").append(s).append(";\n");
+        }
 
-                if (!interfaceClazz.isInterface())
-                    throw new MethodWriterValidationException("expecting an interface instead of class=" + interfaceClazz.getName());
+        imports.append("\npublic final class ")
+                .append(className)
+                .append(" implements ");
 
-                for (Method dm : interfaceClazz.getMethods()) {
-                    if (Modifier.isStatic(dm.getModifiers()))
-                        continue;
+        Set<String> handledMethodSignatures = new HashSet<>();
+        Set<String> methodIds = new HashSet<>();
 
-                    if (dm.isDefault() && (!dm.getReturnType().equals(void.class) && !dm.getReturnType().isInterface()))
-                        continue;
+        for (Class interfaceClazz : interfaces) {
 
-                    if (!handledMethodSignatures.add(signature(dm)))
-                        continue;
+            String interfaceName = nameForClass(importSet, interfaceClazz);
+            imports.append(interfaceName);
+            imports.append(", ");
 
-                    String template = templateFor(dm);
-                    if (template == null) {
-                        interfaceMethods.append(createMethod(importSet, dm, interfaceClazz, methodIds));
-                    } else {
-                        interfaceMethods.append(template);
-                    }
-                }
-            }
+            if (!interfaceClazz.isInterface())
+                throw new MethodWriterValidationException("expecting an interface instead of class=" + interfaceClazz.getName());
 
-            imports.append(MethodWriter.class.getSimpleName());
-            imports.append(" {\n\n");
-            constructorAndFields(importSet, className, imports);
-            addMarshallableOut(imports);
-            imports.append(interfaceMethods);
-            imports.append("\n}\n");
+            for (Method dm : interfaceClazz.getMethods()) {
+                if (Modifier.isStatic(dm.getModifiers()))
+                    continue;
 
-            if (DUMP_CODE)
-                System.out.println(imports);
+                if (dm.isDefault() && (!dm.getReturnType().equals(void.class) && !dm.getReturnType().isInterface()))
+                    continue;
 
-            return CACHED_COMPILER.loadFromJava(classLoader, packageName + '.' + className, imports.toString());
+                if (!handledMethodSignatures.add(signature(dm)))
+                    continue;
 
-        } catch (AssertionError e) {
-            if (e.getCause() instanceof LinkageError) {
-                try {
-                    return Class.forName(packageName + '.' + className, true, classLoader);
-                } catch (ClassNotFoundException x) {
-                    throw Jvm.rethrow(x);
+                String template = templateFor(dm);
+                if (template == null) {
+                    interfaceMethods.append(createMethod(importSet, dm, interfaceClazz, methodIds));
+                } else {
+                    interfaceMethods.append(template);
                 }
             }
-            throw Jvm.rethrow(e);
-        } catch (MethodWriterValidationException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw Jvm.rethrow(new ClassNotFoundException(e.getMessage() + '\n' + imports, e));
         }
 
+        imports.append(MethodWriter.class.getSimpleName());
+        imports.append(" {\n\n");
+        constructorAndFields(importSet, className, imports);
+        addMarshallableOut(imports);
+        imports.append(interfaceMethods);
+        imports.append("\n}\n");
+
+        if (DUMP_CODE)
+            System.out.println(imports);
+        return imports;
     }
 
     private String templateFor(Method dm) {
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesComment;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.wire.WireMarshaller.FieldAccess;
+import net.openhft.chronicle.wire.utils.SourceCodeFormatter;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Generates a subclass of WireMarshaller per DTO which writes and reads the fields in DTO order as straight-line code
+ * <p>
+ * Primitive and String fields are accessed directly with constant offsets so the JIT can inline and specialise each
+ * of them, other fields call back to the reflective FieldAccess for that field.
+ * The generated class is loaded in the DTO's package and class loader so it can refer to it, and falls back to the
+ * reflective WireMarshaller if it can't be.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class GenerateWireMarshaller extends AbstractClassGenerator<GenerateWireMarshaller.GWMMetaData> {
+    private final Class<?> tClass;
+    private final FieldAccess[] fields;
+
+    GenerateWireMarshaller(@NotNull Class<?> tClass, @NotNull WireMarshaller<?> template) {
+        super(new GWMMetaData());
+        this.tClass = tClass;
+        this.fields = template.fields;
+        String name = tClass.getName();
+        String packageName = name.substring(0, name.lastIndexOf('.'));
+        metaData().packageName(packageName)
+                .baseClassName(name.substring(packageName.length() + 1).replace('$', '_') + "$$Marshaller");
+        maxCode(0);
+    }
+
+    /**
+     * @return a generated marshaller for this class, or the template if one can't be generated.
+     */
+    @NotNull
+    static <T> WireMarshaller<T> generate(@NotNull Class<T> tClass, @NotNull WireMarshaller<T> template) {
+        if (!canGenerate(tClass, template))
+            return template;
+        try {
+            Class<?> generated = new GenerateWireMarshaller(tClass, template).acquireClass(tClass.getClassLoader());
+            return (WireMarshaller<T>) generated.getConstructor(WireMarshaller.class).newInstance(template);
+
+        } catch (Throwable t) {
+            Jvm.warn().on(GenerateWireMarshaller.class, "Unable to generate a marshaller for " + tClass.getName() + ", using reflection", t);
+            return template;
+        }
+    }
+
+    static boolean canGenerate(@NotNull Class<?> tClass, @NotNull WireMarshaller<?> template) {
+        if (template.getClass() != WireMarshaller.class || template.fields.length == 0)
+            return false;
+        if (tClass.getClassLoader() == null || tClass.getName().startsWith("java") || tClass.getName().indexOf('.') < 0)
+            return false;
+        // the generated code has to be able to name the class.
+        for (Class<?> c = tClass; c != null; c = c.getEnclosingClass()) {
+            if (Modifier.isPrivate(c.getModifiers()) || c.getCanonicalName() == null)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected Class extendsClass() {
+        return WireMarshaller.class;
+    }
+
+    @Override
+    protected void generateFields(SourceCodeFormatter mainCode) {
+        nameForClass(WireKey.class);
+        importSet.add("static net.openhft.chronicle.core.UnsafeMemory.*");
+        String dto = nameForClass(tClass);
+        String jvm = nameForClass(Jvm.class);
+        for (int i = 0; i < fields.length; i++) {
+            String name = fields[i].field.getName();
+            mainCode.append("private static final WireKey K").append(i).append(" = () -> \"").append(name).append("\";\n");
+            if (Inline.of(fields[i]) != null)
+                mainCode.append("private static final long O").append(i)
+                        .append(" = unsafeObjectFieldOffset(").append(jvm).append(".getField(").append(dto).append(".class, \"").append(name).append("\"));\n");
+        }
+    }
+
+    @Override
+    protected void generateConstructors(SourceCodeFormatter mainCode) {
+        mainCode.append("public ").append(className()).append("(WireMarshaller template) {\n" +
+                "super(template);\n" +
+                "}\n");
+    }
+
+    @Override
+    protected void generateEnd(SourceCodeFormatter mainCode) {
+        String bytesComment = nameForClass(BytesComment.class);
+        nameForClass(WireOut.class);
+        nameForClass(WireIn.class);
+        nameForClass(ValueIn.class);
+        nameForClass(DefaultValueIn.class);
+        String unexpected = nameForClass(UnexpectedFieldHandlingException.class);
+
+        mainCode.append("\n");
+        withLineNumber(mainCode)
+                .append("@Override\n" +
+                        "public void writeMarshallable(Object t, WireOut out) {\n")
+                .append(bytesComment).append(" bytes = out.bytesComment();\n" +
+                        "bytes.indent(+1);\n" +
+                        "writeSchemaFingerprint(t, out);\n" +
+                        "try {\n");
+        for (int i = 0; i < fields.length; i++) {
+            Inline inline = Inline.of(fields[i]);
+            if (inline == null) {
+                mainCode.append("writeField(").append(i).append(", t, out);\n");
+                continue;
+            }
+            mainCode.append("out.write(K").append(i).append(").").append(inline.write).append("(")
+                    .append(inline.get("t", i)).append(");\n");
+        }
+        mainCode.append("} finally {\n" +
+                "endSchemaFingerprint(out);\n" +
+                "}\n" +
+                "bytes.indent(-1);\n" +
+                "}\n\n");
+
+        withLineNumber(mainCode)
+                .append("@Override\n" +
+                        "public void readMarshallableDTOOrder(Object t, WireIn in, Object defaults, boolean overwrite) {\n" +
+                        "ValueIn vin;\n");
+        for (int i = 0; i < fields.length; i++) {
+            Inline inline = Inline.of(fields[i]);
+            mainCode.append("vin = in.read(K").append(i).append(");\n");
+            if (inline == null) {
+                mainCode.append("readField(").append(i).append(", t, defaults, vin, overwrite);\n");
+                continue;
+            }
+            String put = "unsafePut" + inline.accessor + "(t, O" + i + ", ";
+            mainCode.append("if (vin instanceof DefaultValueIn) {\n" +
+                    "if (overwrite)\n")
+                    .append(put).append(inline.get("defaults", i)).append(");\n" +
+                    "} else {\n" +
+                    "long pos").append(i).append(" = vin.wireIn().bytes().readPosition();\n" +
+                    "try {\n")
+                    .append(put);
+            if (inline.withPrevious)
+                mainCode.append("overwrite ? vin.").append(inline.write).append("() : vin.").append(inline.write)
+                        .append("(").append(inline.get("t", i)).append(")");
+            else
+                mainCode.append("vin.").append(inline.write).append("()");
+            mainCode.append(");\n" +
+                    "} catch (").append(unexpected).append(" e) {\n" +
+                    "throw e;\n" +
+                    "} catch (Exception e) {\n" +
+                    "readFailed(").append(i).append(", t, defaults, vin, pos").append(i).append(", e);\n" +
+                    "}\n" +
+                    "}\n");
+        }
+        mainCode.append("}\n");
+    }
+
+    @Override
+    protected void generateMethod(Method method, StringBuilder params, List<String> paramList, SourceCodeFormatter mainCode) {
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    /**
+     * The fields which are written and read inline, as their FieldAccess would.
+     */
+    enum Inline {
+        BOOLEAN(WireMarshaller.BooleanFieldAccess.class, "Boolean", "bool", false),
+        BYTE(WireMarshaller.ByteFieldAccess.class, "Byte", "int8", false),
+        SHORT(WireMarshaller.ShortFieldAccess.class, "Short", "int16", false),
+        INT(WireMarshaller.IntegerFieldAccess.class, "Int", "int32", true),
+        LONG(WireMarshaller.LongFieldAccess.class, "Long", "int64", true),
+        FLOAT(WireMarshaller.FloatFieldAccess.class, "Float", "float32", true),
+        DOUBLE(WireMarshaller.DoubleFieldAccess.class, "Double", "float64", true),
+        STRING(WireMarshaller.StringFieldAccess.class, "Object", "text", false);
+
+        final Class<? extends FieldAccess> fieldAccess;
+        final String accessor;
+        final String write;
+        final boolean withPrevious;
+
+        Inline(Class<? extends FieldAccess> fieldAccess, String accessor, String write, boolean withPrevious) {
+            this.fieldAccess = fieldAccess;
+            this.accessor = accessor;
+            this.write = write;
+            this.withPrevious = withPrevious;
+        }
+
+        static Inline of(FieldAccess field) {
+            if (field.commentAnnotation != null)
+                return null;
+            for (Inline inline : values())
+                if (inline.fieldAccess == field.getClass())
+                    return inline;
+            return null;
+        }
+
+        String get(String object, int index) {
+            String get = "unsafeGet" + accessor + "(" + object + ", O" + index + ")";
+            return this == STRING ? "(String) " + get : get;
+        }
+    }
+
+    public static class GWMMetaData extends AbstractClassGenerator.MetaData<GWMMetaData> {
+    }
+}
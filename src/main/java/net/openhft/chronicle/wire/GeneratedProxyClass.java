@@ -48,6 +48,8 @@ public enum GeneratedProxyClass {
         StringBuilder sb = new StringBuilder("package " + packageName + ";\n\n" +
                 "import net.openhft.chronicle.core.Jvm;\n" +
                 "import net.openhft.chronicle.wire.MethodWriterInvocationHandlerSupplier;\n" +
+                "import net.openhft.chronicle.wire.Scratch;\n" +
+                "import net.openhft.chronicle.wire.ScratchProviders;\n" +
                 "import java.lang.reflect.InvocationHandler;\n" +
                 "import java.lang.reflect.Method;\n" +
                 "import java.util.stream.IntStream;\n" +
@@ -125,8 +127,8 @@ public enum GeneratedProxyClass {
                 .append(declaredMethods.size())
                 .append("];\n")
                 .append("  private static final int maxArgs = " + maxArgs + ";\n")
-                .append("  private final ThreadLocal<Object[][]> argsTL = " +
-                        "ThreadLocal.withInitial(() -> IntStream.range(0, maxArgs + 1)" +
+                .append("  private final Scratch<Object[][]> argsTL = " +
+                        "ScratchProviders.scratch(() -> IntStream.range(0, maxArgs + 1)" +
                         ".mapToObj(Object[]::new).toArray(Object[][]::new));\n\n")
                 .append("  public ")
                 .append(className)
@@ -146,7 +148,8 @@ public enum GeneratedProxyClass {
 
             sb.append(createMethodSignature(dm, returnType));
             sb.append("    Method _method_ = this.methods[").append(methodIndex).append("];\n");
-            sb.append("    Object[] _a_ = this.argsTL.get()[").append(dm.getParameterCount()).append("];\n");
+            sb.append("    Object[][] _args_ = this.argsTL.acquire();\n");
+            sb.append("    Object[] _a_ = _args_[").append(dm.getParameterCount()).append("];\n");
 
             assignParametersToArgs(sb, dm);
             callInvoke(sb, returnType);
@@ -163,6 +166,8 @@ public enum GeneratedProxyClass {
         sb.append(" handler.get().invoke(this,_method_,_a_);\n" +
                 "    } catch (Throwable throwable) {\n" +
                 "       throw Jvm.rethrow(throwable);\n" +
+                "    } finally {\n" +
+                "      this.argsTL.release(_args_);\n" +
                 "    }\n" +
                 "  }\n");
     }
@@ -43,19 +43,7 @@ import java.util.function.BiConsumer;
 
 @SuppressWarnings("rawtypes")
 public class HashWire implements WireOut, BytesComment {
-    private static final ThreadLocal<HashWire> hwTL = new ThreadLocal<HashWire>() {
-        @Override
-        protected HashWire initialValue() {
-            return new HashWire();
-        }
-
-        @Override
-        public HashWire get() {
-            HashWire hashWire = super.get();
-            hashWire.hash = 0;
-            return hashWire;
-        }
-    };
+    private static final Scratch<HashWire> HASH_WIRE_SCRATCH = ScratchProviders.scratch(HashWire::new);
     private static final int K0 = 0x6d0f27bd;
     private static final int M0 = 0x5bc80bad;
     private static final int M1 = 0xea7585d7;
@@ -69,9 +57,14 @@ public class HashWire implements WireOut, BytesComment {
     }
 
     public static long hash64(Object value) {
-        @NotNull HashWire hashWire = hwTL.get();
-        hashWire.getValueOut().object(value);
-        return hashWire.hash64();
+        @NotNull HashWire hashWire = HASH_WIRE_SCRATCH.acquire();
+        try {
+            hashWire.hash = 0;
+            hashWire.getValueOut().object(value);
+            return hashWire.hash64();
+        } finally {
+            HASH_WIRE_SCRATCH.release(hashWire);
+        }
     }
 
     public static int hash32(WriteMarshallable value) {
@@ -79,9 +72,14 @@ public class HashWire implements WireOut, BytesComment {
     }
 
     public static int hash32(Object value) {
-        @NotNull HashWire hashWire = hwTL.get();
-        hashWire.getValueOut().object(value);
-        return hashWire.hash32();
+        @NotNull HashWire hashWire = HASH_WIRE_SCRATCH.acquire();
+        try {
+            hashWire.hash = 0;
+            hashWire.getValueOut().object(value);
+            return hashWire.hash32();
+        } finally {
+            HASH_WIRE_SCRATCH.release(hashWire);
+        }
     }
 
     @Override
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * An index of where each bracket of a JSON document is closed, built by scanning the bytes eight at a time with SWAR
+ * (SIMD within a register) word operations rather than a character at a time.
+ * <p>
+ * With the index, the length of any nested value of the document is a lookup rather than a parse of that value, so
+ * reading a document with nested values is linear in its size.
+ * If the document has anything for which TextWire's parsing could differ from plain JSON, e.g. a comment, a single
+ * quoted string or mismatched brackets, no index is built and the caller falls back to parsing.
+ */
+final class JSONStructuralIndex {
+    static final long NOT_FOUND = -1;
+
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH = 0x8080808080808080L;
+    private static final long BIT5 = ONES * 0x20;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+    private static final long HASHES = ONES * '#';
+    private static final long APOSTROPHES = ONES * '\'';
+    // [ and ] are { and } without bit 5
+    private static final long OPENS = ONES * '{';
+    private static final long CLOSES = ONES * '}';
+
+    private static final int MORE = 0;
+    private static final int DONE = 1;
+    private static final int FAILED = 2;
+
+    private long[] opens = new long[16];
+    private long[] closes = new long[16];
+    private int[] stack = new int[16];
+    private int count;
+    private int depth;
+    private boolean inString;
+    private long escaped;
+    // the outermost brackets of the document indexed.
+    private long start = NOT_FOUND;
+    private long end = NOT_FOUND;
+
+    /**
+     * @return the position of the first <code>"</code> from <code>from</code>, or NOT_FOUND if there is a backslash or
+     * a non ASCII byte before it, or no <code>"</code> before the limit.
+     */
+    static long closingQuote(@NotNull Bytes<?> bytes, long from, long limit) {
+        long pos = from;
+        for (; pos + 8 <= limit; pos += 8) {
+            long word = readWord(bytes, pos);
+            long quotes = matches(word, QUOTES);
+            long stops = matches(word, BACKSLASHES) | (word & HIGH);
+            if ((quotes | stops) == 0)
+                continue;
+            int quote = Long.numberOfTrailingZeros(quotes) >>> 3;
+            int stop = Long.numberOfTrailingZeros(stops) >>> 3;
+            return quote < stop ? pos + quote : NOT_FOUND;
+        }
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch == '"')
+                return pos;
+            if (ch == '\\' || ch >= 0x80)
+                return NOT_FOUND;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return the bytes as a word with the byte at the lowest position in the lowest bits.
+     */
+    private static long readWord(@NotNull Bytes<?> bytes, long pos) {
+        long word = bytes.readLong(pos);
+        return LITTLE_ENDIAN ? word : Long.reverseBytes(word);
+    }
+
+    /**
+     * @return a word with the top bit set in each byte which matches the byte repeated in <code>pattern</code>, without
+     * the false positives of the usual haszero() test.
+     */
+    static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return ~(((x & LOW7) + LOW7) | x | LOW7);
+    }
+
+    private static boolean isWhitespace(int ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+    }
+
+    void reset() {
+        count = 0;
+        start = end = NOT_FOUND;
+    }
+
+    /**
+     * Finds where the <code>{</code> or <code>[</code> at <code>open</code> is closed, from the index if
+     * <code>open</code> is nested in the document last indexed, otherwise by indexing the document starting at
+     * <code>open</code>.
+     *
+     * @return the position of the matching <code>}</code> or <code>]</code>, or NOT_FOUND if it can't be indexed.
+     */
+    long closeFor(@NotNull Bytes<?> bytes, long open) {
+        long limit = bytes.readLimit();
+        if (open > start && open < end && end < limit) {
+            long close = lookup(bytes, open);
+            if (close != NOT_FOUND)
+                return close;
+        }
+        if (build(bytes, open, limit))
+            return end;
+        reset();
+        return NOT_FOUND;
+    }
+
+    private long lookup(@NotNull Bytes<?> bytes, long open) {
+        int i = Arrays.binarySearch(opens, 0, count, open);
+        if (i < 0)
+            return NOT_FOUND;
+        long close = closes[i];
+        // check the document hasn't been overwritten since it was indexed.
+        if (bytes.readUnsignedByte(close) != bytes.readUnsignedByte(open) + 2)
+            return NOT_FOUND;
+        return close;
+    }
+
+    private boolean build(@NotNull Bytes<?> bytes, long from, long limit) {
+        count = 0;
+        depth = 0;
+        inString = false;
+        escaped = NOT_FOUND;
+        long pos = from;
+        for (; pos + 8 <= limit; pos += 8) {
+            long word = readWord(bytes, pos);
+            long quotes = matches(word, QUOTES) | matches(word, BACKSLASHES);
+            if (inString && quotes == 0)
+                continue;
+            long mask = quotes
+                    | matches(word | BIT5, OPENS)
+                    | matches(word | BIT5, CLOSES)
+                    | matches(word, HASHES)
+                    | matches(word, APOSTROPHES);
+            for (; mask != 0; mask &= mask - 1) {
+                long p = pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+                int state = onChar(bytes, p, limit, bytes.readUnsignedByte(p));
+                if (state != MORE)
+                    return state == DONE;
+            }
+        }
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            switch (ch) {
+                case '"':
+                case '\\':
+                case '{':
+                case '}':
+                case '[':
+                case ']':
+                case '#':
+                case '\'':
+                    int state = onChar(bytes, pos, limit, ch);
+                    if (state != MORE)
+                        return state == DONE;
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private int onChar(@NotNull Bytes<?> bytes, long pos, long limit, int ch) {
+        if (pos == escaped)
+            return MORE;
+        if (inString) {
+            if (ch == '\\') {
+                escaped = pos + 1;
+            } else if (ch == '"') {
+                if (!endsString(bytes, pos + 1, limit))
+                    return FAILED;
+                inString = false;
+            }
+            return MORE;
+        }
+        switch (ch) {
+            case '"':
+                if (!startsString(bytes, pos - 1))
+                    return FAILED;
+                inString = true;
+                return MORE;
+            case '{':
+            case '[':
+                push(pos);
+                return MORE;
+            case '}':
+            case ']':
+                return pop(bytes, pos, ch);
+            default:
+                return FAILED;
+        }
+    }
+
+    // a quote which doesn't start a value or a field name is part of some unquoted text.
+    private boolean startsString(@NotNull Bytes<?> bytes, long pos) {
+        for (; ; pos--) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (!isWhitespace(ch))
+                return ch == '{' || ch == '[' || ch == ',' || ch == ':';
+        }
+    }
+
+    private boolean endsString(@NotNull Bytes<?> bytes, long pos, long limit) {
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (!isWhitespace(ch))
+                return ch == '}' || ch == ']' || ch == ',' || ch == ':';
+        }
+        return false;
+    }
+
+    private void push(long pos) {
+        if (count == opens.length) {
+            opens = Arrays.copyOf(opens, count * 2);
+            closes = Arrays.copyOf(closes, count * 2);
+        }
+        if (depth == stack.length)
+            stack = Arrays.copyOf(stack, depth * 2);
+        opens[count] = pos;
+        closes[count] = NOT_FOUND;
+        stack[depth++] = count++;
+    }
+
+    private int pop(@NotNull Bytes<?> bytes, long pos, int ch) {
+        if (depth == 0)
+            return FAILED;
+        int i = stack[--depth];
+        // } is { + 2 and ] is [ + 2
+        if (bytes.readUnsignedByte(opens[i]) + 2 != ch)
+            return FAILED;
+        closes[i] = pos;
+        if (depth > 0)
+            return MORE;
+        start = opens[i];
+        end = pos;
+        return DONE;
+    }
+}
@@ -37,6 +37,8 @@ import static net.openhft.chronicle.bytes.NativeBytes.nativeBytes;
 public class JSONWire extends TextWire {
     @SuppressWarnings("rawtypes")
     static final BytesStore COMMA = BytesStore.from(",");
+    private final JSONStructuralIndex structuralIndex = new JSONStructuralIndex();
+    private boolean useStructuralIndex = true;
 
     @SuppressWarnings("rawtypes")
     public JSONWire(@NotNull Bytes bytes, boolean use8bit) {
@@ -63,6 +65,26 @@ public class JSONWire extends TextWire {
         return tw.toString();
     }
 
+    public boolean useStructuralIndex() {
+        return useStructuralIndex;
+    }
+
+    /**
+     * @param useStructuralIndex true to find the end of nested values and quoted strings with a SWAR scan of the
+     *                           document, false to parse them a character at a time as TextWire does.
+     */
+    public JSONWire useStructuralIndex(boolean useStructuralIndex) {
+        this.useStructuralIndex = useStructuralIndex;
+        structuralIndex.reset();
+        return this;
+    }
+
+    @Override
+    public void clear() {
+        structuralIndex.reset();
+        super.clear();
+    }
+
     @NotNull
     @Override
     protected TextValueOut createValueOut() {
@@ -100,7 +122,7 @@ public class JSONWire extends TextWire {
                     consumePadding();
                 }
 
-                final double v = isNull ? Double.NaN : bytes.parseDouble();
+                final double v = isNull ? Double.NaN : DoubleParser.parseDouble(bytes);
                 checkRewind();
                 return v;
             }
@@ -160,6 +182,25 @@ public class JSONWire extends TextWire {
                 throw new IORuntimeException("Expected field name, but got { at " + bytes.toDebugString(64));
             valueIn.pushState();
             bytes.readSkip(1);
+            consumePadding();
+            code = peekCode();
+        }
+        if (code == '"' && useStructuralIndex) {
+            long start = bytes.readPosition() + 1;
+            long end = JSONStructuralIndex.closingQuote(bytes, start, bytes.readLimit());
+            if (end != JSONStructuralIndex.NOT_FOUND) {
+                // nothing to unescape or decode
+                sb.setLength(0);
+                for (long i = start; i < end; i++)
+                    sb.append((char) bytes.readUnsignedByte(i));
+                bytes.readPosition(end + 1);
+                consumePadding();
+                int ch = readCode();
+                if (ch != ':')
+                    throw new UnsupportedOperationException("Expected a : at " + bytes.toDebugString() + " was " + (char) ch);
+                checkConsecutiveSpaces(sb);
+                return sb;
+            }
         }
         return super.readField(sb);
     }
@@ -272,6 +313,62 @@ public class JSONWire extends TextWire {
             return text == null || text.equals("null") ? null : text;
         }
 
+        @Nullable
+        @Override
+        <ACS extends Appendable & CharSequence> CharSequence textTo0(@NotNull ACS a) {
+            consumePadding();
+            if (useStructuralIndex && peekCode() == '"' && readSimpleQuoted(a)) {
+                consumePadding(1);
+                int prev = peekBack();
+                if (prev == ':' || prev == '#' || prev == '}' || prev == ']')
+                    bytes.readSkip(-1);
+                return a;
+            }
+            return super.textTo0(a);
+        }
+
+        /**
+         * Reads a quoted string without escapes or non ASCII characters as is.
+         *
+         * @return false if the string has to be parsed.
+         */
+        private <ACS extends Appendable & CharSequence> boolean readSimpleQuoted(@NotNull ACS a) {
+            long start = bytes.readPosition() + 1;
+            long end = JSONStructuralIndex.closingQuote(bytes, start, bytes.readLimit());
+            if (end == JSONStructuralIndex.NOT_FOUND)
+                return false;
+            if (a instanceof StringBuilder) {
+                StringBuilder sb = (StringBuilder) a;
+                sb.setLength(0);
+                for (long i = start; i < end; i++)
+                    sb.append((char) bytes.readUnsignedByte(i));
+            } else if (a instanceof Bytes) {
+                Bytes<?> b = (Bytes<?>) a;
+                b.clear();
+                b.write(bytes, start, end - start);
+            } else {
+                return false;
+            }
+            bytes.readPosition(end + 1);
+            return true;
+        }
+
+        @Override
+        protected void consumeAny() {
+            if (useStructuralIndex) {
+                consumePadding();
+                int code = peekCode();
+                if (code == '{' || code == '[') {
+                    long close = structuralIndex.closeFor(bytes, bytes.readPosition());
+                    if (close != JSONStructuralIndex.NOT_FOUND) {
+                        bytes.readPosition(close + 1);
+                        return;
+                    }
+                }
+            }
+            super.consumeAny();
+        }
+
         @Override
         protected boolean isASeparator(int nextChar) {
             return true;
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A pure Java codec in the LZ4 block format, prefixed with the stop bit encoded uncompressed length.
+ * It reads and writes the <code>Bytes</code> directly so it doesn't allocate, or copy to a <code>byte[]</code>.
+ */
+public enum Lz4Codec implements CompressionCodec {
+    INSTANCE;
+
+    static final String NAME = "lz4";
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    // the last match must start 12 bytes before the end, and the last 5 bytes are literals.
+    private static final int MF_LIMIT = 12;
+    private static final int LAST_LITERALS = 5;
+    private static final int SKIP_TRIGGER = 6;
+    // each compressed byte can add at most 255 bytes to a match, so no valid block expands by more than this.
+    private static final int MAX_EXPANSION = 255;
+    private static final Scratch<int[]> HASH_TABLE = ScratchProviders.scratch(() -> new int[1 << HASH_LOG]);
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static void writeLength(Bytes<?> to, long length) {
+        for (; length >= 0xFF; length -= 0xFF)
+            to.writeUnsignedByte(0xFF);
+        to.writeUnsignedByte((int) length);
+    }
+
+    private static int readLength(Bytes<?> from) {
+        int length = 0;
+        int b;
+        do {
+            b = from.readUnsignedByte();
+            length += b;
+        } while (b == 0xFF);
+        return length;
+    }
+
+    private static void writeSequence(Bytes<?> from, Bytes<?> to, long anchor, long literals, int offset, long matchLength) {
+        int token = (int) (Math.min(literals, 15) << 4 | Math.min(matchLength, 15));
+        to.writeUnsignedByte(token);
+        if (literals >= 15)
+            writeLength(to, literals - 15);
+        to.write(from, anchor, literals);
+        // offsets are little endian
+        to.writeUnsignedByte(offset & 0xFF);
+        to.writeUnsignedByte(offset >>> 8);
+        if (matchLength >= 15)
+            writeLength(to, matchLength - 15);
+    }
+
+    private static void writeLastLiterals(Bytes<?> from, Bytes<?> to, long anchor, long literals) {
+        to.writeUnsignedByte((int) (Math.min(literals, 15) << 4));
+        if (literals >= 15)
+            writeLength(to, literals - 15);
+        to.write(from, anchor, literals);
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void compress(@NotNull Bytes<?> from, @NotNull Bytes<?> to) {
+        final long start = from.readPosition();
+        final long end = from.readLimit();
+        to.writeStopBit(end - start);
+
+        long anchor = start;
+        if (end - start > MF_LIMIT) {
+            final int[] table = HASH_TABLE.acquire();
+            try {
+                anchor = compressMatches(from, to, table, start, end);
+            } finally {
+                HASH_TABLE.release(table);
+            }
+        }
+        writeLastLiterals(from, to, anchor, end - anchor);
+        from.readPosition(end);
+    }
+
+    private static long compressMatches(Bytes<?> from, Bytes<?> to, int[] table, long start, long end) {
+        // positions are stored relative to start + 1 so 0 is empty.
+        Arrays.fill(table, 0);
+        long anchor = start;
+        final long matchLimit = end - MF_LIMIT;
+        final long extendLimit = end - LAST_LITERALS;
+        long pos = start;
+        while (pos < matchLimit) {
+            int sequence = from.readInt(pos);
+            int h = hash(sequence);
+            long ref = start + table[h] - 1;
+            table[h] = (int) (pos - start + 1);
+            if (ref < start || pos - ref > MAX_DISTANCE || from.readInt(ref) != sequence) {
+                // step faster through data which doesn't compress.
+                pos += 1 + ((pos - anchor) >>> SKIP_TRIGGER);
+                continue;
+            }
+            while (pos > anchor && ref > start && from.readByte(pos - 1) == from.readByte(ref - 1)) {
+                pos--;
+                ref--;
+            }
+            long matchEnd = pos + MIN_MATCH;
+            long refEnd = ref + MIN_MATCH;
+            while (matchEnd + 8 <= extendLimit && from.readLong(matchEnd) == from.readLong(refEnd)) {
+                matchEnd += 8;
+                refEnd += 8;
+            }
+            while (matchEnd < extendLimit && from.readByte(matchEnd) == from.readByte(refEnd)) {
+                matchEnd++;
+                refEnd++;
+            }
+            writeSequence(from, to, anchor, pos - anchor, (int) (pos - ref), matchEnd - pos - MIN_MATCH);
+            pos = anchor = matchEnd;
+        }
+        return anchor;
+    }
+
+    @Override
+    public void uncompress(@NotNull Bytes<?> from, @NotNull Bytes<?> to) {
+        final long length = from.readStopBit();
+        // the length isn't trusted until the block has been decoded, so check it before allocating.
+        if (length < 0 || length > from.readRemaining() * MAX_EXPANSION)
+            throw new IORuntimeException("Corrupt " + NAME + " block, length " + length + " for " + from.readRemaining() + " compressed bytes");
+        final long start = to.writePosition();
+        to.ensureCapacity(start + length);
+        while (from.readRemaining() > 0) {
+            int token = from.readUnsignedByte();
+            int literals = token >>> 4;
+            if (literals == 15)
+                literals += readLength(from);
+            to.write(from, from.readPosition(), literals);
+            from.readSkip(literals);
+            if (from.readRemaining() <= 0)
+                break;
+
+            int offset = from.readUnsignedByte() | from.readUnsignedByte() << 8;
+            int matchLength = token & 15;
+            if (matchLength == 15)
+                matchLength += readLength(from);
+            matchLength += MIN_MATCH;
+            long ref = to.writePosition() - offset;
+            if (offset == 0 || ref < start)
+                throw new IORuntimeException("Corrupt " + NAME + " block, offset " + offset);
+            // the match can overlap the bytes it writes, so copy no more than the offset at a time.
+            int i = 0;
+            if (offset >= 8)
+                for (; i <= matchLength - 8; i += 8)
+                    to.writeLong(to.readLong(ref + i));
+            for (; i < matchLength; i++)
+                to.writeByte(to.readByte(ref + i));
+        }
+        if (to.writePosition() - start != length)
+            throw new IORuntimeException("Corrupt " + NAME + " block, expected " + length + " bytes but was " + (to.writePosition() - start));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the objects in a memory mapped file, which splits on value boundaries for binary wires
+ * and on <code>---</code> lines for text wires.
+ * <p>
+ * Each split maps the file with its own Bytes and Wire so they can be read concurrently.
+ * The objects are read from the mapping so the heap used doesn't depend on the size of the file.
+ */
+class MappedWireSpliterator<T> implements Spliterator<T> {
+    static final long MIN_SPLIT_SIZE = Long.getLong("wire.mappedMinSplitSize", 256 << 10);
+    // how far apart the value boundaries remembered while scanning a binary file are.
+    static final long BOUNDARY_SPACING = Math.max(1, MIN_SPLIT_SIZE / 8);
+
+    private final WireType wireType;
+    private final File file;
+    private final Class<T> expectedType;
+    // every mapping opened by this or its splits, so closing the stream releases them
+    private final Queue<MappedBytes> opened;
+    // value boundaries found by this or its splits, so a binary file is only scanned once
+    private final NavigableSet<Long> boundaries;
+    private long start;
+    private final long end;
+    private MappedBytes bytes;
+    private Wire wire;
+    private boolean started = false;
+
+    MappedWireSpliterator(WireType wireType, File file, Class<T> expectedType) {
+        this(wireType, file, expectedType, new ConcurrentLinkedQueue<>(), new ConcurrentSkipListSet<>(), 0, file.length());
+    }
+
+    private MappedWireSpliterator(WireType wireType, File file, Class<T> expectedType, Queue<MappedBytes> opened,
+                                  NavigableSet<Long> boundaries, long start, long end) {
+        this.wireType = wireType;
+        this.file = file;
+        this.expectedType = expectedType;
+        this.opened = opened;
+        this.boundaries = boundaries;
+        this.start = start;
+        this.end = end;
+    }
+
+    static void consumeDocumentSeparator(@NotNull Wire wire) {
+        Bytes<?> bytes = wire.bytes();
+        wire.consumePadding();
+        if (bytes.peekUnsignedByte() == '-' &&
+                bytes.peekUnsignedByte(bytes.readPosition() + 1) == '-' &&
+                bytes.peekUnsignedByte(bytes.readPosition() + 2) == '-') {
+            bytes.readSkip(3);
+            while (bytes.peekUnsignedByte() == '-')
+                bytes.readSkip(1);
+        }
+    }
+
+    /**
+     * Releases every mapping still held by this Spliterator and its splits.
+     */
+    void close() {
+        for (MappedBytes mb; (mb = opened.poll()) != null; )
+            if (mb.refCount() > 0)
+                mb.releaseLast();
+    }
+
+    private Wire wire() {
+        if (wire == null) {
+            try {
+                bytes = MappedBytes.readOnly(file);
+            } catch (FileNotFoundException e) {
+                throw new IORuntimeException(e);
+            }
+            opened.add(bytes);
+            wire = wireType.apply(bytes);
+        }
+        return wire;
+    }
+
+    private void release() {
+        if (bytes != null && opened.remove(bytes))
+            bytes.releaseLast();
+        bytes = null;
+        wire = null;
+    }
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        if (start >= end) {
+            release();
+            return false;
+        }
+        Wire wire = wire();
+        if (!started) {
+            started = true;
+            bytes.readPositionRemaining(start, end - start);
+            if (wireType.isText())
+                consumeDocumentSeparator(wire);
+        }
+        ValueIn valueIn = wire.getValueIn();
+        if (!valueIn.hasNext()) {
+            start = end;
+            release();
+            return false;
+        }
+        T t = valueIn.object(expectedType);
+        if (wireType.isText())
+            consumeDocumentSeparator(wire);
+        start = bytes.readPosition();
+        action.accept(t);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        // only split before reading, and not into pieces too small to be worth a thread.
+        if (started || end - start < 2 * MIN_SPLIT_SIZE)
+            return null;
+        long mid = start + (end - start) / 2;
+        long boundary = wireType.isText() ? textBoundary(mid) : binaryBoundary(mid);
+        if (boundary <= start || boundary >= end)
+            return null;
+        MappedWireSpliterator<T> prefix = new MappedWireSpliterator<>(wireType, file, expectedType, opened, boundaries, start, boundary);
+        start = boundary;
+        return prefix;
+    }
+
+    /**
+     * @return the start of the first <code>---</code> line at or after <code>from</code>, or <code>end</code> if none.
+     */
+    private long textBoundary(long from) {
+        wire();
+        for (long pos = from; pos + 3 <= end; pos++) {
+            if (bytes.peekUnsignedByte(pos) == '-'
+                    && bytes.peekUnsignedByte(pos + 1) == '-'
+                    && bytes.peekUnsignedByte(pos + 2) == '-'
+                    && bytes.peekUnsignedByte(pos - 1) == '\n')
+                return pos;
+        }
+        return end;
+    }
+
+    /**
+     * Binary values can only be found by skipping over the ones before them, so this skips from the nearest
+     * boundary already known and remembers one every <code>BOUNDARY_SPACING</code> bytes on the way.
+     * Splitting the prefix again then starts close to its middle and each part of the file is skipped over at most once.
+     *
+     * @return the start of the first value at or after <code>from</code>.
+     */
+    private long binaryBoundary(long from) {
+        ValueIn valueIn = wire().getValueIn();
+        Long known = boundaries.floor(from);
+        long pos = known == null || known < start ? start : known;
+        if (pos == from)
+            return pos;
+        bytes.readPositionRemaining(pos, end - pos);
+        long last = pos;
+        while (bytes.readPosition() < from && valueIn.hasNext()) {
+            valueIn.skipValue();
+            long next = bytes.readPosition();
+            if (next - last >= BOUNDARY_SPACING && next < end) {
+                boundaries.add(next);
+                last = next;
+            }
+        }
+        return bytes.readPosition();
+    }
+
+    @Override
+    public long estimateSize() {
+        // the number of bytes, as the number of objects isn't known.
+        return end - start;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | IMMUTABLE | NONNULL;
+    }
+}
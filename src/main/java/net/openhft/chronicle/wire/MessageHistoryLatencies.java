@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.util.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the hop to hop and end to end latencies of each MessageHistory into preallocated histograms per path.
+ * <p>
+ * A path is classified by the longest matching suffix of its source ids, as {@link MessagePathClassifier} does.
+ * Hop <code>n</code> is the time from timing <code>n</code> to the next timing, or to the time it is recorded for the last
+ * timing, and end to end is from the first timing to the time it is recorded.
+ * Recording doesn't allocate, and a {@link Snapshot} of the percentiles can be taken periodically and written to a wire.
+ * <p>
+ * This class is not thread safe.
+ */
+public class MessageHistoryLatencies {
+    private final SourceIdSuffixTrie trie = new SourceIdSuffixTrie();
+    private final int maxHops;
+    private PathHistograms[] paths = {};
+    private long unclassified = 0;
+    private long startTimeNS = System.nanoTime();
+
+    public MessageHistoryLatencies() {
+        this(16);
+    }
+
+    /**
+     * @param maxHops the number of hops to record per path, later hops are only included in the end to end latency.
+     */
+    public MessageHistoryLatencies(int maxHops) {
+        if (maxHops < 1)
+            throw new IllegalArgumentException("maxHops: " + maxHops);
+        this.maxHops = maxHops;
+    }
+
+    /**
+     * @param pathId  to report latencies for sources ending with
+     * @param sources match a message history ending with this.
+     * @return this
+     */
+    public MessageHistoryLatencies addPathForSourcesEnding(int pathId, int... sources) {
+        int duplicate = trie.get(sources);
+        if (duplicate != SourceIdSuffixTrie.NO_MATCH)
+            throw new IllegalArgumentException("Duplicate entry for " + Arrays.toString(sources) + " for path " + paths[duplicate].pathId + " and " + pathId);
+        paths = Arrays.copyOf(paths, paths.length + 1);
+        paths[paths.length - 1] = new PathHistograms(pathId, maxHops);
+        trie.put(sources, paths.length - 1);
+        return this;
+    }
+
+    /**
+     * Record the latencies of this history up to now.
+     *
+     * @return true if the history matched a path and had timings.
+     */
+    public boolean record(@NotNull MessageHistory history) {
+        return record(history, System.nanoTime());
+    }
+
+    /**
+     * Record the latencies of this history up to endTimeNS
+     *
+     * @param endTimeNS the System.nanoTime() this message was processed.
+     * @return true if the history matched a path and had timings.
+     */
+    public boolean record(@NotNull MessageHistory history, long endTimeNS) {
+        int index = trie.longestSuffix(history);
+        int timings = history.timings();
+        if (index == SourceIdSuffixTrie.NO_MATCH || timings == 0) {
+            unclassified++;
+            return false;
+        }
+        PathHistograms path = paths[index];
+        Histogram[] hops = path.hops;
+        long start = history.timing(0);
+        long previous = start;
+        for (int i = 1; i <= timings; i++) {
+            long time = i < timings ? history.timing(i) : endTimeNS;
+            if (i <= hops.length)
+                hops[i - 1].sample(time - previous);
+            previous = time;
+        }
+        path.endToEnd.sample(endTimeNS - start);
+        return true;
+    }
+
+    /**
+     * @return the number of histories which didn't match a path or had no timings since the last reset.
+     */
+    public long unclassified() {
+        return unclassified;
+    }
+
+    public void reset() {
+        for (PathHistograms path : paths)
+            path.reset();
+        unclassified = 0;
+        startTimeNS = System.nanoTime();
+    }
+
+    /**
+     * @param reset whether to reset the histograms after taking the snapshot, for periodic reporting.
+     * @return the percentiles of each path since the last reset.
+     */
+    @NotNull
+    public Snapshot snapshot(boolean reset) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.intervalNS = System.nanoTime() - startTimeNS;
+        snapshot.unclassified = unclassified;
+        for (PathHistograms path : paths) {
+            PathLatencies latencies = new PathLatencies();
+            latencies.pathId = path.pathId;
+            latencies.endToEnd = Percentiles.of(path.endToEnd);
+            for (Histogram hop : path.hops) {
+                if (hop.totalCount() == 0)
+                    break;
+                latencies.hops.add(Percentiles.of(hop));
+            }
+            snapshot.paths.add(latencies);
+        }
+        if (reset)
+            reset();
+        return snapshot;
+    }
+
+    static final class PathHistograms {
+        final int pathId;
+        final Histogram endToEnd = new Histogram();
+        final Histogram[] hops;
+
+        PathHistograms(int pathId, int maxHops) {
+            this.pathId = pathId;
+            this.hops = new Histogram[maxHops];
+            for (int i = 0; i < maxHops; i++)
+                hops[i] = new Histogram();
+        }
+
+        void reset() {
+            endToEnd.reset();
+            for (Histogram hop : hops)
+                hop.reset();
+        }
+    }
+
+    /**
+     * The latencies of every path over an interval.
+     */
+    public static class Snapshot extends SelfDescribingMarshallable {
+        long intervalNS;
+        long unclassified;
+        List<PathLatencies> paths = new ArrayList<>();
+
+        public long intervalNS() {
+            return intervalNS;
+        }
+
+        public long unclassified() {
+            return unclassified;
+        }
+
+        public List<PathLatencies> paths() {
+            return paths;
+        }
+    }
+
+    /**
+     * The end to end and hop to hop latencies of one path.
+     */
+    public static class PathLatencies extends SelfDescribingMarshallable {
+        int pathId;
+        Percentiles endToEnd;
+        List<Percentiles> hops = new ArrayList<>();
+
+        public int pathId() {
+            return pathId;
+        }
+
+        public Percentiles endToEnd() {
+            return endToEnd;
+        }
+
+        public List<Percentiles> hops() {
+            return hops;
+        }
+    }
+
+    /**
+     * The count and percentiles of a latency in nanoseconds.
+     */
+    public static class Percentiles extends SelfDescribingMarshallable {
+        long count;
+        long p50;
+        long p90;
+        long p99;
+        long p99_9;
+        long max;
+
+        static Percentiles of(Histogram histogram) {
+            Percentiles percentiles = new Percentiles();
+            percentiles.count = histogram.totalCount();
+            if (percentiles.count > 0) {
+                percentiles.p50 = (long) histogram.percentile(0.5);
+                percentiles.p90 = (long) histogram.percentile(0.9);
+                percentiles.p99 = (long) histogram.percentile(0.99);
+                percentiles.p99_9 = (long) histogram.percentile(0.999);
+                percentiles.max = (long) histogram.percentile(1.0);
+            }
+            return percentiles;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long p50() {
+            return p50;
+        }
+
+        public long p90() {
+            return p90;
+        }
+
+        public long p99() {
+            return p99;
+        }
+
+        public long p99_9() {
+            return p99_9;
+        }
+
+        public long max() {
+            return max;
+        }
+    }
+}
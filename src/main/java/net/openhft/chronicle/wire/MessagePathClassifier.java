@@ -19,16 +19,11 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.core.Jvm;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.OptionalInt;
 import java.util.function.IntSupplier;
-import java.util.stream.IntStream;
 
 public class MessagePathClassifier implements IntSupplier {
-    private final List<int[]> sourcePattern = new ArrayList<>();
-    private final List<Integer> pathIds = new ArrayList<>();
+    private final SourceIdSuffixTrie trie = new SourceIdSuffixTrie();
 
     /**
      * @param pathId  0 indexed pathId for sourcces ending with
@@ -36,18 +31,15 @@ public class MessagePathClassifier implements IntSupplier {
      * @return this
      */
     public MessagePathClassifier addPathForSourcesEnding(int pathId, int... sources) {
-        OptionalInt duplicate = IntStream.range(0, sourcePattern.size())
-                .filter(s -> Arrays.equals(sources, sourcePattern.get(s)))
-                .findFirst();
-        if (duplicate.isPresent()) {
-            if (sources[duplicate.getAsInt()] == pathId) {
+        int duplicate = trie.get(sources);
+        if (duplicate != SourceIdSuffixTrie.NO_MATCH) {
+            if (duplicate == pathId) {
                 Jvm.debug().on(getClass(), "Added pathId " + pathId + " more than once");
                 return this;
             }
-            throw new IllegalArgumentException("Duplicate entry for " + Arrays.toString(sources) + " for path " + duplicate.getAsInt() + " and " + pathId);
+            throw new IllegalArgumentException("Duplicate entry for " + Arrays.toString(sources) + " for path " + duplicate + " and " + pathId);
         }
-        sourcePattern.add(sources);
-        pathIds.add(pathId);
+        trie.put(sources, pathId);
         return this;
     }
 
@@ -57,19 +49,8 @@ public class MessagePathClassifier implements IntSupplier {
     }
 
     public int pathFor(MessageHistory messageHistory) {
-        Integer pathId = null;
-        int length = -1;
-        for (int i = 0; i < sourcePattern.size(); i++) {
-            int[] sourceIds = sourcePattern.get(i);
-            if (messageHistory.sourceIdsEndsWith(sourceIds)) {
-                Integer pathId2 = pathIds.get(i);
-                if (sourceIds.length > length) {
-                    pathId = pathId2;
-                    length = sourceIds.length;
-                }
-            }
-        }
-        if (pathId == null)
+        int pathId = trie.longestSuffix(messageHistory);
+        if (pathId == SourceIdSuffixTrie.NO_MATCH)
             throw new IllegalStateException("Unable to classify the pathId for " + messageHistory);
         return pathId;
     }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests the MethodCodeProcessor in chronicle-wire-processor generate the method writers and readers for these
+ * classes at build time, so they are loaded rather than compiled the first time they are used.
+ * <p>
+ * The classes must already be compiled, e.g. in an upstream module or jar on the annotation processor path.
+ * Classes in the same compilation as this annotation are skipped with a warning.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.TYPE, ElementType.PACKAGE})
+public @interface PregenerateMethodCode {
+    /**
+     * @return interfaces to generate a method writer for, one per interface.
+     */
+    Class<?>[] writers() default {};
+
+    /**
+     * @return implementations to generate a method reader for, one per implementation.
+     */
+    Class<?>[] readers() default {};
+
+    /**
+     * @return the wire types the writers and readers will be used with.
+     */
+    WireType[] wireTypes() default {WireType.BINARY_LIGHT};
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A source of reusable scratch objects such as buffers and wires, obtained from a {@link ScratchProvider}.
+ * <p>
+ * An object is used between {@link #acquire()} and {@link #release(Object)} by one thread at a time and is not
+ * reset by either; the caller clears what it needs to. An object which is never released is left to the garbage
+ * collector.
+ */
+public interface Scratch<T> {
+    @NotNull
+    T acquire();
+
+    /**
+     * Hands back an object from {@link #acquire()} for reuse. It must not be used after this.
+     */
+    void release(@NotNull T t);
+}
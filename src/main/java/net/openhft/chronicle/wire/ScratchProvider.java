@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides how scratch state is shared between threads. The library's per thread buffers and wires are created with
+ * {@link ScratchProviders#scratch(Supplier)}, which uses the provider chosen with the <code>wire.scratch</code>
+ * system property
+ * <ul>
+ *     <li><code>threadLocal</code>, the default, keeps one weakly referenced object per thread, which suits a
+ *     modest number of long lived threads.</li>
+ *     <li><code>pooled</code> or <code>pooled:<i>size</i></code> shares a bounded pool of objects per scratch between
+ *     all threads, so a large number of short lived or virtual threads reuse the same few objects. The library's
+ *     pooled buffers are on heap, as any which escape to the caller are left to the GC.</li>
+ *     <li>the name of a class implementing this interface with a public no argument constructor.</li>
+ * </ul>
+ * Implementations must be thread safe.
+ */
+@FunctionalInterface
+public interface ScratchProvider {
+    @NotNull
+    <T> Scratch<T> scratch(@NotNull Supplier<T> supplier);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.threads.ThreadLocalHelper;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ScratchProvider}s provided and the one used by the library, see {@link ScratchProvider} for how it is
+ * chosen.
+ */
+public enum ScratchProviders {
+    ; // none
+
+    private static final ScratchProvider THREAD_LOCAL = ThreadLocalScratch::new;
+    private static final ScratchProvider PROVIDER = providerFor(System.getProperty("wire.scratch", "threadLocal"));
+
+    /**
+     * @return the provider chosen with the <code>wire.scratch</code> system property
+     */
+    @NotNull
+    public static ScratchProvider provider() {
+        return PROVIDER;
+    }
+
+    @NotNull
+    public static <T> Scratch<T> scratch(@NotNull Supplier<T> supplier) {
+        return PROVIDER.scratch(supplier);
+    }
+
+    /**
+     * @return a provider which keeps one weakly referenced object per thread and ignores release.
+     */
+    @NotNull
+    public static ScratchProvider threadLocal() {
+        return THREAD_LOCAL;
+    }
+
+    /**
+     * @return whether the provider used keeps an object per thread, rather than sharing them between threads.
+     */
+    static boolean isThreadLocal() {
+        return PROVIDER == THREAD_LOCAL;
+    }
+
+    /**
+     * @param size the most objects kept per scratch, rounded up to a power of two
+     * @return a provider which shares a bounded pool of released objects between threads.
+     */
+    @NotNull
+    public static ScratchProvider pooled(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("size: " + size);
+        int size2 = Maths.nextPower2(size, 1);
+        return new ScratchProvider() {
+            @NotNull
+            @Override
+            public <T> Scratch<T> scratch(@NotNull Supplier<T> supplier) {
+                return new PooledScratch<>(supplier, size2);
+            }
+        };
+    }
+
+    @NotNull
+    static ScratchProvider providerFor(@NotNull String name) {
+        if (name.equals("threadLocal"))
+            return threadLocal();
+        if (name.equals("pooled"))
+            return pooled(Runtime.getRuntime().availableProcessors() * 2);
+        if (name.startsWith("pooled:"))
+            return pooled(Integer.parseInt(name.substring("pooled:".length())));
+        try {
+            return (ScratchProvider) Class.forName(name).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            Jvm.warn().on(ScratchProviders.class, "Unable to use wire.scratch=" + name + ", using threadLocal", e);
+            return threadLocal();
+        }
+    }
+
+    static final class ThreadLocalScratch<T> implements Scratch<T> {
+        // held weakly so an idle thread doesn't keep its buffers from the GC.
+        private final ThreadLocal<WeakReference<T>> threadLocal = new ThreadLocal<>();
+        private final Supplier<T> supplier;
+
+        ThreadLocalScratch(@NotNull Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            return ThreadLocalHelper.getTL(threadLocal, supplier);
+        }
+
+        @Override
+        public void release(@NotNull T t) {
+            // stays with the thread.
+        }
+    }
+
+    static final class PooledScratch<T> implements Scratch<T> {
+        // slots are 16 references apart so threads using neighbouring slots don't share a cache line.
+        private static final int SPREAD = 4;
+        private final Supplier<T> supplier;
+        private final AtomicReferenceArray<T> slots;
+        private final int mask;
+
+        PooledScratch(@NotNull Supplier<T> supplier, int size) {
+            this.supplier = supplier;
+            this.slots = new AtomicReferenceArray<>(size << SPREAD);
+            this.mask = size - 1;
+        }
+
+        private static int probe() {
+            long id = Thread.currentThread().getId();
+            return (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            int probe = probe();
+            for (int i = 0; i <= mask; i++) {
+                int index = ((probe + i) & mask) << SPREAD;
+                T t = slots.get(index);
+                if (t != null && slots.compareAndSet(index, t, null))
+                    return t;
+            }
+            return supplier.get();
+        }
+
+        @Override
+        public void release(@NotNull T t) {
+            int probe = probe();
+            for (int i = 0; i <= mask; i++) {
+                int index = ((probe + i) & mask) << SPREAD;
+                if (slots.get(index) == null && slots.compareAndSet(index, null, t))
+                    return;
+            }
+            // the pool is full, leave it to the GC.
+        }
+    }
+}
@@ -14,23 +14,42 @@ public abstract class SelfDescribingTriviallyCopyable extends SelfDescribingMars
     @FieldGroup("header")
     transient int description = $description();
 
-    protected abstract int $description();
+    /**
+     * @return the counts of each size of primitive field, derived from the fields of this class unless overridden.
+     */
+    protected int $description() {
+        return layout().description;
+    }
 
-    protected abstract int $start();
+    /**
+     * @return the offset of the first primitive field, derived from the fields of this class unless overridden.
+     */
+    protected int $start() {
+        return layout().start;
+    }
 
-    protected abstract int $length();
+    /**
+     * @return the length of the primitive fields, derived from the fields of this class unless overridden.
+     */
+    protected int $length() {
+        return layout().length;
+    }
+
+    private TriviallyCopyableLayout layout() {
+        return TriviallyCopyableLayout.LAYOUTS.get(getClass());
+    }
 
     @Override
     public void readMarshallable(BytesIn bytes) throws IORuntimeException, BufferUnderflowException, IllegalStateException {
         int description0 = bytes.readInt();
-        if (description0 != $description())
-            carefulCopy(bytes, description0);
-        else
+        TriviallyCopyableLayout layout = layout();
+        if (description0 == $description() && (layout.overridden || layout.contiguous))
             bytes.unsafeReadObject(this, $start(), $length());
+        else
+            carefulCopy(bytes, description0, layout);
     }
 
-    private void carefulCopy(BytesIn<?> in, int description0) {
-        int offset = $start();
+    private void carefulCopy(BytesIn<?> in, int description0, TriviallyCopyableLayout layout) {
         int longs0 = description0 >>> 24;
         int ints0 = (description0 >>> 16) & 0xFF;
         int shorts0 = (description0 >>> 8) & 0x7F;
@@ -39,6 +58,16 @@ public abstract class SelfDescribingTriviallyCopyable extends SelfDescribingMars
         if (Integer.bitCount(description0) % 2 == 0 || length > in.readRemaining())
             throw new IllegalStateException("Invalid description: " + Integer.toHexString(description0) + ", length: " + length + ", remaining: " + in.readRemaining());
 
+        if (layout.overridden)
+            copyInOrder(in, longs0, ints0, shorts0, bytes0);
+        else
+            // each field is read to its own offset, so fields of different sizes needn't be in size order.
+            layout.read(this, in, description0);
+    }
+
+    // the fields described by overridden methods are assumed to be from $start() in size order.
+    private void copyInOrder(BytesIn<?> in, int longs0, int ints0, int shorts0, int bytes0) {
+        int offset = $start();
         int longs = $description() >>> 24;// max 255
         for (int i = 0; i < Math.max(longs, longs0); i++) {
             long value = 0;
@@ -84,6 +113,10 @@ public abstract class SelfDescribingTriviallyCopyable extends SelfDescribingMars
     @Override
     public void writeMarshallable(BytesOut bytes) throws IllegalStateException, BufferOverflowException, BufferUnderflowException, ArithmeticException {
         bytes.writeInt($description());
-        bytes.unsafeWriteObject(this, $start(), $length());
+        TriviallyCopyableLayout layout = layout();
+        if (layout.overridden || layout.contiguous)
+            bytes.unsafeWriteObject(this, $start(), $length());
+        else
+            layout.write(this, bytes);
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A trie of source ids from the last source back, to find the value for the longest matching suffix of a MessageHistory
+ * without allocating or scanning every pattern.
+ */
+final class SourceIdSuffixTrie {
+    static final int NO_MATCH = Integer.MIN_VALUE;
+
+    private final Node root = new Node();
+
+    /**
+     * @param sourceIds the suffix to match
+     * @return the value for exactly these source ids, or NO_MATCH
+     */
+    int get(@NotNull int[] sourceIds) {
+        Node node = root;
+        for (int i = sourceIds.length - 1; i >= 0 && node != null; i--)
+            node = node.child(sourceIds[i]);
+        return node == null ? NO_MATCH : node.value;
+    }
+
+    void put(@NotNull int[] sourceIds, int value) {
+        Node node = root;
+        for (int i = sourceIds.length - 1; i >= 0; i--)
+            node = node.acquireChild(sourceIds[i]);
+        node.value = value;
+    }
+
+    /**
+     * @return the value for the longest suffix of the source ids of this history, or NO_MATCH
+     */
+    int longestSuffix(@NotNull MessageHistory history) {
+        Node node = root;
+        int value = root.value;
+        for (int i = history.sources() - 1; i >= 0; i--) {
+            node = node.child(history.sourceId(i));
+            if (node == null)
+                break;
+            if (node.value != NO_MATCH)
+                value = node.value;
+        }
+        return value;
+    }
+
+    static final class Node {
+        // sorted so a child can be found with a binary search
+        int[] sourceIds = {};
+        Node[] children = {};
+        int value = NO_MATCH;
+
+        Node child(int sourceId) {
+            int index = Arrays.binarySearch(sourceIds, sourceId);
+            return index < 0 ? null : children[index];
+        }
+
+        Node acquireChild(int sourceId) {
+            int index = Arrays.binarySearch(sourceIds, sourceId);
+            if (index >= 0)
+                return children[index];
+            int insert = -index - 1;
+            int[] sourceIds2 = new int[sourceIds.length + 1];
+            Node[] children2 = new Node[children.length + 1];
+            System.arraycopy(sourceIds, 0, sourceIds2, 0, insert);
+            System.arraycopy(children, 0, children2, 0, insert);
+            System.arraycopy(sourceIds, insert, sourceIds2, insert + 1, sourceIds.length - insert);
+            System.arraycopy(children, insert, children2, insert + 1, children.length - insert);
+            Node child = new Node();
+            sourceIds2[insert] = sourceId;
+            children2[insert] = child;
+            sourceIds = sourceIds2;
+            children = children2;
+            return child;
+        }
+    }
+}
@@ -19,7 +19,6 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.bytes.*;
 import net.openhft.chronicle.bytes.ref.*;
-import net.openhft.chronicle.bytes.util.Compression;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.core.io.IORuntimeException;
@@ -206,7 +205,7 @@ public class TextWire extends AbstractWire implements Wire {
         return sct;
     }
 
-    private static void checkConsecutiveSpaces(@NotNull StringBuilder sb) {
+    static void checkConsecutiveSpaces(@NotNull StringBuilder sb) {
         if (sb.length() == 0)
             return;
         char lastCh = sb.charAt(0);
@@ -522,7 +521,7 @@ public class TextWire extends AbstractWire implements Wire {
 
     @Nullable
     private <K> K toExpected(Class<K> expectedClass, StringBuilder sb) {
-        return ObjectUtils.convertTo(expectedClass, WireInternal.INTERNER.intern(sb));
+        return ObjectUtils.convertTo(expectedClass, intern(sb));
     }
 
     @NotNull
@@ -1099,7 +1098,7 @@ public class TextWire extends AbstractWire implements Wire {
             if (indentation() < indentation || bytes.readRemaining() == 0)
                 break;
             read(sb);
-            @Nullable String key = WireInternal.INTERNER.intern(sb);
+            @Nullable String key = intern(sb);
             if (key.equals("..."))
                 break;
             @Nullable Object value = valueIn.objectWithInferredType(null, SerializationStrategies.ANY_OBJECT, valueType);
@@ -1182,6 +1181,8 @@ public class TextWire extends AbstractWire implements Wire {
         protected boolean dropDefault = false;
         @Nullable
         private String eventName;
+        // if not, large and small finite values go through doubleToString and floatToString as well
+        private final boolean finiteAsDefault = WireInternal.FINITE_NUMBERS_AS_DEFAULT.get(getClass());
 
         @Override
         public void hasPrecedingComment(boolean hasCommentAnnotation) {
@@ -1582,7 +1583,9 @@ public class TextWire extends AbstractWire implements Wire {
             prependSeparator();
             double af = Math.abs(f);
             if (af >= 1e-3 && af < 1e6)
-                bytes.append(f);
+                DoubleFormatter.appendFloatPlain(bytes, f);
+            else if (finiteAsDefault && Float.isFinite(f))
+                DoubleFormatter.appendFloat(bytes, f);
             else
                 bytes.append(floatToString(f));
             elementSeparator();
@@ -1608,19 +1611,27 @@ public class TextWire extends AbstractWire implements Wire {
                 } else if (ad < 1e-3) {
                     double d7 = Math.round(d * 1e16) / 1e9;
                     double ad7 = Math.abs(d7);
-                    if (ad7 < 1e1)
-                        bytes.append(d7).append("E-7");
-                    else if (ad7 < 1e2)
-                        bytes.append(d7 / 1e1).append("E-6");
-                    else if (ad7 < 1e3)
-                        bytes.append(d7 / 1e2).append("E-5");
-                    else if (ad7 < 1e4)
-                        bytes.append(d7 / 1e3).append("E-4");
-                    else
-                        bytes.append(d7 / 1e4).append("E-3");
+                    if (ad7 < 1e1) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7);
+                        bytes.append("E-7");
+                    } else if (ad7 < 1e2) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e1);
+                        bytes.append("E-6");
+                    } else if (ad7 < 1e3) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e2);
+                        bytes.append("E-5");
+                    } else if (ad7 < 1e4) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e3);
+                        bytes.append("E-4");
+                    } else {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e4);
+                        bytes.append("E-3");
+                    }
                 } else {
-                    bytes.append(d);
+                    DoubleFormatter.appendDoublePlain(bytes, d);
                 }
+            } else if (finiteAsDefault && Double.isFinite(d)) {
+                DoubleFormatter.appendDouble(bytes, d);
             } else {
                 bytes.append(doubleToString(d));
             }
@@ -1629,10 +1640,18 @@ public class TextWire extends AbstractWire implements Wire {
             return TextWire.this;
         }
 
+        /**
+         * Formats the doubles which aren't written as plain decimals. Only those which aren't finite
+         * are passed to this unless it is overridden.
+         */
         protected String doubleToString(double d) {
             return Double.toString(d);
         }
 
+        /**
+         * Formats the floats which aren't written as plain decimals. Only those which aren't finite
+         * are passed to this unless it is overridden.
+         */
         protected String floatToString(float f) {
             return Float.toString(f);
         }
@@ -1678,7 +1697,7 @@ public class TextWire extends AbstractWire implements Wire {
                 nu11();
             } else {
                 prependSeparator();
-                append(stringable.toString());
+                append(stringable instanceof CharSequence ? (CharSequence) stringable : stringable.toString());
                 elementSeparator();
             }
 
@@ -1743,6 +1762,12 @@ public class TextWire extends AbstractWire implements Wire {
             return asText(uuid);
         }
 
+        @NotNull
+        @Override
+        public WireOut uuid(long mostSignificantBits, long leastSignificantBits) {
+            return asText(WireInternal.appendUuid(WireInternal.acquireStringBuilder(), mostSignificantBits, leastSignificantBits));
+        }
+
         @NotNull
         @Override
         public WireOut int32forBinding(int value) {
@@ -2171,7 +2196,7 @@ public class TextWire extends AbstractWire implements Wire {
         @Override
         public String text() {
             @Nullable CharSequence cs = textTo0(acquireStringBuilder());
-            return cs == null ? null : WireInternal.INTERNER.intern(cs);
+            return cs == null ? null : intern(cs);
         }
 
         @Nullable
@@ -2383,7 +2408,7 @@ public class TextWire extends AbstractWire implements Wire {
                 if (peekCode() == '!') {
                     bytes.readSkip(1);
                     parseWord(sb);
-                    @Nullable byte[] uncompressed = Compression.uncompress(sb, TextWire.this, t -> {
+                    @Nullable byte[] uncompressed = CompressionCodecs.uncompress(sb, TextWire.this, t -> {
                         @NotNull StringBuilder sb2 = acquireStringBuilder();
                         AppendableUtil.setLength(sb2, 0);
                         t.parseUntil(sb2, StopCharTesters.COMMA_SPACE_STOP);
@@ -2423,10 +2448,10 @@ public class TextWire extends AbstractWire implements Wire {
                         parseWord(stringBuilder);
                     }
 
-                    @Nullable byte[] bytes = Compression.uncompress(stringBuilder, this, t -> {
+                    @Nullable byte[] bytes = CompressionCodecs.uncompress(stringBuilder, this, t -> {
                         @NotNull StringBuilder sb0 = acquireStringBuilder();
                         parseUntil(sb0, StopCharTesters.COMMA_SPACE_STOP);
-                        return Base64.getDecoder().decode(WireInternal.INTERNER.intern(sb0));
+                        return Base64.getDecoder().decode(intern(sb0));
                     });
                     if (bytes != null)
                         return bytes;
@@ -2721,7 +2746,7 @@ public class TextWire extends AbstractWire implements Wire {
             if (peekCode() == '$') {
                 unsubstitutedNumber();
             } else {
-                tf.accept(t, (float) bytes.parseDouble());
+                tf.accept(t, DoubleParser.parseFloat(bytes));
             }
             return TextWire.this;
         }
@@ -2733,7 +2758,7 @@ public class TextWire extends AbstractWire implements Wire {
             if (peekCode() == '$') {
                 unsubstitutedNumber();
             } else {
-                td.accept(t, bytes.parseDouble());
+                td.accept(t, DoubleParser.parseDouble(bytes));
             }
             return TextWire.this;
         }
@@ -2744,7 +2769,7 @@ public class TextWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            setLocalTime.accept(t, LocalTime.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            setLocalTime.accept(t, LocalTime.parse(intern(stringBuilder)));
             return TextWire.this;
         }
 
@@ -2754,7 +2779,7 @@ public class TextWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tZonedDateTime.accept(t, ZonedDateTime.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            tZonedDateTime.accept(t, ZonedDateTime.parse(intern(stringBuilder)));
             return TextWire.this;
         }
 
@@ -2764,7 +2789,7 @@ public class TextWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tLocalDate.accept(t, LocalDate.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            tLocalDate.accept(t, LocalDate.parse(intern(stringBuilder)));
             return TextWire.this;
         }
 
@@ -2774,7 +2799,7 @@ public class TextWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tuuid.accept(t, UUID.fromString(WireInternal.INTERNER.intern(stringBuilder)));
+            tuuid.accept(t, UUID.fromString(intern(stringBuilder)));
             return TextWire.this;
         }
 
@@ -3282,7 +3307,7 @@ public class TextWire extends AbstractWire implements Wire {
         @Nullable
         private <K, V> Map<K, V> typedMap(@NotNull Class<K> kClazz, @NotNull Class<V> vClass, @NotNull Map<K, V> usingMap, @NotNull StringBuilder sb) {
             parseUntil(sb, StopCharTesters.SPACE_STOP);
-            @Nullable String str = WireInternal.INTERNER.intern(sb);
+            @Nullable String str = intern(sb);
 
             if (("!!null").contentEquals(sb)) {
                 text();
@@ -3406,7 +3431,7 @@ public class TextWire extends AbstractWire implements Wire {
                     Jvm.warn().on(getClass(), "Unable to read " + valueIn.object() + " as a double.");
                     return 0;
             }
-            final double v = bytes.parseDouble();
+            final double v = DoubleParser.parseDouble(bytes);
 
             checkRewindDouble();
             return v;
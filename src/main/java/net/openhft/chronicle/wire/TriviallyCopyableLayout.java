@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesIn;
+import net.openhft.chronicle.bytes.BytesOut;
+import net.openhft.chronicle.bytes.BytesUtil;
+import net.openhft.chronicle.bytes.FieldGroup;
+import net.openhft.chronicle.bytes.internal.BytesFieldInfo;
+import net.openhft.chronicle.core.ClassLocal;
+import net.openhft.chronicle.core.Jvm;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static net.openhft.chronicle.core.UnsafeMemory.unsafeObjectFieldOffset;
+
+/**
+ * The layout of the primitive fields of a {@link SelfDescribingTriviallyCopyable}. The description and the range
+ * copied are those of {@link BytesFieldInfo} and {@link BytesUtil#triviallyCopyableRange(Class)}.
+ * <p>
+ * The fields are copied as the longs and doubles, then the ints and floats, shorts and chars, and bytes and booleans,
+ * each in offset order. If the fields are contiguous in that order the object can be copied as one block of memory,
+ * otherwise each field is copied by its offset.
+ */
+final class TriviallyCopyableLayout {
+    static final ClassLocal<TriviallyCopyableLayout> LAYOUTS = ClassLocal.withInitial(TriviallyCopyableLayout::new);
+
+    final int description;
+    final int start;
+    final int length;
+    // whether the fields can be copied as one block from start for length
+    final boolean contiguous;
+    // whether a subclass describes its fields with $description(), $start() or $length(), which are used as is.
+    final boolean overridden;
+    final long[] longOffsets;
+    final long[] intOffsets;
+    final long[] shortOffsets;
+    final long[] byteOffsets;
+
+    TriviallyCopyableLayout(@NotNull Class<?> tClass) {
+        List<Field> primitives = new ArrayList<>();
+        List<Field> others = new ArrayList<>();
+        for (Class<?> c = tClass; c != SelfDescribingTriviallyCopyable.class && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()))
+                    continue;
+                FieldGroup group = field.getAnnotation(FieldGroup.class);
+                if (field.getType().isPrimitive() && (group == null || !group.value().equals("header")))
+                    primitives.add(field);
+                else
+                    others.add(field);
+            }
+        }
+        primitives.sort(Comparator.comparingLong(TriviallyCopyableLayout::offset));
+        longOffsets = offsets(primitives, 8);
+        intOffsets = offsets(primitives, 4);
+        shortOffsets = offsets(primitives, 2);
+        byteOffsets = offsets(primitives, 1);
+        description = BytesFieldInfo.lookup(tClass).description();
+        int[] range = BytesUtil.triviallyCopyableRange(tClass);
+        start = range[0];
+        length = range[1] - range[0];
+
+        overridden = overridesDescription(tClass);
+        String breaks = contiguityBreaks(primitives, others);
+        contiguous = breaks.isEmpty();
+        if (!contiguous && !overridden)
+            Jvm.warn().on(tClass, "The primitive fields are not contiguous so will be copied one at a time, " + breaks);
+    }
+
+    private static boolean overridesDescription(Class<?> tClass) {
+        for (Class<?> c = tClass; c != SelfDescribingTriviallyCopyable.class && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getParameterCount() == 0
+                        && (method.getName().equals("$description") || method.getName().equals("$start") || method.getName().equals("$length")))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    static long offset(Field field) {
+        return unsafeObjectFieldOffset(field);
+    }
+
+    static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class)
+            return 8;
+        if (type == int.class || type == float.class)
+            return 4;
+        if (type == short.class || type == char.class)
+            return 2;
+        return 1;
+    }
+
+    private static long[] offsets(List<Field> primitives, int size) {
+        return primitives.stream()
+                .filter(f -> sizeOf(f.getType()) == size)
+                .mapToLong(TriviallyCopyableLayout::offset)
+                .toArray();
+    }
+
+    private String contiguityBreaks(List<Field> primitives, List<Field> others) {
+        StringBuilder sb = new StringBuilder();
+        for (Field field : others) {
+            long offset = offset(field);
+            if (offset >= start && offset < start + length)
+                sb.append("field ").append(field.getName()).append(" at ").append(offset).append(" is not copied; ");
+        }
+        // the offset of each field if they were contiguous in the order copied
+        long expected = start;
+        for (int size = 8; size >= 1; size /= 2) {
+            for (Field field : primitives) {
+                if (sizeOf(field.getType()) != size)
+                    continue;
+                long offset = offset(field);
+                if (offset != expected)
+                    sb.append("field ").append(field.getName()).append(" at ").append(offset).append(" not ").append(expected).append("; ");
+                expected += size;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the fields one at a time in the order they would be copied as a block.
+     */
+    void write(Object o, BytesOut<?> out) {
+        for (long offset : longOffsets)
+            out.writeLong(MEMORY.readLong(o, offset));
+        for (long offset : intOffsets)
+            out.writeInt(MEMORY.readInt(o, offset));
+        for (long offset : shortOffsets)
+            out.writeShort(MEMORY.readShort(o, offset));
+        for (long offset : byteOffsets)
+            out.writeByte(MEMORY.readByte(o, offset));
+    }
+
+    /**
+     * Read fields written with another description, ignoring extra fields and setting missing fields to zero.
+     */
+    void read(Object o, BytesIn<?> in, int description0) {
+        int longs0 = description0 >>> 24;
+        int ints0 = (description0 >>> 16) & 0xFF;
+        int shorts0 = (description0 >>> 8) & 0x7F;
+        int bytes0 = description0 & 0xFF;
+        for (int i = 0; i < Math.max(longOffsets.length, longs0); i++) {
+            long value = i < longs0 ? in.readLong() : 0;
+            if (i < longOffsets.length)
+                MEMORY.writeLong(o, longOffsets[i], value);
+        }
+        for (int i = 0; i < Math.max(intOffsets.length, ints0); i++) {
+            int value = i < ints0 ? in.readInt() : 0;
+            if (i < intOffsets.length)
+                MEMORY.writeInt(o, intOffsets[i], value);
+        }
+        for (int i = 0; i < Math.max(shortOffsets.length, shorts0); i++) {
+            short value = i < shorts0 ? in.readShort() : 0;
+            if (i < shortOffsets.length)
+                MEMORY.writeShort(o, shortOffsets[i], value);
+        }
+        for (int i = 0; i < Math.max(byteOffsets.length, bytes0); i++) {
+            byte value = i < bytes0 ? in.readByte() : 0;
+            if (i < byteOffsets.length)
+                MEMORY.writeByte(o, byteOffsets[i], value);
+        }
+    }
+}
@@ -319,6 +319,24 @@ public interface ValueIn {
         });
     }
 
+    default int array(float[] array) {
+        return sequenceWithLength(array, (in, a) -> {
+            int i = 0;
+            while (in.hasNextSequenceItem() && i < a.length)
+                a[i++] = in.float32();
+            return i;
+        });
+    }
+
+    default int array(short[] array) {
+        return sequenceWithLength(array, (in, a) -> {
+            int i = 0;
+            while (in.hasNextSequenceItem() && i < a.length)
+                a[i++] = in.int16();
+            return i;
+        });
+    }
+
     default int array(int[] array) {
         return sequenceWithLength(array, (in, a) -> {
             int i = 0;
@@ -21,7 +21,6 @@ import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesMarshallable;
 import net.openhft.chronicle.bytes.BytesStore;
 import net.openhft.chronicle.bytes.WriteBytesMarshallable;
-import net.openhft.chronicle.bytes.util.Compression;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.core.pool.ClassAliasPool;
@@ -252,6 +251,14 @@ public interface ValueOut {
     @NotNull
     WireOut uuid(UUID uuid);
 
+    /**
+     * Write a UUID from its two halves without creating one.
+     */
+    @NotNull
+    default WireOut uuid(long mostSignificantBits, long leastSignificantBits) {
+        return uuid(new UUID(mostSignificantBits, leastSignificantBits));
+    }
+
     @NotNull
     WireOut int32forBinding(int value);
 
@@ -357,6 +364,20 @@ public interface ValueOut {
         });
     }
 
+    default WireOut array(float[] array, int length) {
+        return sequenceWithLength(array, length, (a, len, out) -> {
+            for (int i = 0; i < len; i++)
+                out.float32(a[i]);
+        });
+    }
+
+    default WireOut array(short[] array, int length) {
+        return sequenceWithLength(array, length, (a, len, out) -> {
+            for (int i = 0; i < len; i++)
+                out.int16(a[i]);
+        });
+    }
+
     default WireOut array(int[] array, int length) {
         return sequenceWithLength(array, length, (a, len, out) -> {
             for (int i = 0; i < len; i++)
@@ -834,8 +855,12 @@ public interface ValueOut {
         if (uncompressedBytes.readRemaining() < SMALL_MESSAGE)
             return bytes(uncompressedBytes);
         Bytes tmpBytes = Wires.acquireBytes();
-        Compression.compress(compression, uncompressedBytes, tmpBytes);
-        bytes(compression, tmpBytes);
+        try {
+            CompressionCodecs.compress(compression, uncompressedBytes, tmpBytes);
+            bytes(compression, tmpBytes);
+        } finally {
+            Wires.releaseBytes(tmpBytes);
+        }
         return wireOut();
     }
 
@@ -125,7 +125,7 @@ public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
 
         try {
             try {
-                final Class<?> generatedClass = Class.forName(fullClassName);
+                final Class<?> generatedClass = Class.forName(fullClassName, true, impls[0].getClass().getClassLoader());
 
                 return instanceForGeneratedClass(vanillaSupplier, generatedClass, impls);
             } catch (ClassNotFoundException e) {
@@ -199,12 +199,34 @@ public class VanillaMethodWriterBuilder<T> implements Builder<T>, MethodWriterBu
         return (T) Proxy.newProxyInstance(classLoader, interfacesArr, new CallSupplierInvocationHandler());
     }
 
+    /**
+     * @return the name of the class generated for this builder, which is loaded in preference to compiling one at runtime
+     */
+    @NotNull
+    public String fullClassName() {
+        return packageName + "." + getClassName();
+    }
+
+    /**
+     * @return the source code of the class compiled at runtime, so it can be compiled ahead of time as {@link #fullClassName()}
+     */
+    @NotNull
+    public String sourceCode() {
+        return GenerateMethodWriter.sourceCode(fullClassName(),
+                interfaces,
+                wireType,
+                genericEvent,
+                metaData,
+                useMethodIds,
+                updateInterceptor != null);
+    }
+
     @Nullable
     private T createInstance() {
-        String fullClassName = packageName + "." + getClassName();
+        String fullClassName = fullClassName();
         try {
             try {
-                return (T) newInstance(Class.forName(fullClassName));
+                return (T) newInstance(Class.forName(fullClassName, true, classLoader));
             } catch (ClassNotFoundException e) {
                 Class clazz = classCache.computeIfAbsent(fullClassName, this::newClass);
                 if (clazz != null && clazz != COMPILE_FAILED) {
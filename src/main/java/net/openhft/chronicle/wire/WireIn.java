@@ -84,12 +84,42 @@ public interface WireIn extends WireCommon, MarshallableIn {
         }
     }
 
+    /**
+     * Read an event name, as {@link #readEventName(StringBuilder)} does, and resolve it against an index.
+     * Wires which can, resolve the name directly from the underlying bytes without copying it into <code>name</code>
+     *
+     * @param index to resolve the event name
+     * @param name  a scratch buffer, used if the name needs to be read as text.
+     * @return the value for the event name or null if not found.
+     */
+    @Nullable
+    default <T> T readEventName(@NotNull FieldNameIndex<T> index, @NotNull StringBuilder name) {
+        readEventName(name);
+        return index.get(name);
+    }
+
     /**
      * Read the field if present, or empty string if not present.
      */
     @NotNull
     ValueIn read(@NotNull StringBuilder name);
 
+    /**
+     * Read the field name and resolve it against an index. Wires which can, resolve the name directly
+     * from the underlying bytes without copying it into <code>name</code>
+     * <p>
+     * The value can then be read via {@link #getValueIn()}
+     *
+     * @param index to resolve the field name
+     * @param name  a scratch buffer, used if the name needs to be read as text.
+     * @return the value for the field name or null if not found.
+     */
+    @Nullable
+    default <T> T readField(@NotNull FieldNameIndex<T> index, @NotNull StringBuilder name) {
+        read(name);
+        return index.get(name);
+    }
+
     /**
      * Read a field which might be an object of any type.
      *
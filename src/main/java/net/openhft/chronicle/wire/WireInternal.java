@@ -30,7 +30,6 @@ import net.openhft.chronicle.wire.internal.FromStringInterner;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.nio.BufferUnderflowException;
 import java.time.*;
@@ -43,12 +42,29 @@ import static net.openhft.chronicle.wire.Wires.toIntU30;
 public enum WireInternal {
     ; // none
     static final StringInterner INTERNER = new StringInterner(Integer.getInteger("wire.interner.size", 4096));
+    static final AdaptiveStringInterner ADAPTIVE_INTERNER = Jvm.getBoolean("wire.interner.adaptive")
+            ? new AdaptiveStringInterner(Integer.getInteger("wire.interner.size", 4096),
+            Integer.getInteger("wire.interner.shards", Runtime.getRuntime().availableProcessors()))
+            : null;
     static final StringBuilderPool SBP = new StringBuilderPool();
     static final StringBuilderPool ASBP = new StringBuilderPool();
-    static final ThreadLocal<WeakReference<Bytes>> BYTES_TL = new ThreadLocal<>();
-    static final ThreadLocal<WeakReference<Bytes>> BYTES_F2S_TL = new ThreadLocal<>();
-    static final ThreadLocal<WeakReference<Wire>> BINARY_WIRE_TL = new ThreadLocal<>();
-    static final ThreadLocal<WeakReference<Bytes>> ABYTES_TL = new ThreadLocal();
+    static final Scratch<Bytes> BYTES_SCRATCH = ScratchProviders.scratch(WireInternal::scratchBytes);
+    static final Scratch<Bytes> BYTES_F2S_SCRATCH = ScratchProviders.scratch(WireInternal::scratchBytes);
+    static final Scratch<Wire> BINARY_WIRE_SCRATCH = ScratchProviders.scratch(
+            () -> new BinaryWire(scratchBytes())
+                    .setOverrideSelfDescribing(true));
+
+    // true if a text ValueOut writes finite doubles and floats as Double.toString and Float.toString do,
+    // so DoubleFormatter can write them without creating a String.
+    static final ClassValue<Boolean> FINITE_NUMBERS_AS_DEFAULT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            // JSONValueOut only changes how NaN is written.
+            Class<?>[] defaults = {TextWire.TextValueOut.class, YamlWire.TextValueOut.class, JSONWire.JSONValueOut.class};
+            return declaredByOneOf(type, "doubleToString", double.class, defaults)
+                    && declaredByOneOf(type, "floatToString", float.class, defaults);
+        }
+    };
 
     static final StackTraceElement[] NO_STE = {};
     static final Set<Class> INTERNABLE = new HashSet<>(Arrays.asList(
@@ -89,6 +105,16 @@ public enum WireInternal {
         ClassAliasPool.CLASS_ALIASES.addAlias(INTERNABLE.stream().toArray(Class[]::new));
     }
 
+    /**
+     * A buffer kept weakly by one thread can be direct. Pooled buffers may be handed to callers who never release
+     * them, e.g. by asText() or acquireBytes(), or be dropped when the pool is full, so they are on heap.
+     */
+    static Bytes<?> scratchBytes() {
+        return ScratchProviders.isThreadLocal()
+                ? Wires.unmonitoredDirectBytes()
+                : Bytes.allocateElasticOnHeap(128);
+    }
+
     static void addAliases() {
         // static init block does the work.
     }
@@ -110,6 +136,33 @@ public enum WireInternal {
         return sb;
     }
 
+    static boolean declaredByOneOf(Class<?> type, String name, Class<?> parameterType, Class<?>... declarers) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterType);
+                return Arrays.asList(declarers).contains(c);
+            } catch (NoSuchMethodException e) {
+                // look in the super class
+            }
+        }
+        return false;
+    }
+
+    // the same text as UUID.toString()
+    static StringBuilder appendUuid(StringBuilder sb, long mostSignificantBits, long leastSignificantBits) {
+        appendHex(sb, mostSignificantBits >>> 32, 8).append('-');
+        appendHex(sb, mostSignificantBits >>> 16, 4).append('-');
+        appendHex(sb, mostSignificantBits, 4).append('-');
+        appendHex(sb, leastSignificantBits >>> 48, 4).append('-');
+        return appendHex(sb, leastSignificantBits, 12);
+    }
+
+    private static StringBuilder appendHex(StringBuilder sb, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--)
+            sb.append(Character.forDigit((int) (value >>> (i * 4)) & 0xF, 16));
+        return sb;
+    }
+
     public static long writeData(@NotNull WireOut wireOut, boolean metaData, boolean notComplete,
                                  @NotNull WriteMarshallable writer) {
         wireOut.getValueOut().resetBetweenDocuments();
@@ -51,10 +51,17 @@ public class WireMarshaller<T> {
                             : WireMarshaller.of(tClass)
             );
     private static final StringBuilderPool RSBP = new StringBuilderPool();
+    // opt in to a generated subclass per DTO with the fields written and read in straight-line code.
+    static final boolean GENERATE_MARSHALLERS = Jvm.getBoolean("wire.generateMarshallers");
     private static final StringBuilderPool WSBP = new StringBuilderPool();
     @NotNull
     final FieldAccess[] fields;
     final TreeMap<CharSequence, FieldAccess> fieldMap = new TreeMap<>(WireMarshaller::compare);
+    @NotNull
+    final FieldNameIndex<FieldAccess> fieldIndex;
+    // the names and types of the fields in order of this class and the classes of its fields, computed on first use.
+    private long schemaFingerprint;
+    private volatile Set<Class<?>> schemaClasses;
 
     private final boolean isLeaf;
     @Nullable
@@ -64,6 +71,13 @@ public class WireMarshaller<T> {
         this(fields, isLeaf, defaultValueForType(tClass));
     }
 
+    /**
+     * Used by generated marshallers which share the fields of the reflective marshaller they replace.
+     */
+    protected WireMarshaller(@NotNull WireMarshaller<T> template) {
+        this(template.fields, template.isLeaf, template.defaultValue);
+    }
+
     private WireMarshaller(@NotNull FieldAccess[] fields, boolean isLeaf, @Nullable T defaultValue) {
         this.fields = fields;
         this.isLeaf = isLeaf;
@@ -71,6 +85,57 @@ public class WireMarshaller<T> {
         for (FieldAccess field : fields) {
             fieldMap.put(field.key.name(), field);
         }
+        fieldIndex = new FieldNameIndex<>(
+                Stream.of(fields).map(f -> f.field.getName()).toArray(String[]::new),
+                fields);
+    }
+
+    /**
+     * @return the classes read by position when the fingerprint written before a marshallable of tClass matches.
+     */
+    Set<Class<?>> schemaClasses(Class<?> tClass) {
+        Set<Class<?>> classes = schemaClasses;
+        if (classes == null) {
+            classes = new LinkedHashSet<>();
+            StringBuilder sb = new StringBuilder();
+            addSchema(tClass, fields, classes, sb);
+            schemaFingerprint = HashWire.hash64(sb.toString());
+            schemaClasses = classes;
+        }
+        return classes;
+    }
+
+    long schemaFingerprint(Class<?> tClass) {
+        schemaClasses(tClass);
+        return schemaFingerprint;
+    }
+
+    private static void addSchema(Class<?> tClass, FieldAccess[] fields, Set<Class<?>> classes, StringBuilder sb) {
+        if (!classes.add(tClass))
+            return;
+        sb.append(tClass.getName()).append('\n');
+        for (FieldAccess field : fields)
+            sb.append(field.field.getName()).append(' ').append(field.field.getGenericType().getTypeName()).append('\n');
+        for (FieldAccess field : fields)
+            addSchema(field.field.getGenericType(), classes, sb);
+    }
+
+    // the classes of nested marshallables are covered by the fingerprint as they are not written with their own.
+    private static void addSchema(Type type, Set<Class<?>> classes, StringBuilder sb) {
+        if (type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments())
+                addSchema(argument, classes, sb);
+            type = ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType)
+            type = ((GenericArrayType) type).getGenericComponentType();
+        if (!(type instanceof Class))
+            return;
+        Class<?> c = (Class<?>) type;
+        while (c.isArray())
+            c = c.getComponentType();
+        if (Marshallable.class.isAssignableFrom(c) && !c.isInterface() && !Modifier.isAbstract(c.getModifiers()))
+            addSchema(c, WIRE_MARSHALLER_CL.get(c).fields, classes, sb);
     }
 
     @NotNull
@@ -93,9 +158,10 @@ public class WireMarshaller<T> {
                 .filter(WireMarshaller::leafable)
                 .collect(Collectors.toList());
         boolean isLeaf = collect.isEmpty();
-        return overridesUnexpectedFields(tClass)
-                ? new WireMarshallerForUnexpectedFields<>(tClass, fields, isLeaf)
-                : new WireMarshaller<>(tClass, fields, isLeaf);
+        if (overridesUnexpectedFields(tClass))
+            return new WireMarshallerForUnexpectedFields<>(tClass, fields, isLeaf);
+        WireMarshaller<T> wm = new WireMarshaller<>(tClass, fields, isLeaf);
+        return GENERATE_MARSHALLERS ? GenerateWireMarshaller.generate(tClass, wm) : wm;
     }
 
     protected static boolean leafable(FieldAccess c) {
@@ -194,11 +260,14 @@ public class WireMarshaller<T> {
     public void writeMarshallable(T t, @NotNull WireOut out) {
         BytesComment bytes = out.bytesComment();
         bytes.indent(+1);
+        writeSchemaFingerprint(t, out);
         try {
             for (@NotNull FieldAccess field : fields)
                 field.write(t, out);
         } catch (IllegalAccessException e) {
             throw new AssertionError(e);
+        } finally {
+            endSchemaFingerprint(out);
         }
         bytes.indent(-1);
     }
@@ -224,12 +293,55 @@ public class WireMarshaller<T> {
     }
 
     public void readMarshallable(T t, @NotNull WireIn in, T defaults, boolean overwrite) {
+        if (in instanceof BinaryWire) {
+            readMarshallableFingerprinted(t, (BinaryWire) in, defaults, overwrite);
+            return;
+        }
+        readMarshallableByName(t, in, defaults, overwrite);
+    }
+
+    /**
+     * Only the outermost marshallable has a fingerprint, which covers the marshallables nested in it.
+     */
+    private void readMarshallableFingerprinted(T t, @NotNull BinaryWire in, T defaults, boolean overwrite) {
+        Set<Class<?>> classes = in.schemaClassesIn;
+        if (in.schemaDepthIn == 0)
+            classes = in.readSchemaFingerprint(schemaFingerprint(t.getClass())) ? schemaClasses : null;
+        in.schemaDepthIn++;
+        in.schemaClassesIn = classes;
+        try {
+            if (classes != null && classes.contains(t.getClass()))
+                readMarshallablePositional(t, in, defaults, overwrite);
+            else
+                readMarshallableByName(t, in, defaults, overwrite);
+        } finally {
+            if (--in.schemaDepthIn == 0)
+                in.schemaClassesIn = null;
+        }
+    }
+
+    private void readMarshallableByName(T t, @NotNull WireIn in, T defaults, boolean overwrite) {
         if (in.hintReadInputOrder())
             readMarshallableInputOrder(t, in, defaults, overwrite);
         else
             readMarshallableDTOOrder(t, in, defaults, overwrite);
     }
 
+    /**
+     * Read the fields in order without comparing their names, as the fingerprint of the fields matched.
+     */
+    void readMarshallablePositional(T t, @NotNull BinaryWire in, T defaults, boolean overwrite) {
+        try {
+            ValueIn vin = in.getValueIn();
+            for (@NotNull FieldAccess field : fields) {
+                in.skipFieldName();
+                field.readValue(t, defaults, vin, overwrite);
+            }
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     public void readMarshallableDTOOrder(T t, @NotNull WireIn in, T defaults, boolean overwrite) {
         try {
             for (@NotNull FieldAccess field : fields) {
@@ -259,13 +371,15 @@ public class WireMarshaller<T> {
                     }
                     if (vin == null || sb.length() <= 0)
                         return;
+                    // the rest of the fields are looked up by name, where possible directly from the wire.
+                    FieldAccess fieldAccess = fieldIndex.get(sb);
                     do {
-                        FieldAccess fieldAccess = fieldMap.get(sb);
                         if (fieldAccess == null)
                             vin.skipValue();
                         else
                             fieldAccess.readValue(t, defaults, vin, overwrite);
-                        vin = in.read(sb);
+                        fieldAccess = in.readField(fieldIndex, sb);
+                        vin = in.getValueIn();
                     } while (in.hasMore());
                 }
             }
@@ -274,6 +388,56 @@ public class WireMarshaller<T> {
         }
     }
 
+    /**
+     * Write the fingerprint of the fields if the wire is configured to, before the fields of the outermost
+     * marshallable are written. Call {@link #endSchemaFingerprint(WireOut)} once they have been written.
+     */
+    protected final void writeSchemaFingerprint(@NotNull Object t, @NotNull WireOut out) {
+        if (!(out instanceof BinaryWire))
+            return;
+        BinaryWire wire = (BinaryWire) out;
+        if (wire.schemaDepthOut++ == 0 && fields.length > 0 && wire.useSchemaFingerprints())
+            wire.writeSchemaFingerprint(schemaFingerprint(t.getClass()));
+    }
+
+    protected final void endSchemaFingerprint(@NotNull WireOut out) {
+        if (out instanceof BinaryWire)
+            ((BinaryWire) out).schemaDepthOut--;
+    }
+
+    /**
+     * Write the field at this index as writeMarshallable(T, WireOut) would, for fields generated code doesn't inline.
+     */
+    protected final void writeField(int index, Object t, @NotNull WireOut out) {
+        try {
+            fields[index].write(t, out);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Read the field at this index as readMarshallableDTOOrder would, for fields generated code doesn't inline.
+     */
+    protected final void readField(int index, Object t, Object defaults, @NotNull ValueIn in, boolean overwrite) {
+        try {
+            fields[index].readValue(t, defaults, in, overwrite);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Reset the input to pos, warn and take the default, as a FieldAccess does when it fails to read a value.
+     */
+    protected final void readFailed(int index, Object t, Object defaults, @NotNull ValueIn in, long pos, Exception e) {
+        try {
+            fields[index].readFailed(t, defaults, in, pos, e);
+        } catch (IllegalAccessException iae) {
+            throw new AssertionError(iae);
+        }
+    }
+
     public boolean matchesFieldName(StringBuilder sb, FieldAccess field) {
         return sb.length() == 0 || StringUtils.isEqual(field.field.getName(), sb);
     }
@@ -536,7 +700,7 @@ public class WireMarshaller<T> {
             ValueOut write = out.write(field.getName());
             getValue(o, write, previous);
             if (copy)
-                copy(o, previous);
+                snapshot(o, previous);
         }
 
         protected boolean sameValue(Object o, Object o2) throws IllegalAccessException {
@@ -554,6 +718,14 @@ public class WireMarshaller<T> {
             unsafePutObject(to, offset, unsafeGetObject(from, offset));
         }
 
+        /**
+         * Copies the value to be compared against later, so fields which can be changed in place are copied rather
+         * than shared. By default this is the same as {@link #copy(Object, Object)}
+         */
+        protected void snapshot(Object from, Object to) throws IllegalAccessException {
+            copy(from, to);
+        }
+
         protected abstract void getValue(Object o, ValueOut write, Object previous) throws IllegalAccessException;
 
         protected void readValue(Object o, Object defaults, ValueIn read, boolean overwrite) throws IllegalAccessException {
@@ -569,15 +741,19 @@ public class WireMarshaller<T> {
                     Jvm.rethrow(e);
                 }
                 catch (Exception e) {
-                    read.wireIn().bytes().readPosition(pos);
-                    StringBuilder sb = RSBP.acquireStringBuilder();
-                    read.text(sb);
-                    Jvm.warn().on(getClass(), "Failed to read '" + this.field.getName() + "' with '" + sb + "' taking default", e);
-                    copy(defaults, o);
+                    readFailed(o, defaults, read, pos, e);
                 }
             }
         }
 
+        void readFailed(Object o, Object defaults, ValueIn read, long pos, Exception e) throws IllegalAccessException {
+            read.wireIn().bytes().readPosition(pos);
+            StringBuilder sb = RSBP.acquireStringBuilder();
+            read.text(sb);
+            Jvm.warn().on(getClass(), "Failed to read '" + this.field.getName() + "' with '" + sb + "' taking default", e);
+            copy(defaults, o);
+        }
+
         protected abstract void setValue(Object o, ValueIn read, boolean overwrite) throws IllegalAccessException;
 
         public abstract void getAsBytes(Object o, Bytes bytes) throws IllegalAccessException;
@@ -699,6 +875,15 @@ public class WireMarshaller<T> {
             }
         }
 
+        @Override
+        protected void snapshot(Object from, Object to) throws IllegalAccessException {
+            // a mutable Marshallable is copied so later changes to it are seen as changes.
+            Object v = unsafeGetObject(from, offset);
+            if (v instanceof Marshallable && ObjectUtils.isImmutable(v.getClass()) == ObjectUtils.Immutability.NO)
+                v = Wires.deepCopy((Marshallable) v);
+            unsafePutObject(to, offset, v);
+        }
+
         @Override
         public void getAsBytes(Object o, @NotNull Bytes bytes) throws IllegalAccessException {
             bytes.writeUtf8(String.valueOf(field.get(o)));
@@ -887,6 +1072,24 @@ public class WireMarshaller<T> {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        protected boolean sameValue(Object o, Object o2) {
+            return isEqual(o, o2);
+        }
+
+        @Override
+        protected void snapshot(Object from, Object to) throws IllegalAccessException {
+            // the array is copied so later changes to its elements are seen as changes.
+            Object arr = unsafeGetObject(from, offset);
+            if (arr != null) {
+                int len = Array.getLength(arr);
+                Object arr2 = Array.newInstance(arr.getClass().getComponentType(), len);
+                System.arraycopy(arr, 0, arr2, 0, len);
+                arr = arr2;
+            }
+            unsafePutObject(to, offset, arr);
+        }
+
         @Override
         public boolean isEqual(Object o1, Object o2) {
             try {
@@ -1024,12 +1227,17 @@ public class WireMarshaller<T> {
         private final Class componentType;
         private final Class<?> type;
         private BiConsumer<Object, ValueOut> sequenceGetter;
+        // Marshallable elements of a List are read in place, rather than cleared and reallocated.
+        private final boolean recycle;
+        @NotNull
+        private final BiConsumer<List, ValueIn> recyclingReader = (list, in) -> readRecycling(list, null, in);
 
         public CollectionFieldAccess(@NotNull Field field, Boolean isLeaf, @Nullable Supplier<Collection> collectionSupplier, Class componentType, Class<?> type) {
             super(field, isLeaf);
             this.collectionSupplier = collectionSupplier == null ? newInstance() : collectionSupplier;
             this.componentType = componentType;
             this.type = type;
+            this.recycle = Marshallable.class.isAssignableFrom(componentType);
             sequenceGetter = (o, out) -> {
                 Collection coll;
                 try {
@@ -1124,12 +1332,22 @@ public class WireMarshaller<T> {
                 coll = collectionSupplier.get();
                 field.set(o, coll);
             }
-            if (!read.sequence(coll, (c, in2) -> {
-                if (!c.isEmpty())
-                    c.clear();
-                while (in2.hasNextSequenceItem())
-                    c.add(in2.object(componentType));
-            })) {
+            boolean sequenced;
+            if (recycle && coll instanceof RandomAccess) {
+                // elements copied from the defaults are shared with them, so aren't read in place.
+                List shared = sharedElements(defaults);
+                sequenced = shared == null
+                        ? read.sequence((List) coll, recyclingReader)
+                        : read.sequence((List) coll, (list, in2) -> readRecycling(list, shared, in2));
+            } else {
+                sequenced = read.sequence(coll, (c, in2) -> {
+                    if (!c.isEmpty())
+                        c.clear();
+                    while (in2.hasNextSequenceItem())
+                        c.add(in2.object(componentType));
+                });
+            }
+            if (!sequenced) {
                 Collection defaultColl = (Collection) field.get(defaults);
                 if (defaultColl == null) {
                     field.set(o, null);
@@ -1155,6 +1373,42 @@ public class WireMarshaller<T> {
         protected boolean sameValue(Object o, Object o2) throws IllegalAccessException {
             return super.sameValue(o, o2);
         }
+
+        @Nullable
+        private List sharedElements(@Nullable Object defaults) throws IllegalAccessException {
+            if (defaults == null)
+                return null;
+            Object defaultColl = field.get(defaults);
+            return defaultColl instanceof List && !((List) defaultColl).isEmpty() ? (List) defaultColl : null;
+        }
+
+        private void readRecycling(List list, @Nullable List shared, ValueIn in) {
+            int size = 0;
+            while (in.hasNextSequenceItem()) {
+                if (size < list.size()) {
+                    Object element = list.get(size);
+                    Object read = componentType.isInstance(element) && !containsSame(shared, element)
+                            ? in.object(element, componentType)
+                            : in.object(componentType);
+                    if (read != element)
+                        list.set(size, read);
+                } else {
+                    list.add(in.object(componentType));
+                }
+                size++;
+            }
+            for (int i = list.size() - 1; i >= size; i--)
+                list.remove(i);
+        }
+
+        private static boolean containsSame(@Nullable List shared, Object element) {
+            if (shared == null)
+                return false;
+            for (int i = 0; i < shared.size(); i++)
+                if (shared.get(i) == element)
+                    return true;
+            return false;
+        }
     }
 
     static class StringCollectionFieldAccess extends FieldAccess {
@@ -1240,6 +1494,8 @@ public class WireMarshaller<T> {
         private final Class keyType;
         @NotNull
         private final Class valueType;
+        // Marshallable values of existing keys are read in place, rather than cleared and reallocated.
+        private final boolean recycle;
 
         MapFieldAccess(@NotNull Field field) {
             super(field);
@@ -1261,6 +1517,7 @@ public class WireMarshaller<T> {
                 keyType = Object.class;
                 valueType = Object.class;
             }
+            recycle = Marshallable.class.isAssignableFrom(valueType);
         }
 
         @NotNull
@@ -1299,6 +1556,12 @@ public class WireMarshaller<T> {
             if (map == null) {
                 map = collectionSupplier.get();
                 field.set(o, map);
+            } else if (recycle) {
+                // one per read, as a value can hold a map read with the same field.
+                Map shared = defaults == null ? null : (Map) field.get(defaults);
+                if (!read.marshallable(new RecyclingMapReader(map, shared)))
+                    field.set(o, null);
+                return;
             } else if (!map.isEmpty()) {
                 map.clear();
             }
@@ -1306,6 +1569,56 @@ public class WireMarshaller<T> {
                 field.set(o, null);
         }
 
+        /**
+         * Reads the entries of a map, reading the value of each key already present in place unless it is shared with
+         * the defaults. Keys not read are removed and the map is put in the order read if it differs.
+         */
+        final class RecyclingMapReader implements ReadMarshallable {
+            final List<Object> keys = new ArrayList<>();
+            final Map map;
+            @Nullable
+            final Map shared;
+
+            RecyclingMapReader(Map map, @Nullable Map shared) {
+                this.map = map;
+                this.shared = shared == null || shared.isEmpty() ? null : shared;
+            }
+
+            @Override
+            public void readMarshallable(@NotNull WireIn wire) throws IORuntimeException {
+                while (wire.isNotEmptyAfterPadding()) {
+                    long len = wire.bytes().readRemaining();
+                    Object key = wire.readEvent(keyType);
+                    Object existing = map.get(key);
+                    ValueIn in = wire.getValueIn();
+                    Object value = valueType.isInstance(existing) && (shared == null || shared.get(key) != existing)
+                            ? in.object(existing, valueType)
+                            : in.object(valueType);
+                    if (len == wire.bytes().readRemaining())
+                        break;
+                    if (value != existing || existing == null)
+                        map.put(key, value);
+                    keys.add(key);
+                }
+                if (map.size() != keys.size()) {
+                    // only when entries are removed, a List would be O(n^2)
+                    map.keySet().retainAll(new HashSet<>(keys));
+                }
+                // only an insertion ordered map needs its entries in the order read, moving them creates a new entry
+                if (map instanceof LinkedHashMap && !inOrder())
+                    for (Object key : keys)
+                        map.put(key, map.remove(key));
+            }
+
+            private boolean inOrder() {
+                int i = 0;
+                for (Object key : map.keySet())
+                    if (!Objects.equals(key, keys.get(i++)))
+                        return false;
+                return true;
+            }
+        }
+
         @Override
         protected void setValue(Object o, ValueIn read, boolean overwrite) {
             throw new UnsupportedOperationException();
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes messages to a blocking channel, each prefixed with its length as {@link WireToOutputStream} does.
+ * <p>
+ * Messages are batched in a direct buffer so many messages are written per syscall, when the batch reaches the
+ * flush threshold or {@link #flush()} is called.
+ * <pre>
+ * Wire wire = wireToChannel.startMessage();
+ * wire.write("price").float64(price);
+ * wireToChannel.endMessage();
+ * // later, or when there are no more messages to send
+ * wireToChannel.flush();
+ * </pre>
+ */
+public class WireToChannel {
+    private final Bytes<ByteBuffer> bytes;
+    private final Wire wire;
+    private final WritableByteChannel channel;
+    private final int flushThreshold;
+    private long lengthPosition = -1;
+
+    public WireToChannel(WireType wireType, WritableByteChannel channel) {
+        this(wireType, channel, 64 << 10);
+    }
+
+    /**
+     * @param flushThreshold the size of batch in bytes at which endMessage() writes it.
+     */
+    public WireToChannel(WireType wireType, WritableByteChannel channel, int flushThreshold) {
+        this.bytes = Bytes.elasticByteBuffer(flushThreshold + 1024);
+        this.wire = wireType.apply(bytes);
+        this.channel = channel;
+        this.flushThreshold = flushThreshold;
+    }
+
+    static int bigEndian(int i) {
+        return ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? i : Integer.reverseBytes(i);
+    }
+
+    /**
+     * @return the wire to write the next message to.
+     */
+    @NotNull
+    public Wire startMessage() {
+        if (lengthPosition >= 0)
+            throw new IllegalStateException("The previous message has not ended");
+        lengthPosition = bytes.writePosition();
+        bytes.writeInt(0);
+        return wire;
+    }
+
+    /**
+     * Ends the message and writes the batch if it has reached the flush threshold.
+     */
+    public void endMessage() throws IOException {
+        if (lengthPosition < 0)
+            throw new IllegalStateException("No message has been started");
+        long start = lengthPosition + 4;
+        bytes.writeInt(lengthPosition, bigEndian(Math.toIntExact(bytes.writePosition() - start)));
+        lengthPosition = -1;
+        if (bytes.writePosition() >= flushThreshold)
+            flush();
+    }
+
+    /**
+     * Write the messages ended so far.
+     */
+    public void flush() throws IOException {
+        if (lengthPosition >= 0)
+            throw new IllegalStateException("A message has not ended");
+        if (bytes.writePosition() == 0)
+            return;
+        ByteBuffer bb = bytes.underlyingObject();
+        bb.clear();
+        bb.limit(Math.toIntExact(bytes.writePosition()));
+        while (bb.hasRemaining())
+            channel.write(bb);
+        wire.clear();
+    }
+}
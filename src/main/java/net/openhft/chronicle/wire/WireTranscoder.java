@@ -0,0 +1,542 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesIn;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.threads.NamedThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.*;
+
+/**
+ * Converts a stream of documents from a binary wire to a text wire (TEXT, YAML or JSON), or from a text wire to a
+ * binary wire, without creating objects for the documents.
+ * <p>
+ * A binary stream is of size prefixed documents, as written by <code>writingDocument()</code>, and ends at the first
+ * document which isn't complete. A text stream is of documents which end with a line of <code>...</code>, as
+ * written by <code>writingDocument()</code> on a text wire once <code>useTextDocuments()</code> is set, the
+ * default for writing. Meta-data documents stay meta-data.
+ * <p>
+ * The input is cut into chunks of whole documents, which are converted on a pool of threads and written to the
+ * output in the order they were read.
+ * <pre>
+ * try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, WireType.JSON, 4, 1 &lt;&lt; 20)) {
+ *     transcoder.transcode(bytes, channel);
+ * }
+ * </pre>
+ * A transcoder is used by one thread at a time.
+ */
+public class WireTranscoder implements Closeable {
+    static final int CHUNK_SIZE = Integer.getInteger("wire.transcoder.chunkSize", 1 << 20);
+
+    private final WireType from;
+    private final WireType to;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final ArrayDeque<Chunk> free = new ArrayDeque<>();
+    private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+    private final boolean binaryIn;
+
+    /**
+     * Converts on the calling thread.
+     */
+    public WireTranscoder(@NotNull WireType from, @NotNull WireType to) {
+        this(from, to, 1, CHUNK_SIZE);
+    }
+
+    /**
+     * @param threads   to convert chunks on, or 1 to convert on the calling thread.
+     * @param chunkSize the size of input in bytes at which a chunk is cut, at the end of the next document.
+     */
+    public WireTranscoder(@NotNull WireType from, @NotNull WireType to, int threads, int chunkSize) {
+        if (threads < 1 || chunkSize < 1)
+            throw new IllegalArgumentException("threads: " + threads + ", chunkSize: " + chunkSize);
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+        Chunk chunk = new Chunk();
+        binaryIn = chunk.inWire instanceof BinaryWire;
+        boolean binaryOut = chunk.outWire instanceof BinaryWire;
+        if (binaryIn == binaryOut || !(isText(binaryIn ? chunk.outWire : chunk.inWire)))
+            throw new IllegalArgumentException("Unable to transcode from " + from + " to " + to + ", one has to be binary and the other text");
+        free.add(chunk);
+        if (threads == 1) {
+            executor = null;
+        } else {
+            executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("wire-transcoder", true));
+            // two chunks per thread so each has another queued while the output is written.
+            for (int i = 1; i < threads * 2; i++)
+                free.add(new Chunk());
+        }
+    }
+
+    private static boolean isText(Wire wire) {
+        return wire instanceof TextWire || wire instanceof YamlWire;
+    }
+
+    /**
+     * Converts the documents from the readPosition to the readLimit of <code>in</code>, leaving the readPosition
+     * after the last document converted.
+     *
+     * @return the number of bytes written
+     */
+    public long transcode(@NotNull Bytes<?> in, @NotNull WritableByteChannel out) throws IOException {
+        return transcode(in, chunk -> {
+            ByteBuffer bb = chunk.out.underlyingObject();
+            bb.clear();
+            bb.limit(Math.toIntExact(chunk.out.writePosition()));
+            while (bb.hasRemaining())
+                out.write(bb);
+        });
+    }
+
+    /**
+     * Converts the documents from the readPosition to the readLimit of <code>in</code>, appending them to
+     * <code>out</code>, and leaving the readPosition after the last document converted.
+     *
+     * @return the number of bytes written
+     */
+    public long transcode(@NotNull Bytes<?> in, @NotNull Bytes<?> out) {
+        try {
+            return transcode(in, chunk -> out.write(chunk.out));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private long transcode(Bytes<?> in, ChunkOutput output) throws IOException {
+        long written = 0;
+        long pos = in.readPosition();
+        long end = in.readLimit();
+        try {
+            while (pos < end) {
+                long chunkEnd = binaryIn ? binaryChunkEnd(in, pos, end) : textChunkEnd(in, pos, end);
+                if (chunkEnd <= pos)
+                    break;
+                if (free.isEmpty())
+                    written += write(pending.removeFirst(), output);
+                Chunk chunk = free.removeFirst();
+                chunk.in.clear();
+                chunk.in.write(in, pos, chunkEnd - pos);
+                pos = chunkEnd;
+                if (executor == null) {
+                    written += convertAndWrite(chunk, output);
+                } else {
+                    chunk.future = executor.submit(chunk);
+                    pending.add(chunk);
+                }
+            }
+            while (!pending.isEmpty())
+                written += write(pending.removeFirst(), output);
+        } finally {
+            // after an error, the chunks still being converted can't be reused until they are done.
+            while (!pending.isEmpty()) {
+                Chunk chunk = pending.removeFirst();
+                awaitUninterruptibly(chunk.future);
+                chunk.future = null;
+                free.add(chunk);
+            }
+        }
+        in.readPosition(pos);
+        return written;
+    }
+
+    private long convertAndWrite(Chunk chunk, ChunkOutput output) throws IOException {
+        try {
+            chunk.call();
+        } catch (RuntimeException | Error e) {
+            // the chunk is reused by the next call, and released by close().
+            free.add(chunk);
+            throw e;
+        }
+        return write(chunk, output);
+    }
+
+    private long write(Chunk chunk, ChunkOutput output) throws IOException {
+        try {
+            if (chunk.future != null)
+                chunk.future.get();
+            output.write(chunk);
+            return chunk.out.writePosition();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Jvm.rethrow(e);
+        } catch (ExecutionException e) {
+            throw Jvm.rethrow(e.getCause());
+        } finally {
+            awaitUninterruptibly(chunk.future);
+            chunk.future = null;
+            free.add(chunk);
+        }
+    }
+
+    private static void awaitUninterruptibly(Future<?> future) {
+        if (future == null)
+            return;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                future.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                // reported by write()
+                break;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    // the end of the last whole document which takes the chunk to chunkSize.
+    private long binaryChunkEnd(Bytes<?> in, long pos, long end) {
+        long start = pos;
+        while (pos + 4 <= end && pos - start < chunkSize) {
+            int header = in.readInt(pos);
+            if (!Wires.isReady(header))
+                break;
+            long next = pos + 4 + Wires.lengthOf(header);
+            if (next > end)
+                break;
+            pos = next;
+        }
+        return pos;
+    }
+
+    // the end of the line of ... after chunkSize, or the end of the input.
+    private long textChunkEnd(Bytes<?> in, long pos, long end) {
+        if (end - pos <= chunkSize)
+            return end;
+        for (long line = nextLine(in, pos + chunkSize - 1, end); line < end; ) {
+            long next = nextLine(in, line, end);
+            if (isMarker(in, line, next, '.'))
+                return next;
+            line = next;
+        }
+        return end;
+    }
+
+    // the start of the line after the one at pos.
+    static long nextLine(Bytes<?> in, long pos, long end) {
+        for (; pos < end; pos++)
+            if (in.readUnsignedByte(pos) == '\n')
+                return pos + 1;
+        return end;
+    }
+
+    // whether the line is --- or ... followed by nothing, or a space and text.
+    static boolean isMarker(Bytes<?> in, long line, long next, char ch) {
+        return next - line >= 3
+                && in.readUnsignedByte(line) == ch
+                && in.readUnsignedByte(line + 1) == ch
+                && in.readUnsignedByte(line + 2) == ch
+                && (next - line == 3 || in.readUnsignedByte(line + 3) <= ' ');
+    }
+
+    static boolean startsWith(Bytes<?> in, long pos, long end, String prefix) {
+        if (end - pos < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++)
+            if (in.readUnsignedByte(pos + i) != prefix.charAt(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdownNow();
+        for (Chunk chunk : free) {
+            chunk.in.releaseLast();
+            chunk.out.releaseLast();
+        }
+        free.clear();
+    }
+
+    @FunctionalInterface
+    interface ChunkOutput {
+        void write(Chunk chunk) throws IOException;
+    }
+
+    /**
+     * The input and output of a chunk, converted by one thread at a time.
+     */
+    final class Chunk implements Callable<Chunk> {
+        Future<Chunk> future;
+        final Bytes<?> in = Bytes.allocateElasticDirect(chunkSize + 1024);
+        final Bytes<ByteBuffer> out = Bytes.elasticByteBuffer(chunkSize * 2 + 1024);
+        final Wire inWire = from.apply(in);
+        final Wire outWire = to.apply(out);
+        final Copier copier = new Copier(outWire);
+
+        @Override
+        public Chunk call() {
+            // each chunk starts with none of the state of the last.
+            outWire.clear();
+            if (binaryIn)
+                binaryDocuments();
+            else
+                textDocuments();
+            return this;
+        }
+
+        private void binaryDocuments() {
+            long end = in.readLimit();
+            for (long pos = in.readPosition(); pos < end; ) {
+                int header = in.readInt(pos);
+                long next = pos + 4 + Wires.lengthOf(header);
+                in.readPositionRemaining(pos + 4, next - pos - 4);
+                try (DocumentContext dc = outWire.writingDocument(!Wires.isData(header))) {
+                    copier.walk(inWire, copier);
+                } finally {
+                    in.readLimit(end);
+                }
+                pos = next;
+            }
+        }
+
+        private void textDocuments() {
+            long end = in.readLimit();
+            long docStart = in.readPosition();
+            boolean metaData = false;
+            for (long line = docStart; line < end; ) {
+                long next = nextLine(in, line, end);
+                if (isMarker(in, line, next, '.')) {
+                    textDocument(docStart, line, metaData);
+                    docStart = next;
+                    metaData = false;
+                } else if (isMarker(in, line, next, '-')) {
+                    // --- !!data or --- !!meta-data
+                    textDocument(docStart, line, metaData);
+                    docStart = next;
+                    metaData = startsWith(in, line, next, "--- !!meta-data");
+                } else if (line == docStart && startsWith(in, line, next, "# meta-data")) {
+                    docStart = next;
+                    metaData = true;
+                }
+                line = next;
+            }
+            textDocument(docStart, end, metaData);
+            in.readLimit(end);
+        }
+
+        private void textDocument(long start, long end, boolean metaData) {
+            long pos = start;
+            while (pos < end && in.readUnsignedByte(pos) <= ' ')
+                pos++;
+            if (pos == end)
+                return;
+            in.readPositionRemaining(start, end - start);
+            try (DocumentContext dc = outWire.writingDocument(metaData)) {
+                copier.walk(inWire, copier);
+            }
+        }
+    }
+
+    /**
+     * Writes the events of a walk to a wire. Nested values from a binary wire are written as the text wires write
+     * them, and nested values for a binary wire are written as a length prefixed block.
+     */
+    static final class Copier extends WireWalker implements WireVisitor {
+        private final Wire out;
+        private final ValueOut valueOut;
+        private final boolean binaryOut;
+        private final WriteMarshallable copyMap = w -> copyRest();
+        private BinaryWire wire;
+        private int arrayCode;
+        private long arrayLength;
+        private int depth;
+        private long documentStart;
+        // whether the outermost map or sequence is the document itself.
+        private boolean documentBlock;
+        private long[] lengthPositions = new long[16];
+        private int blocks;
+
+        Copier(Wire out) {
+            this.out = out;
+            this.valueOut = out.getValueOut();
+            this.binaryOut = out instanceof BinaryWire;
+        }
+
+        @Override
+        public void walk(@NotNull WireIn wireIn, @NotNull WireVisitor visitor) {
+            depth = 0;
+            blocks = 0;
+            documentBlock = false;
+            documentStart = out.bytes().writePosition();
+            wire = wireIn instanceof BinaryWire ? (BinaryWire) wireIn : null;
+            super.walk(wireIn, visitor);
+        }
+
+        private void copyRest() {
+            Bytes<?> bytes = wire.bytes();
+            while (bytes.readRemaining() > 0)
+                binaryOne(wire, bytes, this);
+        }
+
+        @Override
+        void binaryNested(BinaryWire wire, Bytes<?> bytes, long length, WireVisitor visitor) {
+            long limit = bytes.readLimit();
+            long end = bytes.readPosition() + length;
+            bytes.readLimit(end);
+            try {
+                int code = bytes.peekUnsignedByte();
+                if (isField(wire, code))
+                    valueOut.marshallable(copyMap);
+                else if (code == U8_ARRAY || code == I64_ARRAY)
+                    binaryOne(wire, bytes, this);
+                else
+                    valueOut.sequence(this, (c, v) -> c.copyRest());
+            } finally {
+                bytes.readLimit(limit);
+                bytes.readPosition(end);
+            }
+        }
+
+        @Override
+        void binaryArray(Bytes<?> bytes, int code, long length, WireVisitor visitor) {
+            arrayCode = code;
+            arrayLength = length;
+            boolean leaf = valueOut.swapLeaf(true);
+            valueOut.sequence(this, (c, v) -> c.copyArray());
+            valueOut.swapLeaf(leaf);
+        }
+
+        private void copyArray() {
+            Bytes<?> bytes = wire.bytes();
+            for (long i = 0; i < arrayLength; i++)
+                binaryArrayValue(bytes, arrayCode, this);
+        }
+
+        @Override
+        public void startMap() {
+            startBlock();
+        }
+
+        @Override
+        public void endMap() {
+            endBlock();
+        }
+
+        @Override
+        public void startSequence() {
+            startBlock();
+        }
+
+        @Override
+        public void endSequence() {
+            endBlock();
+        }
+
+        // the map of fields at the top of a document, with nothing before it, is the document.
+        private void startBlock() {
+            Bytes<?> bytes = out.bytes();
+            if (depth++ == 0 && bytes.writePosition() == documentStart) {
+                documentBlock = true;
+                return;
+            }
+            if (!binaryOut)
+                throw new IllegalStateException("Only a binary wire can be written a block at a time");
+            bytes.writeUnsignedByte(BYTES_LENGTH32);
+            if (blocks == lengthPositions.length)
+                lengthPositions = Arrays.copyOf(lengthPositions, blocks * 2);
+            lengthPositions[blocks++] = bytes.writePosition();
+            bytes.writeInt(0);
+        }
+
+        private void endBlock() {
+            if (--depth == 0 && documentBlock)
+                return;
+            Bytes<?> bytes = out.bytes();
+            long pos = lengthPositions[--blocks];
+            bytes.writeInt(pos, Math.toIntExact(bytes.writePosition() - pos - 4));
+        }
+
+        @Override
+        public void field(@NotNull CharSequence name) {
+            out.write(name);
+        }
+
+        @Override
+        public void typePrefix(@NotNull CharSequence typeName) {
+            valueOut.typePrefix(typeName);
+        }
+
+        @Override
+        public void typeLiteral(@NotNull CharSequence typeName) {
+            valueOut.typeLiteral(typeName);
+        }
+
+        @Override
+        public void nullValue() {
+            valueOut.nu11();
+        }
+
+        @Override
+        public void bool(boolean flag) {
+            valueOut.bool(flag);
+        }
+
+        @Override
+        public void int64(long value) {
+            valueOut.int64(value);
+        }
+
+        @Override
+        public void float32(float value) {
+            valueOut.float32(value);
+        }
+
+        @Override
+        public void float64(double value) {
+            valueOut.float64(value);
+        }
+
+        @Override
+        public void uuid(long mostSignificantBits, long leastSignificantBits) {
+            valueOut.uuid(mostSignificantBits, leastSignificantBits);
+        }
+
+        @Override
+        public void text(@NotNull CharSequence text) {
+            valueOut.text(text);
+        }
+
+        @Override
+        public void bytes(@NotNull BytesIn<?> bytes) {
+            valueOut.bytes((BytesStore) bytes);
+        }
+
+        @Override
+        public void comment(@NotNull CharSequence text) {
+            out.writeComment(text);
+        }
+    }
+}
@@ -205,37 +205,24 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         @NotNull
         @Override
         public Wire apply(Bytes bytes) {
-
-            try {
-                @NotNull
-                Class<Wire> aClass = (Class) Class.forName("software.chronicle.wire.DeltaWire");
-                final Constructor<Wire> declaredConstructor = aClass.getDeclaredConstructor(Bytes.class);
-                return declaredConstructor.newInstance(bytes);
-
-            } catch (Exception e) {
-                licenceCheck();
-
-                // this should never happen
-                throw new AssertionError(e);
+            if (IS_DELTA_AVAILABLE) {
+                try {
+                    @NotNull
+                    Class<Wire> aClass = (Class) Class.forName("software.chronicle.wire.DeltaWire");
+                    final Constructor<Wire> declaredConstructor = aClass.getDeclaredConstructor(Bytes.class);
+                    return declaredConstructor.newInstance(bytes);
+
+                } catch (Exception e) {
+                    // this should never happen
+                    throw new AssertionError(e);
+                }
             }
-        }
-
-        @Override
-        public void licenceCheck() {
-            if (isAvailable())
-                return;
-
-            @NotNull final IllegalStateException licence = new IllegalStateException("A Chronicle-Wire-" +
-                    "Enterprise licence is required to run this code because you are using " +
-                    "DELTA_BINARY which is a licence product. " +
-                    "Please contact sales@chronicle.software");
-            Jvm.error().on(WireType.class,  licence);
-            throw licence;
+            return new DeltaWire(bytes);
         }
 
         @Override
         public boolean isAvailable() {
-            return IS_DELTA_AVAILABLE;
+            return true;
         }
 
         @NotNull
@@ -273,7 +260,7 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         @NotNull
         @Override
         public Wire apply(@NotNull Bytes bytes) {
-            return new BinaryWire(bytes, false, false, false, COMPRESSED_SIZE, "lzw", true);
+            return new BinaryWire(bytes, false, false, false, COMPRESSED_SIZE, COMPRESSION, true);
         }
 
         @NotNull
@@ -353,6 +340,7 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
 
     static final BytesStore PREABLE = BytesStore.from("--- ");
     private static final int COMPRESSED_SIZE = Integer.getInteger("WireType.compressedSize", 128);
+    private static final String COMPRESSION = System.getProperty("WireType.compression", "lzw");
     private static final boolean IS_DELTA_AVAILABLE = isDeltaAvailable();
     private static final boolean IS_DEFAULT_ZERO_AVAILABLE = isDefaultZeroAvailable();
 
@@ -382,6 +370,12 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         return Wires.acquireBytes();
     }
 
+    static void releaseBytes(@NotNull Bytes bytes) {
+        // buffers allocated in debug are not scratch buffers.
+        if (!Jvm.isDebug())
+            Wires.releaseBytes(bytes);
+    }
+
     @NotNull
     static Bytes getBytesForToString() {
         return Wires.acquireBytesForToString();
@@ -456,7 +450,11 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
 
     public String asString(Object marshallable) {
         Bytes bytes = asBytes(marshallable);
-        return bytes.toString();
+        try {
+            return bytes.toString();
+        } finally {
+            Wires.releaseBytesForToString(bytes);
+        }
     }
 
     @NotNull
@@ -505,9 +503,13 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         if (cs.length() == 0)
             throw new IllegalArgumentException("cannot deserialize an empty string");
         Bytes bytes = getBytes2();
-        bytes.appendUtf8(cs);
-        Wire wire = apply(bytes);
-        return wire.getValueIn().object(tClass);
+        try {
+            bytes.appendUtf8(cs);
+            Wire wire = apply(bytes);
+            return wire.getValueIn().object(tClass);
+        } finally {
+            releaseBytes(bytes);
+        }
     }
 
     @NotNull
@@ -546,6 +548,23 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         return streamFromBytes(expectedType, b);
     }
 
+    /**
+     * Streams the objects in a file by memory mapping it rather than reading it onto the heap.
+     * The Stream can be split on value or <code>---</code> boundaries so <code>parallel()</code> decodes it
+     * across threads, each with its own Wire. Close the Stream to release the mappings if it is not fully read.
+     * <p>
+     * If the file is not found it is read from the class path as {@link #streamFromFile(Class, String)} does.
+     */
+    @NotNull
+    public <T> Stream<T> streamFromMappedFile(@NotNull Class<T> expectedType, String filename) throws IOException {
+        File file = new File(filename);
+        if (!file.isFile())
+            return streamFromFile(expectedType, filename);
+        MappedWireSpliterator<T> spliterator = new MappedWireSpliterator<>(this, file, expectedType);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::close);
+    }
+
     @NotNull
     public <T> Stream<T> streamFromBytes(@NotNull Class<T> expectedType, Bytes b) {
         Wire wire = apply(b);
@@ -557,16 +576,8 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
                         Bytes<?> bytes = wire.bytes();
                         if (valueIn.hasNext()) {
                             action.accept(valueIn.object(expectedType));
-                            if (wire instanceof TextWire) {
-                                wire.consumePadding();
-                                if (bytes.peekUnsignedByte() == '-' &&
-                                        bytes.peekUnsignedByte(bytes.readPosition() + 1) == '-' &&
-                                        bytes.peekUnsignedByte(bytes.readPosition() + 2) == '-') {
-                                    bytes.readSkip(3);
-                                    while (bytes.peekUnsignedByte() == '-')
-                                        bytes.readSkip(1);
-                                }
-                            }
+                            if (wire instanceof TextWire)
+                                MappedWireSpliterator.consumeDocumentSeparator(wire);
                             return true;
                         }
                         if (bytes.refCount() > 0)
@@ -596,15 +607,19 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
     public <T extends Marshallable> void toFileAsMap(@NotNull String filename, @NotNull Map<String, T> map, boolean compact)
             throws IOException {
         Bytes bytes = getBytes();
-        Wire wire = apply(bytes);
-        for (@NotNull Map.Entry<String, T> entry : map.entrySet()) {
-            @NotNull ValueOut valueOut = wire.writeEventName(entry::getKey);
-            boolean wasLeaf = valueOut.swapLeaf(compact);
-            valueOut.marshallable(entry.getValue());
-            valueOut.swapLeaf(wasLeaf);
-        }
         String tempFilename = IOTools.tempName(filename);
-        IOTools.writeFile(tempFilename, bytes.toByteArray());
+        try {
+            Wire wire = apply(bytes);
+            for (@NotNull Map.Entry<String, T> entry : map.entrySet()) {
+                @NotNull ValueOut valueOut = wire.writeEventName(entry::getKey);
+                boolean wasLeaf = valueOut.swapLeaf(compact);
+                valueOut.marshallable(entry.getValue());
+                valueOut.swapLeaf(wasLeaf);
+            }
+            IOTools.writeFile(tempFilename, bytes.toByteArray());
+        } finally {
+            releaseBytes(bytes);
+        }
         @NotNull File file2 = new File(tempFilename);
         @NotNull File dest = new File(filename);
         if (!file2.renameTo(dest)) {
@@ -617,10 +632,14 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
 
     public void toFile(@NotNull String filename, WriteMarshallable marshallable) throws IOException {
         Bytes bytes = getBytes();
-        Wire wire = apply(bytes);
-        wire.getValueOut().typedMarshallable(marshallable);
         String tempFilename = IOTools.tempName(filename);
-        IOTools.writeFile(tempFilename, bytes.toByteArray());
+        try {
+            Wire wire = apply(bytes);
+            wire.getValueOut().typedMarshallable(marshallable);
+            IOTools.writeFile(tempFilename, bytes.toByteArray());
+        } finally {
+            releaseBytes(bytes);
+        }
         @NotNull File file2 = new File(tempFilename);
         if (!file2.renameTo(new File(filename))) {
             file2.delete();
@@ -631,7 +650,11 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
     @NotNull
     String asHexString(Object marshallable) {
         Bytes bytes = asBytes(marshallable);
-        return bytes.toHexString();
+        try {
+            return bytes.toHexString();
+        } finally {
+            Wires.releaseBytesForToString(bytes);
+        }
     }
 
     @Nullable <T> T fromHexString(@NotNull CharSequence s) {
@@ -647,9 +670,13 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
     @Nullable
     public Map<String, Object> asMap(@NotNull CharSequence cs) {
         Bytes bytes = getBytes2();
-        bytes.appendUtf8(cs);
-        Wire wire = apply(bytes);
-        return wire.getValueIn().marshallableAsMap(String.class, Object.class);
+        try {
+            bytes.appendUtf8(cs);
+            Wire wire = apply(bytes);
+            return wire.getValueIn().marshallableAsMap(String.class, Object.class);
+        } finally {
+            releaseBytes(bytes);
+        }
     }
 
     @Override
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesIn;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the events of a document from a {@link WireWalker}, in the order they appear.
+ * <p>
+ * The CharSequence and BytesIn passed are views of the input or of a buffer of the walker, and are only valid
+ * until the method returns. Fields and values which are the same in every wire type are reported the same way, e.g.
+ * a nested marshallable is a <code>startMap()</code>, a <code>field(name)</code> before each value and an
+ * <code>endMap()</code>. A document of fields at the top level is reported as a map.
+ * <p>
+ * All the methods do nothing by default.
+ */
+public interface WireVisitor {
+    default void startMap() {
+    }
+
+    default void endMap() {
+    }
+
+    default void startSequence() {
+    }
+
+    default void endSequence() {
+    }
+
+    default void field(@NotNull CharSequence name) {
+    }
+
+    /**
+     * The type of the value which follows, e.g. an alias or class name.
+     */
+    default void typePrefix(@NotNull CharSequence typeName) {
+    }
+
+    /**
+     * A value which is a type, e.g. <code>!type String</code>
+     */
+    default void typeLiteral(@NotNull CharSequence typeName) {
+        text(typeName);
+    }
+
+    default void nullValue() {
+    }
+
+    default void bool(boolean flag) {
+    }
+
+    default void int64(long value) {
+    }
+
+    /**
+     * A value written as a float, reported as a double by default.
+     */
+    default void float32(float value) {
+        float64(value);
+    }
+
+    default void float64(double value) {
+    }
+
+    default void uuid(long mostSignificantBits, long leastSignificantBits) {
+    }
+
+    /**
+     * Text, including dates and times, which are reported as they are written.
+     */
+    default void text(@NotNull CharSequence text) {
+    }
+
+    /**
+     * Binary content between the readPosition and readLimit of <code>bytes</code>. It can be read or left as it is.
+     */
+    default void bytes(@NotNull BytesIn<?> bytes) {
+    }
+
+    default void comment(@NotNull CharSequence text) {
+    }
+}
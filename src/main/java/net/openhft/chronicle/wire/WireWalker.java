@@ -0,0 +1,578 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Maths;
+import org.jetbrains.annotations.NotNull;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.*;
+
+/**
+ * Walks the rest of the input of a wire, passing each event to a {@link WireVisitor} without creating objects for
+ * the document. Field names and text are passed as views of the input where they can be, i.e. when they are ASCII
+ * and have no escapes.
+ * <ul>
+ *     <li>BinaryWire is decoded as {@link BinaryWire#copyTo(WireOut)} does.</li>
+ *     <li>TextWire, JSONWire and YamlWire are read with a {@link YamlTokeniser}. Plain scalars are reported as
+ *     numbers, booleans or null where they read as one, and as text otherwise.</li>
+ *     <li>RawWire doesn't describe its content, so the rest of it is reported as one <code>bytes</code> event.</li>
+ * </ul>
+ * A walker can be reused, but not by more than one thread at a time.
+ */
+public class WireWalker {
+    private final StringBuilder sb = new StringBuilder();
+    private final BytesView view = new BytesView();
+    private YamlTokeniser yt;
+    private Bytes<?> ytBytes;
+    private Bytes<?> binary;
+
+    /**
+     * Reads from the readPosition to the readLimit of the wire, leaving the readPosition at the end.
+     */
+    public void walk(@NotNull WireIn wireIn, @NotNull WireVisitor visitor) {
+        if (wireIn instanceof BinaryWire) {
+            walkBinary((BinaryWire) wireIn, visitor);
+        } else if (wireIn instanceof TextWire || wireIn instanceof YamlWire) {
+            walkText(wireIn.bytes(), visitor);
+        } else if (wireIn instanceof RawWire) {
+            Bytes<?> bytes = wireIn.bytes();
+            visitor.bytes(bytes);
+            bytes.readPosition(bytes.readLimit());
+        } else {
+            throw new UnsupportedOperationException("Unable to walk a " + wireIn.getClass().getName());
+        }
+    }
+
+    private void walkBinary(BinaryWire wire, WireVisitor visitor) {
+        Bytes<?> bytes = wire.bytes();
+        boolean map = bytes.readRemaining() > 0 && isField(wire, bytes.peekUnsignedByte());
+        if (map)
+            visitor.startMap();
+        while (bytes.readRemaining() > 0)
+            binaryOne(wire, bytes, visitor);
+        if (map)
+            visitor.endMap();
+    }
+
+    static boolean isField(BinaryWire wire, int code) {
+        return code == FIELD_NUMBER || wire.getBracketTypeFor(code) == BracketType.MAP;
+    }
+
+    void binaryOne(BinaryWire wire, Bytes<?> bytes, WireVisitor visitor) {
+        int code = bytes.readUnsignedByte();
+        switch (code >> 4) {
+            case BinaryWireHighCode.NUM0:
+            case BinaryWireHighCode.NUM1:
+            case BinaryWireHighCode.NUM2:
+            case BinaryWireHighCode.NUM3:
+            case BinaryWireHighCode.NUM4:
+            case BinaryWireHighCode.NUM5:
+            case BinaryWireHighCode.NUM6:
+            case BinaryWireHighCode.NUM7:
+                visitor.int64(code);
+                break;
+
+            case BinaryWireHighCode.CONTROL:
+                binaryControl(wire, bytes, code, visitor);
+                break;
+
+            case BinaryWireHighCode.FLOAT:
+                switch (code) {
+                    case TYPE_ID:
+                    case TYPE_DEFINITION:
+                        visitor.typePrefix(wire.typeIdName(wire.readTypeId(code)));
+                        break;
+                    case SCHEMA_FINGERPRINT:
+                        bytes.readSkip(8);
+                        break;
+                    case FLOAT32:
+                        visitor.float32(bytes.readFloat());
+                        break;
+                    default:
+                        visitor.float64(wire.readFloat0(code));
+                        break;
+                }
+                break;
+
+            case BinaryWireHighCode.INT:
+                if (code == UUID)
+                    visitor.uuid(bytes.readLong(), bytes.readLong());
+                else
+                    visitor.int64(wire.readInt0(code));
+                break;
+
+            case BinaryWireHighCode.SPECIAL:
+                binarySpecial(wire, bytes, code, visitor);
+                break;
+
+            case BinaryWireHighCode.FIELD0:
+            case BinaryWireHighCode.FIELD1:
+                visitor.field(utf8(bytes, code & 0x1f));
+                break;
+
+            default: // STR0, STR1
+                visitor.text(utf8(bytes, code & 0x1f));
+                break;
+        }
+    }
+
+    private void binaryControl(BinaryWire wire, Bytes<?> bytes, int code, WireVisitor visitor) {
+        switch (code) {
+            case PADDING:
+                break;
+            case PADDING32:
+                bytes.readSkip(bytes.readUnsignedInt());
+                break;
+
+            case BYTES_LENGTH8:
+                binaryNested(wire, bytes, bytes.readUnsignedByte(), visitor);
+                break;
+            case BYTES_LENGTH16:
+                binaryNested(wire, bytes, bytes.readUnsignedShort(), visitor);
+                break;
+            case BYTES_LENGTH32:
+                binaryNested(wire, bytes, bytes.readUnsignedInt(), visitor);
+                break;
+
+            case U8_ARRAY:
+                visitor.bytes(bytes);
+                bytes.readPosition(bytes.readLimit());
+                break;
+
+            case I64_ARRAY: {
+                long length = bytes.readLong();
+                bytes.readLong(); // used
+                binaryArray(bytes, I64_PACKED_ARRAY, length, visitor);
+                break;
+            }
+
+            case I16_ARRAY:
+            case I32_ARRAY:
+            case I64_PACKED_ARRAY:
+            case F32_ARRAY:
+            case F64_ARRAY:
+                binaryArray(bytes, code, bytes.readStopBit(), visitor);
+                break;
+
+            case FIELD_ANCHOR:
+                sb.setLength(0);
+                visitor.field(wire.readFieldAnchor(sb));
+                break;
+
+            default:
+                throw new UnsupportedOperationException("Unable to walk " + stringForCode(code));
+        }
+    }
+
+    // a nested block of a BYTES_LENGTH code
+    void binaryNested(BinaryWire wire, Bytes<?> bytes, long length, WireVisitor visitor) {
+        long limit = bytes.readLimit();
+        long end = bytes.readPosition() + length;
+        bytes.readLimit(end);
+        try {
+            int code = bytes.peekUnsignedByte();
+            if (isField(wire, code)) {
+                visitor.startMap();
+                while (bytes.readRemaining() > 0)
+                    binaryOne(wire, bytes, visitor);
+                visitor.endMap();
+
+            } else if (code == U8_ARRAY || code == I64_ARRAY) {
+                binaryOne(wire, bytes, visitor);
+
+            } else {
+                visitor.startSequence();
+                while (bytes.readRemaining() > 0)
+                    binaryOne(wire, bytes, visitor);
+                visitor.endSequence();
+            }
+        } finally {
+            bytes.readLimit(limit);
+            bytes.readPosition(end);
+        }
+    }
+
+    // the values of an I64_ARRAY or a packed array
+    void binaryArray(Bytes<?> bytes, int code, long length, WireVisitor visitor) {
+        visitor.startSequence();
+        for (long i = 0; i < length; i++)
+            binaryArrayValue(bytes, code, visitor);
+        visitor.endSequence();
+    }
+
+    static void binaryArrayValue(Bytes<?> bytes, int code, WireVisitor visitor) {
+        switch (code) {
+            case I16_ARRAY:
+                visitor.int64(bytes.readShort());
+                break;
+            case I32_ARRAY:
+                visitor.int64(bytes.readInt());
+                break;
+            case I64_PACKED_ARRAY:
+                visitor.int64(bytes.readLong());
+                break;
+            case F32_ARRAY:
+                visitor.float32(bytes.readFloat());
+                break;
+            default:
+                visitor.float64(bytes.readDouble());
+                break;
+        }
+    }
+
+    private void binarySpecial(BinaryWire wire, Bytes<?> bytes, int code, WireVisitor visitor) {
+        switch (code) {
+            case FALSE:
+                visitor.bool(false);
+                break;
+            case TRUE:
+                visitor.bool(true);
+                break;
+            case NULL:
+                visitor.nullValue();
+                break;
+
+            case TIME:
+            case DATE:
+            case DATE_TIME:
+            case ZONED_DATE_TIME:
+            case STRING_ANY: {
+                long length = bytes.readStopBit();
+                if (length < 0)
+                    visitor.nullValue();
+                else
+                    visitor.text(utf8(bytes, length));
+                break;
+            }
+
+            case TYPE_PREFIX:
+                visitor.typePrefix(utf8(bytes, bytes.readStopBit()));
+                break;
+            case TYPE_LITERAL:
+                visitor.typeLiteral(utf8(bytes, bytes.readStopBit()));
+                break;
+            case COMMENT:
+                visitor.comment(utf8(bytes, bytes.readStopBit()));
+                break;
+
+            case FIELD_NAME_ANY:
+            case EVENT_NAME:
+                visitor.field(utf8(bytes, bytes.readStopBit()));
+                break;
+
+            case FIELD_NUMBER:
+                sb.setLength(0);
+                visitor.field(sb.append(bytes.readStopBit()));
+                break;
+
+            case EVENT_OBJECT: {
+                // only a text key can be passed as a field name
+                int next = bytes.readUnsignedByte();
+                if (next >= STRING_0)
+                    visitor.field(utf8(bytes, next & 0x1f));
+                else if (next == STRING_ANY)
+                    visitor.field(utf8(bytes, bytes.readStopBit()));
+                else
+                    throw new UnsupportedOperationException("Unable to walk a key of " + stringForCode(next));
+                break;
+            }
+
+            default:
+                throw new UnsupportedOperationException("Unable to walk " + stringForCode(code));
+        }
+    }
+
+    private CharSequence utf8(Bytes<?> bytes, long length) {
+        long start = bytes.readPosition();
+        if (isAscii(bytes, start, length)) {
+            bytes.readSkip(length);
+            return view.set(bytes, start, length);
+        }
+        sb.setLength(0);
+        bytes.parseUtf8(sb, true, Maths.toUInt31(length));
+        return sb;
+    }
+
+    private static boolean isAscii(Bytes<?> bytes, long start, long length) {
+        long i = 0;
+        for (; i + 8 <= length; i += 8)
+            if ((bytes.readLong(start + i) & 0x8080808080808080L) != 0)
+                return false;
+        for (; i < length; i++)
+            if (bytes.readUnsignedByte(start + i) >= 0x80)
+                return false;
+        return true;
+    }
+
+    private void walkText(Bytes<?> bytes, WireVisitor visitor) {
+        YamlTokeniser yt = this.yt;
+        if (yt == null || ytBytes != bytes) {
+            this.yt = yt = new YamlTokeniser(bytes);
+            ytBytes = bytes;
+        } else {
+            // drops any tokens left by a walk which didn't finish
+            yt.revertToContext(0);
+            yt.reset();
+        }
+        yt.lineStart = bytes.readPosition();
+
+        YamlToken token = yt.current();
+        while (true) {
+            switch (token) {
+                case MAPPING_START:
+                    visitor.startMap();
+                    break;
+                case MAPPING_END:
+                    visitor.endMap();
+                    break;
+                case SEQUENCE_START:
+                    visitor.startSequence();
+                    break;
+                case SEQUENCE_END:
+                    visitor.endSequence();
+                    break;
+                case MAPPING_KEY:
+                    if (yt.next(Integer.MIN_VALUE) != YamlToken.TEXT)
+                        throw new UnsupportedOperationException("Unable to walk a key of " + yt);
+                    visitor.field(text(yt, bytes));
+                    break;
+                case TAG:
+                    token = textTag(yt, bytes, visitor);
+                    continue;
+                case TEXT:
+                    textScalar(yt, bytes, visitor);
+                    break;
+                case COMMENT:
+                    visitor.comment(text(yt, bytes));
+                    break;
+                case NONE:
+                case STREAM_END:
+                    return;
+                default:
+                    // sequence entries, directives and the start and end of documents.
+                    break;
+            }
+            token = yt.next(Integer.MIN_VALUE);
+        }
+    }
+
+    // returns the token after the tag and its value if the value was read.
+    private YamlToken textTag(YamlTokeniser yt, Bytes<?> bytes, WireVisitor visitor) {
+        long start = yt.blockStart();
+        long end = yt.blockEnd();
+        if (isWord(bytes, start, end, "!null")) {
+            visitor.nullValue();
+            YamlToken next = yt.next(Integer.MIN_VALUE);
+            return next == YamlToken.TEXT ? yt.next(Integer.MIN_VALUE) : next;
+        }
+        if (isWord(bytes, start, end, "!binary")) {
+            YamlToken next = yt.next(Integer.MIN_VALUE);
+            if (next != YamlToken.TEXT) {
+                visitor.bytes(base64(bytes, 0, 0));
+                return next;
+            }
+            visitor.bytes(base64(bytes, yt.blockStart(), yt.blockEnd()));
+            return yt.next(Integer.MIN_VALUE);
+        }
+        if (isWord(bytes, start, end, "type")) {
+            YamlToken next = yt.next(Integer.MIN_VALUE);
+            if (next != YamlToken.TEXT)
+                throw new UnsupportedOperationException("Unable to walk a type of " + yt);
+            visitor.typeLiteral(text(yt, bytes));
+            return yt.next(Integer.MIN_VALUE);
+        }
+        visitor.typePrefix(view.set(bytes, start, end - start));
+        return yt.next(Integer.MIN_VALUE);
+    }
+
+    private void textScalar(YamlTokeniser yt, Bytes<?> bytes, WireVisitor visitor) {
+        long start = yt.blockStart();
+        long end = yt.blockEnd();
+        if (yt.blockQuote() == 0 && end > start) {
+            int first = bytes.readUnsignedByte(start);
+            if ((first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.') {
+                if (number(bytes, start, end, visitor))
+                    return;
+            } else if (isWord(bytes, start, end, "true")) {
+                visitor.bool(true);
+                return;
+            } else if (isWord(bytes, start, end, "false")) {
+                visitor.bool(false);
+                return;
+            } else if (isWord(bytes, start, end, "null") || isWord(bytes, start, end, "~")) {
+                visitor.nullValue();
+                return;
+            }
+        }
+        visitor.text(text(yt, bytes));
+    }
+
+    private static boolean number(Bytes<?> bytes, long start, long end, WireVisitor visitor) {
+        long pos = start;
+        int ch = bytes.readUnsignedByte(pos);
+        boolean negative = ch == '-';
+        if (negative || ch == '+')
+            pos++;
+        long digitsStart = pos;
+        long value = 0;
+        for (; pos < end; pos++) {
+            ch = bytes.readUnsignedByte(pos) - '0';
+            if (ch < 0 || ch > 9 || value > (Long.MAX_VALUE - ch) / 10)
+                break;
+            value = value * 10 + ch;
+        }
+        if (pos == end && pos > digitsStart) {
+            visitor.int64(negative ? -value : value);
+            return true;
+        }
+        double d = DoubleParser.parseDouble(bytes, start, end);
+        if (d != d)
+            return false;
+        visitor.float64(d);
+        return true;
+    }
+
+    private static boolean isWord(Bytes<?> bytes, long start, long end, String word) {
+        if (end - start != word.length())
+            return false;
+        for (int i = 0; i < word.length(); i++)
+            if (bytes.readUnsignedByte(start + i) != word.charAt(i))
+                return false;
+        return true;
+    }
+
+    private CharSequence text(YamlTokeniser yt, Bytes<?> bytes) {
+        long start = yt.blockStart();
+        long end = yt.blockEnd();
+        char quote = yt.blockQuote();
+        if (end >= start && !needsDecoding(bytes, start, end, quote))
+            return view.set(bytes, start, end - start);
+        sb.setLength(0);
+        yt.text(sb);
+        if (quote == '"') {
+            YamlWire.unescape(sb);
+        } else if (quote == '\'') {
+            // '' is a quote in single quotes
+            int j = 0;
+            for (int i = 0; i < sb.length(); i++, j++) {
+                char ch = sb.charAt(i);
+                if (ch == '\'' && i + 1 < sb.length() && sb.charAt(i + 1) == '\'')
+                    i++;
+                sb.setCharAt(j, ch);
+            }
+            sb.setLength(j);
+        }
+        return sb;
+    }
+
+    private static boolean needsDecoding(Bytes<?> bytes, long start, long end, char quote) {
+        for (long i = start; i < end; i++) {
+            int ch = bytes.readUnsignedByte(i);
+            if (ch >= 0x80 || (quote != 0 && (ch == '\\' || ch == quote)))
+                return true;
+        }
+        return false;
+    }
+
+    private Bytes<?> base64(Bytes<?> bytes, long start, long end) {
+        Bytes<?> binary = this.binary;
+        if (binary == null)
+            this.binary = binary = Bytes.allocateElasticOnHeap(64);
+        binary.clear();
+        int bits = 0;
+        int count = 0;
+        for (long i = start; i < end; i++) {
+            int value = base64Value(bytes.readUnsignedByte(i));
+            if (value < 0)
+                continue;
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                binary.writeUnsignedByte(bits >>> 16 & 0xFF);
+                binary.writeUnsignedByte(bits >>> 8 & 0xFF);
+                binary.writeUnsignedByte(bits & 0xFF);
+                bits = count = 0;
+            }
+        }
+        if (count == 3) {
+            binary.writeUnsignedByte(bits >>> 10 & 0xFF);
+            binary.writeUnsignedByte(bits >>> 2 & 0xFF);
+        } else if (count == 2) {
+            binary.writeUnsignedByte(bits >>> 4 & 0xFF);
+        }
+        return binary;
+    }
+
+    private static int base64Value(int ch) {
+        if (ch >= 'A' && ch <= 'Z')
+            return ch - 'A';
+        if (ch >= 'a' && ch <= 'z')
+            return ch - 'a' + 26;
+        if (ch >= '0' && ch <= '9')
+            return ch - '0' + 52;
+        if (ch == '+' || ch == '-')
+            return 62;
+        if (ch == '/' || ch == '_')
+            return 63;
+        // padding and whitespace
+        return -1;
+    }
+
+    /**
+     * A reusable view of 8-bit characters in a Bytes.
+     */
+    static final class BytesView implements CharSequence {
+        private Bytes<?> bytes;
+        private long start;
+        private int length;
+
+        BytesView set(Bytes<?> bytes, long start, long length) {
+            this.bytes = bytes;
+            this.start = start;
+            this.length = Maths.toUInt31(length);
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException(index + " out of " + length);
+            return (char) bytes.readUnsignedByte(start + index);
+        }
+
+        @NotNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++)
+                chars[i] = (char) bytes.readUnsignedByte(start + i);
+            return new String(chars);
+        }
+    }
+}
@@ -27,7 +27,6 @@ import net.openhft.chronicle.core.io.IOTools;
 import net.openhft.chronicle.core.pool.ClassAliasPool;
 import net.openhft.chronicle.core.pool.EnumCache;
 import net.openhft.chronicle.core.pool.StringBuilderPool;
-import net.openhft.chronicle.core.threads.ThreadLocalHelper;
 import net.openhft.chronicle.core.util.CoreDynamicEnum;
 import net.openhft.chronicle.core.util.ObjectUtils;
 import net.openhft.chronicle.core.util.ReadResolvable;
@@ -96,7 +95,7 @@ public enum Wires {
     });
     static final ClassLocal<FieldInfoPair> FIELD_INFOS = ClassLocal.withInitial(VanillaFieldInfo::lookupClass);
     static final StringBuilderPool SBP = new StringBuilderPool();
-    static final ThreadLocal<BinaryWire> WIRE_TL = ThreadLocal.withInitial(() -> new BinaryWire(Bytes.allocateElasticOnHeap()));
+    static final Scratch<BinaryWire> WIRE_SCRATCH = ScratchProviders.scratch(() -> new BinaryWire(Bytes.allocateElasticOnHeap()));
     private static final int TID_MASK = 0b00111111_11111111_11111111_11111111;
     private static final int INVERSE_TID_MASK = ~TID_MASK;
     public static boolean GENERATE_TUPLES = Jvm.getBoolean("wire.generate.tuples");
@@ -297,39 +296,53 @@ public enum Wires {
         return bytes;
     }
 
+    /**
+     * @return a cleared scratch buffer, which can be handed back with {@link #releaseBytes(Bytes)}
+     */
     @NotNull
     public static Bytes<?> acquireBytes() {
-        Bytes bytes = ThreadLocalHelper.getTL(WireInternal.BYTES_TL,
-                Wires::unmonitoredDirectBytes);
+        Bytes bytes = WireInternal.BYTES_SCRATCH.acquire();
         bytes.clear();
         return bytes;
     }
 
+    public static void releaseBytes(@NotNull Bytes<?> bytes) {
+        WireInternal.BYTES_SCRATCH.release(bytes);
+    }
+
     @NotNull
     static Bytes<?> acquireBytesForToString() {
         // otherwise we get confusing debug messages.
         if (Jvm.isDebug())
             return Bytes.allocateElasticOnHeap();
 
-        Bytes bytes = ThreadLocalHelper.getTL(WireInternal.BYTES_F2S_TL,
-                Wires::unmonitoredDirectBytes);
+        Bytes bytes = WireInternal.BYTES_F2S_SCRATCH.acquire();
         bytes.clear();
         return bytes;
     }
 
+    static void releaseBytesForToString(@NotNull Bytes<?> bytes) {
+        if (!Jvm.isDebug())
+            WireInternal.BYTES_F2S_SCRATCH.release(bytes);
+    }
+
+    /**
+     * @return a cleared scratch wire, which can be handed back with {@link #releaseBinaryWire(Wire)}
+     */
     @NotNull
     public static Wire acquireBinaryWire() {
-        Wire wire = ThreadLocalHelper.getTL(WireInternal.BINARY_WIRE_TL,
-                () -> new BinaryWire(Wires.unmonitoredDirectBytes())
-                        .setOverrideSelfDescribing(true));
+        Wire wire = WireInternal.BINARY_WIRE_SCRATCH.acquire();
         wire.clear();
         return wire;
     }
 
+    public static void releaseBinaryWire(@NotNull Wire wire) {
+        WireInternal.BINARY_WIRE_SCRATCH.release(wire);
+    }
+
     @NotNull
     public static Bytes acquireAnotherBytes() {
-        Bytes bytes = ThreadLocalHelper.getTL(WireInternal.BYTES_TL,
-                Wires::unmonitoredDirectBytes);
+        Bytes bytes = WireInternal.BYTES_SCRATCH.acquire();
         bytes.clear();
         return bytes;
     }
@@ -370,25 +383,33 @@ public enum Wires {
     @NotNull
     public static <T extends Marshallable> T deepCopy(@NotNull T marshallable) {
         Wire wire = acquireBinaryWire();
-        @NotNull T t = (T) ObjectUtils.newInstance(marshallable.getClass());
-        boolean useSelfDescribing = t.usesSelfDescribingMessage() || !(t instanceof BytesMarshallable);
-        if (useSelfDescribing) {
-            marshallable.writeMarshallable(wire);
-            t.readMarshallable(wire);
-        } else {
-            ((BytesMarshallable) marshallable).writeMarshallable(wire.bytes());
-            ((BytesMarshallable) t).readMarshallable(wire.bytes());
+        try {
+            @NotNull T t = (T) ObjectUtils.newInstance(marshallable.getClass());
+            boolean useSelfDescribing = t.usesSelfDescribingMessage() || !(t instanceof BytesMarshallable);
+            if (useSelfDescribing) {
+                marshallable.writeMarshallable(wire);
+                t.readMarshallable(wire);
+            } else {
+                ((BytesMarshallable) marshallable).writeMarshallable(wire.bytes());
+                ((BytesMarshallable) t).readMarshallable(wire.bytes());
+            }
+            return t;
+        } finally {
+            releaseBinaryWire(wire);
         }
-        return t;
     }
 
     @NotNull
     public static <T> T copyTo(Object source, @NotNull T target) {
         Wire wire = acquireBinaryWire();
-        wire.getValueOut().object(source);
-        wire.getValueIn().typePrefix(); // drop the type prefix.
-        wire.getValueIn().object(target, target.getClass());
-        return target;
+        try {
+            wire.getValueOut().object(source);
+            wire.getValueIn().typePrefix(); // drop the type prefix.
+            wire.getValueIn().object(target, target.getClass());
+            return target;
+        } finally {
+            releaseBinaryWire(wire);
+        }
     }
 
     @NotNull
@@ -612,7 +633,7 @@ public enum Wires {
 
     @NotNull
     public static BinaryWire binaryWireForRead(Bytes in, long position, long length) {
-        BinaryWire wire = WIRE_TL.get();
+        BinaryWire wire = WIRE_SCRATCH.acquire();
         VanillaBytes bytes = (VanillaBytes) wire.bytes();
         wire.clear();
         bytes.bytesStore(in.bytesStore(), position, length);
@@ -621,7 +642,7 @@ public enum Wires {
 
     @NotNull
     public static BinaryWire binaryWireForWrite(Bytes in, long position, long length) {
-        BinaryWire wire = WIRE_TL.get();
+        BinaryWire wire = WIRE_SCRATCH.acquire();
         VanillaBytes bytes = (VanillaBytes) wire.bytes();
         bytes.bytesStore(in.bytesStore(), 0, position);
         bytes.writeLimit(position + length);
@@ -35,7 +35,11 @@ public enum YamlToken {
     ALIAS,
     RESERVED,
     STREAM_END,
-    STREAM_START(STREAM_END);
+    STREAM_START(STREAM_END),
+    /**
+     * The tokeniser reached the end of the input before the end of the token, see YamlTokeniser.endOfInput(boolean)
+     */
+    NEED_MORE;
 
     public final YamlToken toEnd;
 
@@ -29,6 +29,8 @@ import java.util.Set;
 public class YamlTokeniser {
 
     static final int NO_INDENT = -1;
+    // how far the tokeniser can look past the end of a token to tell what it is.
+    static final int LOOKAHEAD = 4;
     static final Set<YamlToken> NO_TEXT = EnumSet.of(
             YamlToken.SEQUENCE_START,
             YamlToken.SEQUENCE_ENTRY,
@@ -53,6 +55,19 @@ public class YamlTokeniser {
     boolean hasSequenceEntry;
     long lastKeyPosition = -1;
 
+    private boolean endOfInput = true;
+    // the state before the token being read, to return to if the input runs out.
+    private final List<YTContext> checkpointContexts = new ArrayList<>();
+    private int checkpointFree = Integer.MAX_VALUE;
+    private long checkpointPosition;
+    private long checkpointLineStart;
+    private long checkpointBlockStart;
+    private long checkpointBlockEnd;
+    private long checkpointLastKeyPosition;
+    private int checkpointFlowDepth;
+    private char checkpointBlockQuote;
+    private boolean checkpointHasSequenceEntry;
+
     public YamlTokeniser(BytesIn<?> in) {
         this.in = in;
         reset();
@@ -72,9 +87,42 @@ public class YamlTokeniser {
         hasSequenceEntry = false;
         lastKeyPosition = -1;
         last = YamlToken.STREAM_START;
+        checkpointFree = Integer.MAX_VALUE;
         pushContext0(YamlToken.STREAM_START, NO_INDENT);
     }
 
+    public boolean endOfInput() {
+        return endOfInput;
+    }
+
+    /**
+     * @param endOfInput false if more input may be appended to the BytesIn. Until it is true, a token which reaches
+     *                   the end of the input is not read, and next() returns NEED_MORE instead. Calling next() again
+     *                   once more input has been appended reads the token from its start.
+     */
+    public YamlTokeniser endOfInput(boolean endOfInput) {
+        this.endOfInput = endOfInput;
+        return this;
+    }
+
+    /**
+     * Discards the input before the current line, so the BytesIn can be refilled without growing.
+     * The input has to be a Bytes, and the positions of tokens already read are no longer valid.
+     */
+    public void compact() {
+        Bytes<?> bytes = (Bytes<?>) in;
+        long pos = bytes.readPosition();
+        long shift = Math.min(lineStart, pos) - bytes.start();
+        if (shift <= 0)
+            return;
+        bytes.readPosition(bytes.start() + shift);
+        bytes.compact();
+        bytes.readPosition(pos - shift);
+        lineStart -= shift;
+        blockStart = blockEnd = bytes.readPosition();
+        lastKeyPosition = -1;
+    }
+
     public YamlToken context() {
         return contexts.isEmpty() ? YamlToken.STREAM_START : topContext().token;
     }
@@ -103,10 +151,67 @@ public class YamlTokeniser {
             YamlToken next = popPushed();
             return last = next;
         }
+        if (endOfInput) {
+            YamlToken next = next0(minIndent);
+            return this.last = next;
+        }
+        checkpoint();
         YamlToken next = next0(minIndent);
+        if (next == YamlToken.NEED_MORE || in.readRemaining() < LOOKAHEAD) {
+            restoreCheckpoint();
+            return YamlToken.NEED_MORE;
+        }
+        checkpointFree = Integer.MAX_VALUE;
         return this.last = next;
     }
 
+    private void checkpoint() {
+        checkpointContexts.clear();
+        checkpointContexts.addAll(contexts);
+        checkpointFree = freeContexts.size();
+        checkpointPosition = in.readPosition();
+        checkpointLineStart = lineStart;
+        checkpointBlockStart = blockStart;
+        checkpointBlockEnd = blockEnd;
+        checkpointLastKeyPosition = lastKeyPosition;
+        checkpointFlowDepth = flowDepth;
+        checkpointBlockQuote = blockQuote;
+        checkpointHasSequenceEntry = hasSequenceEntry;
+    }
+
+    private void restoreCheckpoint() {
+        // contexts freed since the checkpoint are restored, contexts added are freed.
+        for (int i = freeContexts.size() - 1; i >= checkpointFree; i--) {
+            if (isCheckpointContext(freeContexts.get(i)))
+                freeContexts.remove(i);
+        }
+        for (YTContext context : contexts) {
+            if (!isCheckpointContext(context))
+                freeContexts.add(context);
+        }
+        contexts.clear();
+        contexts.addAll(checkpointContexts);
+        checkpointFree = Integer.MAX_VALUE;
+        pushed.clear();
+        in.readPosition(checkpointPosition);
+        lineStart = checkpointLineStart;
+        blockStart = checkpointBlockStart;
+        blockEnd = checkpointBlockEnd;
+        lastKeyPosition = checkpointLastKeyPosition;
+        flowDepth = checkpointFlowDepth;
+        blockQuote = checkpointBlockQuote;
+        hasSequenceEntry = checkpointHasSequenceEntry;
+    }
+
+    // YTContext.equals() compares their values
+    private boolean isCheckpointContext(YTContext context) {
+        for (YTContext c : checkpointContexts) {
+            if (c == context)
+                return true;
+        }
+        return false;
+    }
+
     YamlToken next0(int minIndent) {
         consumeWhitespace();
         blockStart = blockEnd = in.readPosition();
@@ -116,6 +221,8 @@ public class YamlTokeniser {
         int ch = in.readUnsignedByte();
         switch (ch) {
             case -1:
+                if (!endOfInput)
+                    return YamlToken.NEED_MORE;
                 if (contextIndent() <= minIndent)
                     return YamlToken.NONE;
                 contextPop();
@@ -580,6 +687,8 @@ public class YamlTokeniser {
                 return;
             }
             if (ch < 0) {
+                if (!endOfInput)
+                    return;
                 throw new IllegalStateException("Unterminated quotes " + in.subBytes(blockStart - 1, in.readPosition()));
             }
         }
@@ -648,7 +757,11 @@ public class YamlTokeniser {
     }
 
     private void pushContext0(YamlToken token, int indent) {
-        YTContext context = freeContexts.isEmpty() ? new YTContext() : freeContexts.remove(freeContexts.size() - 1);
+        // contexts freed since the checkpoint are kept as they were in case it is restored.
+        int free = Math.min(freeContexts.size(), checkpointFree);
+        YTContext context = free == 0 ? new YTContext() : freeContexts.remove(free - 1);
+        if (free > 0 && checkpointFree != Integer.MAX_VALUE)
+            checkpointFree = free - 1;
         context.token = token;
         context.indent = indent;
         if (context.keys != null)
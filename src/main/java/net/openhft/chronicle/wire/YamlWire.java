@@ -19,7 +19,6 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.bytes.*;
 import net.openhft.chronicle.bytes.ref.*;
-import net.openhft.chronicle.bytes.util.Compression;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.core.io.IORuntimeException;
@@ -406,7 +405,7 @@ public class YamlWire extends AbstractWire implements Wire {
 
     @Nullable
     private <K> K toExpected(Class<K> expectedClass, StringBuilder sb) {
-        return ObjectUtils.convertTo(expectedClass, WireInternal.INTERNER.intern(sb));
+        return ObjectUtils.convertTo(expectedClass, intern(sb));
     }
 
     @Override
@@ -880,6 +879,8 @@ public class YamlWire extends AbstractWire implements Wire {
         protected boolean dropDefault = false;
         @Nullable
         private String eventName;
+        // if not, large and small finite values go through doubleToString and floatToString as well
+        private final boolean finiteAsDefault = WireInternal.FINITE_NUMBERS_AS_DEFAULT.get(getClass());
 
         @Override
         public void hasPrecedingComment(boolean hasCommentAnnotation) {
@@ -1250,7 +1251,9 @@ public class YamlWire extends AbstractWire implements Wire {
             prependSeparator();
             double af = Math.abs(f);
             if (af >= 1e-3 && af < 1e6)
-                bytes.append(f);
+                DoubleFormatter.appendFloatPlain(bytes, f);
+            else if (finiteAsDefault && Float.isFinite(f))
+                DoubleFormatter.appendFloat(bytes, f);
             else
                 bytes.append(floatToString(f));
             elementSeparator();
@@ -1276,19 +1279,27 @@ public class YamlWire extends AbstractWire implements Wire {
                 } else if (ad < 1e-3) {
                     double d7 = Math.round(d * 1e16) / 1e9;
                     double ad7 = Math.abs(d7);
-                    if (ad7 < 1e1)
-                        bytes.append(d7).append("E-7");
-                    else if (ad7 < 1e2)
-                        bytes.append(d7 / 1e1).append("E-6");
-                    else if (ad7 < 1e3)
-                        bytes.append(d7 / 1e2).append("E-5");
-                    else if (ad7 < 1e4)
-                        bytes.append(d7 / 1e3).append("E-4");
-                    else
-                        bytes.append(d7 / 1e4).append("E-3");
+                    if (ad7 < 1e1) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7);
+                        bytes.append("E-7");
+                    } else if (ad7 < 1e2) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e1);
+                        bytes.append("E-6");
+                    } else if (ad7 < 1e3) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e2);
+                        bytes.append("E-5");
+                    } else if (ad7 < 1e4) {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e3);
+                        bytes.append("E-4");
+                    } else {
+                        DoubleFormatter.appendDoublePlain(bytes, d7 / 1e4);
+                        bytes.append("E-3");
+                    }
                 } else {
-                    bytes.append(d);
+                    DoubleFormatter.appendDoublePlain(bytes, d);
                 }
+            } else if (finiteAsDefault && Double.isFinite(d)) {
+                DoubleFormatter.appendDouble(bytes, d);
             } else {
                 bytes.append(doubleToString(d));
             }
@@ -1297,10 +1308,18 @@ public class YamlWire extends AbstractWire implements Wire {
             return YamlWire.this;
         }
 
+        /**
+         * Formats the doubles which aren't written as plain decimals. Only those which aren't finite
+         * are passed to this unless it is overridden.
+         */
         protected String doubleToString(double d) {
             return Double.toString(d);
         }
 
+        /**
+         * Formats the floats which aren't written as plain decimals. Only those which aren't finite
+         * are passed to this unless it is overridden.
+         */
         protected String floatToString(float f) {
             return Float.toString(f);
         }
@@ -1346,7 +1365,7 @@ public class YamlWire extends AbstractWire implements Wire {
                 nu11();
             } else {
                 prependSeparator();
-                append(stringable.toString());
+                append(stringable instanceof CharSequence ? (CharSequence) stringable : stringable.toString());
                 elementSeparator();
             }
 
@@ -1411,6 +1430,12 @@ public class YamlWire extends AbstractWire implements Wire {
             return asText(uuid);
         }
 
+        @NotNull
+        @Override
+        public WireOut uuid(long mostSignificantBits, long leastSignificantBits) {
+            return asText(WireInternal.appendUuid(WireInternal.acquireStringBuilder(), mostSignificantBits, leastSignificantBits));
+        }
+
         @NotNull
         @Override
         public WireOut int32forBinding(int value) {
@@ -1823,7 +1848,7 @@ public class YamlWire extends AbstractWire implements Wire {
         @Override
         public String text() {
             @Nullable CharSequence cs = textTo0(acquireStringBuilder());
-            return cs == null ? null : WireInternal.INTERNER.intern(cs);
+            return cs == null ? null : intern(cs);
         }
 
         @Nullable
@@ -1939,7 +1964,7 @@ public class YamlWire extends AbstractWire implements Wire {
                 yt.next();
                 if (yt.current() != YamlToken.TEXT)
                     throw new UnsupportedOperationException(yt.toString());
-                @Nullable byte[] uncompressed = Compression.uncompress(sb, yt, t -> {
+                @Nullable byte[] uncompressed = CompressionCodecs.uncompress(sb, yt, t -> {
                     @NotNull StringBuilder sb2 = acquireStringBuilder();
                     t.text(sb2);
                     return Base64.getDecoder().decode(sb2.toString());
@@ -2166,7 +2191,10 @@ public class YamlWire extends AbstractWire implements Wire {
 
         public double getADouble() {
             if (yt.current() == YamlToken.TEXT) {
-                double v = Double.parseDouble(yt.text());
+                double v = yt.blockEnd() < 0 ? Double.NaN : DoubleParser.parseDouble(bytes, yt.blockStart(), yt.blockEnd());
+                // anything other than a plain decimal
+                if (v != v)
+                    v = Double.parseDouble(yt.text());
                 yt.next();
                 return v;
             } else {
@@ -2188,7 +2216,7 @@ public class YamlWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            setLocalTime.accept(t, LocalTime.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            setLocalTime.accept(t, LocalTime.parse(intern(stringBuilder)));
             return YamlWire.this;
         }
 
@@ -2198,7 +2226,7 @@ public class YamlWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tZonedDateTime.accept(t, ZonedDateTime.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            tZonedDateTime.accept(t, ZonedDateTime.parse(intern(stringBuilder)));
             return YamlWire.this;
         }
 
@@ -2208,7 +2236,7 @@ public class YamlWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tLocalDate.accept(t, LocalDate.parse(WireInternal.INTERNER.intern(stringBuilder)));
+            tLocalDate.accept(t, LocalDate.parse(intern(stringBuilder)));
             return YamlWire.this;
         }
 
@@ -2218,7 +2246,7 @@ public class YamlWire extends AbstractWire implements Wire {
             consumePadding();
             final StringBuilder stringBuilder = acquireStringBuilder();
             textTo(stringBuilder);
-            tuuid.accept(t, UUID.fromString(WireInternal.INTERNER.intern(stringBuilder)));
+            tuuid.accept(t, UUID.fromString(intern(stringBuilder)));
             return YamlWire.this;
         }
 
@@ -0,0 +1,90 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveStringInternerTest extends WireTestCommon {
+
+    @Test
+    public void internCharSequence() {
+        AdaptiveStringInterner interner = new AdaptiveStringInterner(64);
+        String a = interner.intern(new StringBuilder("EURUSD"));
+        assertEquals("EURUSD", a);
+        assertSame(a, interner.intern(new StringBuilder("EURUSD")));
+        assertSame(a, interner.intern("EURUSD"));
+        assertNull(interner.intern(null));
+        assertEquals(2, interner.hits());
+        assertEquals(1, interner.misses());
+        assertEquals(0, interner.evictions());
+    }
+
+    @Test
+    public void internBytes() {
+        AdaptiveStringInterner interner = new AdaptiveStringInterner(64);
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap().appendUtf8("GBPUSD £");
+        try {
+            String s = interner.intern8bit(bytes, 6);
+            assertEquals("GBPUSD", s);
+            assertEquals(0, bytes.readPosition());
+            assertSame(s, interner.intern("GBPUSD"));
+            assertSame(s, interner.internUtf8(bytes, 6));
+
+            String utf8 = interner.internUtf8(bytes, (int) bytes.readRemaining());
+            assertEquals("GBPUSD £", utf8);
+            assertEquals(0, bytes.readPosition());
+            assertSame(utf8, interner.internUtf8(bytes, (int) bytes.readRemaining()));
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void keepsStringsWhichHit() {
+        AdaptiveStringInterner interner = new AdaptiveStringInterner(16).minHitRate(0);
+        String hot = interner.intern("hot");
+        for (int i = 0; i < 1000; i++) {
+            assertSame(hot, interner.intern("hot"));
+            assertEquals("cold" + i, interner.intern("cold" + i));
+        }
+        assertTrue(interner.evictions() > 0);
+        assertEquals(0, interner.bypasses());
+    }
+
+    @Test
+    public void stopsAddingWhenNothingHits() {
+        AdaptiveStringInterner interner = new AdaptiveStringInterner(1024);
+        for (int i = 0; i < 10 * AdaptiveStringInterner.WINDOW; i++)
+            interner.intern("id" + i);
+        assertEquals(0, interner.hits());
+        long bypasses = interner.bypasses();
+        assertTrue(bypasses > 8 * AdaptiveStringInterner.WINDOW * (AdaptiveStringInterner.SAMPLE - 1) / AdaptiveStringInterner.SAMPLE);
+
+        // low cardinality values are sampled back in and interning resumes.
+        for (int i = 0; i < 10 * AdaptiveStringInterner.WINDOW; i++)
+            interner.intern("sym" + (i & 7));
+        interner.resetCounters();
+        for (int i = 0; i < AdaptiveStringInterner.WINDOW; i++)
+            interner.intern("sym" + (i & 7));
+        assertEquals(AdaptiveStringInterner.WINDOW, interner.hits());
+        assertEquals(0, interner.bypasses());
+    }
+
+    @Test
+    public void perWire() {
+        for (WireType wireType : new WireType[]{WireType.TEXT, WireType.YAML, WireType.BINARY}) {
+            AdaptiveStringInterner interner = new AdaptiveStringInterner(64);
+            Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+            Wire wire = wireType.apply(bytes);
+            for (int i = 0; i < 4; i++)
+                wire.write("symbol").text("EURUSD");
+
+            ((AbstractWire) wire).setInterner(interner);
+            String first = wire.read("symbol").text();
+            for (int i = 1; i < 4; i++)
+                assertSame(wireType.toString(), first, wire.read("symbol").text());
+            assertTrue(wireType.toString(), interner.hits() >= 3);
+        }
+    }
+}
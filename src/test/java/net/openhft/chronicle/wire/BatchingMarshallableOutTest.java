@@ -0,0 +1,164 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BatchingMarshallableOutTest extends WireTestCommon {
+    @Test
+    public void binary() {
+        doTest(WireType.BINARY);
+    }
+
+    @Test
+    public void text() {
+        doTest(WireType.TEXT);
+    }
+
+    private void doTest(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire)
+                .maxMessages(4)
+                .maxBatchAge(1, TimeUnit.DAYS);
+        Batched writer = batch.methodWriter(Batched.class);
+        for (int i = 0; i < 10; i++)
+            writer.say("hello-" + i);
+        assertEquals(2, batch.pendingMessages());
+        batch.flush();
+        assertEquals(0, batch.pendingMessages());
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Batched) calls::add);
+        int documents = 0;
+        while (reader.readOne())
+            documents++;
+        assertEquals(3, documents);
+        assertEquals("[hello-0, hello-1, hello-2, hello-3, hello-4, hello-5, hello-6, hello-7, hello-8, hello-9]",
+                calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void maxBytes() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire)
+                .maxMessages(1000)
+                .maxBytes(40)
+                .maxBatchAge(1, TimeUnit.DAYS);
+        Batched writer = batch.methodWriter(Batched.class);
+        for (int i = 0; i < 4; i++)
+            writer.say("01234567890123456789");
+        // each message is 25 bytes so a batch is completed every second message.
+        assertEquals(0, batch.pendingMessages());
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Batched) calls::add);
+        int documents = 0;
+        while (reader.readOne())
+            documents++;
+        assertEquals(2, documents);
+        assertEquals(4, calls.size());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void explicitDocumentFlushesBatch() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire);
+        Batched writer = batch.methodWriter(Batched.class);
+        writer.say("one");
+        writer.say("two");
+        batch.writeMessage("say", "three");
+        writer.say("four");
+        batch.flush();
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Batched) calls::add);
+        int documents = 0;
+        while (reader.readOne())
+            documents++;
+        assertEquals(3, documents);
+        assertEquals("[one, two, three, four]", calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void idleWriterHoldsNoDocumentOpen() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire)
+                .maxBatchAge(1, TimeUnit.DAYS);
+        Batched writer = batch.methodWriter(Batched.class);
+        writer.say("one");
+        writer.say("two");
+        // the pending messages are only in the batch's buffer, not an incomplete document.
+        assertEquals(2, batch.pendingMessages());
+        assertEquals(0, wire.bytes().writePosition());
+        try (DocumentContext dc = wire.writingDocument()) {
+            dc.wire().write("say").text("other");
+        }
+
+        batch.flush();
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Batched) calls::add);
+        int documents = 0;
+        while (reader.readOne())
+            documents++;
+        assertEquals(2, documents);
+        assertEquals("[other, one, two]", calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void flushIfDue() throws InterruptedException {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire)
+                .maxBatchAge(100, TimeUnit.MILLISECONDS);
+        assertFalse(batch.flushIfDue());
+        Batched writer = batch.methodWriter(Batched.class);
+        writer.say("one");
+        assertFalse(batch.flushIfDue());
+        assertEquals(1, batch.pendingMessages());
+
+        // nothing else is called, the event loop flushes it
+        Thread.sleep(150);
+        assertTrue(batch.flushIfDue());
+        assertEquals(0, batch.pendingMessages());
+        assertTrue(wire.bytes().writePosition() > 0);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void closeFlushes() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        BatchingMarshallableOut batch = new BatchingMarshallableOut(wire)
+                .maxBatchAge(1, TimeUnit.DAYS);
+        Batched writer = batch.methodWriter(Batched.class);
+        writer.say("one");
+        writer.say("two");
+        batch.close();
+        batch.close();
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Batched) calls::add);
+        assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("[one, two]", calls.toString());
+        try {
+            writer.say("three");
+            fail();
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        wire.bytes().releaseLast();
+    }
+
+    interface Batched {
+        void say(String text);
+    }
+}
@@ -128,6 +128,10 @@ public class BinaryWire2Test extends WireTestCommon {
                 v -> v.bytes(new byte[257]),
                 v -> v.bytes(new byte[65540]),
                 v -> v.array(new long[4], 4),
+                v -> v.array(new int[3], 3),
+                v -> v.array(new short[5], 5),
+                v -> v.array(new float[2], 2),
+                v -> v.array(new double[4], 3),
                 v -> v.float64(0.01),
                 v -> v.float64(2.01),
                 v -> v.float64(1e-4),
@@ -149,7 +153,7 @@ public class BinaryWire2Test extends WireTestCommon {
                 v -> v.float64(Math.PI),
                 v -> v.uuid(UUID.randomUUID())
         );
-        Wire wire = createWire();
+        Wire wire = createWire().setUsePackedArrays(true);
         Wire wire2 = new TextWire(Bytes.allocateElasticOnHeap(32));
 
         for (Consumer<ValueOut> value : writeValue) {
@@ -0,0 +1,127 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinaryWireSchemaFingerprintTest extends WireTestCommon {
+
+    private static BinaryWire fingerprinted() {
+        BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap(128));
+        wire.setUseSchemaFingerprints(true);
+        return wire;
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.symbol = "EURUSD";
+        order.price = 1.1234;
+        order.quantity = 1_000_000;
+        order.fills = new ArrayList<>(Arrays.asList(new Fill(1.1233, 400_000), new Fill(1.1234, 600_000)));
+        return order;
+    }
+
+    @Test
+    public void matching() {
+        BinaryWire wire = fingerprinted();
+        Order order = order();
+        wire.getValueOut().marshallable(order);
+
+        // rename a field in place, which is only read when the names are not compared.
+        long pos = wire.bytes().indexOf(Bytes.from("price"));
+        assertTrue(pos > 0);
+        wire.bytes().writeUnsignedByte(pos + 3, 'x');
+        // and a field of a nested marshallable, which is covered by the same fingerprint.
+        long pos2 = wire.bytes().indexOf(Bytes.from("fillPrice"));
+        assertTrue(pos2 > 0);
+        wire.bytes().writeUnsignedByte(pos2 + 3, 'x');
+
+        Order order2 = wire.getValueIn().object(Order.class);
+        assertEquals(order, order2);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void onlyTheOutermostHasAFingerprint() {
+        BinaryWire wire = fingerprinted();
+        Order order = order();
+        wire.getValueOut().marshallable(order);
+
+        BinaryWire wire2 = new BinaryWire(Bytes.allocateElasticOnHeap(128));
+        wire2.getValueOut().marshallable(order);
+        // one code and an 8 byte fingerprint for the order, none for its fills.
+        assertEquals(wire2.bytes().readRemaining() + 9, wire.bytes().readRemaining());
+
+        wire.bytes().releaseLast();
+        wire2.bytes().releaseLast();
+    }
+
+    @Test
+    public void mismatched() {
+        BinaryWire wire = fingerprinted();
+        Order order = order();
+        wire.getValueOut().marshallable(order);
+
+        OrderV2 order2 = wire.getValueIn().object(OrderV2.class);
+        assertEquals(order.quantity, order2.quantity);
+        assertEquals(order.price, order2.price, 0.0);
+        assertEquals(order.symbol, order2.symbol);
+        assertEquals("none", order2.note);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readWithoutFingerprints() {
+        BinaryWire wire = fingerprinted();
+        Order order = order();
+        wire.getValueOut().marshallable(order);
+
+        BinaryWire wire2 = new BinaryWire(wire.bytes());
+        assertEquals(order, wire2.getValueIn().object(Order.class));
+
+        // and the same text with or without fingerprints
+        wire.bytes().readPosition(0);
+        Bytes<?> text = Bytes.allocateElasticOnHeap();
+        wire.copyTo(new TextWire(text));
+
+        BinaryWire wire3 = new BinaryWire(Bytes.allocateElasticOnHeap());
+        wire3.getValueOut().marshallable(order);
+        assertTrue(wire3.bytes().readRemaining() < wire.bytes().readRemaining());
+        Bytes<?> text3 = Bytes.allocateElasticOnHeap();
+        wire3.copyTo(new TextWire(text3));
+        assertEquals(text3.toString(), text.toString());
+
+        wire.bytes().releaseLast();
+        wire3.bytes().releaseLast();
+    }
+
+    static class Order extends SelfDescribingMarshallable {
+        String symbol;
+        double price;
+        long quantity;
+        List<Fill> fills;
+    }
+
+    // the fields in a different order with one more.
+    static class OrderV2 extends SelfDescribingMarshallable {
+        long quantity;
+        double price;
+        String symbol;
+        String note = "none";
+    }
+
+    static class Fill extends SelfDescribingMarshallable {
+        double fillPrice;
+        long fillQuantity;
+
+        Fill(double fillPrice, long fillQuantity) {
+            this.fillPrice = fillPrice;
+            this.fillQuantity = fillQuantity;
+        }
+    }
+}
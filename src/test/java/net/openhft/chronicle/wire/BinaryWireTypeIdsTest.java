@@ -0,0 +1,182 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BinaryWireTypeIdsTest extends WireTestCommon {
+    private static BinaryWire writeEvents(boolean useTypeIds) {
+        BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap(256));
+        wire.setUseTypeIds(useTypeIds);
+        for (int i = 0; i < 10; i++) {
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().write("event").object(i % 2 == 0 ? new Price("EURUSD", i) : new Trade(i, 100 + i));
+                dc.wire().write("other").object(new Price("GBPUSD", -i));
+            }
+        }
+        return wire;
+    }
+
+    @Test
+    public void roundTrip() {
+        BinaryWire plain = writeEvents(false);
+        BinaryWire ids = writeEvents(true);
+        assertTrue(ids.bytes().readRemaining() < plain.bytes().readRemaining());
+
+        List<Object> expected = readAll(plain);
+        List<Object> actual = readAll(ids);
+        assertEquals(20, actual.size());
+        assertEquals(expected, actual);
+
+        plain.bytes().releaseLast();
+        ids.bytes().releaseLast();
+    }
+
+    @Test
+    public void copyToText() {
+        BinaryWire plain = writeEvents(false);
+        BinaryWire ids = writeEvents(true);
+        String expected = asText(plain);
+        assertTrue(expected, expected.contains("Trade"));
+        assertEquals(expected, asText(ids));
+
+        plain.bytes().releaseLast();
+        ids.bytes().releaseLast();
+    }
+
+    @Test
+    public void skippingADefinitionStillDefinesIt() {
+        BinaryWire ids = writeEvents(true);
+        try (DocumentContext dc = ids.readingDocument()) {
+            assertTrue(dc.isPresent());
+            // skip the values which define the ids.
+            dc.wire().read("event").skipValue();
+            dc.wire().read("other").skipValue();
+        }
+        try (DocumentContext dc = ids.readingDocument()) {
+            assertEquals(new Trade(1, 101), dc.wire().read("event").object());
+            assertEquals(new Price("GBPUSD", -1), dc.wire().read("other").object());
+        }
+        ids.bytes().releaseLast();
+    }
+
+    @Test
+    public void eachDocumentDefinesItsIds() {
+        BinaryWire ids = writeEvents(true);
+        BinaryWire reader = new BinaryWire(ids.bytes());
+        // skip the first document, the second defines the ids it uses.
+        try (DocumentContext dc = reader.readingDocument()) {
+            assertTrue(dc.isPresent());
+        }
+        try (DocumentContext dc = reader.readingDocument()) {
+            assertEquals(new Trade(1, 101), dc.wire().read("event").object());
+            assertEquals(new Price("GBPUSD", -1), dc.wire().read("other").object());
+        } finally {
+            ids.bytes().releaseLast();
+        }
+    }
+
+    @Test
+    public void truncatedDefinitionIsWrittenAgain() {
+        BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap(256));
+        wire.setUseTypeIds(true);
+        try (DocumentContext dc = wire.writingDocument()) {
+            long position = dc.wire().bytes().writePosition();
+            dc.wire().write("event").object(new Price("EURUSD", 1));
+            // as a rollback of this message would.
+            dc.wire().bytes().writePosition(position);
+            dc.wire().write("event").object(new Price("EURUSD", 2));
+            dc.wire().write("other").object(new Price("EURUSD", 3));
+        }
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertEquals(new Price("EURUSD", 2), dc.wire().read("event").object());
+            assertEquals(new Price("EURUSD", 3), dc.wire().read("other").object());
+        }
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void arraysKeepTheirTypePrefix() {
+        Price[] prices = {new Price("EURUSD", 1), new Price("GBPUSD", 2)};
+        String[] names = {"one", "two"};
+        BinaryWire plain = new BinaryWire(Bytes.allocateElasticOnHeap(256));
+        BinaryWire ids = new BinaryWire(Bytes.allocateElasticOnHeap(256));
+        ids.setUseTypeIds(true);
+        for (BinaryWire wire : new BinaryWire[]{plain, ids}) {
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().write("prices").object(prices);
+                dc.wire().write("names").array(v -> Stream.of(names).forEach(v::text), String[].class);
+            }
+        }
+        // array type prefixes are read back by name, so they are written the same with or without ids.
+        assertEquals(plain.bytes().toHexString(), ids.bytes().toHexString());
+        plain.bytes().releaseLast();
+        ids.bytes().releaseLast();
+    }
+
+    @Test(expected = IORuntimeException.class)
+    public void undefinedId() {
+        BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap(256));
+        wire.write("event");
+        wire.bytes().writeUnsignedByte(BinaryWireCode.TYPE_ID).writeStopBit(5);
+        wire.getValueOut().marshallable(w -> w.write("qty").int32(1));
+        try {
+            wire.read("event").object();
+        } finally {
+            wire.bytes().releaseLast();
+        }
+    }
+
+    private static String asText(Wire wire) {
+        Wire text = WireType.TEXT.apply(Bytes.allocateElasticOnHeap(256));
+        while (true) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                dc.wire().copyTo(text);
+            }
+        }
+        String s = text.toString();
+        text.bytes().releaseLast();
+        return s;
+    }
+
+    private static List<Object> readAll(Wire wire) {
+        List<Object> objects = new ArrayList<>();
+        while (true) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                objects.add(dc.wire().read("event").object());
+                objects.add(dc.wire().read("other").object());
+            }
+        }
+        return objects;
+    }
+
+    static class Price extends SelfDescribingMarshallable {
+        String symbol;
+        double price;
+
+        Price(String symbol, double price) {
+            this.symbol = symbol;
+            this.price = price;
+        }
+    }
+
+    static class Trade extends SelfDescribingMarshallable {
+        long id;
+        int qty;
+
+        Trade(long id, int qty) {
+            this.id = id;
+            this.qty = qty;
+        }
+    }
+}
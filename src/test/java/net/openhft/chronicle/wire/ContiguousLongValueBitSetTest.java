@@ -0,0 +1,97 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.Closeable;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ContiguousLongValueBitSetTest extends WireTestCommon {
+    @Test
+    public void matchesBitSet() {
+        Bytes<?> b = Bytes.allocateElasticDirect();
+        try {
+            Wire w = WireType.BINARY.apply(b);
+            w.usePadding(true);
+
+            int size = 1000;
+            ContiguousLongValueBitSet actual = new ContiguousLongValueBitSet(size, w);
+            BitSet expected = new BitSet();
+            Random random = new Random(1);
+            for (int i = 0; i < 2000; i++) {
+                int from = random.nextInt(size);
+                int to = from + random.nextInt(Math.min(200, size - from + 1));
+                switch (random.nextInt(6)) {
+                    case 0:
+                        actual.set(from);
+                        expected.set(from);
+                        break;
+                    case 1:
+                        actual.clear(from);
+                        expected.clear(from);
+                        break;
+                    case 2:
+                        actual.set(from, to);
+                        expected.set(from, to);
+                        break;
+                    case 3:
+                        actual.clear(from, to);
+                        expected.clear(from, to);
+                        break;
+                    case 4:
+                        actual.flip(from, to);
+                        expected.flip(from, to);
+                        break;
+                    default:
+                        assertEquals(expected.get(from), actual.get(from));
+                        assertEquals(expected.nextSetBit(from), actual.nextSetBit(from));
+                        assertEquals(expected.nextClearBit(from), actual.nextClearBit(from));
+                        assertEquals(expected.previousSetBit(from), actual.previousSetBit(from));
+                        assertEquals(expected.previousClearBit(from), actual.previousClearBit(from));
+                        break;
+                }
+                assertEquals(expected.cardinality(), actual.cardinality());
+            }
+            assertEquals(expected.length(), actual.length());
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+            assertEquals(expected.toString(), actual.toString());
+
+            Closeable.closeQuietly(actual);
+        } finally {
+            b.releaseLast();
+        }
+    }
+
+    @Test
+    public void sameWireFormatAsLongValueBitSet() {
+        Bytes<?> b = Bytes.allocateElasticDirect();
+        try {
+            Wire w = WireType.BINARY.apply(b);
+            w.usePadding(true);
+
+            LongValueBitSet bitSet = new LongValueBitSet(512, w);
+            bitSet.set(1);
+            bitSet.set(63);
+            bitSet.set(64);
+            bitSet.set(500);
+
+            b.readPosition(0);
+            ContiguousLongValueBitSet contiguous = new ContiguousLongValueBitSet(0);
+            contiguous.readMarshallable(w);
+            assertEquals(512 / 64 + 1, contiguous.size() / 64);
+            assertEquals("{1, 63, 64, 500}", contiguous.toString());
+
+            // changes are visible to both as they share the memory
+            contiguous.set(2, 5);
+            contiguous.clear(500);
+            assertEquals("{1, 2, 3, 4, 63, 64}", bitSet.toString());
+
+            Closeable.closeQuietly(contiguous, bitSet);
+        } finally {
+            b.releaseLast();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DeltaWireTest extends WireTestCommon {
+    private static Snapshot snapshot(int i) {
+        Snapshot s = new Snapshot();
+        s.symbol = "EURUSD";
+        s.time = 1_600_000_000_000_000L + i * 10;
+        s.bid = (11234 + i % 5) / 1e4;
+        s.ask = (11236 + i % 5) / 1e4;
+        s.bidQty = 1_000_000 + (i % 3) * 100;
+        s.askQty = 2_000_000;
+        s.best.price = s.bid;
+        s.best.qty = s.bidQty;
+        return s;
+    }
+
+    private static void write(Wire wire, Snapshot s) {
+        try (DocumentContext dc = wire.writingDocument()) {
+            dc.wire().write("snapshot").marshallable(s);
+        }
+    }
+
+    @Test
+    public void roundTrip() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        Wire writer = WireType.DELTA_BINARY.apply(bytes);
+        Wire reader = WireType.DELTA_BINARY.apply(bytes);
+        assertTrue(writer instanceof DeltaWire);
+
+        Snapshot s = new Snapshot();
+        Snapshot using = new Snapshot();
+        for (int i = 0; i < 100; i++) {
+            // the same instance is changed in place as a publisher would.
+            s.copyFrom(snapshot(i));
+            write(writer, s);
+            try (DocumentContext dc = reader.readingDocument()) {
+                assertTrue(dc.isPresent());
+                dc.wire().read("snapshot").marshallable(using);
+            }
+            assertEquals(s, using);
+        }
+    }
+
+    @Test
+    public void smallerThanBinary() {
+        Bytes<?> deltaBytes = Bytes.allocateElasticOnHeap();
+        Bytes<?> binaryBytes = Bytes.allocateElasticOnHeap();
+        Wire delta = WireType.DELTA_BINARY.apply(deltaBytes);
+        Wire binary = WireType.BINARY.apply(binaryBytes);
+        for (int i = 0; i < 100; i++) {
+            write(delta, snapshot(i));
+            write(binary, snapshot(i));
+        }
+        assertTrue(deltaBytes.readRemaining() + " vs " + binaryBytes.readRemaining(),
+                deltaBytes.readRemaining() < binaryBytes.readRemaining());
+
+        Wire reader = new BinaryWire(deltaBytes, false, false, false, Integer.MAX_VALUE, "binary", true);
+        for (int i = 0; i < 100; i++) {
+            try (DocumentContext dc = reader.readingDocument()) {
+                assertEquals(snapshot(i), dc.wire().read("snapshot").object(Snapshot.class));
+            }
+        }
+    }
+
+    @Test
+    public void clearResetsState() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        Wire writer = new DeltaWire(bytes);
+        write(writer, snapshot(0));
+        long first = bytes.readRemaining();
+        write(writer, snapshot(1));
+        assertTrue(bytes.readRemaining() - first < first);
+
+        Bytes<?> bytes2 = Bytes.allocateElasticOnHeap();
+        write(new DeltaWire(bytes2), snapshot(1));
+        writer.clear();
+        write(writer, snapshot(1));
+        assertEquals(bytes2.toHexString(), bytes.toHexString());
+
+        Wire reader = new DeltaWire(bytes);
+        try (DocumentContext dc = reader.readingDocument()) {
+            assertEquals(snapshot(1), dc.wire().read("snapshot").object(Snapshot.class));
+        }
+    }
+
+    static class Level extends SelfDescribingMarshallable {
+        double price;
+        long qty;
+    }
+
+    static class Snapshot extends SelfDescribingMarshallable {
+        String symbol;
+        long time;
+        double bid, ask;
+        int bidQty, askQty;
+        Level best = new Level();
+
+        void copyFrom(Snapshot s) {
+            symbol = s.symbol;
+            time = s.time;
+            bid = s.bid;
+            ask = s.ask;
+            bidQty = s.bidQty;
+            askQty = s.askQty;
+            best.price = s.best.price;
+            best.qty = s.best.qty;
+        }
+    }
+}
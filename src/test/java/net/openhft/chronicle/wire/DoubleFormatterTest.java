@@ -0,0 +1,168 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleFormatterTest extends WireTestCommon {
+    private final Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+
+    @After
+    public void release() {
+        bytes.releaseLast();
+    }
+
+    private String format(double d, boolean plain) {
+        bytes.clear();
+        DoubleFormatter.appendDouble(bytes, d, plain);
+        return bytes.toString();
+    }
+
+    private String format(float f, boolean plain) {
+        bytes.clear();
+        DoubleFormatter.appendFloat(bytes, f, plain);
+        return bytes.toString();
+    }
+
+    private static int significantDigits(String s) {
+        return new BigDecimal(s).stripTrailingZeros().precision();
+    }
+
+    @Test
+    public void layout() {
+        assertEquals("0.0", format(0.0, false));
+        assertEquals("-0.0", format(-0.0, false));
+        assertEquals("1.0", format(1.0, false));
+        assertEquals("0.30000000000000004", format(0.1 + 0.2, false));
+        assertEquals("0.001", format(1e-3, false));
+        assertEquals("9.99E-4", format(9.99e-4, false));
+        assertEquals("1.0E7", format(1e7, false));
+        assertEquals("2.68804E7", format(26880400.0, false));
+        assertEquals("26880400.0", format(26880400.0, true));
+        assertEquals("0.00001", format(1e-5, true));
+        assertEquals("4.9E-324", format(Double.MIN_VALUE, false));
+        assertEquals("1.7976931348623157E308", format(Double.MAX_VALUE, false));
+        assertEquals("NaN", format(Double.NaN, false));
+        assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY, false));
+        // Float.toString before Java 19 writes 1.00000003E10
+        assertEquals("1.0E10", format(1e10f, false));
+        assertEquals("1.1", format(1.1f, true));
+        assertEquals("1.4E-45", format(Float.MIN_VALUE, false));
+    }
+
+    @Test
+    public void doublesRoundTrip() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isFinite(d))
+                continue;
+            String s = format(d, false);
+            assertEquals(s, d, Double.parseDouble(s), 0.0);
+            assertTrue(s, significantDigits(s) <= significantDigits(Double.toString(d)));
+            String plain = format(d, true);
+            assertEquals(plain, d, Double.parseDouble(plain), 0.0);
+        }
+    }
+
+    @Test
+    public void floatsRoundTrip() {
+        Random random = new Random(2);
+        for (int i = 0; i < 1_000_000; i++) {
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (!Float.isFinite(f))
+                continue;
+            String s = format(f, false);
+            assertEquals(s, f, Float.parseFloat(s), 0.0f);
+            assertTrue(s, significantDigits(s) <= significantDigits(Float.toString(f)));
+            String plain = format(f, true);
+            assertEquals(plain, f, Float.parseFloat(plain), 0.0f);
+        }
+    }
+
+    @Test
+    public void wiresRoundTrip() {
+        Random random = new Random(3);
+        for (WireType wireType : new WireType[]{WireType.TEXT, WireType.YAML, WireType.JSON}) {
+            Bytes<?> wireBytes = Bytes.allocateElasticOnHeap();
+            try {
+                Wire wire = wireType.apply(wireBytes);
+                double[] doubles = new double[1000];
+                float[] floats = new float[doubles.length];
+                for (int i = 0; i < doubles.length; i++) {
+                    do {
+                        doubles[i] = Double.longBitsToDouble(random.nextLong());
+                        floats[i] = Float.intBitsToFloat(random.nextInt());
+                    } while (!Double.isFinite(doubles[i]) || !Float.isFinite(floats[i]));
+                    wire.write("d").float64(doubles[i]);
+                    wire.write("f").float32(floats[i]);
+                }
+                for (int i = 0; i < doubles.length; i++) {
+                    assertEquals(wireType + " " + wireBytes, doubles[i], wire.read("d").float64(), 0.0);
+                    assertEquals(wireType + " " + wireBytes, floats[i], wire.read("f").float32(), 0.0f);
+                }
+            } finally {
+                wireBytes.releaseLast();
+            }
+        }
+    }
+
+    @Test
+    public void overriddenToStringIsUsed() {
+        Bytes<?> wireBytes = Bytes.allocateElasticOnHeap();
+        try {
+            Wire text = new TextWire(wireBytes) {
+                @Override
+                protected TextValueOut createValueOut() {
+                    return new TextValueOut() {
+                        @Override
+                        protected String doubleToString(double d) {
+                            return "d" + d;
+                        }
+
+                        @Override
+                        protected String floatToString(float f) {
+                            return "f" + f;
+                        }
+                    };
+                }
+            };
+            writeLargeAndSmall(text);
+            assertEquals("a: 1.5\nb: d1.0E20\nc: f1.0E10\nd: dNaN\n", wireBytes.toString());
+
+            wireBytes.clear();
+            Wire yaml = new YamlWire(wireBytes) {
+                @Override
+                protected TextValueOut createValueOut() {
+                    return new TextValueOut() {
+                        @Override
+                        protected String doubleToString(double d) {
+                            return "d" + d;
+                        }
+
+                        @Override
+                        protected String floatToString(float f) {
+                            return "f" + f;
+                        }
+                    };
+                }
+            };
+            writeLargeAndSmall(yaml);
+            assertEquals("a: 1.5\nb: d1.0E20\nc: f1.0E10\nd: dNaN\n", wireBytes.toString());
+        } finally {
+            wireBytes.releaseLast();
+        }
+    }
+
+    private static void writeLargeAndSmall(Wire wire) {
+        wire.write("a").float64(1.5)
+                .write("b").float64(1e20)
+                .write("c").float32(1e10f)
+                .write("d").float64(Double.NaN);
+    }
+}
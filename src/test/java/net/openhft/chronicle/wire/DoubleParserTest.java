@@ -0,0 +1,105 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleParserTest extends WireTestCommon {
+    private final Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+
+    @After
+    public void release() {
+        bytes.releaseLast();
+    }
+
+    private double parseDouble(String s) {
+        bytes.clear().append(s);
+        return DoubleParser.parseDouble(bytes);
+    }
+
+    private float parseFloat(String s) {
+        bytes.clear().append(s);
+        return DoubleParser.parseFloat(bytes);
+    }
+
+    private void assertParses(String s) {
+        assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)), Double.doubleToRawLongBits(parseDouble(s)));
+        assertEquals(s, Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(parseFloat(s)));
+    }
+
+    @Test
+    public void edgeCases() {
+        for (String s : new String[]{
+                "0", "-0", "0.0", "1", "-1.5", ".5", "5.", "0.1", "1e23", "1E-5", "1e+5", "123.456e-2",
+                "9007199254740993", "9007199254740995", "18446744073709551615", "9999999999999999999",
+                "2.2250738585072011e-308", "2.2250738585072012e-308", "4.9e-324", "2.4703282292062327e-324",
+                "2.4703282292062328e-324", "1.7976931348623157e308", "1.7976931348623159e308", "1e309", "1e-400",
+                "3.4028235e38", "3.4028236e38", "1.4e-45", "7.0e-46", "16777217", "8.589973e9",
+                "0.30000000000000004", "123456789012345678901234567890", "0.000000000000000000000000000001"})
+            assertParses(s);
+    }
+
+    @Test
+    public void randomBitPatterns() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(d))
+                assertParses(Double.toString(d));
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (Float.isFinite(f))
+                assertParses(Float.toString(f));
+        }
+    }
+
+    @Test
+    public void randomDecimals() {
+        Random random = new Random(2);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1_000_000; i++) {
+            sb.setLength(0);
+            if (random.nextBoolean())
+                sb.append('-');
+            int digits = 1 + random.nextInt(19);
+            for (int j = 0; j < digits; j++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+                if (j == 0 && random.nextInt(3) == 0)
+                    sb.append('.');
+            }
+            if (random.nextBoolean())
+                sb.append('e').append(random.nextInt(700) - 350);
+            assertParses(sb.toString());
+        }
+    }
+
+    @Test
+    public void consumesTheSeparator() {
+        bytes.clear().append("1.5, 2.5}");
+        assertEquals(1.5, DoubleParser.parseDouble(bytes), 0.0);
+        assertEquals(4, bytes.readPosition());
+        bytes.readSkip(1);
+        assertEquals(2.5, DoubleParser.parseDouble(bytes), 0.0);
+        assertEquals(9, bytes.readPosition());
+        assertEquals(0, bytes.readRemaining());
+
+        bytes.clear().append("2.5");
+        assertEquals(2.5, DoubleParser.parseDouble(bytes), 0.0);
+        assertEquals(3, bytes.readPosition());
+    }
+
+    @Test
+    public void otherFormsUseParseDouble() {
+        bytes.clear().append("NaN");
+        assertTrue(Double.isNaN(DoubleParser.parseDouble(bytes)));
+        bytes.clear().append("-Infinity");
+        assertEquals(Double.NEGATIVE_INFINITY, DoubleParser.parseDouble(bytes), 0.0);
+
+        bytes.clear().append("x1.5");
+        assertEquals(Double.NaN, DoubleParser.parseDouble(bytes, 0, 4), 0.0);
+        assertEquals(1.5, DoubleParser.parseDouble(bytes, 1, 4), 0.0);
+    }
+}
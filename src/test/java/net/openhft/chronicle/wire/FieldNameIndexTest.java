@@ -0,0 +1,79 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldNameIndexTest extends WireTestCommon {
+    @Test
+    public void getFromCharSequenceAndBytes() {
+        for (int n : new int[]{1, 5, 20, 80}) {
+            String[] names = new String[n];
+            Integer[] values = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                names[i] = "field" + i;
+                values[i] = i;
+            }
+            FieldNameIndex<Integer> index = new FieldNameIndex<>(names, values);
+            Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+            for (int i = 0; i < n; i++) {
+                assertEquals(values[i], index.get(names[i]));
+                assertEquals(values[i], index.get(new StringBuilder(names[i])));
+
+                bytes.clear();
+                bytes.append("xx").append(names[i]).append("yy");
+                assertEquals(values[i], index.get(bytes, 2, names[i].length()));
+            }
+            assertNull(index.get("field"));
+            assertNull(index.get("unknown"));
+            assertNull(index.get(""));
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void charsAbove0xFF() {
+        // the same low 8 bits as "fielda" and "fieldb"
+        String[] names = {"fielda", "field\u0161", "fieldb", "field\u0162", "\u4e2d\u6587"};
+        Integer[] values = {0, 1, 2, 3, 4};
+        FieldNameIndex<Integer> index = new FieldNameIndex<>(names, values);
+        assertTrue(index.isPerfect());
+        for (int i = 0; i < names.length; i++)
+            assertEquals(values[i], index.get(new StringBuilder(names[i])));
+        assertNull(index.get("field\u0261"));
+
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        bytes.append("fielda");
+        assertEquals(values[0], index.get(bytes, 0, 6));
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void outOfOrderBinary() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        BinaryWire wire = new BinaryWire(bytes).setHintReadInputOrder(true);
+        wire.write("d").text("dee")
+                .write("unknown").int32(99)
+                .write("c").float64(1.5)
+                .write("a_very_long_field_name_of_more_than_32_chars").int64(123456789L)
+                .write("b").int32(2);
+
+        Fields fields = new Fields();
+        fields.readMarshallable(wire);
+        assertEquals("!net.openhft.chronicle.wire.FieldNameIndexTest$Fields {\n" +
+                "  b: 2,\n" +
+                "  c: 1.5,\n" +
+                "  d: dee,\n" +
+                "  a_very_long_field_name_of_more_than_32_chars: 123456789\n" +
+                "}\n", fields.toString());
+        bytes.releaseLast();
+    }
+
+    static class Fields extends SelfDescribingMarshallable {
+        int b;
+        double c;
+        String d;
+        long a_very_long_field_name_of_more_than_32_chars;
+    }
+}
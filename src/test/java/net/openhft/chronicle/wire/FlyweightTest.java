@@ -0,0 +1,103 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlyweightTest extends WireTestCommon {
+    @Test
+    public void binary() {
+        doTest(WireType.BINARY);
+    }
+
+    @Test
+    public void binaryLight() {
+        doTest(WireType.BINARY_LIGHT);
+    }
+
+    @Test
+    public void text() {
+        doTest(WireType.TEXT);
+    }
+
+    private void doTest(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Quote quote = new Quote();
+        quote.symbol = "EURUSD";
+        quote.bidPrice = 1.1233;
+        quote.askPrice = 1.1234;
+        quote.quantity = 1_000_000;
+        quote.timestamp = 1_600_000_000_123L;
+        quote.firm = true;
+        quote.venue = new Venue("LMAX", 3);
+        try (DocumentContext dc = wire.writingDocument()) {
+            quote.writeMarshallable(dc.wire());
+        }
+        quote.askPrice = 1.1236;
+        try (DocumentContext dc = wire.writingDocument()) {
+            quote.writeMarshallable(dc.wire());
+        }
+
+        QuoteView view = Flyweight.of(QuoteView.class);
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertSame(view, view.bind(dc.wire()));
+            assertEquals(1.1234, view.askPrice(), 0.0);
+            assertEquals(1_600_000_000_123L, view.timestamp());
+            assertEquals("EURUSD", view.symbol());
+            assertTrue(view.firm());
+            assertEquals(new Venue("LMAX", 3), view.venue());
+            // read again in a different order
+            assertEquals(1.1234, view.askPrice(), 0.0);
+            assertEquals(0, view.notWritten());
+        }
+        try (DocumentContext dc = wire.readingDocument()) {
+            view.bind(dc.wire());
+            assertEquals(1.1236, view.askPrice(), 0.0);
+        }
+        wire.bytes().releaseLast();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notGetters() {
+        Flyweight.of(NotAView.class);
+    }
+
+    interface QuoteView extends Flyweight {
+        double askPrice();
+
+        long timestamp();
+
+        String symbol();
+
+        boolean firm();
+
+        Venue venue();
+
+        int notWritten();
+    }
+
+    interface NotAView extends Flyweight {
+        void askPrice(double askPrice);
+    }
+
+    static class Quote extends SelfDescribingMarshallable {
+        String symbol;
+        double bidPrice;
+        double askPrice;
+        long quantity;
+        long timestamp;
+        boolean firm;
+        Venue venue;
+    }
+
+    static class Venue extends SelfDescribingMarshallable {
+        String name;
+        int id;
+
+        Venue(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+}
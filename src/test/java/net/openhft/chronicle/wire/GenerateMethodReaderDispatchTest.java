@@ -0,0 +1,158 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodId;
+import net.openhft.chronicle.bytes.MethodReader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GenerateMethodReaderDispatchTest extends WireTestCommon {
+    @Test
+    public void binary() {
+        doTest(WireType.BINARY);
+    }
+
+    @Test
+    public void text() {
+        doTest(WireType.TEXT);
+    }
+
+    @Test
+    public void yaml() {
+        doTest(WireType.YAML);
+    }
+
+    private void doTest(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Dispatched writer = wire.methodWriter(Dispatched.class);
+        writer.one("a");
+        writer.two(2);
+        writer.aMethodWithAVeryLongNameOfMoreThan32Characters(3L);
+        writer.byId(4);
+        writer.none();
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader(new Dispatched() {
+            @Override
+            public void one(String s) {
+                calls.add("one " + s);
+            }
+
+            @Override
+            public void two(int i) {
+                calls.add("two " + i);
+            }
+
+            @Override
+            public void aMethodWithAVeryLongNameOfMoreThan32Characters(long l) {
+                calls.add("long " + l);
+            }
+
+            @Override
+            public void byId(int i) {
+                calls.add("byId " + i);
+            }
+
+            @Override
+            public void none() {
+                calls.add("none");
+            }
+        });
+        assertTrue(reader instanceof AbstractGeneratedMethodReader);
+        for (int i = 0; i < 5; i++)
+            assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("[one a, two 2, long 3, byId 4, none]", calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void unknownEventBinary() {
+        doTestUnknownEvent(WireType.BINARY);
+    }
+
+    @Test
+    public void unknownEventText() {
+        doTestUnknownEvent(WireType.TEXT);
+    }
+
+    private void doTestUnknownEvent(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Unknown unknown = wire.methodWriter(Unknown.class);
+        unknown.unknown(1);
+        unknown.anUnknownMethodWithANameOfMoreThan32Characters(2);
+        wire.methodWriter(Dispatched.class).one("b");
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader(new Dispatched() {
+            @Override
+            public void one(String s) {
+                calls.add("one " + s);
+            }
+
+            @Override
+            public void two(int i) {
+            }
+
+            @Override
+            public void aMethodWithAVeryLongNameOfMoreThan32Characters(long l) {
+            }
+
+            @Override
+            public void byId(int i) {
+            }
+
+            @Override
+            public void none() {
+            }
+        });
+        for (int i = 0; i < 3; i++)
+            assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("[one b]", calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readFieldFillsTheNameOnAMiss() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap(256));
+        wire.write("unknown").int32(1);
+        wire.write("anUnknownFieldWithANameOfMoreThan32Characters").int32(2);
+        wire.write("two").int32(3);
+
+        FieldNameIndex<Integer> index = AbstractGeneratedMethodReader.methodNameIndex("one", "two");
+        StringBuilder name = new StringBuilder();
+        assertNull(wire.readField(index, name));
+        assertEquals("unknown", name.toString());
+        assertEquals(1, wire.getValueIn().int32());
+        assertNull(wire.readField(index, name));
+        assertEquals("anUnknownFieldWithANameOfMoreThan32Characters", name.toString());
+        assertEquals(2, wire.getValueIn().int32());
+        assertEquals(Integer.valueOf(1), wire.readField(index, name));
+        assertEquals(3, wire.getValueIn().int32());
+        wire.bytes().releaseLast();
+    }
+
+    interface Unknown {
+        void unknown(int i);
+
+        void anUnknownMethodWithANameOfMoreThan32Characters(int i);
+    }
+
+    interface Dispatched {
+        void one(String s);
+
+        void two(int i);
+
+        void aMethodWithAVeryLongNameOfMoreThan32Characters(long l);
+
+        @MethodId(7)
+        void byId(int i);
+
+        void none();
+    }
+}
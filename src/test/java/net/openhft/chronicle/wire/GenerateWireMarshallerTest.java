@@ -0,0 +1,103 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GenerateWireMarshallerTest extends WireTestCommon {
+    @Test
+    public void binary() {
+        doTest(WireType.BINARY);
+    }
+
+    @Test
+    public void text() {
+        doTest(WireType.TEXT);
+    }
+
+    @Test
+    public void yaml() {
+        doTest(WireType.YAML);
+    }
+
+    @Test
+    public void privateClassIsNotGenerated() {
+        WireMarshaller<Hidden> template = WireMarshaller.of(Hidden.class);
+        assertSame(template, GenerateWireMarshaller.generate(Hidden.class, template));
+    }
+
+    private void doTest(WireType wireType) {
+        WireMarshaller<GeneratedDTO> reflective = WireMarshaller.of(GeneratedDTO.class);
+        WireMarshaller<GeneratedDTO> generated = GenerateWireMarshaller.generate(GeneratedDTO.class, reflective);
+        assertNotSame(reflective, generated);
+        assertTrue(generated.getClass().getName().endsWith("$$Marshaller"));
+
+        GeneratedDTO dto = new GeneratedDTO();
+        dto.flag = true;
+        dto.b = -1;
+        dto.s = 1234;
+        dto.i = 123456;
+        dto.l = 1234567890123L;
+        dto.f = 1.5f;
+        dto.d = 0.1;
+        dto.text = "hello world";
+        dto.ch = 'X';
+        dto.list.add("one");
+        dto.list.add("two");
+        dto.nested = new GeneratedDTO.Nested();
+        dto.nested.id = 42;
+
+        Wire expected = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        reflective.writeMarshallable(dto, expected);
+        Wire actual = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        generated.writeMarshallable(dto, actual);
+        assertEquals(expected.bytes().toHexString(), actual.bytes().toHexString());
+
+        GeneratedDTO dto2 = new GeneratedDTO();
+        generated.readMarshallableDTOOrder(dto2, actual, generated.defaultValue(), true);
+        assertEquals(dto, dto2);
+
+        // missing fields are handled as the reflective marshaller does.
+        Wire partial = wireType.apply(Bytes.allocateElasticOnHeap(64));
+        partial.write("i").int32(7);
+        GeneratedDTO fromReflective = new GeneratedDTO();
+        fromReflective.text = "old";
+        reflective.readMarshallableDTOOrder(fromReflective, partial, reflective.defaultValue(), true);
+        partial.bytes().readPosition(0);
+        GeneratedDTO fromGenerated = new GeneratedDTO();
+        fromGenerated.text = "old";
+        generated.readMarshallableDTOOrder(fromGenerated, partial, generated.defaultValue(), true);
+        assertEquals(7, fromGenerated.i);
+        assertEquals(fromReflective, fromGenerated);
+
+        expected.bytes().releaseLast();
+        actual.bytes().releaseLast();
+        partial.bytes().releaseLast();
+    }
+
+    public static class GeneratedDTO extends SelfDescribingMarshallable {
+        boolean flag;
+        byte b;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        String text;
+        char ch;
+        List<String> list = new ArrayList<>();
+        Nested nested;
+
+        static class Nested extends SelfDescribingMarshallable {
+            int id;
+        }
+    }
+
+    private static class Hidden extends SelfDescribingMarshallable {
+        int value;
+    }
+}
@@ -0,0 +1,113 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class JSONStructuralIndexTest extends WireTestCommon {
+    static final String DOC = "{\"id\":1, \"name\":\"with {brackets} and [more] in a \\\"string\\\"\",\n" +
+            "  \"list\":[1, [2, 3], {\"a\":\"}\"}, []],\n" +
+            "  \"map\":{\"x\":{\"y\":{\"z\":\"\\\\\"}}, \"empty\":{}}\n" +
+            "}";
+
+    @Test
+    public void closeFor() {
+        Bytes<?> bytes = Bytes.from(DOC);
+        JSONStructuralIndex index = new JSONStructuralIndex();
+        // the outermost first, then each nested one from the index
+        assertEquals(DOC.length() - 1, index.closeFor(bytes, 0));
+        int list = DOC.indexOf("[1,");
+        assertEquals(DOC.indexOf("]],") + 1, index.closeFor(bytes, list));
+        assertEquals(DOC.indexOf("3]") + 1, index.closeFor(bytes, DOC.indexOf("[2")));
+        assertEquals(DOC.indexOf("[]") + 1, index.closeFor(bytes, DOC.indexOf("[]")));
+        int map = DOC.indexOf("{\"x\"");
+        assertEquals(DOC.lastIndexOf("}") - 2, index.closeFor(bytes, map));
+        assertEquals(DOC.indexOf("{}") + 1, index.closeFor(bytes, DOC.indexOf("{}")));
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void notIndexed() {
+        for (String s : new String[]{
+                "{\"a\":1 # comment }\n}",
+                "{'a':1}",
+                "{\"a\":[1}",
+                "{\"a\":1",
+                "{\"a\"b\":1}"}) {
+            Bytes<?> bytes = Bytes.from(s);
+            assertEquals(s, JSONStructuralIndex.NOT_FOUND, new JSONStructuralIndex().closeFor(bytes, 0));
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void closingQuote() {
+        assertEquals(11, closingQuote("abcdefghijk\"x"));
+        assertEquals(0, closingQuote("\""));
+        assertEquals(JSONStructuralIndex.NOT_FOUND, closingQuote("abc\\\"defghijk\"x"));
+        assertEquals(JSONStructuralIndex.NOT_FOUND, closingQuote("abcdefghij\u00e9\""));
+        assertEquals(JSONStructuralIndex.NOT_FOUND, closingQuote("abcdefghij"));
+    }
+
+    private static long closingQuote(String s) {
+        Bytes<?> bytes = Bytes.from(s);
+        try {
+            return JSONStructuralIndex.closingQuote(bytes, 0, bytes.readLimit());
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void matches() {
+        // bytes which differ only in the top bit or are next to a match don't match
+        long word = 0x22A2_2123_0022_80FFL;
+        assertEquals(0x8000_0000_0080_0000L, JSONStructuralIndex.matches(word, 0x2222_2222_2222_2222L));
+    }
+
+    @Test
+    public void readsAsWithoutTheIndex() {
+        assertEquals(read(DOC, false), read(DOC, true));
+
+        Outer outer = new Outer();
+        outer.name = "outer \"quoted\"";
+        for (int i = 0; i < 3; i++) {
+            Inner inner = new Inner();
+            inner.text = i == 1 ? "caf\u00e9" : "inner " + i;
+            inner.values = new double[]{i, i + 0.5};
+            outer.inners.add(inner);
+        }
+        JSONWire wire = new JSONWire(Bytes.allocateElasticOnHeap());
+        wire.getValueOut().object(outer);
+        String json = wire.toString();
+        for (boolean useIndex : new boolean[]{false, true}) {
+            wire.bytes().readPosition(0);
+            Outer outer2 = wire.useStructuralIndex(useIndex).getValueIn().object(Outer.class);
+            assertEquals(json, outer, outer2);
+        }
+    }
+
+    private static Object read(String json, boolean useIndex) {
+        JSONWire wire = JSONWire.from(json).useStructuralIndex(useIndex);
+        List<Object> list = new ArrayList<>();
+        do {
+            list.add(wire.getValueIn().object());
+        } while (wire.isNotEmptyAfterPadding());
+        wire.bytes().releaseLast();
+        return list;
+    }
+
+    static class Outer extends SelfDescribingMarshallable {
+        String name;
+        List<Inner> inners = new ArrayList<>();
+    }
+
+    static class Inner extends SelfDescribingMarshallable {
+        String text;
+        double[] values;
+    }
+}
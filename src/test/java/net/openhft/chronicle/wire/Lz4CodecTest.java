@@ -0,0 +1,108 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Lz4CodecTest extends WireTestCommon {
+    @Test
+    public void roundTrip() {
+        Random random = new Random(1);
+        Bytes<?> from = Bytes.allocateElasticDirect();
+        Bytes<?> compressed = Bytes.allocateElasticDirect();
+        Bytes<?> to = Bytes.allocateElasticDirect();
+        for (int length : new int[]{0, 1, 12, 13, 100, 1000, 70000}) {
+            for (int kind = 0; kind < 3; kind++) {
+                from.clear();
+                for (int i = 0; i < length; i++) {
+                    // random, repeating and runs of one byte
+                    int b = kind == 0 ? random.nextInt() : kind == 1 ? "bid=1.2345,ask=1.2346;".charAt(i % 22) : 'a';
+                    from.writeByte((byte) b);
+                }
+                compressed.clear();
+                to.clear();
+                Lz4Codec.INSTANCE.compress(from, compressed);
+                assertEquals(0, from.readRemaining());
+                from.readPosition(0);
+                if (kind > 0 && length >= 1000)
+                    assertTrue(compressed.readRemaining() < length / 4);
+                Lz4Codec.INSTANCE.uncompress(compressed, to);
+                assertEquals(0, compressed.readRemaining());
+                assertEquals(from.toHexString(), to.toHexString());
+            }
+        }
+        from.releaseLast();
+        compressed.releaseLast();
+        to.releaseLast();
+    }
+
+    @Test
+    public void corruptLength() {
+        Bytes<?> from = Bytes.allocateElasticDirect();
+        Bytes<?> to = Bytes.allocateElasticDirect();
+        try {
+            // claims 1 GB from a block of two literal bytes.
+            from.writeStopBit(1L << 30);
+            from.writeUnsignedByte(2 << 4).append("ab");
+            try {
+                Lz4Codec.INSTANCE.uncompress(from, to);
+                fail();
+            } catch (IORuntimeException expected) {
+                assertTrue(to.realCapacity() < 1 << 20);
+            }
+
+            from.clear();
+            from.writeStopBit(-1);
+            from.writeUnsignedByte(0);
+            try {
+                Lz4Codec.INSTANCE.uncompress(from, to);
+                fail();
+            } catch (IORuntimeException expected) {
+                // expected
+            }
+        } finally {
+            from.releaseLast();
+            to.releaseLast();
+        }
+    }
+
+    @Test
+    public void compressedBinary() {
+        Bytes<?> payload = Bytes.allocateElasticDirect();
+        for (int i = 0; i < 50; i++)
+            payload.append("EURUSD bid=1.1234").append(i % 10).append(" ask=1.1235").append(i % 10).append('\n');
+
+        Bytes<?> bytes = Bytes.allocateElasticDirect();
+        BinaryWire wire = ((BinaryWire) WireType.COMPRESSED_BINARY.apply(bytes)).setCompression("lz4");
+        wire.write("data").bytes(payload);
+        assertTrue(bytes.readRemaining() < payload.readRemaining() / 2);
+
+        // any COMPRESSED_BINARY wire can read it as the codec is in the stream.
+        Wire wire2 = WireType.COMPRESSED_BINARY.apply(bytes);
+        Bytes<?> result = Bytes.allocateElasticDirect();
+        wire2.read("data").bytes(result);
+        assertEquals(payload.toString(), result.toString());
+
+        bytes.readPosition(0);
+        BytesStore<?, ?> bytesStore = wire2.read("data").bytesStore();
+        assertEquals(payload.toString(), new String(bytesStore.toByteArray()));
+
+        payload.releaseLast();
+        bytes.releaseLast();
+        result.releaseLast();
+    }
+
+    @Test
+    public void codecByName() {
+        assertSame(Lz4Codec.INSTANCE, CompressionCodecs.codec(Lz4Codec.NAME));
+        assertSame(Lz4Codec.INSTANCE, CompressionCodecs.codec(new StringBuilder("!").append(Lz4Codec.NAME)));
+        assertNull(CompressionCodecs.codec(""));
+        assertNull(CompressionCodecs.codec("!lz"));
+        assertNull(CompressionCodecs.codec("gzip"));
+    }
+}
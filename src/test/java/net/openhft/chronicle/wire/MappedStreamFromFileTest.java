@@ -0,0 +1,108 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.core.time.SystemTimeProvider;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MappedStreamFromFileTest extends WireTestCommon {
+    static final int COUNT = 50_000;
+
+    private static String writeFile(WireType wireType) throws IOException {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        Wire wire = wireType.apply(bytes);
+        for (int i = 0; i < COUNT; i++) {
+            Tick tick = new Tick();
+            tick.id = i;
+            tick.symbol = "S" + (i % 100);
+            wire.getValueOut().object(tick);
+            if (wireType.isText())
+                bytes.append("---\n");
+        }
+        String filename = OS.getTarget() + "/mapped-" + wireType + "-" + SystemTimeProvider.INSTANCE.currentTimeNanos();
+        IOTools.writeFile(filename, bytes.toByteArray());
+        return filename;
+    }
+
+    @Test
+    public void text() throws IOException {
+        doTest(WireType.TEXT);
+    }
+
+    @Test
+    public void yaml() throws IOException {
+        doTest(WireType.YAML);
+    }
+
+    @Test
+    public void binary() throws IOException {
+        doTest(WireType.BINARY);
+    }
+
+    // splits the prefix and the suffix again until they are too small, as a parallel stream does.
+    private static void splitAll(Spliterator<Tick> spliterator, List<Long> ids) {
+        Spliterator<Tick> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            spliterator.forEachRemaining(t -> ids.add(t.id));
+            return;
+        }
+        splitAll(prefix, ids);
+        splitAll(spliterator, ids);
+    }
+
+    private void doTest(WireType wireType) throws IOException {
+        String filename = writeFile(wireType);
+        try {
+            try (Stream<Tick> stream = wireType.streamFromMappedFile(Tick.class, filename)) {
+                assertEquals(LongStream.range(0, COUNT).boxed().collect(Collectors.toList()),
+                        stream.map(t -> t.id).collect(Collectors.toList()));
+            }
+
+            try (Stream<Tick> stream = wireType.streamFromMappedFile(Tick.class, filename)) {
+                Spliterator<Tick> spliterator = stream.spliterator();
+                Spliterator<Tick> prefix = spliterator.trySplit();
+                assertNotNull(prefix);
+                long[] count = {0};
+                prefix.forEachRemaining(t -> count[0]++);
+                spliterator.forEachRemaining(t -> count[0]++);
+                assertEquals(COUNT, count[0]);
+            }
+
+            // every split, including those of the splits, starts on an object boundary.
+            try (Stream<Tick> stream = wireType.streamFromMappedFile(Tick.class, filename)) {
+                List<Long> ids = new ArrayList<>();
+                splitAll(stream.spliterator(), ids);
+                assertEquals(LongStream.range(0, COUNT).boxed().collect(Collectors.toList()), ids);
+            }
+
+            try (Stream<Tick> stream = wireType.streamFromMappedFile(Tick.class, filename)) {
+                assertEquals(COUNT * (COUNT - 1L) / 2,
+                        stream.parallel().mapToLong(t -> t.id).sum());
+            }
+
+            // closing a partly read stream releases the mappings.
+            try (Stream<Tick> stream = wireType.streamFromMappedFile(Tick.class, filename)) {
+                assertEquals(10, stream.parallel().limit(10).count());
+            }
+        } finally {
+            new File(filename).delete();
+        }
+    }
+
+    static class Tick extends SelfDescribingMarshallable {
+        long id;
+        String symbol;
+    }
+}
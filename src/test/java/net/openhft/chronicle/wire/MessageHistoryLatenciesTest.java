@@ -0,0 +1,70 @@
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageHistoryLatenciesTest extends WireTestCommon {
+
+    private static VanillaMessageHistory messageHistory(String cs) {
+        return Marshallable.fromString(VanillaMessageHistory.class, cs);
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertEquals(expected, actual, expected / 10.0);
+    }
+
+    @Test
+    public void record() {
+        MessageHistoryLatencies latencies = new MessageHistoryLatencies(2)
+                .addPathForSourcesEnding(12, 1, 2)
+                .addPathForSourcesEnding(2, 2)
+                .addPathForSourcesEnding(3, 3);
+        VanillaMessageHistory h12 = messageHistory("sources: [ 1, 0, 2, 0 ] timings: [ 10000, 20000, 40000 ]");
+        VanillaMessageHistory h2 = messageHistory("sources: [ 5, 0, 2, 0 ] timings: [ 10000, 30000 ]");
+        VanillaMessageHistory unknown = messageHistory("sources: [ 1, 0, 4, 0 ] timings: [ 10000 ]");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(latencies.record(h12, 80_000));
+            assertTrue(latencies.record(h2, 50_000));
+            assertFalse(latencies.record(unknown, 50_000));
+        }
+        assertEquals(100, latencies.unclassified());
+
+        MessageHistoryLatencies.Snapshot snapshot = latencies.snapshot(true);
+        assertEquals(100, snapshot.unclassified());
+        assertEquals(3, snapshot.paths().size());
+
+        MessageHistoryLatencies.PathLatencies path12 = snapshot.paths().get(0);
+        assertEquals(12, path12.pathId());
+        assertEquals(100, path12.endToEnd().count());
+        assertNear(70_000, path12.endToEnd().p50());
+        assertNear(70_000, path12.endToEnd().max());
+        // only the first two of three hops are recorded
+        assertEquals(2, path12.hops().size());
+        assertNear(10_000, path12.hops().get(0).p99());
+        assertNear(20_000, path12.hops().get(1).p99());
+
+        MessageHistoryLatencies.PathLatencies path2 = snapshot.paths().get(1);
+        assertEquals(2, path2.pathId());
+        assertNear(40_000, path2.endToEnd().p90());
+        assertNear(20_000, path2.hops().get(0).p50());
+        assertNear(20_000, path2.hops().get(1).p50());
+
+        MessageHistoryLatencies.PathLatencies path3 = snapshot.paths().get(2);
+        assertEquals(0, path3.endToEnd().count());
+        assertEquals(0, path3.hops().size());
+
+        assertEquals(snapshot, Marshallable.fromString(snapshot.toString()));
+
+        // reset
+        assertEquals(0, latencies.unclassified());
+        assertEquals(0, latencies.snapshot(false).paths().get(0).endToEnd().count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicatePath() {
+        new MessageHistoryLatencies()
+                .addPathForSourcesEnding(1, 1, 2)
+                .addPathForSourcesEnding(2, 1, 2);
+    }
+}
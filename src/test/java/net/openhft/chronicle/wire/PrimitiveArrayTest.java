@@ -0,0 +1,128 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = Parameterized.class)
+public class PrimitiveArrayTest extends WireTestCommon {
+    private final WireType wireType;
+
+    public PrimitiveArrayTest(WireType wireType) {
+        this.wireType = wireType;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> wireTypes() {
+        return Arrays.asList(
+                new Object[]{WireType.BINARY},
+                new Object[]{WireType.TEXT},
+                new Object[]{WireType.YAML},
+                new Object[]{WireType.JSON}
+        );
+    }
+
+    static void writeArrays(Wire wire) {
+        wire.write("shorts").array(new short[]{1, -2, Short.MAX_VALUE, 0}, 3);
+        wire.write("ints").array(new int[]{1, -2, Integer.MIN_VALUE}, 3);
+        wire.write("longs").array(new long[]{Long.MAX_VALUE, 0, -3}, 3);
+        wire.write("floats").array(new float[]{1.5f, -0.25f}, 2);
+        wire.write("doubles").array(new double[]{0.1, 1e-9, -12345.678, 4}, 4);
+        wire.write("empty").array(new double[0], 0);
+    }
+
+    static Wire createWire(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(64));
+        if (wire instanceof BinaryWire)
+            ((BinaryWire) wire).setUsePackedArrays(true);
+        return wire;
+    }
+
+    @Test
+    public void roundTrip() {
+        Wire wire = createWire(wireType);
+        writeArrays(wire);
+
+        short[] shorts = new short[4];
+        assertEquals(3, wire.read("shorts").array(shorts));
+        assertArrayEquals(new short[]{1, -2, Short.MAX_VALUE, 0}, shorts);
+
+        int[] ints = new int[3];
+        assertEquals(3, wire.read("ints").array(ints));
+        assertArrayEquals(new int[]{1, -2, Integer.MIN_VALUE}, ints);
+
+        long[] longs = new long[3];
+        assertEquals(3, wire.read("longs").array(longs));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 0, -3}, longs);
+
+        float[] floats = new float[2];
+        assertEquals(2, wire.read("floats").array(floats));
+        assertArrayEquals(new float[]{1.5f, -0.25f}, floats, 0.0f);
+
+        // only as many as fit are read, the rest are skipped.
+        double[] doubles = new double[3];
+        assertEquals(3, wire.read("doubles").array(doubles));
+        assertArrayEquals(new double[]{0.1, 1e-9, -12345.678}, doubles, 0.0);
+
+        assertEquals(0, wire.read("empty").array(new double[2]));
+        assertFalse(wire.hasMore());
+    }
+
+    @Test
+    public void binaryAsText() {
+        if (wireType == WireType.BINARY)
+            return;
+        Wire binary = createWire(WireType.BINARY);
+        writeArrays(binary);
+        Wire fromBinary = wireType.apply(Bytes.allocateElasticOnHeap(64));
+        binary.copyTo(fromBinary);
+
+        // the packed arrays appear as normal sequences
+        Wire direct = wireType.apply(Bytes.allocateElasticOnHeap(64));
+        writeArrays(direct);
+        assertEquals(direct.toString(), fromBinary.toString());
+    }
+
+    @Test
+    public void packedIsSmaller() {
+        if (wireType != WireType.BINARY)
+            return;
+        double[] doubles = new double[100];
+        for (int i = 0; i < doubles.length; i++)
+            doubles[i] = i * Math.PI;
+        Wire packed = createWire(wireType);
+        packed.getValueOut().array(doubles, doubles.length);
+        assertEquals(1 + 1 + 100 * 8, packed.bytes().readRemaining());
+
+        Object o = packed.getValueIn().object();
+        assertArrayEquals(doubles, (double[]) o, 0.0);
+    }
+
+    @Test
+    public void sequenceByDefault() {
+        if (wireType != WireType.BINARY)
+            return;
+        // packed arrays can't be read by older versions so are only written when enabled.
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(64));
+        writeArrays(wire);
+        StringBuilder name = new StringBuilder();
+        while (wire.bytes().readRemaining() > 0) {
+            wire.read(name);
+            int code = wire.bytes().peekUnsignedByte();
+            assertFalse(name.toString(), code == BinaryWireCode.I16_ARRAY || code == BinaryWireCode.I32_ARRAY
+                    || code == BinaryWireCode.I64_PACKED_ARRAY || code == BinaryWireCode.F32_ARRAY
+                    || code == BinaryWireCode.F64_ARRAY);
+            wire.getValueIn().skipValue();
+        }
+
+        Wire packed = createWire(wireType);
+        writeArrays(packed);
+        assertTrue(packed.bytes().readRemaining() < wire.bytes().readRemaining());
+    }
+}
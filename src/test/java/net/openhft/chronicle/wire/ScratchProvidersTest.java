@@ -0,0 +1,93 @@
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ScratchProvidersTest extends WireTestCommon {
+
+    @Test
+    public void threadLocal() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        Scratch<int[]> scratch = ScratchProviders.threadLocal().scratch(() -> new int[created.incrementAndGet()]);
+        int[] a = scratch.acquire();
+        assertSame(a, scratch.acquire());
+        scratch.release(a);
+        assertSame(a, scratch.acquire());
+
+        ExecutorService es = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(a, es.submit(scratch::acquire).get());
+        } finally {
+            es.shutdown();
+        }
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void pooled() {
+        AtomicInteger created = new AtomicInteger();
+        Scratch<int[]> scratch = ScratchProviders.pooled(2).scratch(() -> new int[created.incrementAndGet()]);
+        int[] a = scratch.acquire();
+        int[] b = scratch.acquire();
+        assertNotSame(a, b);
+        scratch.release(a);
+        assertSame(a, scratch.acquire());
+
+        int[] c = scratch.acquire();
+        scratch.release(a);
+        scratch.release(b);
+        // the pool is full
+        scratch.release(c);
+        assertEquals(3, created.get());
+        int[] d = scratch.acquire();
+        int[] e = scratch.acquire();
+        assertTrue((d == a && e == b) || (d == b && e == a));
+        assertEquals(4, scratch.acquire().length);
+    }
+
+    @Test
+    public void pooledSharedBetweenThreads() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        Scratch<StringBuilder> scratch = ScratchProviders.pooled(4).scratch(() -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        });
+        int threads = 64;
+        ExecutorService es = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < threads; t++) {
+                es.submit(() -> {
+                    StringBuilder sb = scratch.acquire();
+                    sb.setLength(0);
+                    sb.append(Thread.currentThread().getName());
+                    scratch.release(sb);
+                }).get();
+            }
+        } finally {
+            es.shutdown();
+        }
+        // one at a time, so each task reuses the same object
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void providerFor() {
+        assertNotNull(ScratchProviders.providerFor("threadLocal"));
+        Scratch<Object> pooled = ScratchProviders.providerFor("pooled:1").scratch(Object::new);
+        Object o = pooled.acquire();
+        pooled.release(o);
+        assertSame(o, pooled.acquire());
+    }
+
+    @Test
+    public void deepCopyReleasesItsWire() {
+        MyTypes mt = new MyTypes().i(123).text("hello");
+        for (int i = 0; i < 3; i++)
+            assertEquals(mt, Wires.deepCopy(mt));
+        assertEquals(mt, WireType.TEXT.fromString(WireType.TEXT.asString(mt)));
+    }
+}
@@ -183,13 +183,14 @@ public class TextWireTest extends WireTestCommon {
         assertTrue(WireType.TEXT.isAvailable());
 
         try {
-            expectException("A Chronicle-Wire-Enterprise licence is required to run this code because you are using DELTA_BINARY which is a licence product");
-            WireType.DELTA_BINARY.licenceCheck();
+            expectException("A Chronicle Wire Enterprise licence is required to run this code because you are using DEFAULT_ZERO_BINARY which is a licence product");
+            WireType.DEFAULT_ZERO_BINARY.licenceCheck();
             fail();
         } catch (IllegalStateException expected) {
             // expected
         }
-        assertFalse(WireType.DELTA_BINARY.isAvailable());
+        assertFalse(WireType.DEFAULT_ZERO_BINARY.isAvailable());
+        assertTrue(WireType.DELTA_BINARY.isAvailable());
     }
 
     @Test
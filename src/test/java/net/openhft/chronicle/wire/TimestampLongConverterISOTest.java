@@ -0,0 +1,107 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimestampLongConverterISOTest extends WireTestCommon {
+    static final String[] ZONES = {"UTC", "America/New_York", "Europe/London", "Asia/Kolkata", "Australia/Lord_Howe", "+05:45"};
+    static final DateTimeFormatter FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalStart().appendOffsetId().optionalEnd()
+            .toFormatter();
+
+    private static String expected(ZoneId zoneId, long nanos) {
+        LocalDateTime ldt = LocalDateTime.ofEpochSecond(nanos / 1_000_000_000L, (int) (nanos % 1_000_000_000L), ZoneOffset.UTC);
+        return zoneId.equals(AbstractTimestampLongConverter.UTC)
+                ? FORMATTER.format(ldt)
+                : FORMATTER.format(ZonedDateTime.of(ldt, AbstractTimestampLongConverter.UTC).withZoneSameInstant(zoneId));
+    }
+
+    @Test
+    public void formatAndParseMatchJavaTime() {
+        Random random = new Random(1);
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        StringBuilder sb = new StringBuilder();
+        for (String zone : ZONES) {
+            ZoneId zoneId = ZoneId.of(zone);
+            NanoTimestampLongConverter converter = new NanoTimestampLongConverter(zone);
+            for (int i = 0; i < 10_000; i++) {
+                long nanos = random.nextLong() & Long.MAX_VALUE;
+                // whole seconds and millis as well
+                if (i % 3 == 1)
+                    nanos -= nanos % 1_000_000_000L;
+                else if (i % 3 == 2)
+                    nanos -= nanos % 1_000_000L;
+                String expected = expected(zoneId, nanos);
+                sb.setLength(0);
+                converter.append(sb, nanos);
+                assertEquals(expected, sb.toString());
+                bytes.clear();
+                converter.append(bytes, nanos);
+                assertEquals(expected, bytes.toString());
+                assertEquals(expected, nanos, converter.parse(sb));
+                assertEquals(expected, nanos, converter.parse(bytes));
+            }
+        }
+    }
+
+    @Test
+    public void localTimesAroundTransitions() {
+        ZoneId zoneId = ZoneId.of("America/New_York");
+        MilliTimestampLongConverter converter = new MilliTimestampLongConverter(zoneId.getId());
+        // the gap and overlap of 2020, and the days around them.
+        LocalDateTime[] starts = {LocalDateTime.of(2020, 3, 7, 0, 0), LocalDateTime.of(2020, 10, 31, 0, 0)};
+        for (LocalDateTime start : starts) {
+            for (int minutes = 0; minutes < 3 * 24 * 60; minutes += 15) {
+                LocalDateTime ldt = start.plusMinutes(minutes).plusNanos(123_000_000);
+                long expected = ldt.atZone(zoneId).toInstant().toEpochMilli();
+                assertEquals(ldt.toString(), expected, converter.parse(ldt.toString()));
+            }
+        }
+    }
+
+    @Test
+    public void offsetsAndSeparators() {
+        MilliTimestampLongConverter converter = MilliTimestampLongConverter.INSTANCE;
+        long expected = converter.parse("2020-09-18T01:02:03.456Z");
+        assertEquals(expected, converter.parse("2020/09/18T01:02:03.456"));
+        assertEquals(expected, converter.parse("2020-09-18T03:02:03.456+02:00"));
+        assertEquals(expected, converter.parse("2020-09-17T20:02:03.456-05:00"));
+        assertEquals(expected - 456, converter.parse("2020-09-18T01:02:03"));
+        assertEquals(expected - 6, converter.parse("2020-09-18T01:02:03.45"));
+        assertEquals(1600390923456L, expected);
+        assertEquals("2020-09-18T01:02:03.45", converter.asString(expected - 6));
+        assertEquals("2020-09-18T01:02:03", converter.asString(expected - 456));
+    }
+
+    @Test
+    public void overriddenHooksAreUsed() {
+        // always three digits of millis, and a day later when parsed.
+        MilliTimestampLongConverter converter = new MilliTimestampLongConverter() {
+            @Override
+            protected void appendFraction(DateTimeFormatterBuilder builder) {
+                builder.appendFraction(ChronoField.MILLI_OF_SECOND, 3, 3, true);
+            }
+
+            @Override
+            protected long parseFormattedDate(ZonedDateTime value) {
+                return super.parseFormattedDate(value) + 86_400_000L;
+            }
+        };
+        assertEquals("2020-09-18T01:02:03.000", converter.asString(1600390923000L));
+        assertEquals("2020-09-18T01:02:03.450", converter.asString(1600390923450L));
+        assertEquals(1600390923450L + 86_400_000L, converter.parse("2020-09-18T01:02:03.450"));
+    }
+}
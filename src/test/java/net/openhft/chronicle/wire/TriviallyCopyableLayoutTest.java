@@ -0,0 +1,149 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesUtil;
+import net.openhft.chronicle.bytes.internal.BytesFieldInfo;
+import net.openhft.chronicle.core.Jvm;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class TriviallyCopyableLayoutTest extends WireTestCommon {
+    @Before
+    public void checkArch() {
+        assumeFalse(Jvm.isArm());
+    }
+
+    @Test
+    public void derived() {
+        TriviallyCopyableLayout layout = TriviallyCopyableLayout.LAYOUTS.get(Flat.class);
+        assertTrue(layout.contiguous);
+        assertEquals(BytesFieldInfo.lookup(Flat.class).description(), layout.description);
+        int[] range = BytesUtil.triviallyCopyableRange(Flat.class);
+        assertEquals(range[0], layout.start);
+        assertEquals(range[1] - range[0], layout.length);
+
+        Flat flat = new Flat();
+        flat.l0 = 1;
+        flat.l1 = 2;
+        flat.i0 = 3;
+        flat.i1 = 4;
+        flat.s = 5;
+        flat.flag = true;
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        flat.writeMarshallable(bytes);
+        assertEquals(4 + layout.length, bytes.readRemaining());
+        Flat flat2 = new Flat();
+        flat2.readMarshallable(bytes);
+        assertEquals(flat, flat2);
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void notContiguous() {
+        expectException("not contiguous");
+        TriviallyCopyableLayout layout = TriviallyCopyableLayout.LAYOUTS.get(Sub.class);
+        assertFalse(layout.contiguous);
+
+        Sub sub = new Sub();
+        sub.l0 = 1;
+        sub.l1 = 2;
+        sub.i0 = 3;
+        sub.i1 = 4;
+        sub.s = 5;
+        sub.flag = true;
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        sub.writeMarshallable(bytes);
+        Sub sub2 = new Sub();
+        sub2.readMarshallable(bytes);
+        assertEquals(sub, sub2);
+
+        // the same fields in a different layout are read by position within each size.
+        bytes.readPosition(0);
+        Flat flat = new Flat();
+        flat.readMarshallable(bytes);
+        assertEquals("" +
+                "!net.openhft.chronicle.wire.TriviallyCopyableLayoutTest$Flat {\n" +
+                "  l0: 1,\n" +
+                "  l1: 2,\n" +
+                "  i0: 3,\n" +
+                "  i1: 4,\n" +
+                "  s: 5,\n" +
+                "  flag: true\n" +
+                "}\n", flat.toString());
+
+        // and back again
+        bytes.clear();
+        flat.writeMarshallable(bytes);
+        Sub sub3 = new Sub();
+        sub3.readMarshallable(bytes);
+        assertEquals(sub, sub3);
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void overriddenIsUsedAsIs() {
+        TriviallyCopyableLayout layout = TriviallyCopyableLayout.LAYOUTS.get(LongsOnly.class);
+        assertTrue(layout.overridden);
+
+        LongsOnly lo = new LongsOnly();
+        lo.l0 = 1;
+        lo.l1 = 2;
+        lo.i0 = 3;
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        lo.writeMarshallable(bytes);
+        // the description and the two longs it describes
+        assertEquals(4 + 16, bytes.readRemaining());
+        assertEquals(lo.$description(), bytes.readInt(0));
+        LongsOnly lo2 = new LongsOnly();
+        lo2.readMarshallable(bytes);
+        assertEquals(1, lo2.l0);
+        assertEquals(2, lo2.l1);
+        assertEquals(0, lo2.i0);
+        bytes.releaseLast();
+    }
+
+    static class Flat extends SelfDescribingTriviallyCopyable {
+        long l0, l1;
+        int i0, i1;
+        short s;
+        boolean flag;
+    }
+
+    static class Base extends SelfDescribingTriviallyCopyable {
+        long l0;
+        int i0;
+    }
+
+    // the fields of the subclass follow those of the base class, so the longs aren't together
+    static class Sub extends Base {
+        long l1;
+        int i1;
+        short s;
+        boolean flag;
+    }
+
+    // describes only its longs
+    static class LongsOnly extends SelfDescribingTriviallyCopyable {
+        static final int START = BytesUtil.triviallyCopyableRange(LongsOnly.class)[0];
+        long l0, l1;
+        int i0;
+
+        @Override
+        protected int $description() {
+            return 2 << 24;
+        }
+
+        @Override
+        protected int $start() {
+            return START;
+        }
+
+        @Override
+        protected int $length() {
+            return 16;
+        }
+    }
+}
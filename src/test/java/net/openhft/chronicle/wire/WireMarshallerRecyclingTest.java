@@ -0,0 +1,184 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class WireMarshallerRecyclingTest extends WireTestCommon {
+    @Test
+    public void binary() {
+        doTest(WireType.BINARY);
+    }
+
+    @Test
+    public void text() {
+        doTest(WireType.TEXT);
+    }
+
+    private void doTest(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Book book = new Book();
+        book.levels.add(new Level(1.0, 10));
+        book.levels.add(new Level(2.0, 20));
+        book.byName.put("a", new Level(3.0, 30));
+        book.byName.put("b", new Level(4.0, 40));
+
+        Book read = new Book();
+        wire.getValueOut().object(book);
+        wire.getValueIn().object(read, Book.class);
+        assertEquals(book, read);
+
+        Level level0 = read.levels.get(0);
+        Level level1 = read.levels.get(1);
+        Level levelA = read.byName.get("a");
+        Level levelB = read.byName.get("b");
+
+        // same shape, all elements are reused
+        book.levels.get(0).qty = 11;
+        book.byName.get("b").qty = 41;
+        wire.clear();
+        wire.getValueOut().object(book);
+        wire.getValueIn().object(read, Book.class);
+        assertEquals(book, read);
+        assertSame(level0, read.levels.get(0));
+        assertSame(level1, read.levels.get(1));
+        assertSame(levelA, read.byName.get("a"));
+        assertSame(levelB, read.byName.get("b"));
+
+        // grow
+        book.levels.add(new Level(5.0, 50));
+        book.byName.put("c", new Level(6.0, 60));
+        wire.clear();
+        wire.getValueOut().object(book);
+        wire.getValueIn().object(read, Book.class);
+        assertEquals(book, read);
+        assertSame(level1, read.levels.get(1));
+        assertSame(levelB, read.byName.get("b"));
+
+        // shrink and reorder
+        book.levels.remove(2);
+        book.levels.remove(1);
+        book.byName.remove("a");
+        book.byName.put("b", book.byName.remove("b"));
+        wire.clear();
+        wire.getValueOut().object(book);
+        wire.getValueIn().object(read, Book.class);
+        assertEquals(book, read);
+        assertEquals(1, read.levels.size());
+        assertSame(level0, read.levels.get(0));
+        assertEquals("[c, b]", read.byName.keySet().toString());
+        assertSame(levelB, read.byName.get("b"));
+
+        // empty
+        book.levels.clear();
+        book.byName.clear();
+        wire.clear();
+        wire.getValueOut().object(book);
+        wire.getValueIn().object(read, Book.class);
+        assertEquals(book, read);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void recursiveMapBinary() {
+        doTestRecursiveMap(WireType.BINARY);
+    }
+
+    @Test
+    public void recursiveMapText() {
+        doTestRecursiveMap(WireType.TEXT);
+    }
+
+    private void doTestRecursiveMap(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Node root = new Node(0);
+        Node a = new Node(1);
+        a.children.put("aa", new Node(11));
+        a.children.put("ab", new Node(12));
+        root.children.put("a", a);
+        root.children.put("b", new Node(2));
+
+        Node read = new Node(0);
+        wire.getValueOut().object(root);
+        wire.getValueIn().object(read, Node.class);
+        assertEquals(root, read);
+        Node readA = read.children.get("a");
+        Node readAA = readA.children.get("aa");
+
+        // the same field is read again while the outer map is being read
+        root.value = 100;
+        a.children.get("aa").value = 111;
+        root.children.get("b").value = 102;
+        wire.clear();
+        wire.getValueOut().object(root);
+        wire.getValueIn().object(read, Node.class);
+        assertEquals(root, read);
+        assertSame(readA, read.children.get("a"));
+        assertSame(readAA, readA.children.get("aa"));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void defaultsAreNotReadInPlaceBinary() {
+        doTestDefaultsAreNotReadInPlace(WireType.BINARY);
+    }
+
+    @Test
+    public void defaultsAreNotReadInPlaceText() {
+        doTestDefaultsAreNotReadInPlace(WireType.TEXT);
+    }
+
+    private void doTestDefaultsAreNotReadInPlace(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap(256));
+        Preset read = new Preset();
+        // copies the elements of the defaults
+        read.reset();
+
+        Preset changed = new Preset();
+        changed.levels.get(0).qty = 99;
+        changed.byName.get("a").qty = 98;
+        wire.getValueOut().object(changed);
+        wire.getValueIn().object(read, Preset.class);
+        assertEquals(changed, read);
+
+        // the defaults are as they were
+        Preset read2 = new Preset();
+        read2.levels.clear();
+        read2.byName.clear();
+        read2.reset();
+        assertEquals(new Preset(), read2);
+        wire.bytes().releaseLast();
+    }
+
+    static class Node extends SelfDescribingMarshallable {
+        long value;
+        Map<String, Node> children = new LinkedHashMap<>();
+
+        Node(long value) {
+            this.value = value;
+        }
+    }
+
+    static class Preset extends SelfDescribingMarshallable {
+        List<Level> levels = new ArrayList<>(Collections.singletonList(new Level(1.0, 10)));
+        Map<String, Level> byName = new LinkedHashMap<>(Collections.singletonMap("a", new Level(2.0, 20)));
+    }
+
+    static class Book extends SelfDescribingMarshallable {
+        List<Level> levels = new ArrayList<>();
+        Map<String, Level> byName = new LinkedHashMap<>();
+    }
+
+    static class Level extends SelfDescribingMarshallable {
+        double price;
+        long qty;
+
+        Level(double price, long qty) {
+            this.price = price;
+            this.qty = qty;
+        }
+    }
+}
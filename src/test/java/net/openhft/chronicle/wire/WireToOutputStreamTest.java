@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -101,6 +103,43 @@ public class WireToOutputStreamTest extends WireTestCommon {
         }
     }
 
+    @Test
+    public void testViaChannel() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SinkChannel sink = pipe.sink();
+             Pipe.SourceChannel source = pipe.source()) {
+            // a small threshold so the messages are written in several batches.
+            WireToChannel wtc = new WireToChannel(currentWireType, sink, 100);
+            ChannelToWire ctw = new ChannelToWire(currentWireType, source);
+            AnObject ao = null;
+            for (int i = 0; i < 10; i++) {
+                ao = writeAnObject(wtc.startMessage());
+                wtc.endMessage();
+            }
+            wtc.flush();
+            for (int i = 0; i < 10; i++) {
+                Object ao2 = readAnObject(ctw.readOne());
+                assertEquals(ao.toString(), ao2.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testChannelToStream() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SinkChannel sink = pipe.sink();
+             Pipe.SourceChannel source = pipe.source()) {
+            WireToChannel wtc = new WireToChannel(currentWireType, sink);
+            AnObject ao = writeAnObject(wtc.startMessage());
+            wtc.endMessage();
+            wtc.flush();
+
+            InputStreamToWire istw = new InputStreamToWire(currentWireType, Channels.newInputStream(source));
+            Object ao2 = readAnObject(istw.readOne());
+            assertEquals(ao.toString(), ao2.toString());
+        }
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     @NotNull
     public Object readAnObject(Wire wire2) {
@@ -0,0 +1,169 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class WireTranscoderTest extends WireTestCommon {
+
+    static Bytes<?> binaryDocuments(int count, boolean metaData) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        Wire wire = WireType.BINARY.apply(bytes);
+        for (int i = 0; i < count; i++) {
+            int id = i;
+            try (DocumentContext dc = wire.writingDocument(metaData && i % 10 == 0)) {
+                dc.wire().write("order").marshallable(m -> m.write("id").int64(1_000_000L + id)
+                        .write("symbol").text(id % 2 == 0 ? "EURUSD" : "x, \"y\" £")
+                        .write("price").float64(1.1234 + id / 1e4)
+                        .write("active").bool(id % 5 != 0)
+                        .write("note").text(id % 3 == 0 ? null : "ok")
+                        .write("legs").sequence(v -> {
+                            v.int32(id % 7);
+                            v.marshallable(w -> w.write("qty").int32(-id));
+                        }));
+                dc.wire().write("count").int32(id);
+            }
+        }
+        return bytes;
+    }
+
+    static String events(Bytes<?> bytes) {
+        StringBuilder sb = new StringBuilder();
+        Wire wire = WireType.BINARY.apply(bytes);
+        WireWalker walker = new WireWalker();
+        while (true) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                WireWalkerTest.Recorder recorder = new WireWalkerTest.Recorder();
+                walker.walk(wire, recorder);
+                sb.append(dc.isMetaData() ? "meta " : "data ").append(recorder.sb).append('\n');
+            }
+        }
+        bytes.readPosition(0);
+        return sb.toString();
+    }
+
+    @Test
+    public void roundTrip() {
+        for (WireType wireType : new WireType[]{WireType.TEXT, WireType.YAML, WireType.JSON}) {
+            // JSON drops comments, and so the meta-data flag
+            Bytes<?> in = binaryDocuments(200, wireType != WireType.JSON);
+            Bytes<?> text = Bytes.allocateElasticOnHeap();
+            Bytes<?> back = Bytes.allocateElasticOnHeap();
+            try {
+                String expected = events(in);
+                try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, wireType)) {
+                    assertEquals(text.writePosition(), transcoder.transcode(in, text));
+                }
+                assertEquals(0, in.readRemaining());
+                try (WireTranscoder transcoder = new WireTranscoder(wireType, WireType.BINARY)) {
+                    transcoder.transcode(text, back);
+                }
+                assertEquals(wireType.toString(), expected, events(back));
+            } finally {
+                in.releaseLast();
+                text.releaseLast();
+                back.releaseLast();
+            }
+        }
+    }
+
+    @Test
+    public void parallelMatchesSerial() throws IOException {
+        Bytes<?> in = binaryDocuments(500, true);
+        Bytes<?> serial = Bytes.allocateElasticOnHeap();
+        try {
+            try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, WireType.YAML)) {
+                transcoder.transcode(in, serial);
+            }
+            for (int threads : new int[]{2, 3}) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                in.readPosition(0);
+                // small chunks so there are many in flight.
+                try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, WireType.YAML, threads, 300)) {
+                    assertEquals(serial.readRemaining(), transcoder.transcode(in, Channels.newChannel(baos)));
+                    in.readPosition(0);
+                    baos.reset();
+                    transcoder.transcode(in, Channels.newChannel(baos));
+                }
+                assertEquals(serial.toString(), baos.toString("UTF-8"));
+            }
+        } finally {
+            in.releaseLast();
+            serial.releaseLast();
+        }
+    }
+
+    @Test
+    public void stopsAtAnIncompleteDocument() {
+        Bytes<?> in = binaryDocuments(3, false);
+        Bytes<?> out = Bytes.allocateElasticOnHeap();
+        try {
+            long end = in.writePosition();
+            in.writeInt(Wires.NOT_COMPLETE | 16);
+            in.writeSkip(16);
+            try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, WireType.TEXT)) {
+                transcoder.transcode(in, out);
+            }
+            assertEquals(end, in.readPosition());
+            assertEquals(3, out.toString().split("\\.\\.\\.\n").length);
+        } finally {
+            in.releaseLast();
+            out.releaseLast();
+        }
+    }
+
+    @Test
+    public void reusableAfterBadInput() {
+        Bytes<?> bad = Bytes.allocateElasticOnHeap();
+        Bytes<?> in = binaryDocuments(3, false);
+        Bytes<?> out = Bytes.allocateElasticOnHeap();
+        try (WireTranscoder transcoder = new WireTranscoder(WireType.BINARY, WireType.TEXT)) {
+            // a document of an ANCHOR, which can't be walked
+            bad.writeInt(1);
+            bad.writeUnsignedByte(BinaryWireCode.ANCHOR);
+            try {
+                transcoder.transcode(bad, out);
+                fail();
+            } catch (UnsupportedOperationException expected) {
+                // expected
+            }
+
+            out.clear();
+            transcoder.transcode(in, out);
+            assertEquals(in.readLimit(), in.readPosition());
+            assertEquals(3, out.toString().split("\\.\\.\\.\n").length);
+        } finally {
+            bad.releaseLast();
+            in.releaseLast();
+            out.releaseLast();
+        }
+    }
+
+    @Test
+    public void uuid() {
+        UUID uuid = new UUID(0x0123456789abcdefL, 0xfedcba9876543210L);
+        Bytes<?> in = Bytes.allocateElasticOnHeap();
+        Bytes<?> text = Bytes.allocateElasticOnHeap();
+        try (WireTranscoder toText = new WireTranscoder(WireType.BINARY, WireType.TEXT)) {
+            WireType.BINARY.apply(in).writeDocument(false, w -> w.write("id").uuid(uuid));
+            toText.transcode(in, text);
+            assertTrue(text.toString(), text.toString().contains("id: " + uuid + "\n"));
+        } finally {
+            in.releaseLast();
+            text.releaseLast();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void textToText() {
+        new WireTranscoder(WireType.TEXT, WireType.JSON).close();
+    }
+}
@@ -0,0 +1,145 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesIn;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WireWalkerTest extends WireTestCommon {
+
+    static String walk(WireType wireType, WriteMarshallable writer) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        try {
+            Wire wire = wireType.apply(bytes);
+            writer.writeMarshallable(wire);
+            Recorder recorder = new Recorder();
+            new WireWalker().walk(wire, recorder);
+            assertEquals(0, bytes.readRemaining());
+            return recorder.sb.toString().trim();
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void sameEventsForEachWireType() {
+        WriteMarshallable writer = w -> w.write("a").int32(1)
+                .write("b").text("hi")
+                .write("c").marshallable(m -> m.write("x").float64(1.5).write("y").bool(true))
+                .write("d").sequence(v -> {
+                    v.int32(1);
+                    v.int32(-2);
+                })
+                .write("e").text((String) null)
+                .write("f").text("x, \"y\" £")
+                .write("g").int64(1_600_000_000_123_456_789L);
+        String expected = "{ a: 1 b: 'hi' c: { x: 1.5 y: true } d: [ 1 -2 ] e: null f: 'x, \"y\" £' g: 1600000000123456789 }";
+        for (WireType wireType : new WireType[]{WireType.BINARY, WireType.TEXT, WireType.YAML, WireType.JSON})
+            assertEquals(wireType.toString(), expected, walk(wireType, writer));
+    }
+
+    @Test
+    public void typesAndBytes() {
+        WriteMarshallable writer = w -> w.write("t").typePrefix("Type").marshallable(m -> m.write("z").int32(3))
+                .write("b").bytes(new byte[]{1, 2, 3, 4});
+        String expected = "{ t: !Type { z: 3 } b: bytes[1, 2, 3, 4] }";
+        for (WireType wireType : new WireType[]{WireType.BINARY, WireType.TEXT, WireType.YAML})
+            assertEquals(wireType.toString(), expected, walk(wireType, writer));
+    }
+
+    @Test
+    public void nonAsciiFieldNames() {
+        String longName = "prix_de_clôture_ajusté_pour_les_dividendes";
+        WriteMarshallable writer = w -> w.write("clé").int32(1)
+                .write(longName).int32(2);
+        String expected = "{ clé: 1 " + longName + ": 2 }";
+        for (WireType wireType : new WireType[]{WireType.BINARY, WireType.TEXT, WireType.YAML})
+            assertEquals(wireType.toString(), expected, walk(wireType, writer));
+    }
+
+    @Test
+    public void rawIsBytes() {
+        assertEquals("bytes[1, 0, 0, 0]", walk(WireType.RAW, w -> w.getValueOut().int32(1)));
+    }
+
+    @Test
+    public void plainScalars() {
+        Bytes<?> bytes = Bytes.from("[ 12, -1.25e3, 1e400, 0x10, 2020-01-01, ~, false, '', \"a\\tb\", 'it''s' ]");
+        try {
+            Recorder recorder = new Recorder();
+            new WireWalker().walk(new YamlWire(bytes), recorder);
+            assertEquals("[ 12 -1250.0 Infinity '0x10' '2020-01-01' null false '' 'a\tb' 'it's' ]", recorder.sb.toString().trim());
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    static class Recorder implements WireVisitor {
+        final StringBuilder sb = new StringBuilder();
+
+        @Override
+        public void startMap() {
+            sb.append("{ ");
+        }
+
+        @Override
+        public void endMap() {
+            sb.append("} ");
+        }
+
+        @Override
+        public void startSequence() {
+            sb.append("[ ");
+        }
+
+        @Override
+        public void endSequence() {
+            sb.append("] ");
+        }
+
+        @Override
+        public void field(@NotNull CharSequence name) {
+            sb.append(name).append(": ");
+        }
+
+        @Override
+        public void typePrefix(@NotNull CharSequence typeName) {
+            sb.append('!').append(typeName).append(' ');
+        }
+
+        @Override
+        public void nullValue() {
+            sb.append("null ");
+        }
+
+        @Override
+        public void bool(boolean flag) {
+            sb.append(flag).append(' ');
+        }
+
+        @Override
+        public void int64(long value) {
+            sb.append(value).append(' ');
+        }
+
+        @Override
+        public void float64(double value) {
+            sb.append(value).append(' ');
+        }
+
+        @Override
+        public void text(@NotNull CharSequence text) {
+            sb.append('\'').append(text).append("' ");
+        }
+
+        @Override
+        public void bytes(@NotNull BytesIn<?> bytes) {
+            sb.append("bytes[");
+            for (long i = bytes.readPosition(); i < bytes.readLimit(); i++)
+                sb.append(i == bytes.readPosition() ? "" : ", ").append(bytes.peekUnsignedByte(i));
+            sb.append("] ");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.OS;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(value = Parameterized.class)
+public class YamlTokeniserResumableTest extends WireTestCommon {
+    final byte[] yaml;
+    final String expected;
+
+    public YamlTokeniserResumableTest(String name, byte[] yaml) {
+        this.yaml = yaml;
+        this.expected = tokens(yaml, yaml.length, 0, false);
+    }
+
+    @NotNull
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> combinations() throws IOException {
+        List<Object[]> list = new ArrayList<>();
+        File dir = OS.findFile("OpenHFT", "Chronicle-Wire", "src/test/resources/yaml");
+        List<File> files = new ArrayList<>();
+        files.add(new File(dir, "sample1.yaml"));
+        files.add(new File(dir, "sample2.yaml"));
+        for (File file : new File(dir, "spec").listFiles())
+            if (file.getName().endsWith(".yaml"))
+                files.add(file);
+        for (File file : files)
+            list.add(new Object[]{file.getName(), Files.readAllBytes(file.toPath())});
+        list.sort((a, b) -> ((String) a[0]).compareTo((String) b[0]));
+        return list;
+    }
+
+    /**
+     * @param available the bytes available at the start
+     * @param chunk     the bytes appended each time the tokeniser needs more
+     * @param compact   whether to compact the input before appending to it
+     * @return each token and its text
+     */
+    static String tokens(byte[] yaml, int available, int chunk, boolean compact) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(64);
+        try {
+            int written = Math.min(available, yaml.length);
+            bytes.write(yaml, 0, written);
+            YamlTokeniser yt = new YamlTokeniser(bytes).endOfInput(written == yaml.length);
+            StringBuilder sb = new StringBuilder();
+            YamlToken token;
+            while ((token = yt.next(Integer.MIN_VALUE)) != YamlToken.STREAM_END) {
+                if (token != YamlToken.NEED_MORE) {
+                    sb.append(yt).append('\n');
+                    continue;
+                }
+                if (compact)
+                    yt.compact();
+                int length = Math.min(chunk, yaml.length - written);
+                bytes.write(yaml, written, length);
+                written += length;
+                yt.endOfInput(written == yaml.length);
+            }
+            return sb.toString();
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void splitAtEveryOffset() {
+        for (int i = 0; i < yaml.length; i++)
+            assertEquals("split at " + i, expected, tokens(yaml, i, yaml.length, false));
+    }
+
+    @Test
+    public void byteAtATime() {
+        assertEquals(expected, tokens(yaml, 0, 1, false));
+    }
+
+    @Test
+    public void byteAtATimeCompacted() {
+        assertEquals(expected, tokens(yaml, 0, 1, true));
+    }
+}